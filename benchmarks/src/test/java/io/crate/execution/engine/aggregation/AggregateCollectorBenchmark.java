@@ -29,7 +29,10 @@ import io.crate.data.Row1;
 import io.crate.execution.engine.aggregation.impl.SumAggregation;
 import io.crate.execution.engine.collect.InputCollectExpression;
 import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
 import io.crate.memory.OnHeapMemoryManager;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.DataTypes;
@@ -60,6 +63,7 @@ public class AggregateCollectorBenchmark {
     private final List<Row> rows = IntStream.range(0, 10_000).mapToObj(Row1::new).collect(Collectors.toList());
 
     private AggregateCollector collector;
+    private VectorizedAggregateCollector vectorizedCollector;
 
     @Setup
     public void setup() {
@@ -85,6 +89,16 @@ public class AggregateCollectorBenchmark {
             new Input[][] { {inExpr0 } },
             new Input[] { Literal.BOOLEAN_TRUE }
         );
+        vectorizedCollector = VectorizedAggregateCollector.tryCreate(
+            AggregateMode.ITER_FINAL,
+            List.of(new Aggregation(
+                sumAggregation.signature(),
+                DataTypes.LONG,
+                List.<Symbol>of(new InputColumn(0, DataTypes.INTEGER))
+            )),
+            new AggregationFunction[] { sumAggregation },
+            RamAccounting.NO_ACCOUNTING
+        );
     }
 
     @Benchmark
@@ -97,4 +111,15 @@ public class AggregateCollectorBenchmark {
         }
         return finisher.apply(state);
     }
+
+    @Benchmark
+    public Iterable<Row> measureVectorizedAggregateCollector() {
+        VectorizedAggregateCollector.State state = vectorizedCollector.supplier().get();
+        BiConsumer<VectorizedAggregateCollector.State, Row> accumulator = vectorizedCollector.accumulator();
+        Function<VectorizedAggregateCollector.State, Iterable<Row>> finisher = vectorizedCollector.finisher();
+        for (int i = 0; i < rows.size(); i++) {
+            accumulator.accept(state, rows.get(i));
+        }
+        return finisher.apply(state);
+    }
 }
@@ -112,7 +112,8 @@ public class GroupingStringCollectorBenchmark {
             Version.CURRENT,
             keyInputs.get(0),
             DataTypes.STRING,
-            Version.CURRENT
+            Version.CURRENT,
+            GroupingCollector.NO_SPILL
         );
     }
 
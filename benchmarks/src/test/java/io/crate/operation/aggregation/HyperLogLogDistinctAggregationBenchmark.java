@@ -38,6 +38,7 @@ import io.crate.metadata.Functions;
 import io.crate.metadata.functions.Signature;
 import io.crate.module.EnterpriseFunctionsModule;
 import io.crate.types.DataTypes;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.hash.MurmurHash3;
 import org.elasticsearch.common.inject.ModulesBuilder;
@@ -94,7 +95,7 @@ public class HyperLogLogDistinctAggregationBenchmark {
             DataTypes.STRING
         );
         onHeapMemoryManager = new OnHeapMemoryManager(bytes -> {});
-        offHeapMemoryManager = new OffHeapMemoryManager();
+        offHeapMemoryManager = new OffHeapMemoryManager(PooledByteBufAllocator.DEFAULT, bytes -> {});
         hyperLogLogPlusPlus = new HyperLogLogPlusPlus(HyperLogLogPlusPlus.DEFAULT_PRECISION, onHeapMemoryManager::allocate);
         onHeapCollector = new AggregateCollector(
             Collections.singletonList(inExpr0),
@@ -70,7 +70,12 @@ public class CrateMonitor {
         registerMBean(NodeInfo.NAME, new NodeInfo(clusterService::state, new NodeInfo.ShardStateAndSizeProvider(indicesService)));
         registerMBean(Connections.NAME, new Connections(
             () -> httpServerTransport == null ? null : httpServerTransport.stats(),
-            () -> new ConnectionStats(postgresNetty.openConnections(), postgresNetty.totalConnections()),
+            () -> new ConnectionStats(
+                postgresNetty.openConnections(),
+                postgresNetty.totalConnections(),
+                postgresNetty.dataRowStats().rowsSent(),
+                postgresNetty.dataRowStats().bytesSent()
+            ),
             () -> transportService.stats().serverOpen()
         ));
         registerMBean(ThreadPools.NAME, new ThreadPools(threadPool));
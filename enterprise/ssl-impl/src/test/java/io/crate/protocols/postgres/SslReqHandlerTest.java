@@ -58,7 +58,8 @@ public class SslReqHandlerTest extends ESTestCase {
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
                 // use a simple ssl context
-                getSelfSignedSslContextProvider());
+                getSelfSignedSslContextProvider(),
+                new DataRowStats());
 
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
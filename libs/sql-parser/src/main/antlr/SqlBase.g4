@@ -79,9 +79,10 @@ statement
         onConflict?
         returning?                                                                   #insert
     | RESTORE SNAPSHOT qname (ALL | TABLE tableWithPartitions) withProperties?       #restore
-    | COPY tableWithPartition FROM path=expr withProperties? (RETURN SUMMARY)?       #copyFrom
+    | COPY tableWithPartition FROM (STDIN | path=expr)
+        withProperties? (RETURN SUMMARY)?                                            #copyFrom
     | COPY tableWithPartition columns? where?
-        TO DIRECTORY? path=expr withProperties?                                      #copyTo
+        TO (STDOUT | DIRECTORY? path=expr) withProperties?                           #copyTo
     | DROP BLOB TABLE (IF EXISTS)? table                                             #dropBlobTable
     | DROP TABLE (IF EXISTS)? table                                                  #dropTable
     | DROP ALIAS qname                                                               #dropAlias
@@ -676,7 +677,7 @@ nonReserved
     | ISOLATION | TRANSACTION | CHARACTERISTICS | LEVEL | LANGUAGE | OPEN | CLOSE | RENAME
     | PRIVILEGES | SCHEMA | PREPARE
     | REROUTE | MOVE | SHARD | ALLOCATE | REPLICA | CANCEL | CLUSTER | RETRY | FAILED | FILTER
-    | DO | NOTHING | CONFLICT | TRANSACTION_ISOLATION | RETURN | SUMMARY
+    | DO | NOTHING | CONFLICT | TRANSACTION_ISOLATION | RETURN | SUMMARY | STDIN | STDOUT
     | WORK | SERIALIZABLE | REPEATABLE | COMMITTED | UNCOMMITTED | READ | WRITE | WINDOW | DEFERRABLE
     | STRING_TYPE | IP | DOUBLE | FLOAT | TIMESTAMP | LONG | INT | INTEGER | SHORT | BYTE | BOOLEAN | PRECISION
     | REPLACE | RETURNING | SWAP | GC | DANGLING | ARTIFACTS | DECOMMISSION | LEADING | TRAILING | BOTH | TRIM
@@ -946,6 +947,8 @@ SCHEMA: 'SCHEMA';
 
 RETURN: 'RETURN';
 SUMMARY: 'SUMMARY';
+STDIN: 'STDIN';
+STDOUT: 'STDOUT';
 
 EQ  : '=';
 NEQ : '<>' | '!=';
@@ -559,7 +559,7 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         boolean returnSummary = context.SUMMARY() != null;
         return new CopyFrom(
             (Table) visit(context.tableWithPartition()),
-            visit(context.path),
+            context.path == null ? null : visit(context.path),
             extractGenericProperties(context.withProperties()),
             returnSummary);
     }
@@ -571,7 +571,7 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
             context.columns() == null ? emptyList() : visitCollection(context.columns().primaryExpression(), Expression.class),
             visitIfPresent(context.where(), Expression.class),
             context.DIRECTORY() != null,
-            visit(context.path),
+            context.path == null ? null : visit(context.path),
             extractGenericProperties(context.withProperties()));
     }
 
@@ -0,0 +1,119 @@
+/*
+ * Licensed to Crate.io Inc. or its affiliates ("Crate.io") under one or
+ * more contributor license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Crate.io licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement with
+ * Crate.io these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.sql.parser;
+
+import io.crate.sql.parser.antlr.v4.SqlBaseLexer;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates the fingerprint of a statement: the statement text with all literals and parameter placeholders
+ * replaced by {@code ?}, so that statements which only differ in their values have the same fingerprint.
+ *
+ * <pre>
+ *     select name from users where id = 10 and  "Department" = 'sales'
+ *     ->
+ *     SELECT name FROM users WHERE id = ? AND "Department" = ?
+ * </pre>
+ *
+ * The fingerprint is built from the tokens of the lexer which also feeds the parser.
+ * Comments and whitespace are dropped, keywords are upper-cased and unquoted identifiers lower-cased.
+ * The statement doesn't need to be valid; unrecognized characters are kept as they are.
+ */
+public final class StatementFingerprint {
+
+    private static final String PLACEHOLDER = "?";
+
+    private StatementFingerprint() {
+    }
+
+    public static String of(String statement) {
+        SqlBaseLexer lexer = new SqlBaseLexer(new CaseInsensitiveStream(CharStreams.fromString(statement)));
+        lexer.removeErrorListeners();
+        List<? extends Token> tokens = lexer.getAllTokens();
+        StringBuilder sb = new StringBuilder(statement.length());
+        String previous = null;
+        boolean previousIsIdentifier = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.getChannel() == Token.HIDDEN_CHANNEL) {
+                continue;
+            }
+            String text;
+            switch (token.getType()) {
+                case SqlBaseLexer.STRING:
+                case SqlBaseLexer.ESCAPED_STRING:
+                case SqlBaseLexer.INTEGER_VALUE:
+                case SqlBaseLexer.DECIMAL_VALUE:
+                case SqlBaseLexer.TRUE:
+                case SqlBaseLexer.FALSE:
+                    text = PLACEHOLDER;
+                    break;
+
+                case SqlBaseLexer.IDENTIFIER:
+                    text = token.getText().toLowerCase(Locale.ENGLISH);
+                    break;
+
+                case SqlBaseLexer.SEMICOLON:
+                    continue;
+
+                default:
+                    text = token.getText();
+                    if (text.equals("$") && i + 1 < tokens.size()
+                        && tokens.get(i + 1).getType() == SqlBaseLexer.INTEGER_VALUE) {
+                        // positional parameter: $1
+                        text = PLACEHOLDER;
+                        i++;
+                    } else if (isKeyword(token)) {
+                        text = text.toUpperCase(Locale.ENGLISH);
+                    }
+                    break;
+            }
+            if (previous != null && needsSpace(previous, previousIsIdentifier, text)) {
+                sb.append(' ');
+            }
+            sb.append(text);
+            previous = text;
+            previousIsIdentifier = token.getType() == SqlBaseLexer.IDENTIFIER
+                                   || token.getType() == SqlBaseLexer.QUOTED_IDENTIFIER;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isKeyword(Token token) {
+        String literalName = SqlBaseLexer.VOCABULARY.getLiteralName(token.getType());
+        return literalName != null && Character.isLetter(literalName.charAt(1));
+    }
+
+    private static boolean needsSpace(String previous, boolean previousIsIdentifier, String next) {
+        if (next.equals("(")) {
+            // function call
+            return !previousIsIdentifier;
+        }
+        return !previous.equals("(") && !previous.equals(".")
+               && !next.equals(")") && !next.equals(",") && !next.equals(".");
+    }
+}
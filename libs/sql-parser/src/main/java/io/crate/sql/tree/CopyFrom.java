@@ -21,17 +21,22 @@
 
 package io.crate.sql.tree;
 
+import javax.annotation.Nullable;
 import java.util.Objects;
 
 public class CopyFrom<T> extends Statement {
 
     private final Table<T> table;
+    @Nullable
     private final T path;
     private final GenericProperties<T> properties;
     private final boolean returnSummary;
 
+    /**
+     * @param path the URI to read from, or {@code null} for {@code COPY ... FROM STDIN}
+     */
     public CopyFrom(Table<T> table,
-                    T path,
+                    @Nullable T path,
                     GenericProperties<T> properties,
                     boolean returnSummary) {
         this.table = table;
@@ -44,10 +49,18 @@ public class CopyFrom<T> extends Statement {
         return table;
     }
 
+    @Nullable
     public T path() {
         return path;
     }
 
+    /**
+     * @return true if the rows are read from the standard input of the client.
+     */
+    public boolean isFromStdin() {
+        return path == null;
+    }
+
     public GenericProperties<T> properties() {
         return properties;
     }
@@ -21,6 +21,7 @@
 
 package io.crate.sql.tree;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -31,14 +32,18 @@ public class CopyTo<T> extends Statement {
     private final List<T> columns;
     private final Optional<T> whereClause;
     private final boolean directoryUri;
+    @Nullable
     private final T targetUri;
     private final GenericProperties<T> properties;
 
+    /**
+     * @param targetUri the URI to write to, or {@code null} for {@code COPY ... TO STDOUT}
+     */
     public CopyTo(Table<T> table,
                   List<T> columns,
                   Optional<T> whereClause,
                   boolean directoryUri,
-                  T targetUri,
+                  @Nullable T targetUri,
                   GenericProperties<T> properties) {
 
         this.table = table;
@@ -57,10 +62,18 @@ public class CopyTo<T> extends Statement {
         return directoryUri;
     }
 
+    @Nullable
     public T targetUri() {
         return targetUri;
     }
 
+    /**
+     * @return true if the rows are written to the standard output of the client.
+     */
+    public boolean isToStdout() {
+        return targetUri == null;
+    }
+
     public List<T> columns() {
         return columns;
     }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to Crate.io Inc. or its affiliates ("Crate.io") under one or
+ * more contributor license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Crate.io licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement with
+ * Crate.io these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.sql.parser;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class StatementFingerprintTest {
+
+    @Test
+    public void test_literals_are_replaced_by_placeholders() {
+        assertThat(
+            StatementFingerprint.of("select x, count(*) from t where id = 10 and \"Dept\" = 'sales' limit 5;"),
+            is("SELECT x, count(*) FROM t WHERE id = ? AND \"Dept\" = ? LIMIT ?"));
+    }
+
+    @Test
+    public void test_statements_differing_in_values_case_and_whitespace_have_the_same_fingerprint() {
+        assertThat(
+            StatementFingerprint.of("SELECT X,\n  COUNT(*) FROM T\tWHERE ID = 20.5 AND \"Dept\" = E'it' LIMIT 10"),
+            is(StatementFingerprint.of("select x, count(*) from t where id = 10 and \"Dept\" = 'sales' limit 5")));
+    }
+
+    @Test
+    public void test_parameters_are_replaced_by_placeholders() {
+        assertThat(
+            StatementFingerprint.of("select * from t where id = $1 or id = ? or flag = true"),
+            is("SELECT * FROM t WHERE id = ? OR id = ? OR flag = ?"));
+    }
+
+    @Test
+    public void test_comments_are_dropped() {
+        assertThat(
+            StatementFingerprint.of("/* report */ select 1.5 -- trailing comment\n"),
+            is("SELECT ?"));
+    }
+
+    @Test
+    public void test_insert_values_are_replaced_by_placeholders() {
+        assertThat(
+            StatementFingerprint.of("insert into doc.t (a, b) values (1, 'x'), (2, null)"),
+            is("INSERT INTO doc.t(a, b) VALUES (?, ?), (?, NULL)"));
+    }
+}
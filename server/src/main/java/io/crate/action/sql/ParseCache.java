@@ -0,0 +1,94 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.crate.metadata.sys.StatementCacheStats;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Statement;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Node wide LRU cache of parsed statements, keyed by the statement text.
+ * <p>
+ * The cache is bounded by the accumulated size of the statement texts, so that a few large statements
+ * (e.g. INSERT statements with many VALUES) cannot displace many small ones.
+ * Statements larger than a tenth of the cache size are never cached.
+ */
+public final class ParseCache {
+
+    public static final Setting<ByteSizeValue> PARSE_CACHE_SIZE_SETTING = Setting.byteSizeSetting(
+        "node.sql.parse_cache.size",
+        new ByteSizeValue(10, ByteSizeUnit.MB),
+        Setting.Property.NodeScope);
+
+    public static final ParseCache DISABLED = new ParseCache(0L);
+
+    @Nullable
+    private final Cache<String, Statement> cache;
+    private final long maxStatementSize;
+
+    public ParseCache(long maxSizeInBytes) {
+        this.cache = maxSizeInBytes > 0
+            ? CacheBuilder.newBuilder()
+                .maximumWeight(maxSizeInBytes)
+                .weigher((String statement, Statement parsed) -> weight(statement))
+                .recordStats()
+                .build()
+            : null;
+        this.maxStatementSize = maxSizeInBytes / 10;
+    }
+
+    /**
+     * Returns the cached statement or parses the statement using {@link SqlParser#createStatement(String)}
+     */
+    public Statement parse(String statement) {
+        if (cache == null) {
+            return SqlParser.createStatement(statement);
+        }
+        Statement parsedStatement = cache.getIfPresent(statement);
+        if (parsedStatement == null) {
+            parsedStatement = SqlParser.createStatement(statement);
+            if (weight(statement) <= maxStatementSize) {
+                cache.put(statement, parsedStatement);
+            }
+        }
+        return parsedStatement;
+    }
+
+    public StatementCacheStats stats() {
+        return StatementCacheStats.of("parse", cache);
+    }
+
+    /**
+     * Approximates the size of the cache entry with the size of the statement text (2 bytes per char).
+     */
+    private static int weight(String statement) {
+        return statement.length() * Character.BYTES;
+    }
+}
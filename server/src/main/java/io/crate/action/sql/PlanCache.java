@@ -0,0 +1,289 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.Relations;
+import io.crate.analyze.QueriedSelectRelation;
+import io.crate.analyze.relations.AliasedAnalyzedRelation;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.AnalyzedView;
+import io.crate.analyze.relations.UnionSelect;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.SelectSymbol;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.metadata.SearchPath;
+import io.crate.metadata.sys.StatementCacheStats;
+import io.crate.planner.Plan;
+import io.crate.planner.optimizer.Rule;
+import io.crate.sql.tree.Statement;
+import io.crate.types.DataType;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.common.settings.Setting;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Node wide cache of the analyzed statements and plans of SELECT statements.
+ * <p>
+ * A cached plan is re-used for all executions of the same statement with the same parameter types and session
+ * state; the parameter values are only bound once the plan is executed.
+ * <p>
+ * All entries are invalidated if the cluster metadata (schemas, tables, privileges, ...) or the minimum node version
+ * in the cluster changes.
+ */
+public final class PlanCache {
+
+    public static final Setting<Integer> PLAN_CACHE_SIZE_SETTING = Setting.intSetting(
+        "node.sql.plan_cache.size",
+        1000,
+        0,
+        Setting.Property.NodeScope);
+
+    public static final PlanCache DISABLED = new PlanCache(0);
+
+    @Nullable
+    private final Cache<Key, Entry> cache;
+    private volatile long metadataVersion = -1;
+    private volatile Version minNodeVersion = Version.CURRENT;
+
+    public PlanCache(int maxSize) {
+        this.cache = maxSize > 0
+            ? CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build()
+            : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    @Nullable
+    public Entry get(Key key, ClusterState clusterState) {
+        if (cache == null) {
+            return null;
+        }
+        invalidateIfOutdated(clusterState);
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Like {@link #get(Key, ClusterState)}, but doesn't count as a hit or miss and doesn't invalidate outdated entries.
+     * Used to look up the plan of a statement whose analysis has already been looked up.
+     */
+    @Nullable
+    public Entry peek(Key key) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.asMap().get(key);
+    }
+
+    public void put(Key key, ClusterState clusterState, Entry entry) {
+        if (cache == null || !isCacheable(entry.analyzedStatement)) {
+            return;
+        }
+        invalidateIfOutdated(clusterState);
+        cache.put(key, entry);
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    public StatementCacheStats stats() {
+        return StatementCacheStats.of("plan", cache);
+    }
+
+    private void invalidateIfOutdated(ClusterState clusterState) {
+        long currentMetadataVersion = clusterState.metadata().version();
+        Version currentMinNodeVersion = clusterState.nodes().getMinNodeVersion();
+        if (currentMetadataVersion != metadataVersion || !currentMinNodeVersion.equals(minNodeVersion)) {
+            synchronized (this) {
+                if (currentMetadataVersion != metadataVersion || !currentMinNodeVersion.equals(minNodeVersion)) {
+                    cache.invalidateAll();
+                    metadataVersion = currentMetadataVersion;
+                    minNodeVersion = currentMinNodeVersion;
+                }
+            }
+        }
+    }
+
+    /**
+     * Only read-only queries are cached.
+     * <p>
+     * Queries using non-deterministic functions are excluded. This includes the functions depending on the
+     * transaction time (like `now()`), as they must be evaluated again for every execution.
+     * Queries on views are excluded as well, because the view definition could make use of such functions.
+     */
+    static boolean isCacheable(AnalyzedStatement analyzedStatement) {
+        if (!(analyzedStatement instanceof AnalyzedRelation) || analyzedStatement.isWriteOperation()) {
+            return false;
+        }
+        return isCacheable((AnalyzedRelation) analyzedStatement);
+    }
+
+    private static boolean isCacheable(AnalyzedRelation relation) {
+        if (containsView(relation)) {
+            return false;
+        }
+        boolean[] cacheable = new boolean[] { true };
+        Relations.traverseDeepSymbols(relation, symbol -> {
+            if (cacheable[0]) {
+                cacheable[0] = !SymbolVisitors.any(PlanCache::preventsCaching, symbol);
+            }
+        });
+        return cacheable[0];
+    }
+
+    private static boolean preventsCaching(Symbol symbol) {
+        if (symbol instanceof Function) {
+            return !((Function) symbol).isDeterministic();
+        }
+        if (symbol instanceof SelectSymbol) {
+            return !isCacheable(((SelectSymbol) symbol).relation());
+        }
+        return false;
+    }
+
+    private static boolean containsView(AnalyzedRelation relation) {
+        if (relation instanceof AnalyzedView) {
+            return true;
+        }
+        if (relation instanceof AliasedAnalyzedRelation) {
+            return containsView(((AliasedAnalyzedRelation) relation).relation());
+        }
+        if (relation instanceof UnionSelect) {
+            UnionSelect unionSelect = (UnionSelect) relation;
+            return containsView(unionSelect.left()) || containsView(unionSelect.right());
+        }
+        if (relation instanceof QueriedSelectRelation) {
+            for (AnalyzedRelation source : ((QueriedSelectRelation) relation).from()) {
+                if (containsView(source)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static final class Key {
+
+        private final String statement;
+        private final List<DataType> parameterTypes;
+        private final String user;
+        private final SearchPath searchPath;
+        private final boolean hashJoinEnabled;
+        private final Set<Class<? extends Rule<?>>> excludedOptimizerRules;
+
+        public Key(String statement, List<DataType> parameterTypes, SessionContext sessionContext) {
+            this.statement = statement;
+            this.parameterTypes = List.copyOf(parameterTypes);
+            this.user = sessionContext.sessionUser().name();
+            this.searchPath = sessionContext.searchPath();
+            this.hashJoinEnabled = sessionContext.isHashJoinEnabled();
+            this.excludedOptimizerRules = Set.copyOf(sessionContext.excludedOptimizerRules());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashJoinEnabled == key.hashJoinEnabled &&
+                   statement.equals(key.statement) &&
+                   parameterTypes.equals(key.parameterTypes) &&
+                   user.equals(key.user) &&
+                   searchPath.equals(key.searchPath) &&
+                   excludedOptimizerRules.equals(key.excludedOptimizerRules);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statement, parameterTypes, user, searchPath, hashJoinEnabled, excludedOptimizerRules);
+        }
+    }
+
+    public static final class Entry {
+
+        private final Statement parsedStatement;
+        private final AnalyzedStatement analyzedStatement;
+        private final DataType[] parameterTypes;
+        private final String fingerprint;
+        @Nullable
+        private final Plan plan;
+
+        public Entry(Statement parsedStatement,
+                     AnalyzedStatement analyzedStatement,
+                     DataType[] parameterTypes,
+                     String fingerprint,
+                     @Nullable Plan plan) {
+            this.parsedStatement = parsedStatement;
+            this.analyzedStatement = analyzedStatement;
+            this.parameterTypes = parameterTypes;
+            this.fingerprint = fingerprint;
+            this.plan = plan;
+        }
+
+        public Statement parsedStatement() {
+            return parsedStatement;
+        }
+
+        public AnalyzedStatement analyzedStatement() {
+            return analyzedStatement;
+        }
+
+        public DataType[] parameterTypes() {
+            return parameterTypes;
+        }
+
+        /**
+         * The fingerprint of the statement, see {@link io.crate.sql.parser.StatementFingerprint}
+         */
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * The plan; null if the statement has been analyzed but not been planned yet.
+         */
+        @Nullable
+        public Plan plan() {
+            return plan;
+        }
+
+        Entry withPlan(Plan plan) {
+            return new Entry(parsedStatement, analyzedStatement, parameterTypes, fingerprint, plan);
+        }
+    }
+}
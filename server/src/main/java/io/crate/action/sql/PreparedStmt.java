@@ -27,21 +27,30 @@ import io.crate.analyze.ParamTypeHints;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 
+import javax.annotation.Nullable;
+
 public class PreparedStmt {
 
     private final AnalyzedStatement analyzedStatement;
     private final Statement parsedStatement;
     private final String rawStatement;
     private final DataType[] describedParameterTypes;
+    private final String fingerprint;
+    @Nullable
+    private final PlanCache.Key cacheKey;
 
     PreparedStmt(Statement parsedStatement,
                  AnalyzedStatement analyzedStatement,
                  String query,
-                 DataType[] parameterTypes) {
+                 DataType[] parameterTypes,
+                 String fingerprint,
+                 @Nullable PlanCache.Key cacheKey) {
         this.parsedStatement = parsedStatement;
         this.analyzedStatement = analyzedStatement;
         this.rawStatement = query;
         this.describedParameterTypes = parameterTypes;
+        this.fingerprint = fingerprint;
+        this.cacheKey = cacheKey;
     }
 
     public AnalyzedStatement analyzedStatement() {
@@ -72,4 +81,19 @@ public class PreparedStmt {
     public String rawStatement() {
         return rawStatement;
     }
+
+    /**
+     * The fingerprint of the raw statement, see {@link io.crate.sql.parser.StatementFingerprint}
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * The key of the statement in the {@link PlanCache}; null if the cache is disabled.
+     */
+    @Nullable
+    PlanCache.Key cacheKey() {
+        return cacheKey;
+    }
 }
@@ -30,6 +30,7 @@ import io.crate.exceptions.SQLExceptions;
 import javax.annotation.Nullable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 
 public class RowConsumerToResultReceiver implements RowConsumer {
 
@@ -40,10 +41,19 @@ public class RowConsumerToResultReceiver implements RowConsumer {
     private BatchIterator<Row> activeIt;
 
     public RowConsumerToResultReceiver(ResultReceiver resultReceiver, int maxRows, Consumer<Throwable> onCompletion) {
+        this(resultReceiver, maxRows, (err, rowCount) -> onCompletion.accept(err));
+    }
+
+    /**
+     * @param onCompletion called with the failure, if any, and the number of rows passed to the resultReceiver
+     */
+    public RowConsumerToResultReceiver(ResultReceiver resultReceiver,
+                                       int maxRows,
+                                       ObjLongConsumer<Throwable> onCompletion) {
         this.resultReceiver = resultReceiver;
         this.maxRows = maxRows;
         completionFuture.whenComplete((res, err) -> {
-            onCompletion.accept(err);
+            onCompletion.accept(err, rowCount);
         });
     }
 
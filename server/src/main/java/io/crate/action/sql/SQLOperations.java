@@ -27,8 +27,10 @@ import io.crate.auth.user.User;
 import io.crate.auth.user.UserManager;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.metadata.NodeContext;
+import io.crate.metadata.sys.StatementCacheStats;
 import io.crate.planner.DependencyCarrier;
 import io.crate.planner.Planner;
+import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Provider;
@@ -38,6 +40,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.transport.NodeDisconnectedException;
 
 import javax.annotation.Nullable;
+import java.util.List;
 
 
 @Singleton
@@ -56,6 +59,8 @@ public class SQLOperations {
     private final ClusterService clusterService;
     private final UserManager userManager;
     private final boolean isReadOnly;
+    private final ParseCache parseCache;
+    private final PlanCache planCache;
     private volatile boolean disabled;
 
     @Inject
@@ -75,6 +80,8 @@ public class SQLOperations {
         this.clusterService = clusterService;
         this.userManager = userManagerProvider.get();
         this.isReadOnly = NODE_READ_ONLY_SETTING.get(settings);
+        this.parseCache = new ParseCache(ParseCache.PARSE_CACHE_SIZE_SETTING.get(settings).getBytes());
+        this.planCache = new PlanCache(PlanCache.PLAN_CACHE_SIZE_SETTING.get(settings));
     }
 
     private Session createSession(SessionContext sessionContext) {
@@ -89,7 +96,9 @@ public class SQLOperations {
             isReadOnly,
             executorProvider.get(),
             userManager.getAccessControl(sessionContext),
-            sessionContext);
+            sessionContext,
+            parseCache,
+            planCache);
     }
 
     public Session newSystemSession() {
@@ -126,4 +135,15 @@ public class SQLOperations {
     public boolean isEnabled() {
         return !disabled;
     }
+
+    /**
+     * The node which handles the statements of the sessions created by this instance
+     */
+    public DiscoveryNode localNode() {
+        return clusterService.localNode();
+    }
+
+    public List<StatementCacheStats> statementCacheStats() {
+        return List.of(parseCache.stats(), planCache.stats());
+    }
 }
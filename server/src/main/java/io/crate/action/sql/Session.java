@@ -79,6 +79,7 @@ import io.crate.protocols.postgres.Portal;
 import io.crate.protocols.postgres.RetryOnFailureResultReceiver;
 import io.crate.protocols.postgres.TransactionState;
 import io.crate.sql.parser.SqlParser;
+import io.crate.sql.parser.StatementFingerprint;
 import io.crate.sql.tree.DiscardStatement.Target;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
@@ -142,6 +143,8 @@ public class Session implements AutoCloseable {
     private final JobsLogs jobsLogs;
     private final boolean isReadOnly;
     private final ParameterTypeExtractor parameterTypeExtractor;
+    private final ParseCache parseCache;
+    private final PlanCache planCache;
 
     private TransactionState currentTransactionState = TransactionState.IDLE;
 
@@ -152,7 +155,9 @@ public class Session implements AutoCloseable {
                    boolean isReadOnly,
                    DependencyCarrier executor,
                    AccessControl accessControl,
-                   SessionContext sessionContext) {
+                   SessionContext sessionContext,
+                   ParseCache parseCache,
+                   PlanCache planCache) {
         this.nodeCtx = nodeCtx;
         this.analyzer = analyzer;
         this.planner = planner;
@@ -162,13 +167,15 @@ public class Session implements AutoCloseable {
         this.accessControl = accessControl;
         this.sessionContext = sessionContext;
         this.parameterTypeExtractor = new ParameterTypeExtractor();
+        this.parseCache = parseCache;
+        this.planCache = planCache;
     }
 
     /**
      * See {@link #quickExec(String, Function, ResultReceiver, Row)}
      */
     public void quickExec(String statement, ResultReceiver<?> resultReceiver, Row params) {
-        quickExec(statement, SqlParser::createStatement, resultReceiver, params);
+        quickExec(statement, parseCache::parse, resultReceiver, params);
     }
 
     /**
@@ -180,11 +187,25 @@ public class Session implements AutoCloseable {
      */
     public void quickExec(String statement, Function<String, Statement> parse, ResultReceiver<?> resultReceiver, Row params) {
         CoordinatorTxnCtx txnCtx = new CoordinatorTxnCtx(sessionContext);
-        Statement parsedStmt = parse.apply(statement);
-        AnalyzedStatement analyzedStatement = analyzer.analyze(parsedStmt, sessionContext, ParamTypeHints.EMPTY);
+        ClusterState clusterState = planner.currentClusterState();
+        PlanCache.Key cacheKey = planCache.isEnabled()
+            ? new PlanCache.Key(statement, List.of(), sessionContext)
+            : null;
+        PlanCache.Entry cacheEntry = cacheKey == null ? null : planCache.get(cacheKey, clusterState);
+        Statement parsedStmt;
+        AnalyzedStatement analyzedStatement;
+        String fingerprint;
+        if (cacheEntry == null) {
+            parsedStmt = parse.apply(statement);
+            analyzedStatement = analyzer.analyze(parsedStmt, sessionContext, ParamTypeHints.EMPTY);
+            fingerprint = StatementFingerprint.of(statement);
+        } else {
+            parsedStmt = cacheEntry.parsedStatement();
+            analyzedStatement = cacheEntry.analyzedStatement();
+            fingerprint = cacheEntry.fingerprint();
+        }
         RoutingProvider routingProvider = new RoutingProvider(Randomness.get().nextInt(), planner.getAwarenessAttributes());
         UUID jobId = UUID.randomUUID();
-        ClusterState clusterState = planner.currentClusterState();
         PlannerContext plannerContext = new PlannerContext(
             clusterState,
             routingProvider,
@@ -195,15 +216,28 @@ public class Session implements AutoCloseable {
             params
         );
         Plan plan;
-        try {
-            plan = planner.plan(analyzedStatement, plannerContext);
-        } catch (Throwable t) {
-            jobsLogs.logPreExecutionFailure(jobId, statement, SQLExceptions.messageOf(t), sessionContext.sessionUser());
-            throw t;
+        if (cacheEntry != null && cacheEntry.plan() != null) {
+            plan = cacheEntry.plan();
+        } else {
+            try {
+                plan = planner.plan(analyzedStatement, plannerContext);
+            } catch (Throwable t) {
+                jobsLogs.logPreExecutionFailure(jobId, statement, SQLExceptions.messageOf(t), sessionContext.sessionUser());
+                throw t;
+            }
+            if (cacheEntry != null) {
+                // keep the parameter types of an entry stored by parse
+                planCache.put(cacheKey, clusterState, cacheEntry.withPlan(plan));
+            } else if (cacheKey != null) {
+                planCache.put(
+                    cacheKey,
+                    clusterState,
+                    new PlanCache.Entry(parsedStmt, analyzedStatement, new DataType[0], fingerprint, plan));
+            }
         }
 
         StatementClassifier.Classification classification = StatementClassifier.classify(plan);
-        jobsLogs.logExecutionStart(jobId, statement, sessionContext.sessionUser(), classification);
+        jobsLogs.logExecutionStart(jobId, statement, fingerprint, sessionContext.sessionUser(), classification);
         JobsLogsUpdateListener jobsLogsUpdateListener = new JobsLogsUpdateListener(jobId, jobsLogs);
         if (!analyzedStatement.isWriteOperation()) {
             resultReceiver = new RetryOnFailureResultReceiver(
@@ -266,9 +300,31 @@ public class Session implements AutoCloseable {
             LOGGER.debug("method=parse stmtName={} query={} paramTypes={}", statementName, query, paramTypes);
         }
 
+        PlanCache.Key cacheKey = null;
+        ClusterState clusterState = null;
+        if (planCache.isEnabled()) {
+            cacheKey = new PlanCache.Key(query, paramTypes, sessionContext);
+            clusterState = planner.currentClusterState();
+            PlanCache.Entry cacheEntry = planCache.get(cacheKey, clusterState);
+            if (cacheEntry != null) {
+                preparedStatements.put(
+                    statementName,
+                    new PreparedStmt(
+                        cacheEntry.parsedStatement(),
+                        cacheEntry.analyzedStatement(),
+                        query,
+                        cacheEntry.parameterTypes(),
+                        cacheEntry.fingerprint(),
+                        cacheKey
+                    )
+                );
+                return;
+            }
+        }
+
         Statement statement;
         try {
-            statement = SqlParser.createStatement(query);
+            statement = parseCache.parse(query);
         } catch (Throwable t) {
             if ("".equals(query)) {
                 statement = EMPTY_STMT;
@@ -277,7 +333,29 @@ public class Session implements AutoCloseable {
                 throw t;
             }
         }
+        analyzeAndPrepare(statementName, statement, query, paramTypes, cacheKey, clusterState);
+    }
+
+    /**
+     * Like {@link #parse(String, String, List)}, but for a statement which has already been parsed.
+     * This can be used to execute a statement which has been rewritten, e.g. by the protocol layer.
+     * The analyzed statement is not cached.
+     *
+     * @param query The query string the statement originates from. Used for logging and the command tag.
+     */
+    public void parse(String statementName, Statement statement, String query, List<DataType> paramTypes) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("method=parse stmtName={} statement={} paramTypes={}", statementName, statement, paramTypes);
+        }
+        analyzeAndPrepare(statementName, statement, query, paramTypes, null, null);
+    }
 
+    private void analyzeAndPrepare(String statementName,
+                                   Statement statement,
+                                   String query,
+                                   List<DataType> paramTypes,
+                                   @Nullable PlanCache.Key cacheKey,
+                                   @Nullable ClusterState clusterState) {
         AnalyzedStatement analyzedStatement;
         DataType[] parameterTypes;
         try {
@@ -297,9 +375,16 @@ public class Session implements AutoCloseable {
                 sessionContext.sessionUser());
             throw t;
         }
+        String fingerprint = StatementFingerprint.of(query);
+        if (cacheKey != null) {
+            planCache.put(
+                cacheKey,
+                clusterState,
+                new PlanCache.Entry(statement, analyzedStatement, parameterTypes, fingerprint, null));
+        }
         preparedStatements.put(
             statementName,
-            new PreparedStmt(statement, analyzedStatement, query, parameterTypes));
+            new PreparedStmt(statement, analyzedStatement, query, parameterTypes, fingerprint, cacheKey));
     }
 
     public void bind(String portalName,
@@ -424,7 +509,8 @@ public class Session implements AutoCloseable {
             resultReceiver.allFinished(false);
         } else if (analyzedStmt instanceof AnalyzedDiscard) {
             AnalyzedDiscard discard = (AnalyzedDiscard) analyzedStmt;
-            // We don't cache plans, don't have sequences or temporary tables
+            // Plans are cached per node, not per session (see PlanCache) and invalidated on schema changes.
+            // We don't have sequences or temporary tables
             // See https://www.postgresql.org/docs/current/sql-discard.html
             if (discard.target() == Target.ALL) {
                 close();
@@ -542,6 +628,7 @@ public class Session implements AutoCloseable {
         jobsLogs.logExecutionStart(
             jobId,
             firstPreparedStatement.rawStatement(),
+            firstPreparedStatement.fingerprint(),
             sessionContext.sessionUser(),
             StatementClassifier.classify(plan)
         );
@@ -610,7 +697,7 @@ public class Session implements AutoCloseable {
         }
         Plan plan;
         try {
-            plan = planner.plan(analyzedStmt, plannerContext);
+            plan = planWithCache(portal.preparedStmt().cacheKey(), analyzedStmt, plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(jobId, rawStatement, SQLExceptions.messageOf(t), sessionContext.sessionUser());
             throw t;
@@ -637,7 +724,11 @@ public class Session implements AutoCloseable {
             );
         }
         jobsLogs.logExecutionStart(
-            jobId, rawStatement, sessionContext.sessionUser(), StatementClassifier.classify(plan));
+            jobId,
+            rawStatement,
+            portal.preparedStmt().fingerprint(),
+            sessionContext.sessionUser(),
+            StatementClassifier.classify(plan));
         RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(
             resultReceiver, maxRows, new JobsLogsUpdateListener(jobId, jobsLogs));
         portal.setActiveConsumer(consumer);
@@ -645,6 +736,29 @@ public class Session implements AutoCloseable {
         return resultReceiver.completionFuture();
     }
 
+    /**
+     * Returns the cached plan of the prepared statement if available, otherwise plans the statement
+     * and adds the plan to the cache.
+     */
+    private Plan planWithCache(@Nullable PlanCache.Key cacheKey, AnalyzedStatement analyzedStmt, PlannerContext plannerContext) {
+        if (cacheKey == null) {
+            return planner.plan(analyzedStmt, plannerContext);
+        }
+        ClusterState clusterState = plannerContext.clusterState();
+        // The statement has already been looked up in parse, so this doesn't count as another hit or miss
+        PlanCache.Entry cacheEntry = planCache.peek(cacheKey);
+        // The analyzed statement must be the cached one, otherwise the cache has been invalidated in between
+        boolean sameAnalysis = cacheEntry != null && cacheEntry.analyzedStatement() == analyzedStmt;
+        if (sameAnalysis && cacheEntry.plan() != null) {
+            return cacheEntry.plan();
+        }
+        Plan plan = planner.plan(analyzedStmt, plannerContext);
+        if (sameAnalysis) {
+            planCache.put(cacheKey, clusterState, cacheEntry.withPlan(plan));
+        }
+        return plan;
+    }
+
     @Nullable
     public List<? extends DataType> getOutputTypes(String portalName) {
         Portal portal = getSafePortal(portalName);
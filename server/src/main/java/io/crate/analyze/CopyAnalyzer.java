@@ -56,6 +56,10 @@ class CopyAnalyzer {
     AnalyzedCopyFrom analyzeCopyFrom(CopyFrom<Expression> node,
                                      ParamTypeHints paramTypeHints,
                                      CoordinatorTxnCtx txnCtx) {
+        if (node.isFromStdin()) {
+            throw new UnsupportedOperationException(
+                "COPY FROM STDIN is only supported with the simple query protocol of the PostgreSQL wire protocol");
+        }
         DocTableInfo tableInfo = (DocTableInfo) schemas.resolveTableInfo(
             node.table().getName(),
             Operation.INSERT,
@@ -98,6 +102,10 @@ class CopyAnalyzer {
     AnalyzedCopyTo analyzeCopyTo(CopyTo<Expression> node,
                                  ParamTypeHints paramTypeHints,
                                  CoordinatorTxnCtx txnCtx) {
+        if (node.isToStdout()) {
+            throw new UnsupportedOperationException(
+                "COPY TO STDOUT is only supported with the simple query protocol of the PostgreSQL wire protocol");
+        }
         if (!node.directoryUri()) {
             throw new UnsupportedOperationException("Using COPY TO without specifying a DIRECTORY is not supported");
         }
@@ -48,7 +48,7 @@ public final class CopyStatementSettings {
         "format",
         "json",
         (s) -> s,
-        Validators.stringValidator("format", "json", "csv"),
+        Validators.stringValidator("format", "json", "csv", "columnar"),
         Setting.Property.Dynamic);
 
     public static final Setting<Boolean> EMPTY_STRING_AS_NULL = Setting.boolSetting(
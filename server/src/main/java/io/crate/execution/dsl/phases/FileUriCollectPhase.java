@@ -74,7 +74,8 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
 
     public enum InputFormat {
         JSON,
-        CSV
+        CSV,
+        COLUMNAR
     }
 
     public Symbol targetUri() {
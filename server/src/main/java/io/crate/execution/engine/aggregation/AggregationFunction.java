@@ -24,6 +24,7 @@ package io.crate.execution.engine.aggregation;
 
 import io.crate.breaker.RamAccounting;
 import io.crate.data.Input;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.types.DataType;
@@ -107,6 +108,15 @@ public abstract class AggregationFunction<TPartial, TFinal> implements FunctionI
         return false;
     }
 
+    /**
+     * Indicates if {@link #reduce(RamAccounting, Object, Object)} selects one of the two states without modifying them
+     * and if the state of a single input value is the value itself (eg. min, max).
+     * Such aggregations can be evaluated over moving window frames without re-aggregating all rows of every frame.
+     */
+    public boolean isSelectiveReduce() {
+        return false;
+    }
+
     public TPartial removeFromAggregatedState(RamAccounting ramAccounting,
                                               TPartial previousAggState,
                                               Input[] stateToRemove) {
@@ -118,4 +128,14 @@ public abstract class AggregationFunction<TPartial, TFinal> implements FunctionI
     public DocValueAggregator<?> getDocValueAggregator(List<DataType<?>> argumentTypes, List<MappedFieldType> fieldTypes) {
         return null;
     }
+
+    /**
+     * @param inputs the columns of a {@link io.crate.execution.engine.vector.ColumnBatch} holding the arguments.
+     * @return an aggregator operating on column vectors or null if there is no vectorized implementation
+     *         for the given arguments.
+     */
+    @Nullable
+    public VectorAggregator<?> getVectorAggregator(List<InputColumn> inputs) {
+        return null;
+    }
 }
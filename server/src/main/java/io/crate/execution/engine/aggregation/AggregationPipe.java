@@ -30,17 +30,20 @@ import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Aggregation;
 import io.crate.memory.MemoryManager;
 import org.elasticsearch.Version;
 
 import java.util.List;
+import java.util.stream.Collector;
 
 public class AggregationPipe implements Projector {
 
-    private final AggregateCollector collector;
+    private final Collector<Row, ?, Iterable<Row>> collector;
 
     public AggregationPipe(List<CollectExpression<Row, ?>> expressions,
                            AggregateMode aggregateMode,
+                           List<Aggregation> aggregationSymbols,
                            AggregationContext[] aggregations,
                            RamAccounting ramAccounting,
                            MemoryManager memoryManager,
@@ -56,17 +59,27 @@ public class AggregationPipe implements Projector {
             filters[i] = aggregation.filter();
         }
 
-        collector = new AggregateCollector(
-            expressions,
-            ramAccounting,
-            memoryManager,
-            minNodeVersion,
+        VectorizedAggregateCollector vectorizedCollector = VectorizedAggregateCollector.tryCreate(
             aggregateMode,
+            aggregationSymbols,
             functions,
-            indexVersionCreated,
-            inputs,
-            filters
+            ramAccounting
         );
+        if (vectorizedCollector == null) {
+            collector = new AggregateCollector(
+                expressions,
+                ramAccounting,
+                memoryManager,
+                minNodeVersion,
+                aggregateMode,
+                functions,
+                indexVersionCreated,
+                inputs,
+                filters
+            );
+        } else {
+            collector = vectorizedCollector;
+        }
     }
 
     @Override
@@ -74,7 +87,7 @@ public class AggregationPipe implements Projector {
         return CollectingBatchIterator.newInstance(batchIterator, collector);
     }
 
-    public AggregateCollector getCollector() {
+    public Collector<Row, ?, Iterable<Row>> getCollector() {
         return collector;
     }
 
@@ -22,14 +22,18 @@
 
 package io.crate.execution.engine.aggregation;
 
+import com.carrotsearch.hppc.BitMixer;
 import com.google.common.collect.Iterables;
+import io.crate.Streamer;
 import io.crate.breaker.MultiSizeEstimator;
 import io.crate.breaker.RamAccounting;
 import io.crate.breaker.SizeEstimatorFactory;
+import io.crate.common.io.IOUtils;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.spill.SpillFile;
 import io.crate.expression.InputCondition;
 import io.crate.expression.symbol.AggregateMode;
 import io.crate.memory.MemoryManager;
@@ -37,11 +41,14 @@ import io.crate.types.DataType;
 import org.elasticsearch.Version;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -53,9 +60,23 @@ import java.util.stream.Collector;
  * Collector implementation which uses {@link AggregateMode}s and {@code keyInputs}
  * to group rows by key and aggregate the grouped values.
  *
+ * <p>
+ * If a {@code spillThreshold} is set and the memory accounted by the collector exceeds it,
+ * the groups are written to temporary files as partial states, hash-partitioned by key.
+ * Once all rows are consumed the spilled partitions are merged one at a time using
+ * {@link AggregationFunction#reduce(RamAccounting, Object, Object)}, so at most the groups
+ * of a single partition are held in memory.
+ * The {@code ramAccounting} must be dedicated to the collector in that case, because it is
+ * released after each spill. {@link #close()} must be called to delete the spill files.
+ * </p>
+ *
  * @param <K> type of the key
  */
-public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>> {
+public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>>, AutoCloseable {
+
+    public static final long NO_SPILL = -1L;
+
+    static final int NUM_SPILL_PARTITIONS = 32;
 
     private final CollectExpression<Row, ?>[] expressions;
     private final AggregationFunction[] aggregations;
@@ -72,6 +93,12 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
     private final BiConsumer<Map<K, Object[]>, Row> accumulator;
     private final Supplier<Map<K, Object[]>> supplier;
     private final Version minNodeVersion;
+    private final long spillThreshold;
+    private final Streamer<?>[] spillStreamers;
+    private final Function<Row, K> keyFromSpilledRow;
+
+    @Nullable
+    private List<List<SpillFile>> spilledPartitions;
 
     static GroupingCollector<Object> singleKey(CollectExpression<Row, ?>[] expressions,
                                                AggregateMode mode,
@@ -83,7 +110,8 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                                                Version minNodeVersion,
                                                Input<?> keyInput,
                                                DataType keyType,
-                                               Version indexVersionCreated) {
+                                               Version indexVersionCreated,
+                                               long spillThreshold) {
         return new GroupingCollector<>(
             expressions,
             aggregations,
@@ -102,7 +130,10 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
             ),
             row -> keyInput.value(),
             indexVersionCreated,
-            GroupByMaps.mapForType(keyType)
+            GroupByMaps.mapForType(keyType),
+            spillThreshold,
+            List.of(keyType),
+            row -> row.get(0)
         );
     }
 
@@ -116,7 +147,11 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                                                     Version minNodeVersion,
                                                     List<Input<?>> keyInputs,
                                                     List<? extends DataType> keyTypes,
-                                                    Version indexVersionCreated) {
+                                                    Version indexVersionCreated,
+                                                    long spillThreshold) {
+        // The MultiKeyHashMap copies keys on insert, so a single key view can be re-used for all rows
+        InputsKey inputsKey = new InputsKey(keyInputs);
+        RowKey spilledRowKey = new RowKey(keyInputs.size());
         return new GroupingCollector<>(
             expressions,
             aggregations,
@@ -133,18 +168,72 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                 new MultiSizeEstimator(keyTypes),
                 null
             ),
-            row -> evalKeyInputs(keyInputs),
+            row -> inputsKey.readValues(),
             indexVersionCreated,
-            HashMap::new
+            () -> new MultiKeyHashMap(keyTypes),
+            spillThreshold,
+            keyTypes,
+            spilledRowKey::of
         );
     }
 
-    private static List<Object> evalKeyInputs(List<Input<?>> keyInputs) {
-        List<Object> key = new ArrayList<>(keyInputs.size());
-        for (Input<?> keyInput : keyInputs) {
-            key.add(keyInput.value());
+    /**
+     * Key view with the values of the key inputs of the current row.
+     */
+    private static final class InputsKey extends AbstractList<Object> {
+
+        private final List<Input<?>> keyInputs;
+        private final Object[] values;
+
+        InputsKey(List<Input<?>> keyInputs) {
+            this.keyInputs = keyInputs;
+            this.values = new Object[keyInputs.size()];
+        }
+
+        InputsKey readValues() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = keyInputs.get(i).value();
+            }
+            return this;
+        }
+
+        @Override
+        public Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Key view on the first {@code numKeys} cells of a row.
+     */
+    private static final class RowKey extends AbstractList<Object> {
+
+        private final int numKeys;
+        private Row row;
+
+        RowKey(int numKeys) {
+            this.numKeys = numKeys;
+        }
+
+        RowKey of(Row row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public Object get(int index) {
+            return row.get(index);
+        }
+
+        @Override
+        public int size() {
+            return numKeys;
         }
-        return key;
     }
 
     private static void applyKeysToCells(List<Object> keys, Object[] cells) {
@@ -166,7 +255,10 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                               BiConsumer<Map<K, Object[]>, K> accountForNewEntry,
                               Function<Row, K> keyExtractor,
                               Version indexVersionCreated,
-                              Supplier<Map<K, Object[]>> supplier) {
+                              Supplier<Map<K, Object[]>> supplier,
+                              long spillThreshold,
+                              List<? extends DataType> keyTypes,
+                              Function<Row, K> keyFromSpilledRow) {
         this.expressions = expressions;
         this.aggregations = aggregations;
         this.mode = mode;
@@ -182,6 +274,15 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         this.accumulator = mode == AggregateMode.PARTIAL_FINAL ? this::reduce : this::iter;
         this.supplier = supplier;
         this.minNodeVersion = minNodeVersion;
+        this.spillThreshold = spillThreshold;
+        this.keyFromSpilledRow = keyFromSpilledRow;
+        this.spillStreamers = new Streamer[numKeyColumns + aggregations.length];
+        for (int i = 0; i < numKeyColumns; i++) {
+            spillStreamers[i] = keyTypes.get(i).streamer();
+        }
+        for (int i = 0; i < aggregations.length; i++) {
+            spillStreamers[numKeyColumns + i] = aggregations[i].partialType().streamer();
+        }
     }
 
     @Override
@@ -203,7 +304,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
 
     @Override
     public Function<Map<K, Object[]>, Iterable<Row>> finisher() {
-        return this::mapToRows;
+        return this::finish;
     }
 
     @Override
@@ -228,6 +329,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                 states[i] = aggregations[i].reduce(ramAccounting, states[i], inputs[i][0].value());
             }
         }
+        maybeSpill(statesByKey);
     }
 
     private void addWithAccounting(Map<K, Object[]> statesByKey, K key, Object[] states) {
@@ -251,6 +353,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                 }
             }
         }
+        maybeSpill(statesByKey);
     }
 
     private void addNewEntry(Map<K, Object[]> statesByKey, K key) {
@@ -270,6 +373,110 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         addWithAccounting(statesByKey, key, states);
     }
 
+    private void maybeSpill(Map<K, Object[]> statesByKey) {
+        if (spillThreshold > 0 && ramAccounting.totalBytes() >= spillThreshold) {
+            spill(statesByKey);
+        }
+    }
+
+    /**
+     * Writes all groups as partial states into one file per partition,
+     * then drops them from memory and releases the accounted memory.
+     */
+    private void spill(Map<K, Object[]> statesByKey) {
+        if (spilledPartitions == null) {
+            spilledPartitions = new ArrayList<>(NUM_SPILL_PARTITIONS);
+            for (int i = 0; i < NUM_SPILL_PARTITIONS; i++) {
+                spilledPartitions.add(new ArrayList<>());
+            }
+        }
+        SpillFile[] files = new SpillFile[NUM_SPILL_PARTITIONS];
+        Object[] cells = new Object[spillStreamers.length];
+        try {
+            for (Map.Entry<K, Object[]> entry : statesByKey.entrySet()) {
+                K key = entry.getKey();
+                int partition = partition(key);
+                SpillFile file = files[partition];
+                if (file == null) {
+                    file = SpillFile.create(spillStreamers);
+                    files[partition] = file;
+                    spilledPartitions.get(partition).add(file);
+                }
+                applyKeyToCells.accept(key, cells);
+                System.arraycopy(entry.getValue(), 0, cells, numKeyColumns, aggregations.length);
+                file.add(cells);
+            }
+            for (SpillFile file : files) {
+                if (file != null) {
+                    file.finish();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        statesByKey.clear();
+        ramAccounting.release();
+    }
+
+    private static int partition(@Nullable Object key) {
+        return Math.floorMod(BitMixer.mix32(Objects.hashCode(key)), NUM_SPILL_PARTITIONS);
+    }
+
+    private Iterable<Row> finish(Map<K, Object[]> statesByKey) {
+        if (spilledPartitions == null) {
+            return mapToRows(statesByKey);
+        }
+        spill(statesByKey);
+        List<List<SpillFile>> partitions = new ArrayList<>(spilledPartitions.size());
+        for (List<SpillFile> partition : spilledPartitions) {
+            if (partition.isEmpty() == false) {
+                partitions.add(partition);
+            }
+        }
+        return Iterables.concat(Iterables.transform(partitions, this::mergePartition));
+    }
+
+    /**
+     * Reduces the partial states of all spill files of a partition into a single map.
+     * The memory of the previously merged partition is released first,
+     * as its rows have been consumed once the next partition is requested.
+     */
+    private Iterable<Row> mergePartition(List<SpillFile> partition) {
+        ramAccounting.release();
+        Map<K, Object[]> statesByKey = supplier.get();
+        for (SpillFile file : partition) {
+            for (Row row : file) {
+                K key = keyFromSpilledRow.apply(row);
+                Object[] states = statesByKey.get(key);
+                if (states == null) {
+                    states = new Object[aggregations.length];
+                    for (int i = 0; i < aggregations.length; i++) {
+                        states[i] = row.get(numKeyColumns + i);
+                    }
+                    addWithAccounting(statesByKey, key, states);
+                } else {
+                    for (int i = 0; i < aggregations.length; i++) {
+                        states[i] = aggregations[i].reduce(ramAccounting, states[i], row.get(numKeyColumns + i));
+                    }
+                }
+            }
+        }
+        return mapToRows(statesByKey);
+    }
+
+    /**
+     * Deletes the spill files, if any
+     */
+    @Override
+    public void close() {
+        if (spilledPartitions != null) {
+            for (List<SpillFile> partition : spilledPartitions) {
+                IOUtils.closeWhileHandlingException(partition);
+            }
+            spilledPartitions = null;
+        }
+    }
+
     private Iterable<Row> mapToRows(Map<K, Object[]> statesByKey) {
         return Iterables.transform(statesByKey.entrySet(), new com.google.common.base.Function<>() {
 
@@ -22,8 +22,10 @@
 
 package io.crate.execution.engine.aggregation;
 
+import io.crate.breaker.BlockBasedRamAccounting;
 import io.crate.breaker.RamAccounting;
 import io.crate.data.BatchIterator;
+import io.crate.data.BatchIterators;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Projector;
@@ -44,8 +46,7 @@ import static io.crate.expression.symbol.Symbols.typeView;
 
 public class GroupingProjector implements Projector {
 
-    private final Collector<Row, ?, Iterable<Row>> collector;
-
+    private final GroupingCollector<Object> collector;
 
     public GroupingProjector(List<? extends Symbol> keys,
                              List<Input<?>> keyInputs,
@@ -55,10 +56,16 @@ public class GroupingProjector implements Projector {
                              RamAccounting ramAccounting,
                              MemoryManager memoryManager,
                              Version minNodeVersion,
-                             Version indexVersionCreated) {
+                             Version indexVersionCreated,
+                             long spillThreshold) {
         assert keys.size() == keyInputs.size() : "number of key types must match with number of key inputs";
         ensureAllTypesSupported(keys);
 
+        // Spilling releases the memory accounted for the groups, so the collector must not share its accounting
+        RamAccounting collectorRamAccounting = spillThreshold > 0
+            ? new BlockBasedRamAccounting(ramAccounting::addBytes, BlockBasedRamAccounting.blockSizeInBytes(spillThreshold))
+            : ramAccounting;
+
         AggregationFunction[] functions = new AggregationFunction[aggregations.length];
         Input[][] inputs = new Input[aggregations.length][];
         Input<Boolean>[] filters = new Input[aggregations.length];
@@ -76,12 +83,13 @@ public class GroupingProjector implements Projector {
                 functions,
                 inputs,
                 filters,
-                ramAccounting,
+                collectorRamAccounting,
                 memoryManager,
                 minNodeVersion,
                 keyInputs.get(0),
                 key.valueType(),
-                indexVersionCreated
+                indexVersionCreated,
+                spillThreshold
             );
         } else {
             //noinspection unchecked
@@ -91,12 +99,13 @@ public class GroupingProjector implements Projector {
                 functions,
                 inputs,
                 filters,
-                ramAccounting,
+                collectorRamAccounting,
                 memoryManager,
                 minNodeVersion,
                 keyInputs,
                 typeView(keys),
-                indexVersionCreated
+                indexVersionCreated,
+                spillThreshold
             );
         }
     }
@@ -112,13 +121,29 @@ public class GroupingProjector implements Projector {
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
-        return CollectingBatchIterator.newInstance(batchIterator, collector);
+        return CollectingBatchIterator.newInstance(
+            () -> {
+                batchIterator.close();
+                collector.close();
+            },
+            batchIterator::kill,
+            () -> BatchIterators.collect(batchIterator, collector),
+            batchIterator.hasLazyResultSet()
+        );
     }
 
     public Collector<Row, ?, Iterable<Row>> getCollector() {
         return collector;
     }
 
+    /**
+     * Releases resources held by the collector. Only required if the collector
+     * is used directly via {@link #getCollector()}.
+     */
+    public void close() {
+        collector.close();
+    }
+
     @Override
     public boolean providesIndependentScroll() {
         return true;
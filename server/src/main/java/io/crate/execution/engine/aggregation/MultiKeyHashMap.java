@@ -0,0 +1,368 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import com.carrotsearch.hppc.BitMixer;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Open addressing hash map for keys consisting of multiple columns, used to group by many keys.
+ *
+ * <p>
+ * Keys are stored column wise: values of fixed width types (numbers, timestamps, booleans) are encoded into
+ * a {@code long[]} per column, values of other types are stored by reference in an {@code Object[]} per column.
+ * Unlike a {@link java.util.HashMap} with {@code List} keys there are no key or entry objects per group.
+ * </p>
+ *
+ * <p>
+ * Keys passed to {@link #get(Object)} and {@link #put(List, Object[])} are only read, never retained.
+ * This allows callers to use a single mutable key view for all rows.
+ * The keys of {@link #entrySet()} are materialized on iteration.
+ * Removing entries is not supported.
+ * </p>
+ */
+final class MultiKeyHashMap extends AbstractMap<List<Object>, Object[]> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final KeyColumn[] columns;
+
+    /**
+     * Slots of the hash table; contains the group index + 1 or 0 for empty slots.
+     * The table has twice the capacity of the group arrays, so the load factor is at most 0.5.
+     */
+    private int[] table;
+    private int mask;
+    private int[] hashes;
+    private Object[][] values;
+    private int size = 0;
+
+    MultiKeyHashMap(List<? extends DataType> keyTypes) {
+        columns = new KeyColumn[keyTypes.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = KeyColumn.forType(keyTypes.get(i), INITIAL_CAPACITY);
+        }
+        table = new int[INITIAL_CAPACITY * 2];
+        mask = table.length - 1;
+        hashes = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY][];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object[] get(Object key) {
+        List<?> keyValues = (List<?>) key;
+        int hash = hash(keyValues);
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int group = table[slot] - 1;
+            if (hashes[group] == hash && keyEquals(group, keyValues)) {
+                return values[group];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object[] put(List<Object> key, Object[] value) {
+        int hash = hash(key);
+        int slot = hash & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            int group = table[slot] - 1;
+            if (hashes[group] == hash && keyEquals(group, key)) {
+                Object[] previous = values[group];
+                values[group] = value;
+                return previous;
+            }
+        }
+        if (size == hashes.length) {
+            grow();
+            slot = hash & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        int group = size;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].set(group, key.get(i));
+        }
+        hashes[group] = hash;
+        values[group] = value;
+        table[slot] = group + 1;
+        size++;
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, 0, size, null);
+        for (KeyColumn column : columns) {
+            column.clear(size);
+        }
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<List<Object>, Object[]>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<List<Object>, Object[]>> iterator() {
+                return new Iterator<>() {
+
+                    int group = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return group < size;
+                    }
+
+                    @Override
+                    public Entry<List<Object>, Object[]> next() {
+                        if (group >= size) {
+                            throw new NoSuchElementException("Iterator is exhausted");
+                        }
+                        Entry<List<Object>, Object[]> entry = new SimpleImmutableEntry<>(key(group), values[group]);
+                        group++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private List<Object> key(int group) {
+        ArrayList<Object> key = new ArrayList<>(columns.length);
+        for (KeyColumn column : columns) {
+            key.add(column.get(group));
+        }
+        return key;
+    }
+
+    private int hash(List<?> key) {
+        int hash = 0;
+        for (int i = 0; i < columns.length; i++) {
+            hash = 31 * hash + columns[i].hash(key.get(i));
+        }
+        return BitMixer.mix32(hash);
+    }
+
+    private boolean keyEquals(int group, List<?> key) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].equals(group, key.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        int newCapacity = hashes.length * 2;
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+        for (KeyColumn column : columns) {
+            column.grow(newCapacity);
+        }
+        table = new int[newCapacity * 2];
+        mask = table.length - 1;
+        for (int group = 0; group < size; group++) {
+            int slot = hashes[group] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = group + 1;
+        }
+    }
+
+    private abstract static class KeyColumn {
+
+        static KeyColumn forType(DataType type, int capacity) {
+            switch (type.id()) {
+                case ByteType.ID:
+                    return new LongKeyColumn(capacity, v -> ((Number) v).longValue(), v -> (byte) v);
+                case ShortType.ID:
+                    return new LongKeyColumn(capacity, v -> ((Number) v).longValue(), v -> (short) v);
+                case IntegerType.ID:
+                    return new LongKeyColumn(capacity, v -> ((Number) v).longValue(), v -> (int) v);
+                case LongType.ID:
+                case TimestampType.ID_WITH_TZ:
+                case TimestampType.ID_WITHOUT_TZ:
+                    return new LongKeyColumn(capacity, v -> ((Number) v).longValue(), v -> v);
+                case BooleanType.ID:
+                    return new LongKeyColumn(capacity, v -> (Boolean) v ? 1L : 0L, v -> v != 0L);
+                case DoubleType.ID:
+                    return new LongKeyColumn(
+                        capacity,
+                        v -> Double.doubleToLongBits(((Number) v).doubleValue()),
+                        Double::longBitsToDouble
+                    );
+                case FloatType.ID:
+                    return new LongKeyColumn(
+                        capacity,
+                        v -> Float.floatToIntBits(((Number) v).floatValue()),
+                        v -> Float.intBitsToFloat((int) v)
+                    );
+                default:
+                    return new ObjectKeyColumn(capacity);
+            }
+        }
+
+        abstract int hash(Object value);
+
+        abstract boolean equals(int group, Object value);
+
+        abstract void set(int group, Object value);
+
+        abstract Object get(int group);
+
+        abstract void grow(int newCapacity);
+
+        abstract void clear(int size);
+    }
+
+    private static final class LongKeyColumn extends KeyColumn {
+
+        private final ToLongFunction<Object> encode;
+        private final LongFunction<Object> decode;
+        private long[] values;
+        private boolean[] nulls;
+
+        LongKeyColumn(int capacity, ToLongFunction<Object> encode, LongFunction<Object> decode) {
+            this.encode = encode;
+            this.decode = decode;
+            this.values = new long[capacity];
+            this.nulls = new boolean[capacity];
+        }
+
+        @Override
+        int hash(Object value) {
+            return value == null ? 0 : BitMixer.mix32((int) BitMixer.mix64(encode.applyAsLong(value)));
+        }
+
+        @Override
+        boolean equals(int group, Object value) {
+            if (value == null) {
+                return nulls[group];
+            }
+            return !nulls[group] && values[group] == encode.applyAsLong(value);
+        }
+
+        @Override
+        void set(int group, Object value) {
+            if (value == null) {
+                nulls[group] = true;
+            } else {
+                nulls[group] = false;
+                values[group] = encode.applyAsLong(value);
+            }
+        }
+
+        @Override
+        Object get(int group) {
+            return nulls[group] ? null : decode.apply(values[group]);
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+            nulls = Arrays.copyOf(nulls, newCapacity);
+        }
+
+        @Override
+        void clear(int size) {
+        }
+    }
+
+    private static final class ObjectKeyColumn extends KeyColumn {
+
+        private Object[] values;
+
+        ObjectKeyColumn(int capacity) {
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        int hash(Object value) {
+            return Objects.hashCode(value);
+        }
+
+        @Override
+        boolean equals(int group, Object value) {
+            return Objects.equals(values[group], value);
+        }
+
+        @Override
+        void set(int group, Object value) {
+            values[group] = value;
+        }
+
+        @Override
+        Object get(int group) {
+            return values[group];
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        void clear(int size) {
+            Arrays.fill(values, 0, size, null);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import io.crate.breaker.RamAccounting;
+import io.crate.execution.engine.vector.ColumnBatch;
+
+import javax.annotation.Nullable;
+
+/**
+ * Batch-at-a-time variant of an {@link AggregationFunction}, operating on the primitive column vectors of a
+ * {@link ColumnBatch} instead of boxed row values.
+ */
+public interface VectorAggregator<T> {
+
+    public T initialState(RamAccounting ramAccounting);
+
+    /**
+     * Aggregates the rows of the batch at the first {@code numSelected} positions of {@code selection}
+     */
+    public void apply(RamAccounting ramAccounting, ColumnBatch batch, int[] selection, int numSelected, T state);
+
+    /**
+     * @return the partial result in the representation returned by {@link AggregationFunction#iterate}
+     */
+    @Nullable
+    public Object partialResult(RamAccounting ramAccounting, T state);
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import io.crate.breaker.RamAccounting;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.vector.ColumnBatch;
+import io.crate.execution.engine.vector.ColumnVector;
+import io.crate.execution.engine.vector.VectorPredicate;
+import io.crate.execution.engine.vector.VectorPredicates;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Alternative to the {@link AggregateCollector} which buffers the aggregation inputs in a {@link ColumnBatch}
+ * and aggregates them batch-at-a-time using {@link VectorAggregator}s.
+ *
+ * Only applicable if all aggregations and their filters have a vectorized implementation,
+ * see {@link #tryCreate(AggregateMode, List, AggregationFunction[], RamAccounting)}
+ */
+public final class VectorizedAggregateCollector implements Collector<Row, VectorizedAggregateCollector.State, Iterable<Row>> {
+
+    private final AggregateMode mode;
+    private final AggregationFunction[] functions;
+    private final VectorAggregator[] aggregators;
+    private final VectorPredicate[] filters;
+    private final List<InputColumn> columns;
+    private final RamAccounting ramAccounting;
+    private final int batchSize;
+
+    /**
+     * @return the collector or null if any of the aggregations cannot be evaluated batch-at-a-time.
+     */
+    @Nullable
+    public static VectorizedAggregateCollector tryCreate(AggregateMode mode,
+                                                         List<Aggregation> aggregations,
+                                                         AggregationFunction[] functions,
+                                                         RamAccounting ramAccounting) {
+        return tryCreate(mode, aggregations, functions, ramAccounting, ColumnBatch.DEFAULT_CAPACITY);
+    }
+
+    @Nullable
+    static VectorizedAggregateCollector tryCreate(AggregateMode mode,
+                                                  List<Aggregation> aggregations,
+                                                  AggregationFunction[] functions,
+                                                  RamAccounting ramAccounting,
+                                                  int batchSize) {
+        if (mode == AggregateMode.PARTIAL_FINAL) {
+            // Reducing partial states isn't vectorized
+            return null;
+        }
+        assert aggregations.size() == functions.length : "Must have a function for each aggregation";
+        ArrayList<InputColumn> columns = new ArrayList<>();
+        VectorAggregator[] aggregators = new VectorAggregator[functions.length];
+        VectorPredicate[] filters = new VectorPredicate[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            Aggregation aggregation = aggregations.get(i);
+            List<InputColumn> inputs = new ArrayList<>(aggregation.inputs().size());
+            for (Symbol input : aggregation.inputs()) {
+                if (!(input instanceof InputColumn) || !ColumnVector.supports(input.valueType())) {
+                    return null;
+                }
+                inputs.add((InputColumn) input);
+            }
+            VectorAggregator<?> aggregator = functions[i].getVectorAggregator(inputs);
+            if (aggregator == null) {
+                return null;
+            }
+            Symbol filter = aggregation.filter();
+            if (!filter.equals(Literal.BOOLEAN_TRUE)) {
+                filters[i] = VectorPredicates.compile(filter, columns);
+                if (filters[i] == null) {
+                    return null;
+                }
+            }
+            aggregators[i] = aggregator;
+            columns.addAll(inputs);
+        }
+        return new VectorizedAggregateCollector(mode, functions, aggregators, filters, columns, ramAccounting, batchSize);
+    }
+
+    private VectorizedAggregateCollector(AggregateMode mode,
+                                         AggregationFunction[] functions,
+                                         VectorAggregator[] aggregators,
+                                         VectorPredicate[] filters,
+                                         List<InputColumn> columns,
+                                         RamAccounting ramAccounting,
+                                         int batchSize) {
+        this.mode = mode;
+        this.functions = functions;
+        this.aggregators = aggregators;
+        this.filters = filters;
+        this.columns = columns;
+        this.ramAccounting = ramAccounting;
+        this.batchSize = batchSize;
+    }
+
+    static final class State {
+
+        private final ColumnBatch batch;
+        private final Object[] states;
+        private final int[] allRows;
+        private final int[] selection;
+
+        private State(ColumnBatch batch, Object[] states) {
+            this.batch = batch;
+            this.states = states;
+            this.allRows = new int[batch.capacity()];
+            this.selection = new int[batch.capacity()];
+        }
+    }
+
+    @Override
+    public Supplier<State> supplier() {
+        return () -> {
+            ColumnBatch batch = new ColumnBatch(columns, batchSize);
+            // primitive values, null bitmap and the two selection vectors
+            ramAccounting.addBytes((long) batchSize * (batch.numColumns() * (Long.BYTES + 1) + 2 * Integer.BYTES));
+            Object[] states = new Object[aggregators.length];
+            for (int i = 0; i < aggregators.length; i++) {
+                states[i] = aggregators[i].initialState(ramAccounting);
+            }
+            return new State(batch, states);
+        };
+    }
+
+    @Override
+    public BiConsumer<State, Row> accumulator() {
+        return (state, row) -> {
+            state.batch.add(row);
+            if (state.batch.isFull()) {
+                aggregateBatch(state);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aggregateBatch(State state) {
+        ColumnBatch batch = state.batch;
+        int numRows = batch.selectAll(state.allRows);
+        for (int i = 0; i < aggregators.length; i++) {
+            VectorPredicate filter = filters[i];
+            if (filter == null) {
+                aggregators[i].apply(ramAccounting, batch, state.allRows, numRows, state.states[i]);
+            } else {
+                System.arraycopy(state.allRows, 0, state.selection, 0, numRows);
+                int numSelected = filter.apply(batch, state.selection, numRows);
+                aggregators[i].apply(ramAccounting, batch, state.selection, numSelected, state.states[i]);
+            }
+        }
+        batch.clear();
+    }
+
+    @Override
+    public BinaryOperator<State> combiner() {
+        return (state1, state2) -> {
+            throw new UnsupportedOperationException("combine not supported");
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Function<State, Iterable<Row>> finisher() {
+        return state -> {
+            if (state.batch.size() > 0) {
+                aggregateBatch(state);
+            }
+            Object[] cells = new Object[aggregators.length];
+            for (int i = 0; i < aggregators.length; i++) {
+                Object partialResult = aggregators[i].partialResult(ramAccounting, state.states[i]);
+                cells[i] = mode == AggregateMode.ITER_FINAL
+                    ? functions[i].terminatePartial(ramAccounting, partialResult)
+                    : partialResult;
+            }
+            return Collections.singletonList(new RowN(cells));
+        };
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+}
@@ -27,6 +27,12 @@ import io.crate.common.collections.Lists2;
 import io.crate.data.Input;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.aggregation.DocValueAggregator;
+import io.crate.execution.engine.aggregation.VectorAggregator;
+import io.crate.execution.engine.vector.ColumnBatch;
+import io.crate.execution.engine.vector.ColumnVector;
+import io.crate.execution.engine.vector.DoubleVector;
+import io.crate.execution.engine.vector.LongVector;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.ByteType;
@@ -320,5 +326,88 @@ public class AverageAggregation extends AggregationFunction<AverageAggregation.A
                 return null;
         }
     }
-}
 
+    @Override
+    public VectorAggregator<?> getVectorAggregator(List<InputColumn> inputs) {
+        InputColumn input = inputs.get(0);
+        if (ColumnVector.isLongType(input.valueType())) {
+            return new VectorAverageLong(input.index());
+        }
+        if (ColumnVector.isDoubleType(input.valueType())) {
+            return new VectorAverageDouble(input.index());
+        }
+        return null;
+    }
+
+    private static class VectorAverageLong implements VectorAggregator<AverageState> {
+
+        private final int columnIndex;
+
+        VectorAverageLong(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public AverageState initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(AverageStateType.INSTANCE.fixedSize());
+            return new AverageState();
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          AverageState state) {
+            LongVector values = batch.longs(columnIndex);
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    state.sum += values.get(position);
+                    state.count++;
+                }
+            }
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, AverageState state) {
+            return state;
+        }
+    }
+
+    private static class VectorAverageDouble implements VectorAggregator<AverageState> {
+
+        private final int columnIndex;
+
+        VectorAverageDouble(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public AverageState initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(AverageStateType.INSTANCE.fixedSize());
+            return new AverageState();
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          AverageState state) {
+            DoubleVector values = batch.doubles(columnIndex);
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    state.sum += values.get(position);
+                    state.count++;
+                }
+            }
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, AverageState state) {
+            return state;
+        }
+    }
+}
@@ -27,7 +27,11 @@ import io.crate.common.MutableLong;
 import io.crate.data.Input;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.aggregation.DocValueAggregator;
+import io.crate.execution.engine.aggregation.VectorAggregator;
+import io.crate.execution.engine.vector.ColumnBatch;
+import io.crate.execution.engine.vector.ColumnVector;
 import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.memory.MemoryManager;
@@ -273,4 +277,52 @@ public class CountAggregation extends AggregationFunction<MutableLong, Long> {
         }
         return null;
     }
+
+    @Override
+    public VectorAggregator<?> getVectorAggregator(List<InputColumn> inputs) {
+        return new VectorCount(inputs.isEmpty() ? -1 : inputs.get(0).index());
+    }
+
+    private static class VectorCount implements VectorAggregator<MutableLong> {
+
+        /**
+         * -1 for count(*)
+         */
+        private final int columnIndex;
+
+        VectorCount(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public MutableLong initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(LongStateType.INSTANCE.fixedSize());
+            return new MutableLong(0L);
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          MutableLong state) {
+            if (columnIndex == -1) {
+                state.add(numSelected);
+                return;
+            }
+            ColumnVector values = batch.column(columnIndex);
+            long count = 0;
+            for (int i = 0; i < numSelected; i++) {
+                if (!values.isNull(selection[i])) {
+                    count++;
+                }
+            }
+            state.add(count);
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, MutableLong state) {
+            return state;
+        }
+    }
 }
@@ -44,6 +44,12 @@ import io.crate.common.MutableLong;
 import io.crate.data.Input;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.aggregation.DocValueAggregator;
+import io.crate.execution.engine.aggregation.VectorAggregator;
+import io.crate.execution.engine.vector.ColumnBatch;
+import io.crate.execution.engine.vector.ColumnVector;
+import io.crate.execution.engine.vector.DoubleVector;
+import io.crate.execution.engine.vector.LongVector;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.DataType;
@@ -201,6 +207,107 @@ public abstract class MaximumAggregation extends AggregationFunction<Comparable,
         }
     }
 
+    private static class VectorLongMax implements VectorAggregator<MutableLong> {
+
+        private final int columnIndex;
+        private final DataType<?> partialType;
+
+        VectorLongMax(int columnIndex, DataType<?> partialType) {
+            this.columnIndex = columnIndex;
+            this.partialType = partialType;
+        }
+
+        @Override
+        public MutableLong initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(DataTypes.LONG.fixedSize());
+            return new MutableLong(Long.MIN_VALUE);
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          MutableLong state) {
+            LongVector values = batch.longs(columnIndex);
+            long result = state.value();
+            boolean hasValue = state.hasValue();
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    long value = values.get(position);
+                    if (value > result) {
+                        result = value;
+                    }
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(result);
+            }
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, MutableLong state) {
+            if (state.hasValue()) {
+                return partialType.sanitizeValue(state.value());
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static class VectorDoubleMax implements VectorAggregator<MutableDouble> {
+
+        private final int columnIndex;
+        private final DataType<?> partialType;
+
+        VectorDoubleMax(int columnIndex, DataType<?> partialType) {
+            this.columnIndex = columnIndex;
+            this.partialType = partialType;
+        }
+
+        @Override
+        public MutableDouble initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(DataTypes.DOUBLE.fixedSize());
+            return new MutableDouble(Double.NEGATIVE_INFINITY);
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          MutableDouble state) {
+            DoubleVector values = batch.doubles(columnIndex);
+            double result = state.value();
+            boolean hasValue = state.hasValue();
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    double value = values.get(position);
+                    // Double.compare to order NaN and -0.0 like the comparison of boxed values does
+                    if (!hasValue || Double.compare(value, result) > 0) {
+                        result = value;
+                    }
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(result);
+            }
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, MutableDouble state) {
+            if (state.hasValue()) {
+                return partialType.sanitizeValue(state.value());
+            } else {
+                return null;
+            }
+        }
+    }
+
     private static class FixedMaximumAggregation extends MaximumAggregation {
 
         private final int size;
@@ -233,6 +340,19 @@ public abstract class MaximumAggregation extends AggregationFunction<Comparable,
             }
         }
 
+        @Override
+        public VectorAggregator<?> getVectorAggregator(List<InputColumn> inputs) {
+            InputColumn input = inputs.get(0);
+            DataType<?> arg = input.valueType();
+            if (ColumnVector.isLongType(arg)) {
+                return new VectorLongMax(input.index(), arg);
+            }
+            if (ColumnVector.isDoubleType(arg)) {
+                return new VectorDoubleMax(input.index(), arg);
+            }
+            return null;
+        }
+
         @Nullable
         @Override
         public Comparable newState(RamAccounting ramAccounting,
@@ -331,4 +451,9 @@ public abstract class MaximumAggregation extends AggregationFunction<Comparable,
     public Comparable terminatePartial(RamAccounting ramAccounting, Comparable state) {
         return state;
     }
+
+    @Override
+    public boolean isSelectiveReduce() {
+        return true;
+    }
 }
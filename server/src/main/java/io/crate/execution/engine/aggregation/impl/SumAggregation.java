@@ -29,6 +29,11 @@ import io.crate.common.annotations.VisibleForTesting;
 import io.crate.data.Input;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.aggregation.DocValueAggregator;
+import io.crate.execution.engine.aggregation.VectorAggregator;
+import io.crate.execution.engine.vector.ColumnBatch;
+import io.crate.execution.engine.vector.DoubleVector;
+import io.crate.execution.engine.vector.LongVector;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.functions.Signature;
@@ -199,6 +204,24 @@ public class SumAggregation<T extends Number> extends AggregationFunction<T, T>
         }
     }
 
+    @Override
+    public VectorAggregator<?> getVectorAggregator(List<InputColumn> inputs) {
+        InputColumn input = inputs.get(0);
+        switch (input.valueType().id()) {
+            case ByteType.ID:
+            case ShortType.ID:
+            case IntegerType.ID:
+            case LongType.ID:
+                return new VectorSumLong(input.index());
+
+            case DoubleType.ID:
+                return new VectorSumDouble(input.index());
+
+            default:
+                return null;
+        }
+    }
+
     private static BiFunction<Signature, Signature, FunctionImplementation> getSumAggregationForDoubleFactory() {
         return (signature, boundSignature) -> {
             var kahanSummation = new KahanSummationForDouble();
@@ -334,4 +357,88 @@ public class SumAggregation<T extends Number> extends AggregationFunction<T, T>
             return state.hasValue() ? state.value() : null;
         }
     }
+
+    static class VectorSumLong implements VectorAggregator<MutableLong> {
+
+        private final int columnIndex;
+
+        VectorSumLong(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public MutableLong initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(DataTypes.LONG.fixedSize());
+            return new MutableLong(0L);
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          MutableLong state) {
+            LongVector values = batch.longs(columnIndex);
+            long sum = state.value();
+            boolean hasValue = state.hasValue();
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    sum = Math.addExact(sum, values.get(position));
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(sum);
+            }
+        }
+
+        @Override
+        public Long partialResult(RamAccounting ramAccounting, MutableLong state) {
+            return state.hasValue() ? state.value() : null;
+        }
+    }
+
+    static class VectorSumDouble implements VectorAggregator<MutableDouble> {
+
+        private final int columnIndex;
+        private final KahanSummationForDouble kahanSummation = new KahanSummationForDouble();
+
+        VectorSumDouble(int columnIndex) {
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public MutableDouble initialState(RamAccounting ramAccounting) {
+            ramAccounting.addBytes(DataTypes.DOUBLE.fixedSize());
+            return new MutableDouble(.0d);
+        }
+
+        @Override
+        public void apply(RamAccounting ramAccounting,
+                          ColumnBatch batch,
+                          int[] selection,
+                          int numSelected,
+                          MutableDouble state) {
+            DoubleVector values = batch.doubles(columnIndex);
+            double sum = state.value();
+            boolean hasValue = state.hasValue();
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (!values.isNull(position)) {
+                    double value = values.get(position);
+                    sum = hasValue ? kahanSummation.sum(sum, value) : value;
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                state.setValue(sum);
+            }
+        }
+
+        @Override
+        public Object partialResult(RamAccounting ramAccounting, MutableDouble state) {
+            return state.hasValue() ? state.value() : null;
+        }
+    }
 }
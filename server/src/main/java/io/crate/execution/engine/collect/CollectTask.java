@@ -28,6 +28,7 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 import com.carrotsearch.hppc.IntObjectHashMap;
@@ -46,11 +47,14 @@ import io.crate.data.RowConsumer;
 import io.crate.exceptions.Exceptions;
 import io.crate.execution.dsl.phases.CollectPhase;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.engine.pipeline.ProfilingProjectorFactory;
+import io.crate.execution.engine.pipeline.ProjectorFactory;
 import io.crate.execution.jobs.SharedShardContexts;
 import io.crate.execution.jobs.Task;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.TransactionContext;
+import io.crate.profile.ProfilingContext;
 
 
 public class CollectTask implements Task {
@@ -66,6 +70,8 @@ public class CollectTask implements Task {
     private final IntObjectHashMap<RefCountedItem<? extends IndexSearcher>> searchers = new IntObjectHashMap<>();
     private final RowConsumer consumer;
     private final int ramAccountingBlockSizeInBytes;
+    @Nullable
+    private final ProfilingContext profilingContext;
 
     @GuardedBy("searchers")
     private final ArrayList<MemoryManager> memoryManagers = new ArrayList<>();
@@ -87,7 +93,8 @@ public class CollectTask implements Task {
                        RowConsumer consumer,
                        SharedShardContexts sharedShardContexts,
                        Version minNodeVersion,
-                       int ramAccountingBlockSizeInBytes) {
+                       int ramAccountingBlockSizeInBytes,
+                       @Nullable ProfilingContext profilingContext) {
         this.collectPhase = collectPhase;
         this.txnCtx = txnCtx;
         this.collectOperation = collectOperation;
@@ -97,6 +104,7 @@ public class CollectTask implements Task {
         this.consumer = consumer;
         this.ramAccountingBlockSizeInBytes = ramAccountingBlockSizeInBytes;
         this.minNodeVersion = minNodeVersion;
+        this.profilingContext = profilingContext;
         this.batchIterator.whenComplete((it, err) -> {
             if (err == null) {
                 try {
@@ -286,4 +294,12 @@ public class CollectTask implements Task {
     public Version minNodeVersion() {
         return minNodeVersion;
     }
+
+    /**
+     * Returns a projectorFactory which records the statistics of the projectors of the collect phase
+     * if profiling is enabled.
+     */
+    public ProjectorFactory projectorFactory(ProjectorFactory projectorFactory) {
+        return ProfilingProjectorFactory.wrap(projectorFactory, profilingContext, collectPhase);
+    }
 }
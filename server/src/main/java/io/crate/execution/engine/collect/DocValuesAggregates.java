@@ -53,7 +53,6 @@ import io.crate.types.DataTypes;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
@@ -69,7 +68,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 public class DocValuesAggregates {
 
@@ -80,7 +82,9 @@ public class DocValuesAggregates {
                                                  LuceneQueryBuilder luceneQueryBuilder,
                                                  FieldTypeLookup fieldTypeLookup,
                                                  RoutedCollectPhase phase,
-                                                 CollectTask collectTask) {
+                                                 CollectTask collectTask,
+                                                 Executor executor,
+                                                 IntSupplier availableThreads) {
         var shardProjections = Projections.shardProjections(phase.projections());
         AggregationProjection aggregateProjection = aggregateProjection(shardProjections);
         if (aggregateProjection == null) {
@@ -111,18 +115,50 @@ public class DocValuesAggregates {
             shardContext.indexService().cache()
         );
 
+        // The aggregators hold the doc values of the current leaf, each slice needs its own
+        Supplier<List<DocValueAggregator>> sliceAggregators = LeafSlices.reuseFirst(
+            aggregators,
+            () -> createAggregators(
+                functions,
+                aggregateProjection,
+                fieldTypeLookup,
+                phase.toCollect(),
+                collectTask.txnCtx().sessionSettings().searchPath()
+            )
+        );
+        List<AggregationFunction> aggregationFunctions = aggregationFunctions(
+            functions,
+            aggregateProjection.aggregations(),
+            collectTask.txnCtx().sessionSettings().searchPath()
+        );
         AtomicReference<Throwable> killed = new AtomicReference<>();
         return CollectingBatchIterator.newInstance(
             () -> killed.set(BatchIterator.CLOSED),
             killed::set,
             () -> {
                 try {
-                    return CompletableFuture.completedFuture(getRow(
+                    IndexSearcher indexSearcher = searcher.item();
+                    Weight weight = indexSearcher.createWeight(
+                        indexSearcher.rewrite(queryContext.query()),
+                        ScoreMode.COMPLETE_NO_SCORES,
+                        1f
+                    );
+                    return LeafSlices.collect(
+                        indexSearcher.getTopReaderContext().leaves(),
+                        executor,
+                        availableThreads,
+                        LeafSlices.MIN_DOCS_PER_SLICE,
+                        leaves -> aggregateSlice(
+                            collectTask.getRamAccounting(),
+                            killed,
+                            weight,
+                            leaves,
+                            sliceAggregators.get()
+                        )
+                    ).thenApply(partialResults -> mergePartialResults(
                         collectTask.getRamAccounting(),
-                        killed,
-                        searcher.item(),
-                        queryContext.query(),
-                        aggregators
+                        aggregationFunctions,
+                        partialResults
                     ));
                 } catch (Throwable t) {
                     return CompletableFuture.failedFuture(t);
@@ -199,6 +235,17 @@ public class DocValuesAggregates {
         return aggregator;
     }
 
+    @SuppressWarnings("rawtypes")
+    private static List<AggregationFunction> aggregationFunctions(Functions functions,
+                                                                  List<Aggregation> aggregations,
+                                                                  SearchPath searchPath) {
+        ArrayList<AggregationFunction> aggregationFunctions = new ArrayList<>(aggregations.size());
+        for (Aggregation aggregation : aggregations) {
+            aggregationFunctions.add((AggregationFunction) functions.getQualified(aggregation, searchPath));
+        }
+        return aggregationFunctions;
+    }
+
     private static class AggregationInputToReferenceResolver extends SymbolVisitor<List<Symbol>, Symbol> {
 
         public static final AggregationInputToReferenceResolver INSTANCE =
@@ -234,13 +281,11 @@ public class DocValuesAggregates {
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static Iterable<Row> getRow(RamAccounting ramAccounting,
-                                        AtomicReference<Throwable> killed,
-                                        IndexSearcher searcher,
-                                        Query query,
-                                        List<DocValueAggregator> aggregators) throws IOException {
-        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
-        List<LeafReaderContext> leaves = searcher.getTopReaderContext().leaves();
+    private static Object[] aggregateSlice(RamAccounting ramAccounting,
+                                           AtomicReference<Throwable> killed,
+                                           Weight weight,
+                                           List<LeafReaderContext> leaves,
+                                           List<DocValueAggregator> aggregators) throws IOException {
         Object[] cells = new Object[aggregators.size()];
         for (int i = 0; i < aggregators.size(); i++) {
             cells[i] = aggregators.get(i).initialState(ramAccounting);
@@ -271,9 +316,22 @@ public class DocValuesAggregates {
         for (int i = 0; i < aggregators.size(); i++) {
             cells[i] = aggregators.get(i).partialResult(ramAccounting, cells[i]);
         }
-        return List.of(new RowN(cells));
+        return cells;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Iterable<Row> mergePartialResults(RamAccounting ramAccounting,
+                                                     List<AggregationFunction> aggregationFunctions,
+                                                     List<Object[]> partialResults) {
+        Object[] cells = partialResults.get(0);
+        for (int slice = 1; slice < partialResults.size(); slice++) {
+            Object[] slicePartialResults = partialResults.get(slice);
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = aggregationFunctions.get(i).reduce(ramAccounting, cells[i], slicePartialResults[i]);
+            }
+        }
+        return List.of(new RowN(cells));
+    }
 
     @Nullable
     private static AggregationProjection aggregateProjection(Collection<? extends Projection> shardProjections) {
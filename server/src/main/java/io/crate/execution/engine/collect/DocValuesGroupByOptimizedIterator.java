@@ -29,15 +29,20 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.Iterators;
 import io.crate.execution.engine.fetch.ReaderContext;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DocIdSetIterator;
@@ -92,7 +97,9 @@ final class DocValuesGroupByOptimizedIterator {
                                           FieldTypeLookup fieldTypeLookup,
                                           DocInputFactory docInputFactory,
                                           RoutedCollectPhase collectPhase,
-                                          CollectTask collectTask) {
+                                          CollectTask collectTask,
+                                          Executor executor,
+                                          IntSupplier availableThreads) {
         if (Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE)
             || Symbols.containsColumn(collectPhase.where(), DocSysColumns.SCORE)) {
             return null;
@@ -137,10 +144,23 @@ final class DocValuesGroupByOptimizedIterator {
         collectTask.addSearcher(sharedShardContext.readerId(), searcher);
         QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext();
 
-        InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx
-            = docInputFactory.getCtx(collectTask.txnCtx());
-        docCtx.add(columnKeyRefs);
-        List<? extends LuceneCollectorExpression<?>> keyExpressions = docCtx.expressions();
+        // Aggregators and expressions are stateful, each slice of the shard needs its own instances
+        Supplier<List<DocValueAggregator>> aggregatorsFactory = LeafSlices.reuseFirst(
+            aggregators,
+            () -> DocValuesAggregates.createAggregators(
+                functions,
+                groupProjection.values(),
+                fieldTypeLookup,
+                collectPhase.toCollect(),
+                collectTask.txnCtx().sessionSettings().searchPath()
+            )
+        );
+        Supplier<List<? extends LuceneCollectorExpression<?>>> keyExpressionsFactory = () -> {
+            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx
+                = docInputFactory.getCtx(collectTask.txnCtx());
+            docCtx.add(columnKeyRefs);
+            return docCtx.expressions();
+        };
 
         LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
             collectPhase.where(),
@@ -152,26 +172,29 @@ final class DocValuesGroupByOptimizedIterator {
             sharedShardContext.indexService().cache()
         );
 
-        var ramAccounting = collectTask.getRamAccounting();
         if (columnKeyRefs.size() == 1) {
             return GroupByIterator.forSingleKey(
-                aggregators,
+                aggregatorsFactory,
                 searcher.item(),
                 columnKeyRefs.get(0),
-                keyExpressions,
-                ramAccounting,
+                keyExpressionsFactory,
+                collectTask::getRamAccounting,
                 queryContext.query(),
-                new CollectorContext(sharedShardContext.readerId())
+                new CollectorContext(sharedShardContext.readerId()),
+                executor,
+                availableThreads
             );
         } else {
             return GroupByIterator.forManyKeys(
-                aggregators,
+                aggregatorsFactory,
                 searcher.item(),
                 columnKeyRefs,
-                keyExpressions,
-                ramAccounting,
+                keyExpressionsFactory,
+                collectTask::getRamAccounting,
                 queryContext.query(),
-                new CollectorContext(sharedShardContext.readerId())
+                new CollectorContext(sharedShardContext.readerId()),
+                executor,
+                availableThreads
             );
         }
     }
@@ -179,45 +202,52 @@ final class DocValuesGroupByOptimizedIterator {
     static class GroupByIterator {
 
         @VisibleForTesting
-        static BatchIterator<Row> forSingleKey(List<DocValueAggregator> aggregators,
+        static BatchIterator<Row> forSingleKey(Supplier<List<DocValueAggregator>> aggregators,
                                                IndexSearcher indexSearcher,
                                                Reference keyReference,
-                                               List<? extends LuceneCollectorExpression<?>> keyExpressions,
-                                               RamAccounting ramAccounting,
+                                               Supplier<List<? extends LuceneCollectorExpression<?>>> keyExpressions,
+                                               Supplier<RamAccounting> ramAccounting,
                                                Query query,
-                                               CollectorContext collectorContext) {
+                                               CollectorContext collectorContext,
+                                               Executor executor,
+                                               IntSupplier availableThreads) {
             return GroupByIterator.getIterator(
                 aggregators,
                 indexSearcher,
                 keyExpressions,
                 ramAccounting,
-                GroupByMaps.accountForNewEntry(
-                    ramAccounting,
+                sliceRamAccounting -> GroupByMaps.accountForNewEntry(
+                    sliceRamAccounting,
                     SizeEstimatorFactory.create(keyReference.valueType()),
                     null
                 ),
                 (expressions) -> expressions.get(0).value(),
                 (key, cells) -> cells[0] = key,
                 query,
-                new CollectorContext(collectorContext.readerId())
+                new CollectorContext(collectorContext.readerId()),
+                executor,
+                availableThreads,
+                LeafSlices.MIN_DOCS_PER_SLICE
             );
         }
 
         @VisibleForTesting
-        static <K> BatchIterator<Row> forManyKeys(List<DocValueAggregator> aggregators,
+        static <K> BatchIterator<Row> forManyKeys(Supplier<List<DocValueAggregator>> aggregators,
                                                   IndexSearcher indexSearcher,
                                                   List<Reference> keyColumnRefs,
-                                                  List<? extends LuceneCollectorExpression<?>> keyExpressions,
-                                                  RamAccounting ramAccounting,
+                                                  Supplier<List<? extends LuceneCollectorExpression<?>>> keyExpressions,
+                                                  Supplier<RamAccounting> ramAccounting,
                                                   Query query,
-                                                  CollectorContext collectorContext) {
+                                                  CollectorContext collectorContext,
+                                                  Executor executor,
+                                                  IntSupplier availableThreads) {
             return GroupByIterator.getIterator(
                 aggregators,
                 indexSearcher,
                 keyExpressions,
                 ramAccounting,
-                GroupByMaps.accountForNewEntry(
-                    ramAccounting,
+                sliceRamAccounting -> GroupByMaps.accountForNewEntry(
+                    sliceRamAccounting,
                     new MultiSizeEstimator(
                         Lists2.map(keyColumnRefs, Reference::valueType)
                     ),
@@ -236,48 +266,71 @@ final class DocValuesGroupByOptimizedIterator {
                     }
                 },
                 query,
-                new CollectorContext(collectorContext.readerId())
+                new CollectorContext(collectorContext.readerId()),
+                executor,
+                availableThreads,
+                LeafSlices.MIN_DOCS_PER_SLICE
             );
         }
 
+        /**
+         * Collects slices of the segments concurrently, see {@link LeafSlices}.
+         * The partial results of the slices aren't merged: the rows of the slices may contain the same keys,
+         * the same way the rows of different shards do. They are merged in the final reduce step.
+         */
         @VisibleForTesting
-        static <K> BatchIterator<Row> getIterator(List<DocValueAggregator> aggregators,
+        static <K> BatchIterator<Row> getIterator(Supplier<List<DocValueAggregator>> aggregators,
                                                   IndexSearcher indexSearcher,
-                                                  List<? extends LuceneCollectorExpression<?>> keyExpressions,
-                                                  RamAccounting ramAccounting,
-                                                  BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
+                                                  Supplier<List<? extends LuceneCollectorExpression<?>>> keyExpressions,
+                                                  Supplier<RamAccounting> ramAccounting,
+                                                  Function<RamAccounting, BiConsumer<Map<K, Object[]>, K>> accountForNewKeyEntry,
                                                   Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
                                                   BiConsumer<K, Object[]> applyKeyToCells,
                                                   Query query,
-                                                  CollectorContext collectorContext) {
-            for (int i = 0; i < keyExpressions.size(); i++) {
-                keyExpressions.get(i).startCollect(collectorContext);
-            }
-
+                                                  CollectorContext collectorContext,
+                                                  Executor executor,
+                                                  IntSupplier availableThreads,
+                                                  int minDocsPerSlice) {
+            int numberOfKeys = keyExpressions.get().size();
             AtomicReference<Throwable> killed = new AtomicReference<>();
             return CollectingBatchIterator.newInstance(
                 () -> killed.set(BatchIterator.CLOSED),
                 killed::set,
                 () -> {
                     try {
-                        return CompletableFuture.completedFuture(
-                            getRows(
-                                applyAggregatesGroupedByKey(
-                                    aggregators,
-                                    indexSearcher,
-                                    keyExpressions,
-                                    accountForNewKeyEntry,
+                        Weight weight = indexSearcher.createWeight(
+                            indexSearcher.rewrite(query),
+                            ScoreMode.COMPLETE_NO_SCORES,
+                            1f
+                        );
+                        return LeafSlices.collect(
+                            indexSearcher.getTopReaderContext().leaves(),
+                            executor,
+                            availableThreads,
+                            minDocsPerSlice,
+                            leaves -> {
+                                List<? extends LuceneCollectorExpression<?>> sliceKeyExpressions = keyExpressions.get();
+                                var sliceCollectorContext = new CollectorContext(collectorContext.readerId());
+                                for (int i = 0; i < sliceKeyExpressions.size(); i++) {
+                                    sliceKeyExpressions.get(i).startCollect(sliceCollectorContext);
+                                }
+                                RamAccounting sliceRamAccounting = ramAccounting.get();
+                                return applyAggregatesGroupedByKey(
+                                    aggregators.get(),
+                                    weight,
+                                    leaves,
+                                    sliceKeyExpressions,
+                                    accountForNewKeyEntry.apply(sliceRamAccounting),
                                     keyExtractor,
-                                    ramAccounting,
-                                    query,
+                                    sliceRamAccounting,
                                     killed
-                                ),
-                                keyExpressions.size(),
-                                applyKeyToCells,
-                                aggregators,
-                                ramAccounting
-                            )
-                        );
+                                );
+                            }
+                        ).thenApply(partialResultsBySlice -> getRows(
+                            partialResultsBySlice,
+                            numberOfKeys,
+                            applyKeyToCells
+                        ));
                     } catch (Throwable t) {
                         return CompletableFuture.failedFuture(t);
                     }
@@ -286,52 +339,56 @@ final class DocValuesGroupByOptimizedIterator {
             );
         }
 
-        private static <K> Iterable<Row> getRows(Map<K, Object[]> groupedStates,
+        private static <K> Iterable<Row> getRows(List<Map<K, Object[]>> partialResultsBySlice,
                                                  int numberOfKeys,
-                                                 BiConsumer<K, Object[]> applyKeyToCells,
-                                                 List<DocValueAggregator> aggregators,
-                                                 RamAccounting ramAccounting) {
-            return () -> groupedStates.entrySet().stream()
-                .map(new Function<Map.Entry<K, Object[]>, Row>() {
+                                                 BiConsumer<K, Object[]> applyKeyToCells) {
+            return () -> {
+                // Not using Stream.flatMap; its iterator buffers the mapped rows, but the row and cells are re-used
+                Iterator<Map.Entry<K, Object[]>> entries = Iterators.concat(
+                    Iterators.transform(partialResultsBySlice.iterator(), partialResults -> partialResults.entrySet().iterator())
+                );
+                return new Iterator<>() {
+
+                    Object[] cells = null;
+                    RowN row = null;
 
-                    Object[] cells = new Object[numberOfKeys + aggregators.size()];
-                    RowN row = new RowN(cells);
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
 
                     @Override
-                    public Row apply(Map.Entry<K, Object[]> entry) {
-                        K key = entry.getKey();
-                        applyKeyToCells.accept(key, cells);
-
-                        Object[] states = entry.getValue();
-                        int c = numberOfKeys;
-                        for (int i = 0; i < states.length; i++) {
-                            //noinspection unchecked
-                            cells[c] = aggregators.get(i).partialResult(ramAccounting, states[i]);
-                            c++;
+                    public Row next() {
+                        Map.Entry<K, Object[]> entry = entries.next();
+                        Object[] partialResults = entry.getValue();
+                        if (cells == null) {
+                            cells = new Object[numberOfKeys + partialResults.length];
+                            row = new RowN(cells);
                         }
+                        applyKeyToCells.accept(entry.getKey(), cells);
+                        System.arraycopy(partialResults, 0, cells, numberOfKeys, partialResults.length);
                         return row;
                     }
-                }).iterator();
+                };
+            };
         }
 
+        /**
+         * @return the partial results of the aggregations by key
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
         private static <K> Map<K, Object[]> applyAggregatesGroupedByKey(
             List<DocValueAggregator> aggregators,
-            IndexSearcher indexSearcher,
+            Weight weight,
+            List<LeafReaderContext> leaves,
             List<? extends LuceneCollectorExpression<?>> keyExpressions,
             BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
             Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
             RamAccounting ramAccounting,
-            Query query,
             AtomicReference<Throwable> killed
         ) throws IOException {
 
             HashMap<K, Object[]> statesByKey = new HashMap<>();
-            Weight weight = indexSearcher.createWeight(
-                indexSearcher.rewrite(query),
-                ScoreMode.COMPLETE_NO_SCORES,
-                1f
-            );
-            List<LeafReaderContext> leaves = indexSearcher.getTopReaderContext().leaves();
             for (var leaf : leaves) {
                 raiseIfClosedOrKilled(killed);
                 Scorer scorer = weight.scorer(leaf);
@@ -364,19 +421,22 @@ final class DocValuesGroupByOptimizedIterator {
                         for (int i = 0; i < aggregators.size(); i++) {
                             var aggregator = aggregators.get(i);
                             states[i] = aggregator.initialState(ramAccounting);
-                            //noinspection unchecked
                             aggregator.apply(ramAccounting, doc, states[i]);
                         }
                         accountForNewKeyEntry.accept(statesByKey, key);
                         statesByKey.put(key, states);
                     } else {
                         for (int i = 0; i < aggregators.size(); i++) {
-                            //noinspection unchecked
                             aggregators.get(i).apply(ramAccounting, doc, states[i]);
                         }
                     }
                 }
             }
+            for (Object[] states : statesByKey.values()) {
+                for (int i = 0; i < aggregators.size(); i++) {
+                    states[i] = aggregators.get(i).partialResult(ramAccounting, states[i]);
+                }
+            }
             return statesByKey;
         }
 
@@ -408,6 +468,8 @@ final class DocValuesGroupByOptimizedIterator {
             return null;
         }
         Projection shardProjection = shardProjections.iterator().next();
+        // The slices of a shard may return the same key more than once (see GroupByIterator#getIterator),
+        // so the rows must be partial results which are merged further down the plan
         if (!(shardProjection instanceof GroupProjection) ||
             ((GroupProjection) shardProjection).mode() == AggregateMode.ITER_FINAL) {
             return null;
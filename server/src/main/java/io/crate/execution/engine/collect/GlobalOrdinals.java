@@ -0,0 +1,95 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.packed.PackedInts;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+/**
+ * Maps the per-segment ordinals of a {@link SortedSetDocValues} field to ordinals which are unique within a
+ * top-level reader.
+ *
+ * Building an {@link OrdinalMap} requires a merge of the terms of all segments, so they're cached until the
+ * reader they belong to is closed. Readers are re-opened on refresh, so a cache entry lives as long as the
+ * searcher generation of a shard.
+ */
+final class GlobalOrdinals {
+
+    static final ConcurrentMap<IndexReader.CacheKey, ConcurrentMap<String, OrdinalMap>> ORDINAL_MAPS =
+        ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
+
+    // Evict the ordinal maps of a reader once it's closed:
+    private static final IndexReader.ClosedListener REMOVE_ORDINAL_MAPS = ORDINAL_MAPS::remove;
+
+    private GlobalOrdinals() {
+    }
+
+    /**
+     * @return the ordinal map for the field. The segment numbers of the map are the ordinals of the leaves of the reader.
+     */
+    static OrdinalMap get(IndexReader reader, String field) throws IOException {
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        if (cacheHelper == null) {
+            return build(reader, null, field);
+        }
+        IndexReader.CacheKey cacheKey = cacheHelper.getKey();
+        ConcurrentMap<String, OrdinalMap> ordinalMapsByField = ORDINAL_MAPS.get(cacheKey);
+        if (ordinalMapsByField == null) {
+            ordinalMapsByField = ConcurrentCollections.newConcurrentMap();
+            ConcurrentMap<String, OrdinalMap> other = ORDINAL_MAPS.putIfAbsent(cacheKey, ordinalMapsByField);
+            if (other == null) {
+                cacheHelper.addClosedListener(REMOVE_ORDINAL_MAPS);
+            } else {
+                ordinalMapsByField = other;
+            }
+        }
+        OrdinalMap ordinalMap = ordinalMapsByField.get(field);
+        if (ordinalMap == null) {
+            // Concurrent queries may build the same map, the first one wins
+            ordinalMap = build(reader, cacheKey, field);
+            OrdinalMap other = ordinalMapsByField.putIfAbsent(field, ordinalMap);
+            if (other != null) {
+                ordinalMap = other;
+            }
+        }
+        return ordinalMap;
+    }
+
+    private static OrdinalMap build(IndexReader reader, IndexReader.CacheKey owner, String field) throws IOException {
+        List<LeafReaderContext> leaves = reader.leaves();
+        SortedSetDocValues[] values = new SortedSetDocValues[leaves.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = DocValues.getSortedSet(leaves.get(i).reader(), field);
+        }
+        return OrdinalMap.build(owner, values, PackedInts.DEFAULT);
+    }
+}
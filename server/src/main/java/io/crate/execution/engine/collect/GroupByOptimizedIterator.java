@@ -26,10 +26,9 @@ import static io.crate.execution.dsl.projection.Projections.shardProjections;
 import static io.crate.execution.engine.collect.LuceneShardCollectorProvider.formatSource;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -40,6 +39,7 @@ import javax.annotation.Nullable;
 import io.crate.execution.engine.fetch.ReaderContext;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.search.DocIdSetIterator;
@@ -50,8 +50,9 @@ import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.RamUsageEstimator;
 import org.elasticsearch.Version;
-import org.elasticsearch.common.lucene.BytesRefs;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.ObjectArray;
 import org.elasticsearch.index.engine.Engine;
@@ -109,7 +110,7 @@ final class GroupByOptimizedIterator {
      * (+ being faster, - being slower)
      */
     private static final double CARDINALITY_RATIO_THRESHOLD = 0.5;
-    private static final long HASH_MAP_ENTRY_OVERHEAD = 32; // see private RamUsageEstimator.shallowSizeOfInstance(HashMap.Node.class)
+    private static final long KEY_AND_STATES_OVERHEAD = RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
     @Nullable
     static BatchIterator<Row> tryOptimizeSingleStringKey(IndexShard indexShard,
@@ -247,23 +248,22 @@ final class GroupByOptimizedIterator {
 
     }
 
-    private static Iterable<Row> getRows(Map<BytesRef, Object[]> groupedStates,
+    private static Iterable<Row> getRows(List<Object[]> groupedStates,
                                          RamAccounting ramAccounting,
                                          List<AggregationContext> aggregations,
                                          AggregateMode mode) {
-        return () -> groupedStates.entrySet().stream()
-            .map(new Function<Map.Entry<BytesRef, Object[]>, Row>() {
+        return () -> groupedStates.stream()
+            .map(new Function<Object[], Row>() {
 
                 final Object[] cells = new Object[1 + aggregations.size()];
                 final RowN row = new RowN(cells);
 
                 @Override
-                public Row apply(Map.Entry<BytesRef, Object[]> entry) {
-                    cells[0] = BytesRefs.toString(entry.getKey());
-                    Object[] states = entry.getValue();
-                    for (int i = 0, c = 1; i < states.length; i++, c++) {
+                public Row apply(Object[] keyAndStates) {
+                    cells[0] = keyAndStates[0];
+                    for (int i = 0, c = 1; i < aggregations.size(); i++, c++) {
                         //noinspection unchecked
-                        cells[c] = mode.finishCollect(ramAccounting, aggregations.get(i).function(), states[i]);
+                        cells[c] = mode.finishCollect(ramAccounting, aggregations.get(i).function(), keyAndStates[c]);
                     }
                     return row;
                 }
@@ -271,35 +271,53 @@ final class GroupByOptimizedIterator {
             .iterator();
     }
 
-    private static Map<BytesRef, Object[]> applyAggregatesGroupedByKey(BigArrays bigArrays,
-                                                                       IndexSearcher indexSearcher,
-                                                                       String keyColumnName,
-                                                                       List<AggregationContext> aggregations,
-                                                                       List<? extends LuceneCollectorExpression<?>> expressions,
-                                                                       List<CollectExpression<Row, ?>> aggExpressions,
-                                                                       RamAccounting ramAccounting,
-                                                                       MemoryManager memoryManager,
-                                                                       Version minNodeVersion,
-                                                                       InputRow inputRow,
-                                                                       Query query,
-                                                                       AtomicReference<Throwable> killed) throws IOException {
-        final HashMap<BytesRef, Object[]> statesByKey = new HashMap<>();
+    /**
+     * Aggregates into a single array indexed by the global ordinals of the key column (see {@link GlobalOrdinals}).
+     * The keys are only resolved once per shard, after all segments have been processed.
+     *
+     * @return the key followed by the aggregation states, per distinct key.
+     */
+    private static List<Object[]> applyAggregatesGroupedByKey(BigArrays bigArrays,
+                                                              IndexSearcher indexSearcher,
+                                                              String keyColumnName,
+                                                              List<AggregationContext> aggregations,
+                                                              List<? extends LuceneCollectorExpression<?>> expressions,
+                                                              List<CollectExpression<Row, ?>> aggExpressions,
+                                                              RamAccounting ramAccounting,
+                                                              MemoryManager memoryManager,
+                                                              Version minNodeVersion,
+                                                              InputRow inputRow,
+                                                              Query query,
+                                                              AtomicReference<Throwable> killed) throws IOException {
         final Weight weight = indexSearcher.createWeight(indexSearcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
         final List<LeafReaderContext> leaves = indexSearcher.getTopReaderContext().leaves();
+        // The ordinals of a single segment are already unique within the shard
+        final OrdinalMap ordinalMap = leaves.size() > 1
+            ? GlobalOrdinals.get(indexSearcher.getIndexReader(), keyColumnName)
+            : null;
+        final long valueCount;
+        if (ordinalMap != null) {
+            valueCount = ordinalMap.getValueCount();
+        } else if (leaves.isEmpty()) {
+            valueCount = 0;
+        } else {
+            valueCount = DocValues.getSortedSet(leaves.get(0).reader(), keyColumnName).getValueCount();
+        }
         Object[] nullStates = null;
 
-        for (LeafReaderContext leaf: leaves) {
-            raiseIfClosedOrKilled(killed);
-            Scorer scorer = weight.scorer(leaf);
-            if (scorer == null) {
-                continue;
-            }
-            var readerContext = new ReaderContext(leaf);
-            for (int i = 0, expressionsSize = expressions.size(); i < expressionsSize; i++) {
-                expressions.get(i).setNextReader(readerContext);
-            }
-            SortedSetDocValues values = DocValues.getSortedSet(leaf.reader(), keyColumnName);
-            try (ObjectArray<Object[]> statesByOrd = bigArrays.newObjectArray(values.getValueCount())) {
+        try (ObjectArray<Object[]> statesByOrd = bigArrays.newObjectArray(valueCount)) {
+            for (LeafReaderContext leaf: leaves) {
+                raiseIfClosedOrKilled(killed);
+                Scorer scorer = weight.scorer(leaf);
+                if (scorer == null) {
+                    continue;
+                }
+                var readerContext = new ReaderContext(leaf);
+                for (int i = 0, expressionsSize = expressions.size(); i < expressionsSize; i++) {
+                    expressions.get(i).setNextReader(readerContext);
+                }
+                SortedSetDocValues values = DocValues.getSortedSet(leaf.reader(), keyColumnName);
+                LongValues globalOrds = ordinalMap == null ? LongValues.IDENTITY : ordinalMap.getGlobalOrds(leaf.ord);
                 DocIdSetIterator docs = scorer.iterator();
                 Bits liveDocs = leaf.reader().getLiveDocs();
                 for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
@@ -314,7 +332,7 @@ final class GroupByOptimizedIterator {
                         aggExpressions.get(i).setNextRow(inputRow);
                     }
                     if (values.advanceExact(doc)) {
-                        long ord = values.nextOrd();
+                        long ord = globalOrds.get(values.nextOrd());
                         Object[] states = statesByOrd.get(ord);
                         if (states == null) {
                             statesByOrd.set(ord, initStates(aggregations, ramAccounting, memoryManager, minNodeVersion));
@@ -332,35 +350,39 @@ final class GroupByOptimizedIterator {
                         }
                     }
                 }
-                for (long ord = 0; ord < statesByOrd.size(); ord++) {
-                    raiseIfClosedOrKilled(killed);
-                    Object[] states = statesByOrd.get(ord);
-                    if (states == null) {
-                        continue;
-                    }
-                    BytesRef sharedKey = values.lookupOrd(ord);
-                    Object[] prevStates = statesByKey.get(sharedKey);
-                    if (prevStates == null) {
-                        ramAccounting.addBytes(StringSizeEstimator.estimateSize(sharedKey) + HASH_MAP_ENTRY_OVERHEAD);
-                        statesByKey.put(BytesRef.deepCopyOf(sharedKey), states);
-                    } else {
-                        for (int i = 0; i < aggregations.size(); i++) {
-                            AggregationContext aggregation = aggregations.get(i);
-                            //noinspection unchecked
-                            prevStates[i] = aggregation.function().reduce(
-                                ramAccounting,
-                                prevStates[i],
-                                states[i]
-                            );
-                        }
-                    }
+            }
+
+            ArrayList<Object[]> keysAndStates = new ArrayList<>();
+            SortedSetDocValues[] valuesBySegment = new SortedSetDocValues[leaves.size()];
+            for (long ord = 0; ord < statesByOrd.size(); ord++) {
+                raiseIfClosedOrKilled(killed);
+                Object[] states = statesByOrd.get(ord);
+                if (states == null) {
+                    continue;
                 }
+                int segment = ordinalMap == null ? 0 : ordinalMap.getFirstSegmentNumber(ord);
+                long segmentOrd = ordinalMap == null ? ord : ordinalMap.getFirstSegmentOrd(ord);
+                SortedSetDocValues values = valuesBySegment[segment];
+                if (values == null) {
+                    values = DocValues.getSortedSet(leaves.get(segment).reader(), keyColumnName);
+                    valuesBySegment[segment] = values;
+                }
+                BytesRef key = values.lookupOrd(segmentOrd);
+                ramAccounting.addBytes(StringSizeEstimator.estimateSize(key) + KEY_AND_STATES_OVERHEAD);
+                keysAndStates.add(keyAndStates(key.utf8ToString(), states));
             }
+            if (nullStates != null) {
+                keysAndStates.add(keyAndStates(null, nullStates));
+            }
+            return keysAndStates;
         }
-        if (nullStates != null) {
-            statesByKey.put(null, nullStates);
-        }
-        return statesByKey;
+    }
+
+    private static Object[] keyAndStates(@Nullable String key, Object[] states) {
+        Object[] keyAndStates = new Object[1 + states.length];
+        keyAndStates[0] = key;
+        System.arraycopy(states, 0, keyAndStates, 1, states.length);
+        return keyAndStates;
     }
 
     static boolean hasHighCardinalityRatio(Supplier<Engine.Searcher> acquireSearcher, String fieldName) {
@@ -0,0 +1,145 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import io.crate.common.CheckedFunction;
+import io.crate.concurrent.CompletableFutures;
+import io.crate.execution.support.ThreadPools;
+import org.apache.lucene.index.LeafReaderContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Splits the segments of a shard into slices which are collected concurrently.
+ *
+ * Used by the collectors which consume a whole shard to compute partial aggregation states.
+ * Each slice must use its own (stateful) aggregators and expressions, the partial results of the
+ * slices are merged by the caller.
+ *
+ * Grouped results are not merged per shard: the slices may return the same key, the same way different shards do.
+ * This is only correct if the partial results are merged further down the plan, which is why shard projections
+ * with {@link io.crate.expression.symbol.AggregateMode#ITER_FINAL} are not collected in slices.
+ */
+final class LeafSlices {
+
+    /**
+     * Same as the default of Lucene's IndexSearcher.
+     * Smaller slices aren't worth the overhead of handing them over to another thread.
+     */
+    static final int MIN_DOCS_PER_SLICE = 250_000;
+
+    private LeafSlices() {
+    }
+
+    /**
+     * Distributes the leaves into at most {@code maxSlices} slices with about the same number of documents
+     */
+    static List<List<LeafReaderContext>> slice(List<LeafReaderContext> leaves, int maxSlices, int minDocsPerSlice) {
+        long totalDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            totalDocs += leaf.reader().maxDoc();
+        }
+        long numSlices = Math.min(Math.min(maxSlices, leaves.size()), totalDocs / minDocsPerSlice);
+        if (numSlices <= 1) {
+            return Collections.singletonList(leaves);
+        }
+        ArrayList<LeafReaderContext> sortedLeaves = new ArrayList<>(leaves);
+        sortedLeaves.sort(Comparator.comparingInt((LeafReaderContext leaf) -> leaf.reader().maxDoc()).reversed());
+        ArrayList<List<LeafReaderContext>> slices = new ArrayList<>((int) numSlices);
+        long[] docsPerSlice = new long[(int) numSlices];
+        for (int i = 0; i < numSlices; i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (LeafReaderContext leaf : sortedLeaves) {
+            int smallestSlice = 0;
+            for (int i = 1; i < docsPerSlice.length; i++) {
+                if (docsPerSlice[i] < docsPerSlice[smallestSlice]) {
+                    smallestSlice = i;
+                }
+            }
+            slices.get(smallestSlice).add(leaf);
+            docsPerSlice[smallestSlice] += leaf.reader().maxDoc();
+        }
+        return slices;
+    }
+
+    /**
+     * Applies {@code collectSlice} to slices of the leaves.
+     *
+     * The number of slices is limited by {@code availableThreads}. The first slice is collected in
+     * the calling thread, the others using the executor, or also in the calling thread if the executor
+     * rejects them.
+     *
+     * @return a future with the results of all slices
+     */
+    static <T> CompletableFuture<List<T>> collect(List<LeafReaderContext> leaves,
+                                                  Executor executor,
+                                                  IntSupplier availableThreads,
+                                                  int minDocsPerSlice,
+                                                  CheckedFunction<List<LeafReaderContext>, T, IOException> collectSlice) {
+        List<List<LeafReaderContext>> slices = slice(leaves, availableThreads.getAsInt(), minDocsPerSlice);
+        ArrayList<CompletableFuture<T>> results = new ArrayList<>(slices.size());
+        for (int i = 0; i < slices.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        for (int i = 1; i < slices.size(); i++) {
+            List<LeafReaderContext> slice = slices.get(i);
+            CompletableFuture<T> result = results.get(i);
+            ThreadPools.forceExecute(executor, () -> collectSlice(collectSlice, slice, result));
+        }
+        collectSlice(collectSlice, slices.get(0), results.get(0));
+        return CompletableFutures.allAsList(results);
+    }
+
+    /**
+     * Returns a supplier which hands out {@code first} to the first caller and instances created by {@code factory}
+     * to all others. Used to give the instances created to check if a shard can be collected in slices to one
+     * of the slices, instead of creating them again.
+     */
+    static <T> Supplier<T> reuseFirst(T first, Supplier<T> factory) {
+        AtomicReference<T> unused = new AtomicReference<>(first);
+        return () -> {
+            T instance = unused.getAndSet(null);
+            return instance == null ? factory.get() : instance;
+        };
+    }
+
+    private static <T> void collectSlice(CheckedFunction<List<LeafReaderContext>, T, IOException> collectSlice,
+                                         List<LeafReaderContext> slice,
+                                         CompletableFuture<T> result) {
+        try {
+            result.complete(collectSlice.apply(slice));
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+}
@@ -21,6 +21,9 @@
 
 package io.crate.execution.engine.collect;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -31,6 +34,7 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.shard.IndexShard;
@@ -49,6 +53,7 @@ import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
 import io.crate.execution.engine.sort.LuceneSortGenerator;
 import io.crate.execution.jobs.NodeJobsCounter;
 import io.crate.execution.jobs.SharedShardContext;
+import io.crate.execution.support.ThreadPools;
 import io.crate.expression.InputFactory;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
 import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
@@ -75,6 +80,8 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     private final BigArrays bigArrays;
     private final FieldTypeLookup fieldTypeLookup;
     private final DocTableInfo table;
+    private final Executor executor;
+    private final IntSupplier availableThreads;
 
     public LuceneShardCollectorProvider(Schemas schemas,
                                         LuceneQueryBuilder luceneQueryBuilder,
@@ -86,7 +93,8 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                                         Settings settings,
                                         TransportActionProvider transportActionProvider,
                                         IndexShard indexShard,
-                                        BigArrays bigArrays) {
+                                        BigArrays bigArrays,
+                                        @Nullable ShardResultCache resultCache) {
         super(
             clusterService,
             circuitBreakerService,
@@ -97,7 +105,8 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             settings,
             transportActionProvider,
             indexShard,
-            new ShardRowContext(indexShard, clusterService)
+            new ShardRowContext(indexShard, clusterService),
+            resultCache
         );
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.nodeCtx = nodeCtx;
@@ -120,6 +129,9 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             )
         );
         this.bigArrays = bigArrays;
+        ThreadPoolExecutor searchExecutor = (ThreadPoolExecutor) threadPool.executor(ThreadPool.Names.SEARCH);
+        this.executor = searchExecutor;
+        this.availableThreads = ThreadPools.numIdleThreads(searchExecutor, EsExecutors.numberOfProcessors(settings));
     }
 
     @Override
@@ -180,7 +192,9 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             fieldTypeLookup,
             docInputFactory,
             normalizedPhase,
-            collectTask
+            collectTask,
+            executor,
+            availableThreads
         );
         if (it != null) {
             return it;
@@ -192,7 +206,9 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             luceneQueryBuilder,
             fieldTypeLookup,
             normalizedPhase,
-            collectTask
+            collectTask,
+            executor,
+            availableThreads
         );
     }
 
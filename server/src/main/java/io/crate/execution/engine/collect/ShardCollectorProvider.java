@@ -22,11 +22,14 @@
 
 package io.crate.execution.engine.collect;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.Iterables;
 import io.crate.metadata.NodeContext;
+import org.apache.lucene.search.IndexSearcher;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.shard.IndexShard;
@@ -34,14 +37,17 @@ import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import io.crate.analyze.WhereClause;
+import io.crate.common.collections.RefCountedItem;
 import io.crate.data.BatchIterator;
 import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.SentinelRow;
 import io.crate.execution.TransportActionProvider;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.dsl.projection.Projections;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
+import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.engine.pipeline.ProjectionToProjectorVisitor;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
 import io.crate.execution.engine.pipeline.Projectors;
@@ -50,6 +56,7 @@ import io.crate.execution.jobs.SharedShardContext;
 import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.reference.sys.shard.ShardRowContext;
+import io.crate.expression.symbol.Symbols;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.Schemas;
 import io.crate.metadata.shard.ShardReferenceResolver;
@@ -58,6 +65,8 @@ public abstract class ShardCollectorProvider {
 
     private final ProjectorFactory projectorFactory;
     private final ShardRowContext shardRowContext;
+    @Nullable
+    private final ShardResultCache resultCache;
     protected final IndexShard indexShard;
     final EvaluatingNormalizer shardNormalizer;
 
@@ -70,9 +79,11 @@ public abstract class ShardCollectorProvider {
                            Settings settings,
                            TransportActionProvider transportActionProvider,
                            IndexShard indexShard,
-                           ShardRowContext shardRowContext) {
+                           ShardRowContext shardRowContext,
+                           @Nullable ShardResultCache resultCache) {
         this.indexShard = indexShard;
         this.shardRowContext = shardRowContext;
+        this.resultCache = resultCache;
         shardNormalizer = new EvaluatingNormalizer(
             nodeCtx,
             RowGranularity.SHARD,
@@ -124,6 +135,60 @@ public abstract class ShardCollectorProvider {
 
         boolean isOpenIndex = indexShard.mapperService() != null;
         RoutedCollectPhase normalizedCollectNode = collectPhase.normalize(shardNormalizer, collectTask.txnCtx());
+        if (isOpenIndex && resultCache != null && WhereClause.canMatch(normalizedCollectNode.where())) {
+            var shardProjections = Projections.shardProjections(collectPhase.projections());
+            if (ShardResultCache.isCacheable(normalizedCollectNode, shardProjections)) {
+                return getCachedIterator(
+                    collectPhase, normalizedCollectNode, shardProjections, requiresScroll, collectTask);
+            }
+        }
+        return getIterator(collectPhase, normalizedCollectNode, isOpenIndex, requiresScroll, collectTask);
+    }
+
+    /**
+     * Returns the cached result of the collect phase, or an iterator which adds its result to the cache.
+     *
+     * <p>
+     * The searcher of the shard is acquired before the iterator is created, so that the iterator uses
+     * the same reader the cache key is created for.
+     * </p>
+     */
+    private BatchIterator<Row> getCachedIterator(RoutedCollectPhase collectPhase,
+                                                 RoutedCollectPhase normalizedCollectNode,
+                                                 Collection<? extends Projection> shardProjections,
+                                                 boolean requiresScroll,
+                                                 CollectTask collectTask) throws Exception {
+        assert resultCache != null : "resultCache must not be null if the result is cached";
+        SharedShardContext sharedShardContext = collectTask.sharedShardContexts().getOrCreateContext(indexShard.shardId());
+        try (RefCountedItem<? extends IndexSearcher> searcher = sharedShardContext.acquireSearcher("shard-result-cache")) {
+            ShardResultCache.Key key = resultCache.key(
+                shardRowContext.resultCacheStats(),
+                searcher.item().getIndexReader(),
+                normalizedCollectNode,
+                shardProjections,
+                collectTask.txnCtx().sessionSettings()
+            );
+            if (key == null) {
+                return getIterator(collectPhase, normalizedCollectNode, true, requiresScroll, collectTask);
+            }
+            StreamBucket cachedResult = resultCache.get(key);
+            if (cachedResult != null) {
+                return InMemoryBatchIterator.of(cachedResult, SentinelRow.SENTINEL, false);
+            }
+            Projection lastProjection = Iterables.getLast(shardProjections);
+            return resultCache.cacheResult(
+                key,
+                getIterator(collectPhase, normalizedCollectNode, true, requiresScroll, collectTask),
+                Symbols.streamerArray(lastProjection.outputs())
+            );
+        }
+    }
+
+    private BatchIterator<Row> getIterator(RoutedCollectPhase collectPhase,
+                                           RoutedCollectPhase normalizedCollectNode,
+                                           boolean isOpenIndex,
+                                           boolean requiresScroll,
+                                           CollectTask collectTask) throws Exception {
         if (isOpenIndex) {
             BatchIterator<Row> fusedIterator = getProjectionFusedIterator(normalizedCollectNode, collectTask);
             if (fusedIterator != null) {
@@ -142,7 +207,7 @@ public abstract class ShardCollectorProvider {
             collectTask.txnCtx(),
             collectTask.getRamAccounting(),
             collectTask.memoryManager(),
-            projectorFactory,
+            collectTask.projectorFactory(projectorFactory),
             iterator
         );
     }
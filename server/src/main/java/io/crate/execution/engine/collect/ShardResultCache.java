@@ -0,0 +1,365 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.collect;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.crate.Streamer;
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+import io.crate.data.Row;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.execution.engine.distribution.StreamBucket;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.expression.symbol.Symbols;
+import io.crate.metadata.settings.SessionSettings;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node wide LRU cache of the results of collect phases which aggregate the rows of a shard.
+ * <p>
+ * Entries are keyed by the shard reader and the serialized collect phase, so a result is re-used as long as the
+ * shard hasn't been refreshed with changes. All entries of a reader are invalidated once the reader is closed.
+ * <p>
+ * The results are stored serialized, so that each consumer gets its own copy of the (partial) aggregation states.
+ * The cache is bounded by the size of the serialized results, which is also accounted on the accounting circuit
+ * breaker. Results larger than a tenth of the cache size are never cached.
+ */
+public final class ShardResultCache {
+
+    public static final Setting<ByteSizeValue> SHARD_RESULT_CACHE_SIZE_SETTING = Setting.memorySizeSetting(
+        "node.sql.shard_result_cache.size",
+        "1%",
+        Setting.Property.NodeScope);
+
+    private static final String BREAKER_LABEL = "shard-result-cache";
+
+    private final Cache<Key, Entry> cache;
+    private final CircuitBreaker breaker;
+    private final long maxEntrySize;
+    private final Set<IndexReader.CacheKey> registeredReaders = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns null if the cache is disabled by a size of 0
+     */
+    @Nullable
+    public static ShardResultCache create(long maxSizeInBytes, CircuitBreaker breaker) {
+        return maxSizeInBytes > 0 ? new ShardResultCache(maxSizeInBytes, breaker) : null;
+    }
+
+    private ShardResultCache(long maxSizeInBytes, CircuitBreaker breaker) {
+        this.breaker = breaker;
+        this.maxEntrySize = Math.min(maxSizeInBytes / 10, Integer.MAX_VALUE);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher((Key key, Entry entry) -> entry.sizeInBytes)
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    /**
+     * A collect phase is cacheable if all its shard projections aggregate the collected rows, so that the result
+     * is small compared to the scanned rows, and if it is deterministic.
+     */
+    static boolean isCacheable(RoutedCollectPhase phase, Collection<? extends Projection> shardProjections) {
+        if (shardProjections.isEmpty()) {
+            return false;
+        }
+        for (Projection projection : shardProjections) {
+            if (projection instanceof GroupProjection) {
+                GroupProjection groupProjection = (GroupProjection) projection;
+                if (!isDeterministic(groupProjection.keys()) || !isDeterministic(groupProjection.values())) {
+                    return false;
+                }
+            } else if (projection instanceof AggregationProjection) {
+                if (!isDeterministic(((AggregationProjection) projection).aggregations())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return isDeterministic(phase.toCollect()) && isDeterministic(List.of(phase.where()));
+    }
+
+    private static boolean isDeterministic(List<? extends Symbol> symbols) {
+        for (Symbol symbol : symbols) {
+            if (symbol instanceof Aggregation) {
+                Aggregation aggregation = (Aggregation) symbol;
+                Symbol filter = aggregation.filter();
+                if (!isDeterministic(aggregation.inputs()) || (filter != null && !isDeterministic(List.of(filter)))) {
+                    return false;
+                }
+            } else if (SymbolVisitors.any(ShardResultCache::isNonDeterministic, symbol)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNonDeterministic(Symbol symbol) {
+        return symbol instanceof Function && !((Function) symbol).isDeterministic();
+    }
+
+    /**
+     * Creates the key for the result of the collect phase on the given reader.
+     * The session settings are part of the key because some functions depend on them.
+     *
+     * @return the key or null if the reader doesn't support caching.
+     */
+    @Nullable
+    Key key(Stats stats,
+            IndexReader reader,
+            RoutedCollectPhase phase,
+            Collection<? extends Projection> shardProjections,
+            SessionSettings sessionSettings) throws IOException {
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        if (cacheHelper == null) {
+            return null;
+        }
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            Symbols.toStream(phase.toCollect(), out);
+            Symbols.toStream(phase.where(), out);
+            out.writeVInt(shardProjections.size());
+            for (Projection projection : shardProjections) {
+                Projection.toStream(projection, out);
+            }
+            sessionSettings.writeTo(out);
+            return new Key(stats, cacheHelper, new BytesArray(BytesReference.toBytes(out.bytes())));
+        }
+    }
+
+    @Nullable
+    StreamBucket get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            key.stats.misses.increment();
+            return null;
+        }
+        key.stats.hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Wraps the iterator computing the result of the collect phase.
+     * Once the iterator has been consumed completely, the consumed rows are added to the cache.
+     *
+     * @param streamers the streamers of the columns of the result rows
+     */
+    BatchIterator<Row> cacheResult(Key key, BatchIterator<Row> iterator, Streamer<?>[] streamers) {
+        return new CachingBatchIterator(key, iterator, streamers);
+    }
+
+    private void put(Key key, StreamBucket result, long resultSizeInBytes) {
+        long sizeInBytes = resultSizeInBytes + key.phase.length();
+        if (sizeInBytes > maxEntrySize) {
+            return;
+        }
+        IndexReader.CacheKey readerKey = key.readerKey;
+        if (registeredReaders.add(readerKey)) {
+            try {
+                key.cacheHelper.addClosedListener(this::invalidate);
+            } catch (AlreadyClosedException e) {
+                registeredReaders.remove(readerKey);
+                return;
+            }
+        }
+        try {
+            breaker.addEstimateBytesAndMaybeBreak(sizeInBytes, BREAKER_LABEL);
+        } catch (CircuitBreakingException e) {
+            return;
+        }
+        cache.put(key, new Entry(result, (int) sizeInBytes));
+        key.stats.sizeInBytes.add(sizeInBytes);
+        if (!registeredReaders.contains(readerKey)) {
+            // the reader has been closed concurrently, the closed listener might have missed this entry
+            cache.invalidate(key);
+        }
+    }
+
+    private void invalidate(IndexReader.CacheKey readerKey) {
+        registeredReaders.remove(readerKey);
+        cache.asMap().keySet().removeIf(key -> key.readerKey == readerKey);
+    }
+
+    private void onRemoval(RemovalNotification<Key, Entry> notification) {
+        Key key = notification.getKey();
+        Entry entry = notification.getValue();
+        breaker.addWithoutBreaking(-entry.sizeInBytes);
+        key.stats.sizeInBytes.add(-entry.sizeInBytes);
+        if (notification.wasEvicted()) {
+            key.stats.evictions.increment();
+        }
+    }
+
+    /**
+     * Usage of the cache by a single shard
+     */
+    public static final class Stats {
+
+        private final LongAdder sizeInBytes = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long sizeInBytes() {
+            return sizeInBytes.sum();
+        }
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long evictions() {
+            return evictions.sum();
+        }
+    }
+
+    static final class Key {
+
+        private final Stats stats;
+        private final IndexReader.CacheHelper cacheHelper;
+        private final IndexReader.CacheKey readerKey;
+        private final BytesReference phase;
+
+        private Key(Stats stats, IndexReader.CacheHelper cacheHelper, BytesReference phase) {
+            this.stats = stats;
+            this.cacheHelper = cacheHelper;
+            this.readerKey = cacheHelper.getKey();
+            this.phase = phase;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return readerKey == key.readerKey && phase.equals(key.phase);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * readerKey.hashCode() + phase.hashCode();
+        }
+    }
+
+    private static final class Entry {
+
+        private final StreamBucket result;
+        private final int sizeInBytes;
+
+        private Entry(StreamBucket result, int sizeInBytes) {
+            this.result = result;
+            this.sizeInBytes = sizeInBytes;
+        }
+    }
+
+    /**
+     * Serializes the consumed rows and adds them to the cache once all rows have been consumed.
+     * Rows are not cached if the consumer starts over or if the result gets too large.
+     */
+    private final class CachingBatchIterator extends ForwardingBatchIterator<Row> {
+
+        private final Key key;
+        private final BatchIterator<Row> delegate;
+        private final ConcurrentRamAccounting resultSize = new ConcurrentRamAccounting(bytes -> {}, bytes -> {});
+
+        @Nullable
+        private volatile StreamBucket.Builder result;
+
+        private CachingBatchIterator(Key key, BatchIterator<Row> delegate, Streamer<?>[] streamers) {
+            this.key = key;
+            this.delegate = delegate;
+            this.result = new StreamBucket.Builder(streamers, resultSize);
+        }
+
+        @Override
+        protected BatchIterator<Row> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void moveToStart() {
+            result = null;
+            super.moveToStart();
+        }
+
+        @Override
+        public boolean moveNext() {
+            StreamBucket.Builder builder = result;
+            if (super.moveNext()) {
+                if (builder != null) {
+                    builder.add(currentElement());
+                    if (resultSize.totalBytes() > maxEntrySize) {
+                        result = null;
+                    }
+                }
+                return true;
+            }
+            if (builder != null && allLoaded()) {
+                result = null;
+                put(key, builder.build(), resultSize.totalBytes());
+            }
+            return false;
+        }
+
+        @Override
+        public void kill(@Nonnull Throwable throwable) {
+            result = null;
+            super.kill(throwable);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.Streamer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static io.crate.execution.engine.collect.files.ColumnarFileWriter.FORMAT_VERSION;
+import static io.crate.execution.engine.collect.files.ColumnarFileWriter.MAGIC;
+
+/**
+ * Reads the rows of a file written by {@link ColumnarFileWriter}.
+ *
+ * <p>
+ * Row groups are decoded column by column. Only the chunks of the required columns are decoded into typed values,
+ * the chunks of all other columns are skipped.
+ * </p>
+ */
+final class ColumnarFileReader implements Closeable {
+
+    private final StreamInput in;
+    private final String[] columnNames;
+    private final Streamer[] streamers;
+    private final boolean[] required;
+    private final int numRequired;
+    private final Object[][] columnValues;
+    private int rowsInGroup = 0;
+    private int rowInGroup = 0;
+
+    /**
+     * @param requiredColumns the names of the columns to decode, null to decode all columns
+     */
+    static ColumnarFileReader open(InputStream inputStream, @Nullable Set<String> requiredColumns) throws IOException {
+        StreamInput in = new InputStreamStreamInput(new BufferedInputStream(inputStream));
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            in.readBytes(magic, 0, magic.length);
+        } catch (EOFException e) {
+            throw new IOException("Invalid columnar file, the file is too short");
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Invalid columnar file, the file doesn't start with the columnar file header");
+        }
+        int formatVersion = in.readVInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported columnar file format version: " + formatVersion);
+        }
+        in.setVersion(Version.readVersion(in));
+        int numColumns = in.readVInt();
+        String[] columnNames = new String[numColumns];
+        Streamer[] streamers = new Streamer[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            columnNames[i] = in.readString();
+            DataType<?> type = DataTypes.fromStream(in);
+            streamers[i] = type.streamer();
+        }
+        return new ColumnarFileReader(in, columnNames, streamers, requiredColumns);
+    }
+
+    private ColumnarFileReader(StreamInput in,
+                               String[] columnNames,
+                               Streamer[] streamers,
+                               @Nullable Set<String> requiredColumns) {
+        this.in = in;
+        this.columnNames = columnNames;
+        this.streamers = streamers;
+        this.required = new boolean[columnNames.length];
+        this.columnValues = new Object[columnNames.length][];
+        int numRequired = 0;
+        for (int i = 0; i < columnNames.length; i++) {
+            if (requiredColumns == null || requiredColumns.contains(columnNames[i])) {
+                required[i] = true;
+                numRequired++;
+            }
+        }
+        this.numRequired = numRequired;
+    }
+
+    /**
+     * @return true if the rows contain the values of all columns of the file
+     */
+    boolean readsAllColumns() {
+        return numRequired == columnNames.length;
+    }
+
+    /**
+     * @return the values of the required columns of the next row by column name,
+     *         or null if all rows have been read
+     */
+    @Nullable
+    Map<String, Object> nextRow() throws IOException {
+        if (rowInGroup == rowsInGroup && !readRowGroup()) {
+            return null;
+        }
+        // Keeps the column order of the file for the source
+        LinkedHashMap<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            if (required[i]) {
+                row.put(columnNames[i], columnValues[i][rowInGroup]);
+            }
+        }
+        rowInGroup++;
+        return row;
+    }
+
+    private boolean readRowGroup() throws IOException {
+        int numRows = in.readVInt();
+        if (numRows == 0) {
+            return false;
+        }
+        for (int i = 0; i < columnNames.length; i++) {
+            int numBytes = in.readVInt();
+            if (required[i]) {
+                Object[] values = columnValues[i];
+                if (values == null || values.length < numRows) {
+                    values = new Object[numRows];
+                    columnValues[i] = values;
+                }
+                Streamer<?> streamer = streamers[i];
+                for (int row = 0; row < numRows; row++) {
+                    values[row] = streamer.readValueFrom(in);
+                }
+            } else {
+                skipFully(numBytes);
+            }
+        }
+        rowsInGroup = numRows;
+        rowInGroup = 0;
+        return true;
+    }
+
+    private void skipFully(long numBytes) throws IOException {
+        long remaining = numBytes;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                // skip may return 0 before the end of the stream; readByte fails if the end is reached
+                in.readByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.Streamer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes files in the {@code columnar} format which can be imported with
+ * {@code COPY FROM ... WITH (format = 'columnar')}.
+ *
+ * <pre>
+ *  file:      header | rowGroup* | vInt 0
+ *  header:    "CRCF" | vInt formatVersion | version | vInt numColumns | (string name | dataType)*
+ *  rowGroup:  vInt numRows | (vInt numBytes | value*)*
+ * </pre>
+ *
+ * <p>
+ * A row group contains one chunk per column, in the order of the header. The values of a chunk are encoded with the
+ * {@link Streamer} of the column type, using the wire format of the version in the header. As each chunk is prefixed
+ * with its length, {@link ColumnarFileReader} skips the chunks of columns which aren't needed without decoding them.
+ * </p>
+ */
+public final class ColumnarFileWriter implements Closeable {
+
+    static final byte[] MAGIC = {'C', 'R', 'C', 'F'};
+    static final int FORMAT_VERSION = 1;
+
+    private final StreamOutput out;
+    private final Streamer[] streamers;
+    private final BytesStreamOutput[] chunks;
+    private final int rowGroupSize;
+    private int bufferedRows = 0;
+
+    public ColumnarFileWriter(OutputStream outputStream,
+                              List<String> columnNames,
+                              List<DataType<?>> columnTypes,
+                              int rowGroupSize) throws IOException {
+        assert columnNames.size() == columnTypes.size() : "There must be a type for each column";
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("rowGroupSize must be greater than 0");
+        }
+        this.out = new OutputStreamStreamOutput(outputStream);
+        this.rowGroupSize = rowGroupSize;
+        this.streamers = new Streamer[columnTypes.size()];
+        this.chunks = new BytesStreamOutput[columnTypes.size()];
+        out.writeBytes(MAGIC);
+        out.writeVInt(FORMAT_VERSION);
+        Version.writeVersion(Version.CURRENT, out);
+        out.writeVInt(columnNames.size());
+        for (int i = 0; i < columnNames.size(); i++) {
+            DataType<?> type = columnTypes.get(i);
+            out.writeString(columnNames.get(i));
+            DataTypes.toStream(type, out);
+            streamers[i] = type.streamer();
+            chunks[i] = new BytesStreamOutput();
+        }
+    }
+
+    /**
+     * @param row the values of the row in the order of the columns
+     */
+    @SuppressWarnings("unchecked")
+    public void write(Object[] row) throws IOException {
+        assert row.length == streamers.length : "There must be a value for each column";
+        for (int i = 0; i < streamers.length; i++) {
+            streamers[i].writeValueTo(chunks[i], row[i]);
+        }
+        bufferedRows++;
+        if (bufferedRows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        out.writeVInt(bufferedRows);
+        for (BytesStreamOutput chunk : chunks) {
+            out.writeVInt(chunk.size());
+            chunk.bytes().writeTo(out);
+            chunk.reset();
+        }
+        bufferedRows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeRowGroup();
+        out.writeVInt(0);
+        out.close();
+    }
+}
@@ -82,6 +82,7 @@ public class FileReadingIterator implements BatchIterator<Row> {
     private Iterator<URI> currentInputIterator = null;
     private URI currentUri;
     private BufferedReader currentReader = null;
+    private ColumnarFileReader currentColumnarReader = null;
     private long currentLineNumber;
     private final Row row;
     private LineProcessor lineProcessor;
@@ -172,6 +173,12 @@ public class FileReadingIterator implements BatchIterator<Row> {
                 }
                 lineProcessor.process(line);
                 return true;
+            } else if (currentColumnarReader != null) {
+                if (!processRow(currentColumnarReader)) {
+                    closeCurrentReader();
+                    return moveNext();
+                }
+                return true;
             } else if (currentInputIterator != null && currentInputIterator.hasNext()) {
                 advanceToNextUri(currentInput.v1());
                 return moveNext();
@@ -212,11 +219,35 @@ public class FileReadingIterator implements BatchIterator<Row> {
     private void initCurrentReader(FileInput fileInput, URI uri) throws IOException {
         lineProcessor.startWithUri(uri);
         InputStream stream = fileInput.getStream(uri);
+        if (inputFormat == FileUriCollectPhase.InputFormat.COLUMNAR) {
+            try {
+                InputStream input = compressed ? new GZIPInputStream(stream) : stream;
+                currentColumnarReader = lineProcessor.openColumnarReader(input);
+            } catch (IOException e) {
+                stream.close();
+                throw e;
+            }
+            return;
+        }
         currentReader = createBufferedReader(stream);
         currentLineNumber = 0;
         lineProcessor.readFirstLine(currentUri, inputFormat, currentReader);
     }
 
+    /**
+     * Columnar files cannot be resumed after a failure like line based files,
+     * so the remaining rows of a file are skipped if reading a row fails.
+     */
+    private boolean processRow(ColumnarFileReader reader) throws IOException {
+        try {
+            return lineProcessor.processRow(reader);
+        } catch (IOException | RuntimeException e) {
+            closeCurrentReader();
+            LOGGER.info("Error during COPY FROM '{}'", e, currentUri);
+            throw e;
+        }
+    }
+
     private void closeCurrentReader() {
         if (currentReader != null) {
             try {
@@ -226,6 +257,14 @@ public class FileReadingIterator implements BatchIterator<Row> {
             }
             currentReader = null;
         }
+        if (currentColumnarReader != null) {
+            try {
+                currentColumnarReader.close();
+            } catch (IOException e) {
+                LOGGER.error("Unable to close reader for {}", e, currentUri);
+            }
+            currentColumnarReader = null;
+        }
     }
 
     private String getLine(BufferedReader reader, long startFrom, int retry) throws IOException {
@@ -27,7 +27,9 @@ import io.crate.expression.reference.file.LineContext;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Map;
 
 public final class LineProcessor {
 
@@ -59,6 +61,26 @@ public final class LineProcessor {
         lineContext.rawSource(jsonByteArray);
     }
 
+    /**
+     * Opens a file of the columnar format which only decodes the columns read by the collector expressions.
+     */
+    ColumnarFileReader openColumnarReader(InputStream stream) throws IOException {
+        return ColumnarFileReader.open(stream, lineContext.requiredRootColumns());
+    }
+
+    /**
+     * @return false if all rows of the reader have been processed
+     */
+    boolean processRow(ColumnarFileReader reader) throws IOException {
+        Map<String, Object> row = reader.nextRow();
+        if (row == null) {
+            return false;
+        }
+        lineContext.incrementCurrentLineNumber();
+        lineContext.columnValues(row, reader.readsAllColumns());
+        return true;
+    }
+
     public void setFailure(String failure) {
         lineContext.setCurrentUriFailure(failure);
     }
@@ -53,7 +53,7 @@ public class ProjectorSetupCollectSource implements CollectSource {
             collectTask.txnCtx(),
             collectTask.getRamAccounting(),
             collectTask.memoryManager(),
-            projectorFactory,
+            collectTask.projectorFactory(projectorFactory),
             it
         ));
     }
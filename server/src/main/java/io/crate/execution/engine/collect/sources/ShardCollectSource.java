@@ -43,6 +43,7 @@ import io.crate.execution.engine.collect.CollectTask;
 import io.crate.execution.engine.collect.RemoteCollectorFactory;
 import io.crate.execution.engine.collect.RowsTransformer;
 import io.crate.execution.engine.collect.ShardCollectorProvider;
+import io.crate.execution.engine.collect.ShardResultCache;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
 import io.crate.execution.engine.collect.collectors.OrderedLuceneBatchIteratorFactory;
 import io.crate.execution.engine.pipeline.ProjectionToProjectorVisitor;
@@ -76,6 +77,7 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.settings.Settings;
@@ -197,7 +199,11 @@ public class ShardCollectSource implements CollectSource {
             nodeCtx,
             luceneQueryBuilder,
             nodeJobsCounter,
-            bigArrays);
+            bigArrays,
+            ShardResultCache.create(
+                ShardResultCache.SHARD_RESULT_CACHE_SIZE_SETTING.get(settings).getBytes(),
+                circuitBreakerService.getBreaker(CircuitBreaker.ACCOUNTING)
+            ));
         EvaluatingNormalizer nodeNormalizer = new EvaluatingNormalizer(
             nodeCtx,
             RowGranularity.DOC,
@@ -281,7 +287,7 @@ public class ShardCollectSource implements CollectSource {
             collectTask.txnCtx(),
             collectTask.getRamAccounting(),
             collectTask.memoryManager(),
-            sharedProjectorFactory
+            collectTask.projectorFactory(sharedProjectorFactory)
         );
         boolean requireMoveToStartSupport = supportMoveToStart && !projectors.providesIndependentScroll();
 
@@ -28,6 +28,7 @@ import io.crate.execution.TransportActionProvider;
 import io.crate.execution.engine.collect.BlobShardCollectorProvider;
 import io.crate.execution.engine.collect.LuceneShardCollectorProvider;
 import io.crate.execution.engine.collect.ShardCollectorProvider;
+import io.crate.execution.engine.collect.ShardResultCache;
 import io.crate.execution.jobs.NodeJobsCounter;
 import io.crate.lucene.LuceneQueryBuilder;
 import io.crate.metadata.NodeContext;
@@ -39,6 +40,8 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import javax.annotation.Nullable;
+
 import static io.crate.blob.v2.BlobIndex.isBlobIndex;
 
 public class ShardCollectorProviderFactory {
@@ -55,6 +58,8 @@ public class ShardCollectorProviderFactory {
     private final BigArrays bigArrays;
     private final Settings settings;
     private final CircuitBreakerService circuitBreakerService;
+    @Nullable
+    private final ShardResultCache resultCache;
 
     ShardCollectorProviderFactory(ClusterService clusterService,
                                   CircuitBreakerService circuitBreakerService,
@@ -66,7 +71,8 @@ public class ShardCollectorProviderFactory {
                                   NodeContext nodeCtx,
                                   LuceneQueryBuilder luceneQueryBuilder,
                                   NodeJobsCounter nodeJobsCounter,
-                                  BigArrays bigArrays) {
+                                  BigArrays bigArrays,
+                                  @Nullable ShardResultCache resultCache) {
         this.settings = settings;
         this.circuitBreakerService = circuitBreakerService;
         this.schemas = schemas;
@@ -78,6 +84,7 @@ public class ShardCollectorProviderFactory {
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.nodeJobsCounter = nodeJobsCounter;
         this.bigArrays = bigArrays;
+        this.resultCache = resultCache;
     }
 
     public ShardCollectorProvider create(IndexShard indexShard) {
@@ -106,7 +113,8 @@ public class ShardCollectorProviderFactory {
                 settings,
                 transportActionProvider,
                 indexShard,
-                bigArrays);
+                bigArrays,
+                resultCache);
         }
     }
 }
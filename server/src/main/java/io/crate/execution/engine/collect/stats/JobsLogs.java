@@ -29,8 +29,11 @@ import io.crate.expression.reference.sys.operation.OperationContext;
 import io.crate.expression.reference.sys.operation.OperationContextLog;
 import io.crate.metadata.sys.ClassifiedMetrics;
 import io.crate.metadata.sys.MetricsView;
+import io.crate.metadata.sys.StatementStats;
+import io.crate.metadata.sys.StatementStatsView;
 import io.crate.planner.operators.StatementClassifier;
 import io.crate.common.collections.Tuple;
+import io.crate.sql.parser.StatementFingerprint;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -48,7 +51,7 @@ import static io.crate.planner.Plan.StatementType.UNDEFINED;
 /**
  * JobsLogs is responsible for adding jobs and operations of that node.
  * It also provides the functionality to expose that data for system tables,
- * such as sys.jobs, sys.jobs_log, sys.operations and sys.operations_log;
+ * such as sys.jobs, sys.jobs_log, sys.operations, sys.operations_log and sys.statement_stats;
  * <p>
  * The data is exposed via the properties
  *
@@ -77,6 +80,7 @@ public class JobsLogs {
     private final LongAdder activeRequests = new LongAdder();
     private final BooleanSupplier enabled;
     private final ClassifiedMetrics classifiedMetrics = new ClassifiedMetrics();
+    private final StatementStats statementStats = new StatementStats();
 
     public JobsLogs(BooleanSupplier enabled) {
         this.enabled = enabled;
@@ -104,11 +108,23 @@ public class JobsLogs {
      * If {@link #isEnabled()} is false this method won't do anything.
      */
     public void logExecutionStart(UUID jobId, String statement, User user, StatementClassifier.Classification classification) {
+        logExecutionStart(jobId, statement, null, user, classification);
+    }
+
+    /**
+     * Like {@link #logExecutionStart(UUID, String, User, StatementClassifier.Classification)}, for a statement
+     * of which the fingerprint is already known, so that it isn't computed again once the job has finished.
+     */
+    public void logExecutionStart(UUID jobId,
+                                  String statement,
+                                  @Nullable String fingerprint,
+                                  User user,
+                                  StatementClassifier.Classification classification) {
         activeRequests.increment();
         if (!isEnabled()) {
             return;
         }
-        jobsTable.put(jobId, new JobContext(jobId, statement, System.currentTimeMillis(), user, classification));
+        jobsTable.put(jobId, new JobContext(jobId, statement, System.currentTimeMillis(), user, classification, fingerprint));
     }
 
     /**
@@ -117,13 +133,24 @@ public class JobsLogs {
      * If {@link #isEnabled()} is false this method won't do anything.
      */
     public void logExecutionEnd(UUID jobId, @Nullable String errorMessage) {
+        logExecutionEnd(jobId, errorMessage, 0L);
+    }
+
+    /**
+     * mark a job as finished.
+     * <p>
+     * If {@link #isEnabled()} is false this method won't do anything.
+     *
+     * @param rowCount the number of rows returned to the client
+     */
+    public void logExecutionEnd(UUID jobId, @Nullable String errorMessage, long rowCount) {
         activeRequests.decrement();
         JobContext jobContext = jobsTable.remove(jobId);
         if (!isEnabled() || jobContext == null) {
             return;
         }
         JobContextLog jobContextLog = new JobContextLog(jobContext, errorMessage);
-        recordMetrics(jobContextLog);
+        recordMetrics(jobContextLog, rowCount, jobContext.usedBytes());
         long stamp = jobsLogLock.readLock();
         try {
             jobsLog.add(jobContextLog);
@@ -132,13 +159,23 @@ public class JobsLogs {
         }
     }
 
-    private void recordMetrics(JobContextLog log) {
+    private void recordMetrics(JobContextLog log, long rowCount, long usedBytes) {
         StatementClassifier.Classification classification = log.classification();
         assert classification != null : "A job must have a classification";
-        if (log.errorMessage() == null) {
-            classifiedMetrics.recordValue(classification, log.ended() - log.started());
+        long duration = log.ended() - log.started();
+        boolean failed = log.errorMessage() != null;
+        if (failed) {
+            classifiedMetrics.recordFailedExecution(classification, duration);
         } else {
-            classifiedMetrics.recordFailedExecution(classification, log.ended() - log.started());
+            classifiedMetrics.recordValue(classification, duration);
+        }
+        String statement = log.statement();
+        if (statement != null && isEnabled()) {
+            String fingerprint = log.fingerprint();
+            if (fingerprint == null) {
+                fingerprint = StatementFingerprint.of(statement);
+            }
+            statementStats.record(fingerprint, duration, failed, rowCount, usedBytes);
         }
     }
 
@@ -158,7 +195,7 @@ public class JobsLogs {
         } finally {
             jobsLogLock.unlockRead(stamp);
         }
-        recordMetrics(jobContextLog);
+        recordMetrics(jobContextLog, 0L, 0L);
     }
 
     public void operationStarted(int operationId, UUID jobId, String name, LongSupplier bytesUsed) {
@@ -173,6 +210,10 @@ public class JobsLogs {
         return classifiedMetrics;
     }
 
+    public Iterable<StatementStatsView> statementStats() {
+        return statementStats;
+    }
+
     public void operationFinished(int operationId, UUID jobId, @Nullable String errorMessage) {
         if (!isEnabled()) {
             return;
@@ -184,6 +225,10 @@ public class JobsLogs {
             return;
         }
         OperationContextLog operationContextLog = new OperationContextLog(operationContext, errorMessage);
+        JobContext jobContext = jobsTable.get(jobId);
+        if (jobContext != null) {
+            jobContext.addUsedBytes(operationContextLog.usedBytes());
+        }
         long stamp = operationsLogRWLock.readLock();
         try {
             operationsLog.add(operationContextLog);
@@ -246,6 +291,7 @@ public class JobsLogs {
 
     void resetMetrics() {
         classifiedMetrics.reset();
+        statementStats.reset();
     }
 
     public void close() {
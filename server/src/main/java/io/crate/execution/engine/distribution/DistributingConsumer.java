@@ -28,6 +28,7 @@ import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.profile.OperatorStats;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -51,6 +52,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * Every time requests to the downstreams are made consumption of the source BatchIterator is stopped until a response
  * from all downstreams is received.
+ *
+ * If profiling is enabled the bytes of the buckets sent to the downstreams are recorded into the {@link OperatorStats}
+ * of the phase output.
  */
 public class DistributingConsumer implements RowConsumer {
 
@@ -67,6 +71,9 @@ public class DistributingConsumer implements RowConsumer {
     private final boolean traceEnabled;
     private final CompletableFuture<Void> completionFuture;
 
+    @Nullable
+    private final OperatorStats stats;
+
     @VisibleForTesting
     final MultiBucketBuilder multiBucketBuilder;
 
@@ -80,7 +87,8 @@ public class DistributingConsumer implements RowConsumer {
                                 int bucketIdx,
                                 Collection<String> downstreamNodeIds,
                                 TransportDistributedResultAction distributedResultAction,
-                                int pageSize) {
+                                int pageSize,
+                                @Nullable OperatorStats stats) {
         this.traceEnabled = LOGGER.isTraceEnabled();
         this.responseExecutor = responseExecutor;
         this.jobId = jobId;
@@ -92,6 +100,10 @@ public class DistributingConsumer implements RowConsumer {
         this.pageSize = pageSize;
         this.buckets = new StreamBucket[downstreamNodeIds.size()];
         this.completionFuture = new CompletableFuture<>();
+        this.stats = stats;
+        if (stats != null) {
+            stats.bytesSentProfiled();
+        }
         downstreams = new ArrayList<>(downstreamNodeIds.size());
         for (String downstreamNodeId : downstreamNodeIds) {
             downstreams.add(new Downstream(downstreamNodeId));
@@ -202,6 +214,9 @@ public class DistributingConsumer implements RowConsumer {
                 LOGGER.trace("forwardResults targetNode={} jobId={} targetPhase={}/{} bucket={} isLast={}",
                     downstream.nodeId, jobId, targetPhaseId, inputId, bucketIdx, isLast);
             }
+            if (stats != null) {
+                stats.addBytesSent(buckets[i].sizeInBytes());
+            }
             distributedResultAction.pushResult(
                 downstream.nodeId,
                 new DistributedResultRequest(jobId, targetPhaseId, inputId, bucketIdx, buckets[i], isLast),
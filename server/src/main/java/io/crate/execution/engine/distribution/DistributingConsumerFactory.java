@@ -27,6 +27,8 @@ import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 
+import javax.annotation.Nullable;
+
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
@@ -40,6 +42,7 @@ import io.crate.execution.dsl.phases.NodeOperation;
 import io.crate.execution.jobs.PageBucketReceiver;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.node.StreamerVisitor;
+import io.crate.profile.OperatorStats;
 
 @Singleton
 public class DistributingConsumerFactory {
@@ -59,11 +62,15 @@ public class DistributingConsumerFactory {
         this.transportDistributedResultAction = transportDistributedResultAction;
     }
 
+    /**
+     * @param stats the stats of the phase output which record the bytes sent, if profiling is enabled
+     */
     public RowConsumer create(NodeOperation nodeOperation,
                               RamAccounting ramAccounting,
                               DistributionInfo distributionInfo,
                               UUID jobId,
-                              int pageSize) {
+                              int pageSize,
+                              @Nullable OperatorStats stats) {
         Streamer<?>[] streamers = StreamerVisitor.streamersFromOutputs(nodeOperation.executionPhase());
         assert !ExecutionPhases.hasDirectResponseDownstream(nodeOperation.downstreamNodes())
             : "trying to build a DistributingDownstream but nodeOperation has a directResponse downstream";
@@ -110,7 +117,8 @@ public class DistributingConsumerFactory {
             bucketIdx,
             nodeOperation.downstreamNodes(),
             transportDistributedResultAction,
-            pageSize
+            pageSize,
+            stats
         );
     }
 
@@ -114,6 +114,13 @@ public class StreamBucket implements Bucket, Writeable {
         return size;
     }
 
+    /**
+     * @return the number of bytes of the serialized rows
+     */
+    public int sizeInBytes() {
+        return bytes == null ? 0 : bytes.length();
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         assert validStreamers(streamers) : "streamers must not be null and they shouldn't be of undefinedType";
         this.streamers = streamers;
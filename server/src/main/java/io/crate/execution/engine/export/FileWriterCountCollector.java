@@ -32,6 +32,7 @@ import io.crate.exceptions.UnhandledServerException;
 import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.execution.dsl.projection.WriterProjection;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.InputCollectExpression;
 import io.crate.metadata.ColumnIdent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
@@ -43,6 +44,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -204,6 +206,24 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
         return Collections.emptySet();
     }
 
+    /**
+     * Creates a {@link RowWriter} for rows which consist of the values to write, one per entry of {@code outputNames}.
+     * The rows are written as in a {@code COPY TO} with a column list.
+     */
+    public static RowWriter newColumnRowWriter(OutputStream outputStream,
+                                               List<String> outputNames,
+                                               WriterProjection.OutputFormat outputFormat) throws IOException {
+        List<CollectExpression<Row, ?>> expressions = new ArrayList<>(outputNames.size());
+        for (int i = 0; i < outputNames.size(); i++) {
+            expressions.add(new InputCollectExpression(i));
+        }
+        List<Input<?>> inputs = new ArrayList<>(expressions);
+        if (outputFormat == WriterProjection.OutputFormat.JSON_ARRAY) {
+            return new ColumnRowWriter(outputStream, expressions, inputs);
+        }
+        return new ColumnRowObjectWriter(outputStream, expressions, inputs, outputNames);
+    }
+
     @VisibleForTesting
     static XContentBuilder createJsonBuilder(OutputStream outputStream) throws IOException {
         XContentBuilder builder = XContentFactory.jsonBuilder(outputStream);
@@ -211,7 +231,7 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
         return builder;
     }
 
-    interface RowWriter {
+    public interface RowWriter {
 
         void write(Row row);
 
@@ -23,6 +23,7 @@
 package io.crate.execution.engine.fetch;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import com.carrotsearch.hppc.IntArrayList;
@@ -34,12 +35,12 @@ import org.elasticsearch.common.lucene.index.SequentialStoredFieldsLeafReader;
 
 import io.crate.Streamer;
 import io.crate.breaker.RamAccounting;
+import io.crate.data.RowN;
 import io.crate.exceptions.Exceptions;
 import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.expression.InputRow;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
 import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
-import io.netty.util.collection.IntObjectHashMap;
 
 class FetchCollector {
 
@@ -69,45 +70,120 @@ class FetchCollector {
 
     }
 
-    private void setNextDocId(ReaderContext readerContext, int doc) throws IOException {
+    private void setNextReader(ReaderContext readerContext) throws IOException {
         for (LuceneCollectorExpression<?> e : collectorExpressions) {
             e.setNextReader(readerContext);
+        }
+    }
+
+    private void setNextDocId(int doc) throws IOException {
+        for (LuceneCollectorExpression<?> e : collectorExpressions) {
             e.setNextDocId(doc);
         }
     }
 
+    /**
+     * Fetches the rows of the given docIds. The rows of the resulting bucket are in the same order as the docIds.
+     *
+     * <p>
+     * The documents are read in doc id order, segment by segment, so that each segment reader is only
+     * set up once and doc values are accessed in the forward only order they require.
+     * If the docIds of a segment are sequential, the sequential stored fields reader is used for it.
+     * If the docIds aren't sorted, the rows are materialized and emitted in the requested order afterwards.
+     * </p>
+     */
     public StreamBucket collect(IntArrayList docIds) {
-        boolean collectSequential = isSequential(docIds);
         StreamBucket.Builder builder = new StreamBucket.Builder(streamers, ramAccounting);
+        int numDocs = docIds.size();
+        int[] sortedDocIds = docIds.toArray();
+        int[] positions = null;
+        Object[][] rowsInRequestOrder = null;
+        if (!isSorted(sortedDocIds)) {
+            positions = sortPositionsByDocId(sortedDocIds);
+            rowsInRequestOrder = new Object[numDocs][];
+        }
         try (var borrowed = fetchTask.searcher(readerId)) {
             var searcher = borrowed.item();
             List<LeafReaderContext> leaves = searcher.getTopReaderContext().leaves();
-            var readerContexts = new IntObjectHashMap<ReaderContext>(leaves.size());
-            for (var cursor : docIds) {
-                int docId = cursor.value;
-                int readerIndex = readerIndex(docId, leaves);
+            int segmentStart = 0;
+            while (segmentStart < numDocs) {
+                int readerIndex = readerIndex(sortedDocIds[segmentStart], leaves);
                 LeafReaderContext subReaderContext = leaves.get(readerIndex);
+                int segmentEnd = segmentEnd(sortedDocIds, segmentStart, subReaderContext);
                 try {
-                    var readerContext = readerContexts.get(readerIndex);
-                    if (readerContext == null) {
-                        if (collectSequential) {
-                            var storedFieldReader = sequentialStoredFieldReader(subReaderContext);
-                            readerContext = new ReaderContext(subReaderContext, storedFieldReader::visitDocument);
+                    ReaderContext readerContext;
+                    if (isSequential(sortedDocIds, segmentStart, segmentEnd)) {
+                        var storedFieldReader = sequentialStoredFieldReader(subReaderContext);
+                        readerContext = new ReaderContext(subReaderContext, storedFieldReader::visitDocument);
+                    } else {
+                        readerContext = new ReaderContext(subReaderContext);
+                    }
+                    setNextReader(readerContext);
+                    for (int i = segmentStart; i < segmentEnd; i++) {
+                        setNextDocId(sortedDocIds[i] - subReaderContext.docBase);
+                        if (rowsInRequestOrder == null) {
+                            builder.add(row);
                         } else {
-                            readerContext = new ReaderContext(subReaderContext);
+                            rowsInRequestOrder[positions[i]] = row.materialize();
                         }
-                        readerContexts.put(readerIndex, readerContext);
                     }
-                    setNextDocId(readerContext, docId - subReaderContext.docBase);
                 } catch (IOException e) {
                     Exceptions.rethrowRuntimeException(e);
                 }
-                builder.add(row);
+                segmentStart = segmentEnd;
+            }
+        }
+        if (rowsInRequestOrder != null) {
+            RowN rowN = new RowN(streamers.length);
+            for (Object[] cells : rowsInRequestOrder) {
+                rowN.cells(cells);
+                builder.add(rowN);
             }
         }
         return builder.build();
     }
 
+    /**
+     * @return the end (exclusive) of the docIds starting at {@code from} which belong to the given segment
+     */
+    private static int segmentEnd(int[] sortedDocIds, int from, LeafReaderContext segment) {
+        int maxDocId = segment.docBase + segment.reader().maxDoc();
+        int end = from + 1;
+        while (end < sortedDocIds.length && sortedDocIds[end] < maxDocId) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isSorted(int[] docIds) {
+        for (int i = 1; i < docIds.length; i++) {
+            if (docIds[i - 1] > docIds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the docIds in place.
+     *
+     * @return for each position of the sorted docIds the position of the docId in the original order
+     */
+    static int[] sortPositionsByDocId(int[] docIds) {
+        // docIds are non-negative, so the packed values sort by docId first and keep duplicates stable
+        long[] docIdsWithPosition = new long[docIds.length];
+        for (int i = 0; i < docIds.length; i++) {
+            docIdsWithPosition[i] = ((long) docIds[i] << 32) | i;
+        }
+        Arrays.sort(docIdsWithPosition);
+        int[] positions = new int[docIds.length];
+        for (int i = 0; i < docIdsWithPosition.length; i++) {
+            docIds[i] = (int) (docIdsWithPosition[i] >>> 32);
+            positions[i] = (int) docIdsWithPosition[i];
+        }
+        return positions;
+    }
+
     private int readerIndex(int docId, List<LeafReaderContext> leaves) {
         int readerIndex = ReaderUtil.subIndex(docId, leaves);
         if (readerIndex == -1) {
@@ -116,16 +192,16 @@ class FetchCollector {
         return readerIndex;
     }
 
-    static boolean isSequential(IntArrayList docIds) {
-        if (docIds.size() < 2) {
+    static boolean isSequential(int[] docIds, int from, int to) {
+        if (to - from < 2) {
             return false;
         }
         // checks if doc ids are in sequential order using the following conditions:
         // (last element - first element) = (number of elements in between first and last)
         // [3,4,5,6,7] -> 7 - 3 == 4
-        int last = docIds.get(docIds.size() - 1);
-        int first = docIds.get(0);
-        return last - first == docIds.size() - 1;
+        int last = docIds[to - 1];
+        int first = docIds[from];
+        return last - first == to - from - 1;
     }
 
     static StoredFieldsReader sequentialStoredFieldReader(LeafReaderContext context) {
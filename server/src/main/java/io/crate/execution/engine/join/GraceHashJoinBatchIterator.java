@@ -0,0 +1,421 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.hppc.BitMixer;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
+import io.crate.breaker.RowAccounting;
+import io.crate.breaker.RowCellsAccountingWithEstimators;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.UnsafeArrayRow;
+import io.crate.data.join.CombinedRow;
+import io.crate.data.join.JoinBatchIterator;
+import io.crate.execution.engine.spill.SpillFile;
+import io.crate.types.DataType;
+import io.netty.util.collection.IntObjectHashMap;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Inner hash join which reads each side exactly once, independent of the size of the left side.
+ *
+ * <pre>
+ *     Build Phase:
+ *     for (leftRow in left) {
+ *         if (not spilled) {
+ *             calculate hash and put in Buffer (HashMap)
+ *             if (memory used by Buffer >= spillThreshold) {
+ *                 write all rows of the Buffer to the left partition files (partition = hash % N) and clear it
+ *             }
+ *         } else {
+ *             write leftRow to the left partition file of its hash
+ *         }
+ *     }
+ *
+ *     If nothing was spilled, the right side is probed against the Buffer exactly like in
+ *     {@link HashInnerJoinBatchIterator}, just without ever re-scanning the right side.
+ *
+ *     Otherwise:
+ *
+ *     Partition Phase:
+ *     for (rightRow in right) {
+ *         write rightRow to the right partition file of its hash
+ *     }
+ *
+ *     Probe Phase:
+ *     for (partition in partitions) {
+ *         load the left partition file into the Buffer
+ *         probe each row of the right partition file against the Buffer
+ *     }
+ * </pre>
+ *
+ * Rows with equal join keys have equal hashes and therefore always end up in the same partition,
+ * so joining partition pairs produces the same result as joining the full relations.
+ * <p>
+ * The left side is consumed entirely before the right side is touched. That keeps the order in which
+ * distributed join instances request pages from their upstreams consistent, so unlike
+ * {@link HashInnerJoinBatchIterator} there is no need to cap the amount of rows buffered per block.
+ * <p>
+ * A single partition of the left side must fit into memory; otherwise the circuit breaker trips
+ * as it would for {@link HashInnerJoinBatchIterator}.
+ */
+public class GraceHashJoinBatchIterator extends JoinBatchIterator<Row, Row, Row> {
+
+    static final int NUM_PARTITIONS = 32;
+
+    private enum Phase {
+        BUILD,
+        PROBE_IN_MEMORY,
+        PARTITION_RIGHT,
+        PROBE_PARTITIONS
+    }
+
+    private final RamAccounting ramAccounting;
+    private final RowAccounting<Object[]> leftRowAccounting;
+    private final Predicate<Row> joinCondition;
+    private final ToIntFunction<Row> hashBuilderForLeft;
+    private final ToIntFunction<Row> hashBuilderForRight;
+    private final long spillThreshold;
+    private final Streamer<?>[] leftStreamers;
+    private final Streamer<?>[] rightStreamers;
+    private final IntObjectHashMap<List<Object[]>> buffer = new IntObjectHashMap<>();
+
+    /**
+     * Used to avoid instantiating multiple times RowN in {@link #findMatchingRows()}
+     */
+    private final UnsafeArrayRow leftRow = new UnsafeArrayRow();
+    private final UnsafeArrayRow unsafeArrayRow = new UnsafeArrayRow();
+
+    private Phase phase = Phase.BUILD;
+    private Iterator<Object[]> leftMatchingRowsIterator;
+
+    @Nullable
+    private SpillFile[] leftPartitions;
+    @Nullable
+    private SpillFile[] rightPartitions;
+    private int currentPartition;
+    @Nullable
+    private Iterator<Row> rightPartitionIterator;
+
+    public GraceHashJoinBatchIterator(BatchIterator<Row> left,
+                                      BatchIterator<Row> right,
+                                      Collection<? extends DataType<?>> leftTypes,
+                                      Collection<? extends DataType<?>> rightTypes,
+                                      RamAccounting ramAccounting,
+                                      CombinedRow combiner,
+                                      Predicate<Row> joinCondition,
+                                      ToIntFunction<Row> hashBuilderForLeft,
+                                      ToIntFunction<Row> hashBuilderForRight,
+                                      long spillThreshold) {
+        super(left, right, combiner);
+        this.ramAccounting = ramAccounting;
+        // 110 extra bytes per row, see HashInnerJoinBatchIterator usage in JobSetup
+        this.leftRowAccounting = new RowCellsAccountingWithEstimators(leftTypes, ramAccounting, 110);
+        this.joinCondition = joinCondition;
+        this.hashBuilderForLeft = hashBuilderForLeft;
+        this.hashBuilderForRight = hashBuilderForRight;
+        this.spillThreshold = spillThreshold;
+        this.leftStreamers = streamers(leftTypes);
+        this.rightStreamers = streamers(rightTypes);
+    }
+
+    private static Streamer<?>[] streamers(Collection<? extends DataType<?>> types) {
+        Streamer<?>[] streamers = new Streamer[types.size()];
+        int i = 0;
+        for (DataType<?> type : types) {
+            streamers[i++] = type.streamer();
+        }
+        return streamers;
+    }
+
+    @Override
+    public Row currentElement() {
+        return combiner.currentElement();
+    }
+
+    @Override
+    public void moveToStart() {
+        left.moveToStart();
+        right.moveToStart();
+        activeIt = left;
+        phase = Phase.BUILD;
+        resetBuffer();
+        leftMatchingRowsIterator = null;
+        closePartitions();
+    }
+
+    @Override
+    public boolean moveNext() {
+        try {
+            return doMoveNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean doMoveNext() throws IOException {
+        while (true) {
+            switch (phase) {
+                case BUILD:
+                    if (buildLeft() == false) {
+                        // left needs the next batch loaded
+                        return false;
+                    }
+                    activeIt = right;
+                    if (leftPartitions == null) {
+                        phase = Phase.PROBE_IN_MEMORY;
+                    } else {
+                        finish(leftPartitions);
+                        phase = Phase.PARTITION_RIGHT;
+                    }
+                    break;
+
+                case PROBE_IN_MEMORY:
+                    return probeRight();
+
+                case PARTITION_RIGHT:
+                    if (partitionRight() == false) {
+                        // right needs the next batch loaded
+                        return false;
+                    }
+                    finish(rightPartitions);
+                    phase = Phase.PROBE_PARTITIONS;
+                    currentPartition = -1;
+                    rightPartitionIterator = null;
+                    break;
+
+                case PROBE_PARTITIONS:
+                    if (probePartitions()) {
+                        return true;
+                    }
+                    if (nextPartition() == false) {
+                        return false;
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError("Unexpected phase: " + phase);
+            }
+        }
+    }
+
+    /**
+     * @return true if the left side is consumed completely
+     */
+    private boolean buildLeft() throws IOException {
+        while (left.moveNext()) {
+            Row row = left.currentElement();
+            int hash = hashBuilderForLeft.applyAsInt(row);
+            if (leftPartitions == null) {
+                Object[] cells = row.materialize();
+                leftRowAccounting.accountForAndMaybeBreak(cells);
+                addToBuffer(cells, hash);
+                if (ramAccounting.totalBytes() >= spillThreshold) {
+                    spillBuffer();
+                }
+            } else {
+                partitionFile(leftPartitions, hash, leftStreamers).add(row);
+            }
+        }
+        return left.allLoaded();
+    }
+
+    private void spillBuffer() throws IOException {
+        leftPartitions = new SpillFile[NUM_PARTITIONS];
+        rightPartitions = new SpillFile[NUM_PARTITIONS];
+        for (var entry : buffer.entries()) {
+            SpillFile file = partitionFile(leftPartitions, entry.key(), leftStreamers);
+            for (Object[] cells : entry.value()) {
+                file.add(cells);
+            }
+        }
+        resetBuffer();
+    }
+
+    /**
+     * @return true if the right side is consumed completely
+     */
+    private boolean partitionRight() throws IOException {
+        while (right.moveNext()) {
+            Row row = right.currentElement();
+            partitionFile(rightPartitions, hashBuilderForRight.applyAsInt(row), rightStreamers).add(row);
+        }
+        return right.allLoaded();
+    }
+
+    private static SpillFile partitionFile(SpillFile[] partitions, int hash, Streamer<?>[] streamers) throws IOException {
+        int partition = BitMixer.mix32(hash) & (NUM_PARTITIONS - 1);
+        SpillFile file = partitions[partition];
+        if (file == null) {
+            file = SpillFile.create(streamers);
+            partitions[partition] = file;
+        }
+        return file;
+    }
+
+    private static void finish(SpillFile[] partitions) throws IOException {
+        for (SpillFile file : partitions) {
+            if (file != null) {
+                file.finish();
+            }
+        }
+    }
+
+    private boolean probeRight() {
+        // In case of multiple matches on the left side (duplicate values or hash collisions)
+        if (leftMatchingRowsIterator != null && findMatchingRows()) {
+            return true;
+        }
+        leftMatchingRowsIterator = null;
+        while (right.moveNext()) {
+            if (probe(right.currentElement())) {
+                return true;
+            }
+        }
+        // need to load the next batch of the right relation or done
+        return false;
+    }
+
+    private boolean probePartitions() {
+        if (leftMatchingRowsIterator != null && findMatchingRows()) {
+            return true;
+        }
+        leftMatchingRowsIterator = null;
+        if (rightPartitionIterator == null) {
+            return false;
+        }
+        while (rightPartitionIterator.hasNext()) {
+            if (probe(rightPartitionIterator.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the left rows of the next partition, which has rows on both sides, into the buffer.
+     *
+     * @return false if there are no partitions left
+     */
+    private boolean nextPartition() {
+        if (currentPartition >= NUM_PARTITIONS) {
+            return false;
+        }
+        resetBuffer();
+        rightPartitionIterator = null;
+        if (currentPartition >= 0) {
+            leftPartitions[currentPartition].close();
+            leftPartitions[currentPartition] = null;
+            rightPartitions[currentPartition].close();
+            rightPartitions[currentPartition] = null;
+        }
+        while (++currentPartition < NUM_PARTITIONS) {
+            SpillFile leftFile = leftPartitions[currentPartition];
+            SpillFile rightFile = rightPartitions[currentPartition];
+            if (leftFile != null && rightFile != null) {
+                for (Row row : leftFile) {
+                    Object[] cells = row.materialize();
+                    leftRowAccounting.accountForAndMaybeBreak(cells);
+                    addToBuffer(cells, hashBuilderForLeft.applyAsInt(unsafeArrayRow.cells(cells)));
+                }
+                rightPartitionIterator = rightFile.iterator();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean probe(Row rightRow) {
+        int rightHash = hashBuilderForRight.applyAsInt(rightRow);
+        List<Object[]> leftMatchingRows = buffer.get(rightHash);
+        if (leftMatchingRows != null) {
+            leftMatchingRowsIterator = leftMatchingRows.iterator();
+            combiner.setRight(rightRow);
+            return findMatchingRows();
+        }
+        return false;
+    }
+
+    private void addToBuffer(Object[] currentRow, int hash) {
+        List<Object[]> existingRows = buffer.get(hash);
+        if (existingRows == null) {
+            existingRows = new ArrayList<>();
+            buffer.put(hash, existingRows);
+        }
+        existingRows.add(currentRow);
+    }
+
+    private boolean findMatchingRows() {
+        while (leftMatchingRowsIterator.hasNext()) {
+            leftRow.cells(leftMatchingRowsIterator.next());
+            combiner.setLeft(leftRow);
+            if (joinCondition.test(combiner.currentElement())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void resetBuffer() {
+        buffer.clear();
+        leftRowAccounting.release();
+    }
+
+    private void closePartitions() {
+        closeAll(leftPartitions);
+        closeAll(rightPartitions);
+        leftPartitions = null;
+        rightPartitions = null;
+        rightPartitionIterator = null;
+    }
+
+    private static void closeAll(@Nullable SpillFile[] partitions) {
+        if (partitions != null) {
+            for (SpillFile file : partitions) {
+                if (file != null) {
+                    file.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            closePartitions();
+            resetBuffer();
+        }
+    }
+}
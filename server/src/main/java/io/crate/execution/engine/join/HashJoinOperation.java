@@ -22,6 +22,7 @@
 
 package io.crate.execution.engine.join;
 
+import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccounting;
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.BatchIterator;
@@ -34,8 +35,12 @@ import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.expression.InputFactory;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.TransactionContext;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.types.DataType;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 
+import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
@@ -50,6 +55,7 @@ public class HashJoinOperation implements CompletionListenable {
     public HashJoinOperation(int numLeftCols,
                              int numRightCols,
                              RowConsumer nlResultConsumer,
+                             JoinType joinType,
                              Predicate<Row> joinPredicate,
                              List<Symbol> joinLeftInputs,
                              List<Symbol> joinRightInputs,
@@ -58,7 +64,11 @@ public class HashJoinOperation implements CompletionListenable {
                              InputFactory inputFactory,
                              CircuitBreaker circuitBreaker,
                              long estimatedRowSizeForLeft,
-                             long numberOfRowsForLeft) {
+                             long numberOfRowsForLeft,
+                             Collection<DataType<?>> leftOutputTypes,
+                             @Nullable Collection<DataType<?>> rightOutputTypes,
+                             RamAccounting spillRamAccounting,
+                             long spillThreshold) {
 
         this.resultConsumer = nlResultConsumer;
         this.leftConsumer = new CapturingRowConsumer(false, nlResultConsumer.completionFuture());
@@ -68,22 +78,38 @@ public class HashJoinOperation implements CompletionListenable {
                 if (failure == null) {
                     BatchIterator<Row> joinIterator;
                     try {
-                        joinIterator = createHashJoinIterator(
-                            leftConsumer.capturedBatchIterator().join(),
-                            numLeftCols,
-                            rightConsumer.capturedBatchIterator().join(),
-                            numRightCols,
-                            joinPredicate,
-                            getHashBuilderFromSymbols(txnCtx, inputFactory, joinLeftInputs),
-                            getHashBuilderFromSymbols(txnCtx, inputFactory, joinRightInputs),
-                            rowAccounting,
-                            new RamBlockSizeCalculator(
-                                Paging.PAGE_SIZE,
-                                circuitBreaker,
-                                estimatedRowSizeForLeft,
-                                numberOfRowsForLeft
-                            )
-                        );
+                        if (joinType == JoinType.INNER && spillThreshold > 0 && rightOutputTypes != null) {
+                            joinIterator = new GraceHashJoinBatchIterator(
+                                leftConsumer.capturedBatchIterator().join(),
+                                rightConsumer.capturedBatchIterator().join(),
+                                leftOutputTypes,
+                                rightOutputTypes,
+                                spillRamAccounting,
+                                new CombinedRow(numLeftCols, numRightCols),
+                                joinPredicate,
+                                getHashBuilderFromSymbols(txnCtx, inputFactory, joinLeftInputs),
+                                getHashBuilderFromSymbols(txnCtx, inputFactory, joinRightInputs),
+                                spillThreshold
+                            );
+                        } else {
+                            joinIterator = createHashJoinIterator(
+                                joinType,
+                                leftConsumer.capturedBatchIterator().join(),
+                                numLeftCols,
+                                rightConsumer.capturedBatchIterator().join(),
+                                numRightCols,
+                                joinPredicate,
+                                getHashBuilderFromSymbols(txnCtx, inputFactory, joinLeftInputs),
+                                getHashBuilderFromSymbols(txnCtx, inputFactory, joinRightInputs),
+                                rowAccounting,
+                                new RamBlockSizeCalculator(
+                                    Paging.PAGE_SIZE,
+                                    circuitBreaker,
+                                    estimatedRowSizeForLeft,
+                                    numberOfRowsForLeft
+                                )
+                            );
+                        }
                         nlResultConsumer.accept(joinIterator, null);
                     } catch (Exception e) {
                         nlResultConsumer.accept(null, e);
@@ -126,7 +152,8 @@ public class HashJoinOperation implements CompletionListenable {
         };
     }
 
-    private static BatchIterator<Row> createHashJoinIterator(BatchIterator<Row> left,
+    private static BatchIterator<Row> createHashJoinIterator(JoinType joinType,
+                                                             BatchIterator<Row> left,
                                                              int leftNumCols,
                                                              BatchIterator<Row> right,
                                                              int rightNumCols,
@@ -136,6 +163,18 @@ public class HashJoinOperation implements CompletionListenable {
                                                              RowAccounting<Object[]> rowAccounting,
                                                              RamBlockSizeCalculator blockSizeCalculator) {
         CombinedRow combiner = new CombinedRow(leftNumCols, rightNumCols);
+        if (joinType != JoinType.INNER) {
+            return new HashJoinWithMatchTrackingBatchIterator(
+                left,
+                right,
+                joinType,
+                rowAccounting,
+                combiner,
+                joinCondition,
+                hashBuilderForLeft,
+                hashBuilderForRight,
+                blockSizeCalculator);
+        }
         return new HashInnerJoinBatchIterator(
             left,
             right,
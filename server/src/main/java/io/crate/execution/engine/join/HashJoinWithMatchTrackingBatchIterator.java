@@ -0,0 +1,368 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.hppc.IntArrayList;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Paging;
+import io.crate.data.Row;
+import io.crate.data.UnsafeArrayRow;
+import io.crate.data.join.CombinedRow;
+import io.crate.data.join.JoinBatchIterator;
+import io.crate.planner.node.dql.join.JoinType;
+import io.netty.util.collection.IntObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Hash join for the {@link JoinType#LEFT}, {@link JoinType#RIGHT}, {@link JoinType#FULL}, {@link JoinType#SEMI}
+ * and {@link JoinType#ANTI} join types.
+ *
+ * <pre>
+ *     Build Phase:
+ *     for (leftRow in left) {
+ *         calculate hash and put in Buffer (HashMap) until the blockSize is reached
+ *     }
+ *
+ *     Probe Phase:
+ *     for (rightRow in right) {
+ *         for (row in matchedInBuffer) {
+ *             if (joinCondition matches) {
+ *                 mark row as matched
+ *                 mark rightRow as matched
+ *                 emit(combinedRow)                          // not for SEMI/ANTI
+ *             }
+ *         }
+ *         if (last block && rightRow was never matched) {
+ *             emit(null, rightRow)                           // RIGHT/FULL
+ *         }
+ *     }
+ *
+ *     for (row in Buffer) {
+ *         if (row was not matched) {
+ *             emit(row, null)                                // LEFT/FULL
+ *             emit(row)                                      // ANTI
+ *         } else {
+ *             emit(row)                                      // SEMI
+ *         }
+ *     }
+ * </pre>
+ *
+ * Like in {@link HashInnerJoinBatchIterator} the right side is re-scanned for each block of the left side.
+ * The left rows are tracked in a {@link BitSet} per block, the right rows in a {@link BitSet} over their position
+ * in the right side which is stable across the scans. The unmatched right rows are emitted while scanning the right
+ * side for the last block, once all left rows have been probed.
+ * <p>
+ * For {@link JoinType#SEMI} and {@link JoinType#ANTI} only the left row is emitted.
+ */
+public class HashJoinWithMatchTrackingBatchIterator extends JoinBatchIterator<Row, Row, Row> {
+
+    private static final IntArrayList NO_CANDIDATES = new IntArrayList(0);
+
+    private enum Phase {
+        BUILD,
+        PROBE,
+        EMIT_LEFT,
+        DONE
+    }
+
+    private final JoinType joinType;
+    private final RowAccounting<Object[]> leftRowAccounting;
+    private final Predicate<Row> joinCondition;
+    private final ToIntFunction<Row> hashBuilderForLeft;
+    private final ToIntFunction<Row> hashBuilderForRight;
+    private final IntSupplier calculateBlockSize;
+    private final boolean emitMatches;
+    private final boolean trackRight;
+
+    private final List<Object[]> blockRows = new ArrayList<>();
+    private final IntObjectHashMap<IntArrayList> buffer = new IntObjectHashMap<>();
+    private final BitSet matchedLeft = new BitSet();
+    private final BitSet matchedRight = new BitSet();
+
+    private final UnsafeArrayRow leftRow = new UnsafeArrayRow();
+    private final UnsafeArrayRow unsafeArrayRow = new UnsafeArrayRow();
+
+    private Phase phase = Phase.BUILD;
+    private int blockSize;
+    private boolean leftBatchHasItems = false;
+    private boolean lastBlock = false;
+    private int numberOfLeftBatchesForBlock;
+    private int numberOfLeftBatchesLoadedForBlock;
+
+    private int rightPosition = -1;
+    private IntArrayList leftCandidates;
+    private int leftCandidatesPosition;
+    private int leftPosition;
+
+    public HashJoinWithMatchTrackingBatchIterator(BatchIterator<Row> left,
+                                                  BatchIterator<Row> right,
+                                                  JoinType joinType,
+                                                  RowAccounting<Object[]> leftRowAccounting,
+                                                  CombinedRow combiner,
+                                                  Predicate<Row> joinCondition,
+                                                  ToIntFunction<Row> hashBuilderForLeft,
+                                                  ToIntFunction<Row> hashBuilderForRight,
+                                                  IntSupplier calculateBlockSize) {
+        super(left, right, combiner);
+        assert joinType.isOuter() || joinType == JoinType.SEMI || joinType == JoinType.ANTI
+            : "joinType must be an outer, semi or anti join, got: " + joinType;
+        this.joinType = joinType;
+        this.leftRowAccounting = leftRowAccounting;
+        this.joinCondition = joinCondition;
+        this.hashBuilderForLeft = hashBuilderForLeft;
+        this.hashBuilderForRight = hashBuilderForRight;
+        this.calculateBlockSize = calculateBlockSize;
+        this.emitMatches = joinType != JoinType.SEMI && joinType != JoinType.ANTI;
+        this.trackRight = joinType == JoinType.RIGHT || joinType == JoinType.FULL;
+        resetBlock();
+        // initially 1 page/batch is loaded
+        numberOfLeftBatchesLoadedForBlock = 1;
+    }
+
+    @Override
+    public Row currentElement() {
+        if (emitMatches) {
+            return combiner.currentElement();
+        }
+        return leftRow;
+    }
+
+    @Override
+    public void moveToStart() {
+        left.moveToStart();
+        right.moveToStart();
+        activeIt = left;
+        phase = Phase.BUILD;
+        leftBatchHasItems = false;
+        lastBlock = false;
+        matchedRight.clear();
+        resetBlock();
+        numberOfLeftBatchesLoadedForBlock = 1;
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() throws Exception {
+        if (activeIt == left) {
+            numberOfLeftBatchesLoadedForBlock++;
+        }
+        return super.loadNextBatch();
+    }
+
+    @Override
+    public boolean moveNext() {
+        while (true) {
+            switch (phase) {
+                case BUILD:
+                    if (buildBlock() == false) {
+                        // left needs the next batch loaded
+                        return false;
+                    }
+                    lastBlock = leftBatchHasItems == false && left.allLoaded();
+                    rightPosition = -1;
+                    activeIt = right;
+                    phase = Phase.PROBE;
+                    break;
+
+                case PROBE:
+                    if (probeRight()) {
+                        return true;
+                    }
+                    if (right.allLoaded() == false) {
+                        // right needs the next batch loaded
+                        return false;
+                    }
+                    leftPosition = -1;
+                    phase = Phase.EMIT_LEFT;
+                    break;
+
+                case EMIT_LEFT:
+                    if (emitLeft()) {
+                        return true;
+                    }
+                    if (lastBlock) {
+                        phase = Phase.DONE;
+                    } else {
+                        right.moveToStart();
+                        activeIt = left;
+                        resetBlock();
+                        phase = Phase.BUILD;
+                    }
+                    break;
+
+                case DONE:
+                    return false;
+
+                default:
+                    throw new AssertionError("Unexpected phase: " + phase);
+            }
+        }
+    }
+
+    /**
+     * @return true if the block is complete and the right side must be probed against it
+     */
+    private boolean buildBlock() {
+        while (leftBatchHasItems = left.moveNext()) {
+            Object[] row = left.currentElement().materialize();
+            leftRowAccounting.accountForAndMaybeBreak(row);
+            int hash = hashBuilderForLeft.applyAsInt(unsafeArrayRow.cells(row));
+            addToBlock(row, hash);
+            if (blockRows.size() == blockSize) {
+                break;
+            }
+        }
+        if (mustLoadLeftNextBatch()) {
+            return false;
+        }
+        assert mustSwitchToRight() : "If no more left rows must be loaded the block must be complete";
+        return true;
+    }
+
+    private void addToBlock(Object[] row, int hash) {
+        IntArrayList positions = buffer.get(hash);
+        if (positions == null) {
+            positions = new IntArrayList(1);
+            buffer.put(hash, positions);
+        }
+        positions.add(blockRows.size());
+        blockRows.add(row);
+    }
+
+    private boolean probeRight() {
+        while (true) {
+            if (leftCandidates != null) {
+                if (findMatchingRows()) {
+                    return true;
+                }
+                leftCandidates = null;
+                if (lastBlock && trackRight && matchedRight.get(rightPosition) == false) {
+                    combiner.nullLeft();
+                    return true;
+                }
+            }
+            if (right.moveNext() == false) {
+                return false;
+            }
+            rightPosition++;
+            Row rightRow = right.currentElement();
+            combiner.setRight(rightRow);
+            IntArrayList candidates = buffer.get(hashBuilderForRight.applyAsInt(rightRow));
+            leftCandidates = candidates == null ? NO_CANDIDATES : candidates;
+            leftCandidatesPosition = 0;
+        }
+    }
+
+    private boolean findMatchingRows() {
+        while (leftCandidatesPosition < leftCandidates.size()) {
+            int position = leftCandidates.get(leftCandidatesPosition++);
+            if (emitMatches == false && matchedLeft.get(position)) {
+                // SEMI/ANTI only need to know if there is any match
+                continue;
+            }
+            leftRow.cells(blockRows.get(position));
+            combiner.setLeft(leftRow);
+            if (joinCondition.test(combiner.currentElement())) {
+                matchedLeft.set(position);
+                if (trackRight) {
+                    matchedRight.set(rightPosition);
+                }
+                if (emitMatches) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean emitLeft() {
+        while (++leftPosition < blockRows.size()) {
+            boolean matched = matchedLeft.get(leftPosition);
+            switch (joinType) {
+                case SEMI:
+                    if (matched) {
+                        leftRow.cells(blockRows.get(leftPosition));
+                        return true;
+                    }
+                    break;
+
+                case ANTI:
+                    if (matched == false) {
+                        leftRow.cells(blockRows.get(leftPosition));
+                        return true;
+                    }
+                    break;
+
+                case LEFT:
+                case FULL:
+                    if (matched == false) {
+                        leftRow.cells(blockRows.get(leftPosition));
+                        combiner.setLeft(leftRow);
+                        combiner.nullRight();
+                        return true;
+                    }
+                    break;
+
+                default:
+                    // RIGHT joins don't emit unmatched left rows
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    private void resetBlock() {
+        blockSize = calculateBlockSize.getAsInt();
+        blockRows.clear();
+        buffer.clear();
+        matchedLeft.clear();
+        leftCandidates = null;
+        leftRowAccounting.release();
+
+        // A batch is not guaranteed to deliver PAGE_SIZE number of rows. It could be more or less.
+        // So we cannot rely on that to decide if processing 1 block is done, we must also know and track how much
+        // batches should be required for processing 1 block.
+        numberOfLeftBatchesForBlock = Math.max(1, (int) Math.ceil((double) blockSize / Paging.PAGE_SIZE));
+        numberOfLeftBatchesLoadedForBlock = leftBatchHasItems ? 1 : 0;
+    }
+
+    private boolean mustSwitchToRight() {
+        return left.allLoaded()
+               || blockRows.size() == blockSize
+               || (leftBatchHasItems == false && numberOfLeftBatchesLoadedForBlock == numberOfLeftBatchesForBlock);
+    }
+
+    private boolean mustLoadLeftNextBatch() {
+        return leftBatchHasItems == false
+               && left.allLoaded() == false
+               && blockRows.size() < blockSize
+               && numberOfLeftBatchesLoadedForBlock < numberOfLeftBatchesForBlock;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.pipeline;
+
+import io.crate.breaker.RamAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Projector;
+import io.crate.data.Row;
+import io.crate.execution.dsl.phases.ExecutionPhase;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.memory.MemoryManager;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.TransactionContext;
+import io.crate.profile.OperatorStats;
+import io.crate.profile.ProfilingBatchIterator;
+import io.crate.profile.ProfilingContext;
+import io.crate.profile.ProfilingRamAccounting;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * ProjectorFactory which records the {@link OperatorStats} of each projector it creates
+ * for {@code EXPLAIN ANALYZE}.
+ *
+ * The projectors created from the same projection share their stats, e.g. the projectors of the
+ * shard level projections of a collect phase, which are created for each shard.
+ */
+public final class ProfilingProjectorFactory implements ProjectorFactory {
+
+    private final ProjectorFactory delegate;
+    private final ProfilingContext profilingContext;
+    private final String phaseKey;
+
+    /**
+     * @param phaseKey the key of the phase the projectors belong to,
+     *                 see {@link ProfilingContext#generateProfilingKey(int, String)}
+     */
+    public ProfilingProjectorFactory(ProjectorFactory delegate, ProfilingContext profilingContext, String phaseKey) {
+        this.delegate = delegate;
+        this.profilingContext = profilingContext;
+        this.phaseKey = phaseKey;
+    }
+
+    /**
+     * Returns a projectorFactory which records the statistics of the projectors of the phase
+     * if profiling is enabled.
+     */
+    public static ProjectorFactory wrap(ProjectorFactory projectorFactory,
+                                       @Nullable ProfilingContext profilingContext,
+                                       ExecutionPhase phase) {
+        if (profilingContext == null) {
+            return projectorFactory;
+        }
+        return new ProfilingProjectorFactory(
+            projectorFactory,
+            profilingContext,
+            ProfilingContext.generateProfilingKey(phase.phaseId(), phase.name())
+        );
+    }
+
+    @Override
+    public Projector create(Projection projection,
+                            TransactionContext txnCtx,
+                            RamAccounting ramAccounting,
+                            MemoryManager memoryManager,
+                            UUID jobId) {
+        ProfilingRamAccounting profilingRamAccounting = new ProfilingRamAccounting(ramAccounting);
+        Projector projector = delegate.create(projection, txnCtx, profilingRamAccounting, memoryManager, jobId);
+        String name = projection.projectionType().name();
+        return new Projector() {
+
+            @Override
+            public BatchIterator<Row> apply(BatchIterator<Row> source) {
+                OperatorStats stats = profilingContext.operatorStats(phaseKey, projection, name);
+                stats.addRamAccounting(profilingRamAccounting);
+                BatchIterator<Row> input = ProfilingBatchIterator.input(source, stats);
+                return ProfilingBatchIterator.output(projector.apply(input), stats);
+            }
+
+            @Override
+            public boolean providesIndependentScroll() {
+                return projector.providesIndependentScroll();
+            }
+        };
+    }
+
+    @Override
+    public RowGranularity supportedGranularity() {
+        return delegate.supportedGranularity();
+    }
+}
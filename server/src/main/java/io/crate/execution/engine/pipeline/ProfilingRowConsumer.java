@@ -0,0 +1,78 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.pipeline;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowConsumer;
+import io.crate.profile.OperatorStats;
+import io.crate.profile.ProfilingBatchIterator;
+import io.crate.profile.ProfilingContext;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RowConsumer which records the {@link OperatorStats} of the BatchIterator it receives, before passing it on
+ * to the consumer. Used for the output of a phase, e.g. the rows which are sent to downstream nodes.
+ *
+ * The stats are created up-front, so that the consumer can record its memory and the bytes it sends into them,
+ * but they are only added to the phase once the consumer receives the iterator, after the projectors of the phase.
+ */
+public final class ProfilingRowConsumer implements RowConsumer {
+
+    private final RowConsumer consumer;
+    private final ProfilingContext profilingContext;
+    private final String phaseKey;
+    private final OperatorStats stats;
+
+    public ProfilingRowConsumer(RowConsumer consumer,
+                                ProfilingContext profilingContext,
+                                String phaseKey,
+                                OperatorStats stats) {
+        this.consumer = consumer;
+        this.profilingContext = profilingContext;
+        this.phaseKey = phaseKey;
+        this.stats = stats;
+    }
+
+    @Override
+    public void accept(BatchIterator<Row> iterator, @Nullable Throwable failure) {
+        if (failure == null) {
+            profilingContext.addOperatorStats(phaseKey, stats);
+            consumer.accept(ProfilingBatchIterator.output(iterator, stats), null);
+        } else {
+            consumer.accept(iterator, failure);
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> completionFuture() {
+        return consumer.completionFuture();
+    }
+
+    @Override
+    public boolean requiresScroll() {
+        return consumer.requiresScroll();
+    }
+}
@@ -25,6 +25,7 @@ package io.crate.execution.engine.pipeline;
 import com.google.common.collect.Iterables;
 import io.crate.analyze.NumberOfReplicas;
 import io.crate.analyze.SymbolEvaluator;
+import io.crate.breaker.BlockBasedRamAccounting;
 import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowCellsAccountingWithEstimators;
 import io.crate.common.collections.Lists2;
@@ -75,6 +76,7 @@ import io.crate.execution.engine.indexing.UpsertResultContext;
 import io.crate.execution.engine.sort.OrderingByPosition;
 import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.execution.engine.sort.SortingTopNProjector;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.execution.engine.window.WindowProjector;
 import io.crate.execution.jobs.NodeJobsCounter;
 import io.crate.execution.support.ThreadPools;
@@ -155,6 +157,7 @@ public class ProjectionToProjectorVisitor
     @Nullable
     private final ShardId shardId;
     private final int numProcessors;
+    private final long spillThreshold;
 
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
@@ -184,6 +187,7 @@ public class ProjectionToProjectorVisitor
         this.indexVersionCreated = indexVersionCreated;
         this.shardId = shardId;
         this.numProcessors = EsExecutors.numberOfProcessors(settings);
+        this.spillThreshold = SpillSettings.SPILL_THRESHOLD.get(settings).getBytes();
     }
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
@@ -263,6 +267,29 @@ public class ProjectionToProjectorVisitor
                 UNBOUNDED_COLLECTOR_THRESHOLD
             );
         }
+        if (spillThreshold > 0) {
+            // Spilling releases the memory accounted for the rows, so the projector must not share its accounting
+            List<Symbol> outputsAndOrderBy = Lists2.concat(projection.outputs(), projection.orderBy());
+            RamAccounting sortRamAccounting = new BlockBasedRamAccounting(
+                context.ramAccounting::addBytes,
+                BlockBasedRamAccounting.blockSizeInBytes(spillThreshold)
+            );
+            return new SortingProjector(
+                new RowCellsAccountingWithEstimators(
+                    Symbols.typeView(outputsAndOrderBy),
+                    sortRamAccounting,
+                    rowMemoryOverhead
+                ),
+                inputs,
+                ctx.expressions(),
+                numOutputs,
+                OrderingByPosition.arrayOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+                projection.offset(),
+                sortRamAccounting,
+                spillThreshold,
+                Symbols.streamerArray(outputsAndOrderBy)
+            );
+        }
         return new SortingProjector(
             rowAccounting,
             inputs,
@@ -312,7 +339,8 @@ public class ProjectionToProjectorVisitor
             context.ramAccounting,
             context.memoryManager,
             clusterService.state().getNodes().getMinNodeVersion(),
-            indexVersionCreated
+            indexVersionCreated,
+            spillThreshold
         );
     }
 
@@ -328,6 +356,7 @@ public class ProjectionToProjectorVisitor
         return new AggregationPipe(
             ctx.expressions(),
             projection.mode(),
+            projection.aggregations(),
             ctx.aggregations().toArray(new AggregationContext[0]),
             context.ramAccounting,
             context.memoryManager,
@@ -682,7 +711,8 @@ public class ProjectionToProjectorVisitor
             clusterService.state().nodes().getMinNodeVersion(),
             indexVersionCreated,
             ThreadPools.numIdleThreads(searchThreadPool, numProcessors),
-            searchThreadPool
+            searchThreadPool,
+            spillThreshold
         );
     }
 
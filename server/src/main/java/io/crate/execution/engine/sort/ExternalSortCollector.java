@@ -0,0 +1,179 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.sort;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
+import io.crate.common.io.IOUtils;
+import io.crate.data.Buckets;
+import io.crate.data.CollectionBucket;
+import io.crate.data.Row;
+import io.crate.execution.engine.distribution.merge.KeyIterable;
+import io.crate.execution.engine.distribution.merge.SortedPagingIterator;
+import io.crate.execution.engine.spill.SpillFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collector which sorts rows and spills sorted runs to disk once the memory accounted
+ * for the rows exceeds the {@code spillThreshold}.
+ *
+ * <p>
+ * Each run is sorted in memory and written to a {@link SpillFile}, afterwards the accounted memory is released.
+ * Once all rows are consumed the runs and the remaining in-memory rows are merged with a {@link SortedPagingIterator}.
+ * If no run was spilled the result is the same as sorting all rows in memory.
+ * </p>
+ *
+ * <p>
+ * The {@code ramAccounting} must be dedicated to the collector, because it is released after each spill.
+ * {@link #close()} must be called to delete the spill files.
+ * </p>
+ */
+final class ExternalSortCollector implements Collector<Object[], List<Object[]>, Iterable<Row>>, AutoCloseable {
+
+    private final Comparator<Object[]> comparator;
+    private final int numOutputs;
+    private final int offset;
+    private final RamAccounting ramAccounting;
+    private final long spillThreshold;
+    private final Streamer<?>[] streamers;
+    private final List<SpillFile> runs = new ArrayList<>();
+
+    /**
+     * @param numOutputs the number of leading cells of the rows which are emitted
+     * @param offset     the number of rows to skip after sorting
+     * @param streamers  one streamer per cell of the rows
+     */
+    ExternalSortCollector(Comparator<Object[]> comparator,
+                          int numOutputs,
+                          int offset,
+                          RamAccounting ramAccounting,
+                          long spillThreshold,
+                          Streamer<?>[] streamers) {
+        assert spillThreshold > 0 : "spillThreshold must be greater than 0";
+        this.comparator = comparator;
+        this.numOutputs = numOutputs;
+        this.offset = offset;
+        this.ramAccounting = ramAccounting;
+        this.spillThreshold = spillThreshold;
+        this.streamers = streamers;
+    }
+
+    @Override
+    public Supplier<List<Object[]>> supplier() {
+        return ArrayList::new;
+    }
+
+    @Override
+    public BiConsumer<List<Object[]>, Object[]> accumulator() {
+        return this::add;
+    }
+
+    @Override
+    public BinaryOperator<List<Object[]>> combiner() {
+        return (rows1, rows2) -> {
+            throw new UnsupportedOperationException("combine not supported");
+        };
+    }
+
+    @Override
+    public Function<List<Object[]>, Iterable<Row>> finisher() {
+        return this::finish;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    private void add(List<Object[]> rows, Object[] cells) {
+        rows.add(cells);
+        if (ramAccounting.totalBytes() >= spillThreshold) {
+            spillRun(rows);
+        }
+    }
+
+    /**
+     * Sorts the rows and writes them into a new run, then drops them from memory
+     * and releases the accounted memory.
+     */
+    private void spillRun(List<Object[]> rows) {
+        rows.sort(comparator);
+        try {
+            SpillFile run = SpillFile.create(streamers);
+            runs.add(run);
+            for (Object[] cells : rows) {
+                run.add(cells);
+            }
+            run.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rows.clear();
+        ramAccounting.release();
+    }
+
+    private Iterable<Row> finish(List<Object[]> rows) {
+        rows.sort(comparator);
+        if (runs.isEmpty()) {
+            if (offset == 0) {
+                return new CollectionBucket(rows, numOutputs);
+            }
+            return new CollectionBucket(rows.subList(offset, rows.size()), numOutputs);
+        }
+        return () -> {
+            List<KeyIterable<Integer, Object[]>> sortedRuns = new ArrayList<>(runs.size() + 1);
+            for (int i = 0; i < runs.size(); i++) {
+                sortedRuns.add(new KeyIterable<>(i, Iterables.transform(runs.get(i), Row::materialize)));
+            }
+            sortedRuns.add(new KeyIterable<>(runs.size(), rows));
+            SortedPagingIterator<Integer, Object[]> mergedRows = new SortedPagingIterator<>(comparator, false);
+            mergedRows.merge(sortedRuns);
+            mergedRows.finish();
+            Iterators.advance(mergedRows, offset);
+            return Iterators.transform(mergedRows, Buckets.arrayToSharedRow(numOutputs)::apply);
+        };
+    }
+
+    /**
+     * Deletes the spill files, if any
+     */
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(runs);
+        runs.clear();
+    }
+}
@@ -22,8 +22,11 @@
 
 package io.crate.execution.engine.sort;
 
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccounting;
 import io.crate.data.BatchIterator;
+import io.crate.data.BatchIterators;
 import io.crate.data.Bucket;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.CollectionBucket;
@@ -32,6 +35,7 @@ import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.execution.engine.collect.CollectExpression;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -43,6 +47,9 @@ import java.util.stream.Collectors;
  * <p>
  * Compared to {@link SortingTopNProjector} this projector does not support limiting,
  * while the {@link SortingTopNProjector} does not work WITHOUT a limit.
+ * <p>
+ * If a {@code spillThreshold} is set, sorted runs are written to disk once the rows exceed it
+ * and merged afterwards. See {@link ExternalSortCollector}
  */
 public class SortingProjector implements Projector {
 
@@ -53,6 +60,11 @@ public class SortingProjector implements Projector {
     private final int offset;
     private final int numOutputs;
     private final RowAccounting<Object[]> rowAccounting;
+    @Nullable
+    private final RamAccounting spillRamAccounting;
+    private final long spillThreshold;
+    @Nullable
+    private final Streamer<?>[] streamers;
 
     /**
      * @param rowAccounting               sorting is a pipeline breaker so account for the used memory
@@ -68,6 +80,25 @@ public class SortingProjector implements Projector {
                             int numOutputs,
                             Comparator<Object[]> comparator,
                             int offset) {
+        this(rowAccounting, inputs, collectExpressions, numOutputs, comparator, offset, null, -1, null);
+    }
+
+    /**
+     * @param spillRamAccounting the {@link RamAccounting} used by {@code rowAccounting}.
+     *                           Must be dedicated to this projector, because it is released after each spill.
+     * @param spillThreshold     the number of bytes the rows may account for before a sorted run is written to disk.
+     *                           Spilling is disabled if not greater than 0.
+     * @param streamers          streamers for the cells of the rows; one per input
+     */
+    public SortingProjector(RowAccounting<Object[]> rowAccounting,
+                            Collection<? extends Input<?>> inputs,
+                            Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                            int numOutputs,
+                            Comparator<Object[]> comparator,
+                            int offset,
+                            @Nullable RamAccounting spillRamAccounting,
+                            long spillThreshold,
+                            @Nullable Streamer<?>[] streamers) {
         if (offset < 0) {
             throw new IllegalArgumentException("invalid offset " + offset);
         }
@@ -77,11 +108,33 @@ public class SortingProjector implements Projector {
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
         this.offset = offset;
+        this.spillRamAccounting = spillRamAccounting;
+        this.spillThreshold = spillThreshold;
+        this.streamers = streamers;
     }
 
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (spillThreshold > 0) {
+            var sortCollector = new ExternalSortCollector(
+                comparator,
+                numOutputs,
+                offset,
+                spillRamAccounting,
+                spillThreshold,
+                streamers
+            );
+            return CollectingBatchIterator.newInstance(
+                () -> {
+                    batchIterator.close();
+                    sortCollector.close();
+                },
+                batchIterator::kill,
+                () -> BatchIterators.collect(batchIterator, Collectors.mapping(this::getCells, sortCollector)),
+                batchIterator.hasLazyResultSet()
+            );
+        }
         Collector<Row, ?, Bucket> collector = Collectors.mapping(
             this::getCells,
             Collectors.collectingAndThen(Collectors.toList(), this::sortAndCreateBucket));
@@ -0,0 +1,221 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A temporary file on the local disk which holds rows serialized with {@link Streamer}s,
+ * using the same per-cell format as {@link io.crate.execution.engine.distribution.StreamBucket}.
+ *
+ * <p>
+ * Rows are appended using {@link #add(Object[])} until {@link #finish()} is called.
+ * Afterwards the rows can be read back any number of times by iterating over the file.
+ * </p>
+ *
+ * <p>
+ * {@link #close()} must be called once the rows are no longer needed; it deletes the file.
+ * This class is not thread-safe.
+ * </p>
+ */
+public final class SpillFile implements Iterable<Row>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Streamer<?>[] streamers;
+    private final List<StreamInput> openInputs = new ArrayList<>();
+
+    @Nullable
+    private StreamOutput out;
+    private int numRows = 0;
+    private long sizeInBytes = 0;
+
+    public static SpillFile create(Streamer<?>[] streamers) throws IOException {
+        Path path = Files.createTempFile("crate-spill-", ".bin");
+        try {
+            return new SpillFile(path, streamers);
+        } catch (IOException e) {
+            IOUtils.deleteFilesIgnoringExceptions(path);
+            throw e;
+        }
+    }
+
+    private SpillFile(Path path, Streamer<?>[] streamers) throws IOException {
+        this.path = path;
+        this.streamers = streamers;
+        this.out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    public void add(Row row) throws IOException {
+        assert row.numColumns() == streamers.length : "number of streamers must match row size";
+        StreamOutput output = ensureWritable();
+        for (int i = 0; i < streamers.length; i++) {
+            //noinspection unchecked
+            ((Streamer) streamers[i]).writeValueTo(output, row.get(i));
+        }
+        numRows++;
+    }
+
+    public void add(Object[] cells) throws IOException {
+        assert cells.length >= streamers.length : "there must be at least one cell per streamer";
+        StreamOutput output = ensureWritable();
+        for (int i = 0; i < streamers.length; i++) {
+            //noinspection unchecked
+            ((Streamer) streamers[i]).writeValueTo(output, cells[i]);
+        }
+        numRows++;
+    }
+
+    private StreamOutput ensureWritable() {
+        if (out == null) {
+            throw new IllegalStateException("Cannot add rows to a SpillFile after finish() has been called");
+        }
+        return out;
+    }
+
+    /**
+     * Flushes all pending writes. No more rows can be added afterwards.
+     */
+    public void finish() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            sizeInBytes = Files.size(path);
+        }
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    /**
+     * @return the number of bytes the file occupies on disk. Only accurate after {@link #finish()}
+     */
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Iterates over the rows of the file. The returned row is a shared instance whose cells
+     * change on each call to {@code next()}; use {@link Row#materialize()} to retain it.
+     */
+    @Nonnull
+    @Override
+    public Iterator<Row> iterator() {
+        if (out != null) {
+            throw new IllegalStateException("SpillFile must be finished before its rows can be read");
+        }
+        if (numRows == 0) {
+            return Collections.emptyIterator();
+        }
+        try {
+            StreamInput in = new InputStreamStreamInput(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            openInputs.add(in);
+            return new RowIterator(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(openInputs);
+        openInputs.clear();
+        IOUtils.closeWhileHandlingException(out);
+        out = null;
+        IOUtils.deleteFilesIgnoringExceptions(path);
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{" +
+               "path=" + path +
+               ", numRows=" + numRows +
+               '}';
+    }
+
+    private class RowIterator implements Iterator<Row> {
+
+        private final StreamInput in;
+        private final Object[] cells;
+        private final RowN row;
+        private int pos = 0;
+
+        RowIterator(StreamInput in) {
+            this.in = in;
+            this.cells = new Object[streamers.length];
+            this.row = new RowN(cells);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pos < numRows) {
+                return true;
+            }
+            if (openInputs.remove(in)) {
+                IOUtils.closeWhileHandlingException(in);
+            }
+            return false;
+        }
+
+        @Override
+        public Row next() {
+            if (pos >= numRows) {
+                throw new NoSuchElementException("SpillFile has no more rows");
+            }
+            try {
+                for (int i = 0; i < streamers.length; i++) {
+                    cells[i] = streamers[i].readValueFrom(in);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos++;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+public final class SpillSettings {
+
+    /**
+     * The amount of memory a single operation may account for before it starts
+     * to move intermediate state to temporary files on the local disk.
+     * Accepts absolute values or a percentage of the heap. The default of {@code -1} disables spilling.
+     */
+    public static final Setting<ByteSizeValue> SPILL_THRESHOLD = Setting.memorySizeSetting(
+        "spill.threshold",
+        "-1",
+        Setting.Property.NodeScope
+    );
+
+    private SpillSettings() {
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.vector;
+
+import io.crate.data.Row;
+import io.crate.expression.symbol.InputColumn;
+
+import java.util.Collection;
+
+/**
+ * Buffers the values of some columns of up to {@code capacity} rows in {@link ColumnVector}s,
+ * so that filters and aggregations can process them batch-at-a-time in tight loops over primitive
+ * arrays instead of evaluating boxed {@link io.crate.data.Input}s row by row.
+ *
+ * Rows in a batch are addressed by their position. Operations receive a selection vector: an
+ * array with the positions of the rows they should process.
+ */
+public final class ColumnBatch {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final ColumnVector[] columns;
+    private final int[] columnIndices;
+    private final int capacity;
+    private int size = 0;
+
+    /**
+     * @param inputColumns the columns of the incoming rows which are buffered.
+     *                     Their types must be {@link ColumnVector#supports(io.crate.types.DataType) supported}.
+     */
+    public ColumnBatch(Collection<InputColumn> inputColumns, int capacity) {
+        int numColumns = 0;
+        for (InputColumn inputColumn : inputColumns) {
+            numColumns = Math.max(numColumns, inputColumn.index() + 1);
+        }
+        this.columns = new ColumnVector[numColumns];
+        for (InputColumn inputColumn : inputColumns) {
+            if (columns[inputColumn.index()] == null) {
+                columns[inputColumn.index()] = ColumnVector.forType(inputColumn.valueType(), capacity);
+            }
+        }
+        int numBuffered = 0;
+        for (ColumnVector column : columns) {
+            if (column != null) {
+                numBuffered++;
+            }
+        }
+        this.columnIndices = new int[numBuffered];
+        for (int i = 0, j = 0; i < columns.length; i++) {
+            if (columns[i] != null) {
+                columnIndices[j++] = i;
+            }
+        }
+        this.capacity = capacity;
+    }
+
+    public void add(Row row) {
+        assert size < capacity : "Cannot add a row to a full batch";
+        for (int columnIndex : columnIndices) {
+            columns[columnIndex].set(size, row.get(columnIndex));
+        }
+        size++;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of buffered columns
+     */
+    public int numColumns() {
+        return columnIndices.length;
+    }
+
+    /**
+     * Writes the positions of all rows of the batch into {@code selection}
+     *
+     * @return the number of selected rows
+     */
+    public int selectAll(int[] selection) {
+        for (int i = 0; i < size; i++) {
+            selection[i] = i;
+        }
+        return size;
+    }
+
+    public ColumnVector column(int columnIndex) {
+        return columns[columnIndex];
+    }
+
+    public LongVector longs(int columnIndex) {
+        return (LongVector) columns[columnIndex];
+    }
+
+    public DoubleVector doubles(int columnIndex) {
+        return (DoubleVector) columns[columnIndex];
+    }
+
+    public void clear() {
+        for (int columnIndex : columnIndices) {
+            columns[columnIndex].clear(size);
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.vector;
+
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+import org.apache.lucene.util.FixedBitSet;
+
+import javax.annotation.Nullable;
+
+/**
+ * A column of a {@link ColumnBatch}. Values are stored unboxed in a primitive array,
+ * null values are marked in a bitmap.
+ */
+public abstract class ColumnVector {
+
+    private final FixedBitSet nulls;
+
+    ColumnVector(int capacity) {
+        this.nulls = new FixedBitSet(capacity);
+    }
+
+    public final boolean isNull(int position) {
+        return nulls.get(position);
+    }
+
+    final void setNull(int position) {
+        nulls.set(position);
+    }
+
+    void clear(int size) {
+        nulls.clear(0, size);
+    }
+
+    abstract void set(int position, @Nullable Object value);
+
+    /**
+     * @return true if values of the given type can be stored in a {@link LongVector}
+     */
+    public static boolean isLongType(DataType<?> type) {
+        switch (type.id()) {
+            case ByteType.ID:
+            case ShortType.ID:
+            case IntegerType.ID:
+            case LongType.ID:
+            case TimestampType.ID_WITH_TZ:
+            case TimestampType.ID_WITHOUT_TZ:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return true if values of the given type can be stored in a {@link DoubleVector}
+     */
+    public static boolean isDoubleType(DataType<?> type) {
+        return type.id() == DoubleType.ID || type.id() == FloatType.ID;
+    }
+
+    public static boolean supports(DataType<?> type) {
+        return isLongType(type) || isDoubleType(type);
+    }
+
+    static ColumnVector forType(DataType<?> type, int capacity) {
+        if (isLongType(type)) {
+            return new LongVector(capacity);
+        }
+        if (isDoubleType(type)) {
+            return new DoubleVector(capacity);
+        }
+        throw new IllegalArgumentException("Type " + type + " cannot be stored in a column vector");
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.vector;
+
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiles filter symbols into {@link VectorPredicate}s.
+ *
+ * Supported are conjunctions of comparisons between a numeric or timestamp {@link InputColumn}
+ * and a literal, and {@code IS NULL} / {@code IS NOT NULL} checks on such columns.
+ */
+public final class VectorPredicates {
+
+    private VectorPredicates() {
+    }
+
+    /**
+     * @param columns the input columns the predicate reads are added to this collection
+     * @return the predicate or null if the filter contains functions without a vectorized implementation.
+     */
+    @Nullable
+    public static VectorPredicate compile(Symbol filter, Collection<InputColumn> columns) {
+        if (!(filter instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) filter;
+        List<Symbol> args = function.arguments();
+        switch (function.name()) {
+            case AndOperator.NAME: {
+                VectorPredicate left = compile(args.get(0), columns);
+                VectorPredicate right = left == null ? null : compile(args.get(1), columns);
+                if (right == null) {
+                    return null;
+                }
+                return (batch, selection, numSelected) ->
+                    right.apply(batch, selection, left.apply(batch, selection, numSelected));
+            }
+
+            case IsNullPredicate.NAME:
+                return isNull(args.get(0), false, columns);
+
+            case NotPredicate.NAME: {
+                Symbol arg = args.get(0);
+                if (arg instanceof Function && ((Function) arg).name().equals(IsNullPredicate.NAME)) {
+                    return isNull(((Function) arg).arguments().get(0), true, columns);
+                }
+                return null;
+            }
+
+            case EqOperator.NAME:
+                return compare(Comparison.EQ, args.get(0), args.get(1), columns);
+            case LtOperator.NAME:
+                return compare(Comparison.LT, args.get(0), args.get(1), columns);
+            case LteOperator.NAME:
+                return compare(Comparison.LTE, args.get(0), args.get(1), columns);
+            case GtOperator.NAME:
+                return compare(Comparison.GT, args.get(0), args.get(1), columns);
+            case GteOperator.NAME:
+                return compare(Comparison.GTE, args.get(0), args.get(1), columns);
+
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static VectorPredicate isNull(Symbol arg, boolean negate, Collection<InputColumn> columns) {
+        if (!(arg instanceof InputColumn) || !ColumnVector.supports(arg.valueType())) {
+            return null;
+        }
+        InputColumn column = (InputColumn) arg;
+        columns.add(column);
+        int columnIndex = column.index();
+        return (batch, selection, numSelected) -> {
+            ColumnVector vector = batch.column(columnIndex);
+            int matches = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int position = selection[i];
+                if (vector.isNull(position) != negate) {
+                    selection[matches++] = position;
+                }
+            }
+            return matches;
+        };
+    }
+
+    @Nullable
+    private static VectorPredicate compare(Comparison comparison,
+                                           Symbol left,
+                                           Symbol right,
+                                           Collection<InputColumn> columns) {
+        if (left instanceof Literal && right instanceof InputColumn) {
+            return compare(comparison.flip(), right, left, columns);
+        }
+        if (!(left instanceof InputColumn) || !(right instanceof Literal)) {
+            return null;
+        }
+        InputColumn column = (InputColumn) left;
+        Object value = ((Literal<?>) right).value();
+        if (value == null) {
+            return null;
+        }
+        if (ColumnVector.isLongType(column.valueType()) && ColumnVector.isLongType(right.valueType())) {
+            columns.add(column);
+            return new LongComparison(comparison, column.index(), ((Number) value).longValue());
+        }
+        if (ColumnVector.isDoubleType(column.valueType()) && ColumnVector.isDoubleType(right.valueType())) {
+            columns.add(column);
+            return new DoubleComparison(comparison, column.index(), ((Number) value).doubleValue());
+        }
+        return null;
+    }
+
+    enum Comparison {
+        EQ,
+        LT,
+        LTE,
+        GT,
+        GTE;
+
+        Comparison flip() {
+            switch (this) {
+                case LT:
+                    return GT;
+                case LTE:
+                    return GTE;
+                case GT:
+                    return LT;
+                case GTE:
+                    return LTE;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    private static final class LongComparison implements VectorPredicate {
+
+        private final Comparison comparison;
+        private final int columnIndex;
+        private final long value;
+
+        LongComparison(Comparison comparison, int columnIndex, long value) {
+            this.comparison = comparison;
+            this.columnIndex = columnIndex;
+            this.value = value;
+        }
+
+        @Override
+        public int apply(ColumnBatch batch, int[] selection, int numSelected) {
+            LongVector vector = batch.longs(columnIndex);
+            int matches = 0;
+            // One loop per comparison to keep the loop bodies free of branches on the comparison type
+            switch (comparison) {
+                case EQ:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && vector.get(position) == value) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case LT:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && vector.get(position) < value) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case LTE:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && vector.get(position) <= value) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case GT:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && vector.get(position) > value) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case GTE:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && vector.get(position) >= value) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                default:
+                    throw new AssertionError("Unexpected comparison: " + comparison);
+            }
+        }
+    }
+
+    /**
+     * Uses {@link Double#compare(double, double)} to match the semantics of the row based operators,
+     * which compare boxed values.
+     */
+    private static final class DoubleComparison implements VectorPredicate {
+
+        private final Comparison comparison;
+        private final int columnIndex;
+        private final double value;
+
+        DoubleComparison(Comparison comparison, int columnIndex, double value) {
+            this.comparison = comparison;
+            this.columnIndex = columnIndex;
+            this.value = value;
+        }
+
+        @Override
+        public int apply(ColumnBatch batch, int[] selection, int numSelected) {
+            DoubleVector vector = batch.doubles(columnIndex);
+            int matches = 0;
+            switch (comparison) {
+                case EQ:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && Double.compare(vector.get(position), value) == 0) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case LT:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && Double.compare(vector.get(position), value) < 0) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case LTE:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && Double.compare(vector.get(position), value) <= 0) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case GT:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && Double.compare(vector.get(position), value) > 0) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                case GTE:
+                    for (int i = 0; i < numSelected; i++) {
+                        int position = selection[i];
+                        if (!vector.isNull(position) && Double.compare(vector.get(position), value) >= 0) {
+                            selection[matches++] = position;
+                        }
+                    }
+                    return matches;
+                default:
+                    throw new AssertionError("Unexpected comparison: " + comparison);
+            }
+        }
+    }
+}
@@ -50,6 +50,8 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
     private final Version indexVersionCreated;
     private final MemoryManager memoryManager;
     private final Version minNodeVersion;
+    @Nullable
+    private final MovingFrameSelection movingFrameSelection;
     private Object accumulatedState;
 
     private int seenFrameLowerBound = -1;
@@ -74,6 +76,9 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
             minNodeVersion,
             memoryManager
         );
+        this.movingFrameSelection = this.aggregationFunction.isSelectiveReduce()
+            ? new MovingFrameSelection(this.aggregationFunction)
+            : null;
     }
 
     @Override
@@ -96,6 +101,9 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
                           WindowFrameState frame,
                           List<? extends CollectExpression<Row, ?>> expressions,
                           Input... args) {
+        if (movingFrameSelection != null) {
+            return executeMovingFrameSelection(idxInPartition, frame, expressions, args);
+        }
         if (idxInPartition == 0) {
             recomputeFunction(frame, expressions, args);
         } else if (isLowerBoundIncreasing(frame, seenFrameLowerBound)) {
@@ -117,6 +125,39 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
         return resultForCurrentFrame;
     }
 
+    private Object executeMovingFrameSelection(int idxInPartition,
+                                               WindowFrameState frame,
+                                               List<? extends CollectExpression<Row, ?>> expressions,
+                                               Input[] args) {
+        assert movingFrameSelection != null : "executeMovingFrameSelection requires a movingFrameSelection";
+        if (idxInPartition == 0
+            || frame.lowerBound() < seenFrameLowerBound
+            || frame.upperBoundExclusive() < seenFrameUpperBound) {
+            movingFrameSelection.clear();
+            seenFrameUpperBound = -1;
+        }
+        var row = new ArrayRow();
+        for (int i = Math.max(seenFrameUpperBound, frame.lowerBound()); i < frame.upperBoundExclusive(); i++) {
+            Object[] cells = frame.getRowInPartitionAtIndexOrNull(i);
+            assert cells != null : "No row at idx=" + i + " in current partition=" + frame;
+            row.cells(cells);
+            for (int j = 0, expressionsSize = expressions.size(); j < expressionsSize; j++) {
+                expressions.get(j).setNextRow(row);
+            }
+            if (filter.value(row)) {
+                Object value = args[0].value();
+                if (value != null) {
+                    movingFrameSelection.add(i, value);
+                }
+            }
+        }
+        movingFrameSelection.removeBefore(frame.lowerBound());
+        seenFrameLowerBound = frame.lowerBound();
+        seenFrameUpperBound = frame.upperBoundExclusive();
+        //noinspection unchecked
+        return aggregationFunction.terminatePartial(ramAccounting, movingFrameSelection.state());
+    }
+
     private void removeSeenRowsFromAccumulatedState(WindowFrameState frame,
                                                     List<? extends CollectExpression<Row, ?>> expressions,
                                                     Input[] args) {
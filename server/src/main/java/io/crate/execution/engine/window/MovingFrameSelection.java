@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import com.carrotsearch.hppc.IntArrayDeque;
+import io.crate.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+
+/**
+ * Evaluates aggregations with a {@link AggregationFunction#isSelectiveReduce() selective reduce} (eg. min, max)
+ * over a moving window frame using a monotonic deque.
+ *
+ * The deque holds the values of the frame which can still become the result of a later frame, ordered by their
+ * position in the partition. A value is dropped once a later value is selected over it, so the head of the deque is
+ * always the result of the current frame. Every value is added and removed at most once, so evaluating all frames of
+ * a partition is O(n) instead of O(n * frame size).
+ */
+final class MovingFrameSelection {
+
+    private final AggregationFunction<Object, ?> aggregationFunction;
+    private final IntArrayDeque positions = new IntArrayDeque();
+    private final ArrayDeque<Object> values = new ArrayDeque<>();
+
+    @SuppressWarnings("unchecked")
+    MovingFrameSelection(AggregationFunction<?, ?> aggregationFunction) {
+        assert aggregationFunction.isSelectiveReduce() : "Aggregation must have a selective reduce";
+        this.aggregationFunction = (AggregationFunction<Object, ?>) aggregationFunction;
+    }
+
+    /**
+     * Adds the value of the row at the given position. Positions must be increasing.
+     */
+    void add(int position, Object value) {
+        assert positions.isEmpty() || positions.getLast() < position : "Positions must be increasing";
+        // Values which aren't selected over the new value can never become the result of a later frame
+        while (!values.isEmpty()
+               && aggregationFunction.reduce(RamAccounting.NO_ACCOUNTING, values.peekLast(), value) == value) {
+            values.removeLast();
+            positions.removeLast();
+        }
+        values.addLast(value);
+        positions.addLast(position);
+    }
+
+    /**
+     * Removes the values of the rows which are positioned before the frame
+     */
+    void removeBefore(int frameLowerBound) {
+        while (!positions.isEmpty() && positions.getFirst() < frameLowerBound) {
+            positions.removeFirst();
+            values.removeFirst();
+        }
+    }
+
+    /**
+     * @return the value selected for the current frame or null if the frame doesn't contain any values.
+     */
+    @Nullable
+    Object state() {
+        return values.peekFirst();
+    }
+
+    void clear() {
+        positions.clear();
+        values.clear();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.ArrayRow;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * BatchIterator which computes window functions over a source which is already sorted by the
+ * PARTITION BY and ORDER BY expressions of the window definition.
+ *
+ * <p>
+ * Unlike {@link WindowFunctionBatchIterator#of} this doesn't collect all rows of the source.
+ * Rows are only collected until the first row of the next partition is found, the window functions
+ * are then computed over the complete partition and its rows are emitted before consuming further rows of the source.
+ * The memory usage is therefore bound by the size of the largest partition instead of the size of the whole input.
+ * </p>
+ *
+ * <p>
+ * If a {@code spillThreshold} is set and the rows of a partition account for more memory than the threshold,
+ * the rows are moved to a {@link SpilledPartition} and all further rows of the partition are written to disk.
+ * The window functions of a spilled partition are computed over rows which are loaded back chunk by chunk.
+ * </p>
+ */
+final class PartitionedWindowFunctionBatchIterator implements BatchIterator<Row> {
+
+    private final BatchIterator<Row> source;
+    private final RowAccounting<Row> rowAccounting;
+    private final RamAccounting ramAccounting;
+    private final Comparator<Object[]> cmpPartitionBy;
+    private final int numWindowFunctions;
+    private final Function<List<Object[]>, Iterable<Object[]>> computeWindowFunctions;
+    private final long spillThreshold;
+    private final Streamer<?>[] streamers;
+    private final ArrayRow currentRow = new ArrayRow();
+
+    private ArrayList<Object[]> partition = new ArrayList<>();
+    private Iterator<Object[]> partitionResults = Collections.emptyIterator();
+    private boolean sourceExhausted = false;
+
+    /**
+     * The first row of the partition which is currently being spilled; used to detect the partition boundary
+     */
+    @Nullable
+    private Object[] spilledPartitionFirstRow;
+
+    /**
+     * The partition which is currently being spilled
+     */
+    @Nullable
+    private SpilledPartition spilledPartition;
+
+    /**
+     * The spilled partition whose results are currently emitted. Closed once the next partition is computed.
+     */
+    @Nullable
+    private SpilledPartition computedSpilledPartition;
+
+    /**
+     * @param rowAccounting accounts the rows of the current partition, using {@code ramAccounting}
+     * @param ramAccounting released once a partition is computed. Must not be shared with other operations.
+     * @param spillThreshold the number of bytes the rows of a partition may account for before they're
+     *                       written to disk. Spilling is disabled if not greater than 0.
+     * @param streamers streamers for the source rows, used to spill partitions.
+     */
+    PartitionedWindowFunctionBatchIterator(BatchIterator<Row> source,
+                                           RowAccounting<Row> rowAccounting,
+                                           RamAccounting ramAccounting,
+                                           Comparator<Object[]> cmpPartitionBy,
+                                           int numWindowFunctions,
+                                           Function<List<Object[]>, Iterable<Object[]>> computeWindowFunctions,
+                                           long spillThreshold,
+                                           Streamer<?>[] streamers) {
+        this.source = source;
+        this.rowAccounting = rowAccounting;
+        this.ramAccounting = ramAccounting;
+        this.cmpPartitionBy = cmpPartitionBy;
+        this.numWindowFunctions = numWindowFunctions;
+        this.computeWindowFunctions = computeWindowFunctions;
+        this.spillThreshold = spillThreshold;
+        this.streamers = streamers;
+    }
+
+    @Override
+    public Row currentElement() {
+        return currentRow;
+    }
+
+    @Override
+    public void moveToStart() {
+        source.moveToStart();
+        closeSpilledPartitions();
+        partition = new ArrayList<>();
+        partitionResults = Collections.emptyIterator();
+        sourceExhausted = false;
+        rowAccounting.release();
+    }
+
+    @Override
+    public boolean moveNext() {
+        try {
+            return doMoveNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean doMoveNext() throws IOException {
+        while (true) {
+            if (partitionResults.hasNext()) {
+                currentRow.cells(partitionResults.next());
+                return true;
+            }
+            if (sourceExhausted) {
+                return false;
+            }
+            if (source.moveNext()) {
+                Row sourceRow = source.currentElement();
+                Object[] cells = WindowFunctionBatchIterator.materializeWithSpare(sourceRow, numWindowFunctions);
+                Object[] partitionFirstRow = spilledPartition == null
+                    ? (partition.isEmpty() ? null : partition.get(0))
+                    : spilledPartitionFirstRow;
+                if (partitionFirstRow != null && cmpPartitionBy.compare(partitionFirstRow, cells) != 0) {
+                    computePartition();
+                }
+                if (spilledPartition == null) {
+                    rowAccounting.accountForAndMaybeBreak(sourceRow);
+                    partition.add(cells);
+                    if (spillThreshold > 0 && ramAccounting.totalBytes() >= spillThreshold) {
+                        spillPartition();
+                    }
+                } else {
+                    spilledPartition.add(sourceRow);
+                }
+            } else if (source.allLoaded()) {
+                sourceExhausted = true;
+                if (spilledPartition != null || !partition.isEmpty()) {
+                    computePartition();
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private void spillPartition() throws IOException {
+        // Each chunk is about half the threshold, so that the two chunks a SpilledPartition keeps in memory
+        // don't use more memory than the partition was allowed to use before it was spilled
+        int rowsPerChunk = Math.max(partition.size() / 2, 1);
+        SpilledPartition spilled = new SpilledPartition(streamers, numWindowFunctions, rowsPerChunk);
+        spilledPartition = spilled;
+        spilledPartitionFirstRow = partition.get(0);
+        spilled.addAll(partition);
+        partition = new ArrayList<>();
+        rowAccounting.release();
+    }
+
+    private void computePartition() throws IOException {
+        closeComputedSpilledPartition();
+        List<Object[]> rows;
+        if (spilledPartition == null) {
+            rows = partition;
+            partition = new ArrayList<>();
+        } else {
+            spilledPartition.finish();
+            rows = spilledPartition;
+            computedSpilledPartition = spilledPartition;
+            spilledPartition = null;
+            spilledPartitionFirstRow = null;
+        }
+        // The rows of the computed partition are only referenced until they've been consumed
+        rowAccounting.release();
+        partitionResults = computeWindowFunctions.apply(rows).iterator();
+    }
+
+    private void closeComputedSpilledPartition() {
+        if (computedSpilledPartition != null) {
+            computedSpilledPartition.close();
+            computedSpilledPartition = null;
+        }
+    }
+
+    private void closeSpilledPartitions() {
+        closeComputedSpilledPartition();
+        if (spilledPartition != null) {
+            spilledPartition.close();
+            spilledPartition = null;
+            spilledPartitionFirstRow = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeSpilledPartitions();
+        source.close();
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() throws Exception {
+        if (sourceExhausted) {
+            return CompletableFuture.failedFuture(new IllegalStateException("BatchIterator already fully loaded"));
+        }
+        return source.loadNextBatch();
+    }
+
+    @Override
+    public boolean allLoaded() {
+        return source.allLoaded();
+    }
+
+    @Override
+    public boolean hasLazyResultSet() {
+        return true;
+    }
+
+    @Override
+    public void kill(@Nonnull Throwable throwable) {
+        source.kill(throwable);
+    }
+}
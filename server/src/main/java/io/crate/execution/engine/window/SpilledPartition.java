@@ -0,0 +1,161 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.Row;
+import io.crate.execution.engine.spill.SpillFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The rows of a single window partition which are stored in {@link SpillFile}s instead of the heap.
+ *
+ * <p>
+ * The rows are written in chunks of {@code rowsPerChunk} rows, one file per chunk.
+ * {@link #get(int)} loads the chunk containing the row into memory. The two most recently used chunks are kept,
+ * so that a frame spanning a chunk boundary or a frame anchored at the start of the partition
+ * (e.g. {@code first_value}) doesn't load a chunk for each row.
+ * </p>
+ *
+ * <p>
+ * Rows are materialized with spare cells for the window function results, like the rows of an in-memory partition.
+ * The results injected into a loaded row are lost once its chunk is evicted; they only need to live until the
+ * row is emitted.
+ * </p>
+ */
+final class SpilledPartition extends AbstractList<Object[]> implements RandomAccess, Closeable {
+
+    private final Streamer<?>[] streamers;
+    private final int numWindowFunctions;
+    private final int rowsPerChunk;
+    private final List<SpillFile> chunks = new ArrayList<>();
+
+    private int size = 0;
+    private boolean finished = false;
+
+    private int recentChunkIdx = -1;
+    private Object[][] recentChunk;
+    private int olderChunkIdx = -1;
+    private Object[][] olderChunk;
+
+    SpilledPartition(Streamer<?>[] streamers, int numWindowFunctions, int rowsPerChunk) {
+        assert rowsPerChunk > 0 : "rowsPerChunk must be greater than 0";
+        this.streamers = streamers;
+        this.numWindowFunctions = numWindowFunctions;
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    void add(Row row) throws IOException {
+        currentChunk().add(row);
+        size++;
+    }
+
+    void addAll(List<Object[]> rows) throws IOException {
+        for (Object[] cells : rows) {
+            currentChunk().add(cells);
+            size++;
+        }
+    }
+
+    private SpillFile currentChunk() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Cannot add rows to a SpilledPartition after finish() has been called");
+        }
+        if (size % rowsPerChunk == 0) {
+            if (!chunks.isEmpty()) {
+                chunks.get(chunks.size() - 1).finish();
+            }
+            chunks.add(SpillFile.create(streamers));
+        }
+        return chunks.get(chunks.size() - 1);
+    }
+
+    /**
+     * Flushes all pending writes. The rows can only be accessed afterwards.
+     */
+    void finish() throws IOException {
+        if (!chunks.isEmpty()) {
+            chunks.get(chunks.size() - 1).finish();
+        }
+        finished = true;
+    }
+
+    @Override
+    public Object[] get(int index) {
+        if (!finished) {
+            throw new IllegalStateException("SpilledPartition must be finished before its rows can be read");
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int chunkIdx = index / rowsPerChunk;
+        return chunk(chunkIdx)[index % rowsPerChunk];
+    }
+
+    private Object[][] chunk(int chunkIdx) {
+        if (chunkIdx == recentChunkIdx) {
+            return recentChunk;
+        }
+        Object[][] chunk;
+        if (chunkIdx == olderChunkIdx) {
+            chunk = olderChunk;
+        } else {
+            chunk = load(chunks.get(chunkIdx));
+        }
+        olderChunkIdx = recentChunkIdx;
+        olderChunk = recentChunk;
+        recentChunkIdx = chunkIdx;
+        recentChunk = chunk;
+        return chunk;
+    }
+
+    private Object[][] load(SpillFile file) {
+        Object[][] rows = new Object[file.numRows()][];
+        int i = 0;
+        for (Row row : file) {
+            rows[i] = WindowFunctionBatchIterator.materializeWithSpare(row, numWindowFunctions);
+            i++;
+        }
+        return rows;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(chunks);
+        chunks.clear();
+        recentChunk = null;
+        olderChunk = null;
+    }
+}
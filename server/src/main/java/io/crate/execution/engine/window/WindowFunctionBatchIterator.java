@@ -23,6 +23,8 @@
 package io.crate.execution.engine.window;
 
 import com.google.common.collect.Iterables;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccounting;
 import io.crate.data.BatchIterator;
 import io.crate.data.BatchIterators;
@@ -116,7 +118,46 @@ public final class WindowFunctionBatchIterator {
         );
     }
 
-    private static Object[] materializeWithSpare(Row row, int numWindowFunctions) {
+    /**
+     * Like {@link #of} but for a source which is sorted by the PARTITION BY and ORDER BY expressions of the window
+     * definition. Instead of collecting all rows, the rows are processed one partition at a time.
+     * Partitions whose rows account for more than {@code spillThreshold} bytes are written to disk.
+     * See {@link PartitionedWindowFunctionBatchIterator}
+     */
+    public static BatchIterator<Row> ofSortedSource(BatchIterator<Row> source,
+                                                    RowAccounting<Row> rowAccounting,
+                                                    RamAccounting partitionRamAccounting,
+                                                    long spillThreshold,
+                                                    Streamer<?>[] streamers,
+                                                    ComputeFrameBoundary<Object[]> computeFrameStart,
+                                                    ComputeFrameBoundary<Object[]> computeFrameEnd,
+                                                    Comparator<Object[]> cmpPartitionBy,
+                                                    int numCellsInSourceRow,
+                                                    List<WindowFunction> windowFunctions,
+                                                    List<? extends CollectExpression<Row, ?>> argsExpressions,
+                                                    Input[]... args) {
+        return new PartitionedWindowFunctionBatchIterator(
+            source,
+            rowAccounting,
+            partitionRamAccounting,
+            cmpPartitionBy,
+            windowFunctions.size(),
+            partitionRows -> computeWindowFunctions(
+                partitionRows,
+                computeFrameStart,
+                computeFrameEnd,
+                null,
+                numCellsInSourceRow,
+                windowFunctions,
+                argsExpressions,
+                args
+            ),
+            spillThreshold,
+            streamers
+        );
+    }
+
+    static Object[] materializeWithSpare(Row row, int numWindowFunctions) {
         Object[] cells = new Object[row.numColumns() + numWindowFunctions];
         for (int i = 0; i < row.numColumns(); i++) {
             cells[i] = row.get(i);
@@ -22,8 +22,10 @@
 
 package io.crate.execution.engine.window;
 
+import io.crate.Streamer;
 import io.crate.analyze.OrderBy;
 import io.crate.analyze.WindowDefinition;
+import io.crate.breaker.BlockBasedRamAccounting;
 import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccountingWithEstimators;
 import io.crate.data.Input;
@@ -71,7 +73,8 @@ public class WindowProjector {
                                            Version minNodeVersion,
                                            Version indexVersionCreated,
                                            IntSupplier numThreads,
-                                           Executor executor) {
+                                           Executor executor,
+                                           long spillThreshold) {
         var windowFunctionSymbols = projection.windowFunctions();
         var numWindowFunctions = windowFunctionSymbols.size();
 
@@ -147,6 +150,33 @@ public class WindowProjector {
             windowDefinition,
             cmpOrderBy
         );
+        if (projection.sourceSorted() && cmpPartitionBy != null) {
+            // The rows of a partition are released once it's computed, so they must not share the accounting
+            // with the window functions
+            Streamer<?>[] streamers = Symbols.streamerArray(projection.standalone());
+            return sourceRows -> {
+                var partitionRamAccounting = new BlockBasedRamAccounting(
+                    ramAccounting::addBytes,
+                    spillThreshold > 0 ? BlockBasedRamAccounting.blockSizeInBytes(spillThreshold) : 0
+                );
+                var partitionRowAccounting = new RowAccountingWithEstimators(
+                    Symbols.typeView(projection.standalone()), partitionRamAccounting, arrayListElementOverHead);
+                return WindowFunctionBatchIterator.ofSortedSource(
+                    sourceRows,
+                    partitionRowAccounting,
+                    partitionRamAccounting,
+                    spillThreshold,
+                    streamers,
+                    computeFrameStart,
+                    computeFrameEnd,
+                    cmpPartitionBy,
+                    numCellsInSourceRow,
+                    windowFunctions,
+                    windowFuncArgsExpressions,
+                    windowFuncArgsInputs
+                );
+            };
+        }
         return sourceRows -> WindowFunctionBatchIterator.of(
             sourceRows,
             accounting,
@@ -77,9 +77,12 @@ import io.crate.execution.engine.distribution.merge.PagingIterator;
 import io.crate.execution.engine.fetch.FetchTask;
 import io.crate.execution.engine.join.HashJoinOperation;
 import io.crate.execution.engine.join.NestedLoopOperation;
+import io.crate.execution.engine.pipeline.ProfilingProjectorFactory;
+import io.crate.execution.engine.pipeline.ProfilingRowConsumer;
 import io.crate.execution.engine.pipeline.ProjectingRowConsumer;
 import io.crate.execution.engine.pipeline.ProjectionToProjectorVisitor;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.expression.InputFactory;
 import io.crate.expression.RowFilter;
 import io.crate.expression.eval.EvaluatingNormalizer;
@@ -94,6 +97,9 @@ import io.crate.metadata.table.Operation;
 import io.crate.planner.distribution.DistributionType;
 import io.crate.planner.node.StreamerVisitor;
 import io.crate.planner.operators.PKAndVersion;
+import io.crate.profile.OperatorStats;
+import io.crate.profile.ProfilingContext;
+import io.crate.profile.ProfilingRamAccounting;
 import io.crate.types.DataTypes;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -144,6 +150,7 @@ public class JobSetup {
     private final Executor searchTp;
     private final String nodeName;
     private final Schemas schemas;
+    private final long spillThreshold;
 
     @Inject
     public JobSetup(Settings settings,
@@ -163,6 +170,7 @@ public class JobSetup {
                     MemoryManagerFactory memoryManagerFactory) {
         this.nodeName = Node.NODE_NAME_SETTING.get(settings);
         this.schemas = schemas;
+        this.spillThreshold = SpillSettings.SPILL_THRESHOLD.get(settings).getBytes();
         this.collectOperation = collectOperation;
         this.clusterService = clusterService;
         this.circuitBreakerService = circuitBreakerService;
@@ -476,10 +484,42 @@ public class JobSetup {
             return taskBuilder.jobId();
         }
 
+        /**
+         * Returns a projectorFactory which records the statistics of the projectors of the phase
+         * if profiling is enabled.
+         */
+        ProjectorFactory projectorFactory(ExecutionPhase phase, ProjectorFactory projectorFactory) {
+            return ProfilingProjectorFactory.wrap(projectorFactory, taskBuilder.profilingContext(), phase);
+        }
+
+        @Nullable
+        ProfilingContext profilingContext() {
+            return taskBuilder.profilingContext();
+        }
+
         /**
          * Retrieve the rowReceiver of the downstream of phase
          */
         RowConsumer getRowConsumer(UpstreamPhase phase, int pageSize, RamAccounting ramAccounting) {
+            ProfilingContext profilingContext = taskBuilder.profilingContext();
+            if (profilingContext == null) {
+                return createRowConsumer(phase, pageSize, ramAccounting, null);
+            }
+            OperatorStats stats = new OperatorStats("OUTPUT");
+            ProfilingRamAccounting profilingRamAccounting = new ProfilingRamAccounting(ramAccounting);
+            stats.addRamAccounting(profilingRamAccounting);
+            return new ProfilingRowConsumer(
+                createRowConsumer(phase, pageSize, profilingRamAccounting, stats),
+                profilingContext,
+                ProfilingContext.generateProfilingKey(phase.phaseId(), phase.name()),
+                stats
+            );
+        }
+
+        private RowConsumer createRowConsumer(UpstreamPhase phase,
+                                              int pageSize,
+                                              RamAccounting ramAccounting,
+                                              @Nullable OperatorStats stats) {
             NodeOperation nodeOperation = opCtx.nodeOperationByPhaseId.get(phase.phaseId());
             if (nodeOperation == null) {
                 return handlerPhaseConsumer(phase.phaseId());
@@ -496,7 +536,7 @@ public class JobSetup {
                 case BROADCAST:
                 case MODULO:
                     RowConsumer consumer = distributingConsumerFactory.create(
-                        nodeOperation, ramAccounting, phase.distributionInfo(), jobId(), pageSize);
+                        nodeOperation, ramAccounting, phase.distributionInfo(), jobId(), pageSize, stats);
                     if (logger.isTraceEnabled()) {
                         logger.trace(
                             "action=getRowReceiver, distributionType={}, phase={}, targetConsumer={}, target={}/{},",
@@ -608,7 +648,7 @@ public class JobSetup {
                 context.txnCtx(),
                 consumerRamAccounting,
                 consumerMemoryManager,
-                projectorFactory
+                context.projectorFactory(pkLookupPhase, projectorFactory)
             );
             context.registerSubContext(new PKLookupTask(
                 pkLookupPhase.jobId(),
@@ -656,7 +696,7 @@ public class JobSetup {
                     context.txnCtx(),
                     ramAccountingForMerge,
                     memoryManager,
-                    projectorFactory
+                    context.projectorFactory(phase, projectorFactory)
                 );
                 context.registerBatchConsumer(phase.phaseId(), projectingRowConsumer);
                 return null;
@@ -676,6 +716,7 @@ public class JobSetup {
                         phase.jobId()
                     );
                     collector = groupingProjector.getCollector();
+                    finalRowConsumer.completionFuture().whenComplete((result, error) -> groupingProjector.close());
                     projections = projections.subList(1, projections.size());
                 } else if (firstProjection instanceof AggregationProjection) {
                     AggregationProjection aggregationProjection = (AggregationProjection) firstProjection;
@@ -698,7 +739,7 @@ public class JobSetup {
                 context.txnCtx(),
                 ramAccountingForMerge,
                 memoryManager,
-                projectorFactory
+                context.projectorFactory(phase, projectorFactory)
             );
             PageBucketReceiver pageBucketReceiver;
             if (collector == null) {
@@ -757,7 +798,8 @@ public class JobSetup {
                 consumer,
                 context.sharedShardContexts,
                 clusterService.state().getNodes().getMinNodeVersion(),
-                ramAccountingBlockSizeInBytes
+                ramAccountingBlockSizeInBytes,
+                context.profilingContext()
             ));
             return null;
         }
@@ -782,7 +824,8 @@ public class JobSetup {
                 consumer,
                 context.sharedShardContexts,
                 clusterService.state().getNodes().getMinNodeVersion(),
-                ramAccountingBlockSizeInBytes
+                ramAccountingBlockSizeInBytes,
+                context.profilingContext()
             ));
             return null;
         }
@@ -839,7 +882,7 @@ public class JobSetup {
                 context.txnCtx(),
                 ramAccountingOfOperation,
                 memoryManager,
-                projectorFactory
+                context.projectorFactory(phase, projectorFactory)
             );
             Predicate<Row> joinCondition = RowFilter.create(context.transactionContext, inputFactory, phase.joinCondition());
 
@@ -913,7 +956,7 @@ public class JobSetup {
                 context.txnCtx(),
                 ramAccountingOfOperation,
                 memoryManager,
-                projectorFactory
+                context.projectorFactory(phase, projectorFactory)
             );
             Predicate<Row> joinCondition = RowFilter.create(context.transactionContext, inputFactory, phase.joinCondition());
 
@@ -921,6 +964,7 @@ public class JobSetup {
                 phase.numLeftOutputs(),
                 phase.numRightOutputs(),
                 firstConsumer,
+                phase.joinType(),
                 joinCondition,
                 phase.leftJoinConditionInputs(),
                 phase.rightJoinConditionInputs(),
@@ -933,7 +977,11 @@ public class JobSetup {
                 inputFactory,
                 breaker(),
                 phase.estimatedRowSizeForLeft(),
-                phase.numberOfRowsForLeft());
+                phase.numberOfRowsForLeft(),
+                phase.leftOutputTypes(),
+                phase.rightOutputTypes(),
+                new BlockBasedRamAccounting(ramAccounting::addBytes, ramAccountingBlockSizeInBytes),
+                spillThreshold);
             DistResultRXTask left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
                 context,
@@ -989,7 +1037,7 @@ public class JobSetup {
                     ctx.txnCtx(),
                     ramAccounting,
                     memoryManager,
-                    projectorFactory
+                    ctx.projectorFactory(mergePhase, projectorFactory)
                 );
             }
 
@@ -71,6 +71,12 @@ public class LikeOperator extends Operator<String> {
         return super.compile(arguments);
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        // Without a literal pattern, the pattern is compiled for each evaluation
+        return arguments.get(1) instanceof Input ? 5f : 20f;
+    }
+
     @Override
     public Boolean evaluate(TransactionContext txnCtx, NodeContext nodeCtx, Input<String>... args) {
         assert args != null : "args must not be null";
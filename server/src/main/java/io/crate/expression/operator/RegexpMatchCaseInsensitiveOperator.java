@@ -22,6 +22,7 @@
 package io.crate.expression.operator;
 
 import io.crate.data.Input;
+import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
@@ -76,6 +77,12 @@ public class RegexpMatchCaseInsensitiveOperator extends Operator<String> {
         return p.matcher(source).matches();
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        // The pattern is compiled for each evaluation
+        return 20f;
+    }
+
     @Override
     public Signature signature() {
         return signature;
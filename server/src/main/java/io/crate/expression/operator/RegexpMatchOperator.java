@@ -22,6 +22,7 @@
 package io.crate.expression.operator;
 
 import io.crate.data.Input;
+import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
@@ -85,6 +86,12 @@ public class RegexpMatchOperator extends Operator<String> {
         }
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        // The pattern is compiled for each evaluation
+        return 20f;
+    }
+
     @Override
     public Signature signature() {
         return signature;
@@ -24,25 +24,66 @@ package io.crate.expression.reference.file;
 import io.crate.metadata.ColumnIdent;
 import org.apache.lucene.util.UnicodeUtil;
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.compress.NotXContentException;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Holds the source of the line which is currently processed by {@code COPY FROM}.
+ *
+ * <p>
+ * If only some columns are extracted from the source (see {@link #addRequiredColumn(ColumnIdent)}),
+ * only the values of their top level columns are read from the source, the values of all other columns are skipped.
+ * </p>
+ *
+ * <p>
+ * Sources of the columnar format are not parsed, the decoded values of their columns are set via
+ * {@link #columnValues(Map, boolean)} instead. The raw source is then only serialized if it is required.
+ * </p>
+ */
 public class LineContext {
 
     private byte[] rawSource;
     private Map<String, Object> parsedSource;
+
+    /**
+     * The values of the top level columns in {@link #requiredRootColumns}.
+     * Same as {@link #parsedSource} if the whole source is parsed.
+     */
+    private Map<String, Object> parsedColumns;
+
+    @Nullable
+    private Set<String> requiredRootColumns;
+    private boolean requiresSourceAsMap = false;
+    private boolean requiresRawSource = false;
     private String currentUri;
     private String currentUriFailure;
     private long currentLineNumber = 0;
 
     @Nullable
     String sourceAsString() {
+        if (rawSource == null && parsedSource != null) {
+            try {
+                return Strings.toString(JsonXContent.contentBuilder().map(parsedSource));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         if (rawSource != null) {
             char[] chars = new char[rawSource.length];
             int len = UnicodeUtil.UTF8toUTF16(rawSource, 0, rawSource.length, chars);
@@ -66,16 +107,121 @@ public class LineContext {
     }
 
     public Object get(ColumnIdent columnIdent) {
-        Map<String, Object> parentMap = sourceAsMap();
+        assert requiredRootColumns == null || requiredRootColumns.contains(columnIdent.name())
+            : "Column " + columnIdent + " must be registered via addRequiredColumn";
+        Map<String, Object> parentMap = requiredColumnsAsMap();
         if (parentMap == null) {
             return null;
         }
         return ColumnIdent.get(parentMap, columnIdent);
     }
 
+    /**
+     * Registers a column which is extracted via {@link #get(ColumnIdent)}.
+     * Without any registered column the whole source is parsed.
+     */
+    void addRequiredColumn(ColumnIdent columnIdent) {
+        if (requiredRootColumns == null) {
+            requiredRootColumns = new HashSet<>();
+        }
+        requiredRootColumns.add(columnIdent.name());
+    }
+
+    /**
+     * Marks that the whole source is read via {@link #sourceAsMap()}, so it is parsed only once.
+     */
+    void requireSourceAsMap() {
+        requiresSourceAsMap = true;
+    }
+
+    /**
+     * Marks that the raw source is read via {@link #sourceAsString()}.
+     */
+    void requireRawSource() {
+        requiresRawSource = true;
+    }
+
+    /**
+     * @return the names of the top level columns which are read from a source,
+     *         or null if the whole source is required
+     */
+    @Nullable
+    public Set<String> requiredRootColumns() {
+        if (requiresSourceAsMap || requiresRawSource) {
+            return null;
+        }
+        return requiredRootColumns;
+    }
+
+    @Nullable
+    private Map<String, Object> requiredColumnsAsMap() {
+        if (requiresSourceAsMap || requiredRootColumns == null) {
+            return sourceAsMap();
+        }
+        if (parsedColumns == null) {
+            if (parsedSource != null) {
+                parsedColumns = parsedSource;
+            } else if (rawSource != null) {
+                try {
+                    parsedColumns = parseColumns(rawSource, requiredRootColumns);
+                } catch (IOException | ElasticsearchParseException e) {
+                    throw new RuntimeException("JSON parser error: " + e.getMessage(), e);
+                }
+            }
+        }
+        return parsedColumns;
+    }
+
+    private static Map<String, Object> parseColumns(byte[] source, Set<String> rootColumns) throws IOException {
+        try (XContentParser parser = JsonXContent.JSON_XCONTENT.createParser(
+                NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source)) {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new ElasticsearchParseException("Failed to parse source, expected an object");
+            }
+            HashMap<String, Object> values = new HashMap<>();
+            while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                String columnName = parser.currentName();
+                XContentParser.Token token = parser.nextToken();
+                if (rootColumns.contains(columnName)) {
+                    values.put(columnName, readValue(parser, token));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return values;
+        }
+    }
+
+    @Nullable
+    private static Object readValue(XContentParser parser, XContentParser.Token token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return parser.map();
+            case START_ARRAY:
+                return parser.list();
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.objectText();
+        }
+    }
+
     public void rawSource(byte[] bytes) {
         this.rawSource = bytes;
         this.parsedSource = null;
+        this.parsedColumns = null;
+    }
+
+    /**
+     * Sets the already decoded values of a source by top level column name.
+     *
+     * @param containsAllColumns true if the values are the whole source,
+     *                           false if they only contain the {@link #requiredRootColumns()}
+     */
+    public void columnValues(Map<String, Object> values, boolean containsAllColumns) {
+        this.rawSource = null;
+        this.parsedSource = containsAllColumns ? values : null;
+        this.parsedColumns = values;
     }
 
     /**
@@ -39,5 +39,6 @@ public class SourceAsMapLineExpression extends LineCollectorExpression<Map<Strin
     @Override
     public void startCollect(LineContext context) {
         this.context = context;
+        context.requireSourceAsMap();
     }
 }
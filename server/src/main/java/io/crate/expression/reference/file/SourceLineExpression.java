@@ -37,5 +37,6 @@ public class SourceLineExpression extends LineCollectorExpression<String> {
     @Override
     public void startCollect(LineContext context) {
         this.context = context;
+        context.requireRawSource();
     }
 }
@@ -26,6 +26,7 @@ import io.crate.planner.operators.StatementClassifier.Classification;
 
 import javax.annotation.Nullable;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 public class JobContext {
 
@@ -35,13 +36,30 @@ public class JobContext {
     private final long started;
     @Nullable
     private final Classification classification;
+    @Nullable
+    private final String fingerprint;
+    private final LongAdder usedBytes = new LongAdder();
 
     public JobContext(UUID id, String stmt, long started, User user, @Nullable Classification classification) {
+        this(id, stmt, started, user, classification, null);
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the statement if it is already known,
+     *                    see {@link io.crate.sql.parser.StatementFingerprint}
+     */
+    public JobContext(UUID id,
+                      String stmt,
+                      long started,
+                      User user,
+                      @Nullable Classification classification,
+                      @Nullable String fingerprint) {
         this.id = id;
         this.stmt = stmt;
         this.started = started;
         this.username = user.name();
         this.classification = classification;
+        this.fingerprint = fingerprint;
     }
 
     public UUID id() {
@@ -65,6 +83,22 @@ public class JobContext {
         return classification;
     }
 
+    @Nullable
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Adds the bytes used by a finished operation of the job on this node
+     */
+    public void addUsedBytes(long bytes) {
+        usedBytes.add(bytes);
+    }
+
+    public long usedBytes() {
+        return usedBytes.sum();
+    }
+
     @Override
     public String toString() {
         return "JobContext{" +
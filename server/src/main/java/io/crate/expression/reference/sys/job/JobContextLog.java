@@ -71,6 +71,11 @@ public class JobContextLog implements ContextLog {
         return jobContext.classification();
     }
 
+    @Nullable
+    public String fingerprint() {
+        return jobContext.fingerprint();
+    }
+
     @Override
     public long ended() {
         return ended;
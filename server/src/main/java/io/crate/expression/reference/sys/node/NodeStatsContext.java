@@ -51,6 +51,7 @@ public class NodeStatsContext implements Writeable {
     private long timestamp;
     private Version version;
     private long clusterStateVersion;
+    private long offHeapUsed;
     private Build build;
     private String restUrl;
     private JvmStats jvmStats;
@@ -123,6 +124,10 @@ public class NodeStatsContext implements Writeable {
         return clusterStateVersion;
     }
 
+    public long offHeapUsed() {
+        return offHeapUsed;
+    }
+
     public Build build() {
         return build;
     }
@@ -235,6 +240,10 @@ public class NodeStatsContext implements Writeable {
         this.clusterStateVersion = clusterStateVersion;
     }
 
+    public void offHeapUsed(long offHeapUsed) {
+        this.offHeapUsed = offHeapUsed;
+    }
+
     public void build(Build build) {
         this.build = build;
     }
@@ -318,6 +327,9 @@ public class NodeStatsContext implements Writeable {
         this.psqlStats = in.readOptionalWriteable(ConnectionStats::new);
         this.openTransportConnections = in.readLong();
         this.clusterStateVersion = in.readLong();
+        if (in.getVersion().onOrAfter(Version.V_4_4_0)) {
+            this.offHeapUsed = in.readLong();
+        }
 
         this.osName = DataTypes.STRING.readValueFrom(in);
         this.osArch = DataTypes.STRING.readValueFrom(in);
@@ -357,6 +369,9 @@ public class NodeStatsContext implements Writeable {
         out.writeOptionalWriteable(psqlStats);
         out.writeLong(openTransportConnections);
         out.writeLong(clusterStateVersion);
+        if (out.getVersion().onOrAfter(Version.V_4_4_0)) {
+            out.writeLong(offHeapUsed);
+        }
 
         DataTypes.STRING.writeValueTo(out, osName);
         DataTypes.STRING.writeValueTo(out, osArch);
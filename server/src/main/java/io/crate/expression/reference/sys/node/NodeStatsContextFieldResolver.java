@@ -23,6 +23,7 @@
 package io.crate.expression.reference.sys.node;
 
 import io.crate.common.annotations.VisibleForTesting;
+import io.crate.memory.MemoryManagerFactory;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.sys.SysNodesTableInfo;
 import io.crate.monitor.ExtendedNodeInfo;
@@ -79,6 +80,7 @@ public class NodeStatsContextFieldResolver {
     private final JvmService jvmService;
     private final FsService fsService;
     private final LongSupplier clusterStateVersion;
+    private final LongSupplier offHeapUsed;
 
     @Inject
     @SuppressWarnings("unused")
@@ -88,7 +90,8 @@ public class NodeStatsContextFieldResolver {
                                          TransportService transportService,
                                          ThreadPool threadPool,
                                          ExtendedNodeInfo extendedNodeInfo,
-                                         PostgresNetty postgresNetty) {
+                                         PostgresNetty postgresNetty,
+                                         MemoryManagerFactory memoryManagerFactory) {
         this(
             clusterService::localNode,
             nodeService.getMonitorService(),
@@ -96,7 +99,12 @@ public class NodeStatsContextFieldResolver {
             () -> httpServerTransport == null ? null : httpServerTransport.stats(),
             threadPool,
             extendedNodeInfo,
-            () -> new ConnectionStats(postgresNetty.openConnections(), postgresNetty.totalConnections()),
+            () -> new ConnectionStats(
+                postgresNetty.openConnections(),
+                postgresNetty.totalConnections(),
+                postgresNetty.dataRowStats().rowsSent(),
+                postgresNetty.dataRowStats().bytesSent()
+            ),
             () -> {
                 BoundTransportAddress boundTransportAddress = postgresNetty.boundAddress();
                 if (boundTransportAddress == null) {
@@ -105,7 +113,8 @@ public class NodeStatsContextFieldResolver {
                 return boundTransportAddress.publishAddress();
             },
             () -> transportService.stats().getServerOpen(),
-            () -> clusterService.state().version()
+            () -> clusterService.state().version(),
+            memoryManagerFactory::offHeapUsedBytes
         );
     }
 
@@ -119,7 +128,8 @@ public class NodeStatsContextFieldResolver {
                                   Supplier<ConnectionStats> psqlStats,
                                   Supplier<TransportAddress> boundPostgresAddress,
                                   LongSupplier numOpenTransportConnections,
-                                  LongSupplier clusterStateVersion) {
+                                  LongSupplier clusterStateVersion,
+                                  LongSupplier offHeapUsed) {
         this.localNode = localNode;
         processService = monitorService.processService();
         osService = monitorService.osService();
@@ -133,6 +143,7 @@ public class NodeStatsContextFieldResolver {
         this.boundPostgresAddress = boundPostgresAddress;
         this.numOpenTransportConnections = numOpenTransportConnections;
         this.clusterStateVersion = clusterStateVersion;
+        this.offHeapUsed = offHeapUsed;
     }
 
     public NodeStatsContext forTopColumnIdents(Collection<ColumnIdent> topColumnIdents) {
@@ -222,6 +233,12 @@ public class NodeStatsContextFieldResolver {
                 context.jvmStats(jvmService.stats());
             }
         }),
+        entry(SysNodesTableInfo.Columns.OFF_HEAP, new Consumer<>() {
+            @Override
+            public void accept(NodeStatsContext context) {
+                context.offHeapUsed(offHeapUsed.getAsLong());
+            }
+        }),
         entry(SysNodesTableInfo.Columns.VERSION, context -> {
             context.version(Version.CURRENT);
             context.build(Build.CURRENT);
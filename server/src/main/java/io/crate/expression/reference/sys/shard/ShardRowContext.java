@@ -24,6 +24,7 @@ package io.crate.expression.reference.sys.shard;
 
 import com.google.common.base.Suppliers;
 import io.crate.blob.v2.BlobShard;
+import io.crate.execution.engine.collect.ShardResultCache;
 import io.crate.metadata.IndexParts;
 import io.crate.metadata.PartitionName;
 import io.crate.metadata.RelationName;
@@ -62,6 +63,7 @@ public class ShardRowContext {
     private final String aliasName;
     @Nullable
     private final String templateName;
+    private final ShardResultCache.Stats resultCacheStats = new ShardResultCache.Stats();
 
     public ShardRowContext(IndexShard indexShard, ClusterService clusterService) {
         this(indexShard, null, clusterService, Suppliers.memoizeWithExpiration(() -> {
@@ -371,6 +373,10 @@ public class ShardRowContext {
         }
     }
 
+    public ShardResultCache.Stats resultCacheStats() {
+        return resultCacheStats;
+    }
+
     public Collection<RetentionLease> retentionLeases() {
         try {
             return indexShard.getRetentionLeaseStats().leases().leases();
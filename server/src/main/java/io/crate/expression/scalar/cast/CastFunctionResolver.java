@@ -26,8 +26,10 @@ import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.functions.Signature;
+import io.crate.types.ArrayType;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
+import io.crate.types.ObjectType;
 
 import java.util.List;
 import java.util.Set;
@@ -92,4 +94,16 @@ public class CastFunctionResolver {
             );
         }
     }
+
+    /**
+     * Estimated cost of a cast, see {@link io.crate.metadata.Scalar#evaluationCost(List)}.
+     * Casting text to an object or array parses the text as JSON.
+     */
+    static float evaluationCost(DataType<?> sourceType, DataType<?> targetType) {
+        if (sourceType.id() == DataTypes.STRING.id()
+            && (targetType.id() == ObjectType.ID || targetType.id() == ArrayType.ID)) {
+            return 10f;
+        }
+        return 1f;
+    }
 }
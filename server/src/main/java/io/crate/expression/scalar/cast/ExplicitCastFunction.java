@@ -33,6 +33,8 @@ import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.DataType;
 
+import java.util.List;
+
 import static io.crate.metadata.functions.TypeVariableConstraint.typeVariable;
 import static io.crate.types.TypeSignature.parseTypeSignature;
 
@@ -72,6 +74,11 @@ public class ExplicitCastFunction extends Scalar<Object, Object> {
         }
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        return CastFunctionResolver.evaluationCost(arguments.get(0).valueType(), returnType);
+    }
+
     @Override
     public Signature signature() {
         return signature;
@@ -33,6 +33,8 @@ import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.DataTypes;
 
+import java.util.List;
+
 import static io.crate.metadata.functions.TypeVariableConstraint.typeVariable;
 import static io.crate.types.TypeSignature.parseTypeSignature;
 
@@ -71,6 +73,17 @@ public class ImplicitCastFunction extends Scalar<Object, Object> {
         }
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        Symbol targetTypeSymbol = arguments.get(1);
+        if (!(targetTypeSymbol instanceof Input)) {
+            return 1f;
+        }
+        var targetType = parseTypeSignature((String) ((Input<?>) targetTypeSymbol).value()).createType();
+        // the target type is parsed for each evaluation
+        return 1f + CastFunctionResolver.evaluationCost(arguments.get(0).valueType(), targetType);
+    }
+
     @Override
     public Signature signature() {
         return signature;
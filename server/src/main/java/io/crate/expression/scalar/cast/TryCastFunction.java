@@ -32,6 +32,8 @@ import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
 import io.crate.types.DataType;
 
+import java.util.List;
+
 import static io.crate.metadata.functions.TypeVariableConstraint.typeVariable;
 import static io.crate.types.TypeSignature.parseTypeSignature;
 
@@ -71,6 +73,11 @@ public class TryCastFunction extends Scalar<Object, Object> {
         }
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        return CastFunctionResolver.evaluationCost(arguments.get(0).valueType(), returnType);
+    }
+
     @Override
     public Signature signature() {
         return signature;
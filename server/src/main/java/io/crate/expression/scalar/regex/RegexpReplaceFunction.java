@@ -118,6 +118,15 @@ public final class RegexpReplaceFunction extends Scalar<String, String> {
         return this;
     }
 
+    @Override
+    public float evaluationCost(List<Symbol> arguments) {
+        // Unless compiled upfront, the pattern is compiled for each evaluation
+        if (arguments.size() == 4 && arguments.get(1) instanceof Input && arguments.get(3) instanceof Input) {
+            return 5f;
+        }
+        return 20f;
+    }
+
     @Override
     public String evaluate(TransactionContext txnCtx, NodeContext nodeCtx, Input<String>[] args) {
         assert args.length == 3 || args.length == 4 : "number of args must be 3 or 4";
@@ -45,14 +45,14 @@ public class CurrentTimeFunction extends Scalar<TimeTZ, Integer> {
                 NAME,
                 DataTypes.INTEGER.getTypeSignature(),
                 DataTypes.TIMETZ.getTypeSignature()
-            ),
+            ).withFeatures(NO_FEATURES),
             CurrentTimeFunction::new
         );
         module.register(
             Signature.scalar(
                 NAME,
                 DataTypes.TIMETZ.getTypeSignature()
-            ),
+            ).withFeatures(NO_FEATURES),
             CurrentTimeFunction::new
         );
     }
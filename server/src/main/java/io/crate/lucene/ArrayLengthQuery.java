@@ -397,8 +397,8 @@ public final class ArrayLengthQuery implements InnerFunctionToQuery {
 
         @Override
         public float matchCost() {
-            // This is an arbitrary number;
-            // It's less than what is used in GenericFunctionQuery to indicate that this check should be cheaper
+            // Reading the number of values from doc values and comparing it;
+            // about what EvaluationCost estimates for comparing a column in a GenericFunctionQuery
             return 2;
         }
     }
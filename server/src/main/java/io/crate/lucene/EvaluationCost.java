@@ -0,0 +1,107 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import io.crate.expression.symbol.DefaultTraversalSymbolVisitor;
+import io.crate.expression.symbol.DynamicReference;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.Reference;
+import io.crate.metadata.Scalar;
+import io.crate.metadata.TransactionContext;
+import io.crate.metadata.doc.DocSysColumns;
+
+/**
+ * Estimates the cost to evaluate a condition on a single document, used as
+ * {@link org.apache.lucene.search.TwoPhaseIterator#matchCost()} of a {@link GenericFunctionQuery}.
+ *
+ * <p>
+ * The cost of a function is its {@link Scalar#evaluationCost(java.util.List)} plus the cost of its arguments.
+ * Reading a column from doc values costs {@link #COLUMN_COST}. Columns read from {@code _doc} require to load
+ * and parse the source, which costs {@link #SOURCE_LOOKUP_COST} once per document.
+ * Short-circuiting of {@code AND}, {@code OR} or conditional functions isn't taken into account.
+ * </p>
+ */
+final class EvaluationCost extends DefaultTraversalSymbolVisitor<EvaluationCost.Context, Void> {
+
+    static final float COLUMN_COST = 1f;
+    static final float SOURCE_LOOKUP_COST = 50f;
+
+    private static final EvaluationCost INSTANCE = new EvaluationCost();
+
+    static class Context {
+
+        private final NodeContext nodeCtx;
+        private final TransactionContext txnCtx;
+        private float cost = 0f;
+        private boolean sourceLookup = false;
+
+        Context(NodeContext nodeCtx, TransactionContext txnCtx) {
+            this.nodeCtx = nodeCtx;
+            this.txnCtx = txnCtx;
+        }
+    }
+
+    private EvaluationCost() {
+    }
+
+    static float of(Symbol condition, NodeContext nodeCtx, TransactionContext txnCtx) {
+        Context context = new Context(nodeCtx, txnCtx);
+        condition.accept(INSTANCE, context);
+        return context.cost;
+    }
+
+    @Override
+    public Void visitFunction(Function function, Context context) {
+        FunctionImplementation implementation = context.nodeCtx.functions().getQualified(
+            function,
+            context.txnCtx.sessionSettings().searchPath()
+        );
+        if (implementation instanceof Scalar) {
+            context.cost += ((Scalar<?, ?>) implementation).evaluationCost(function.arguments());
+        } else {
+            context.cost += 1f;
+        }
+        return super.visitFunction(function, context);
+    }
+
+    @Override
+    public Void visitReference(Reference ref, Context context) {
+        if (ref.column().name().equals(DocSysColumns.Names.DOC)) {
+            if (!context.sourceLookup) {
+                context.sourceLookup = true;
+                context.cost += SOURCE_LOOKUP_COST;
+            }
+        } else {
+            context.cost += COLUMN_COST;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitDynamicReference(DynamicReference ref, Context context) {
+        return visitReference(ref, context);
+    }
+}
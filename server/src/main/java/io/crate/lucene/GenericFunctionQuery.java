@@ -51,21 +51,32 @@ import java.util.Set;
 /**
  * Query implementation which filters docIds by evaluating {@code condition} on each docId to verify if it matches.
  *
- * This query is very slow.
+ * This query is very slow. The estimated cost of the condition is exposed as match cost of the two-phase iterator,
+ * so that Lucene verifies cheaper clauses of a conjunction first.
  */
 class GenericFunctionQuery extends Query {
 
     private final Function function;
     private final LuceneCollectorExpression[] expressions;
     private final Input<Boolean> condition;
+    private final float matchCost;
 
+    /**
+     * @param matchCost the estimated cost to evaluate the condition on a document, see {@link EvaluationCost}
+     */
     GenericFunctionQuery(Function function,
                          Collection<? extends LuceneCollectorExpression<?>> expressions,
-                         Input<Boolean> condition) {
+                         Input<Boolean> condition,
+                         float matchCost) {
         this.function = function;
         // inner loop iterates over expressions - call toArray to avoid iterator allocations
         this.expressions = expressions.toArray(new LuceneCollectorExpression[0]);
         this.condition = condition;
+        this.matchCost = matchCost;
+    }
+
+    float matchCost() {
+        return matchCost;
     }
 
     @Override
@@ -129,7 +140,7 @@ class GenericFunctionQuery extends Query {
         for (LuceneCollectorExpression expression : expressions) {
             expression.setNextReader(new ReaderContext(context));
         }
-        return new FilteredTwoPhaseIterator(context.reader(), condition, expressions);
+        return new FilteredTwoPhaseIterator(context.reader(), condition, expressions, matchCost);
     }
 
     @Override
@@ -141,13 +152,16 @@ class GenericFunctionQuery extends Query {
 
         private final Input<Boolean> condition;
         private final LuceneCollectorExpression[] expressions;
+        private final float matchCost;
 
         FilteredTwoPhaseIterator(LeafReader reader,
                                  Input<Boolean> condition,
-                                 LuceneCollectorExpression[] expressions) {
+                                 LuceneCollectorExpression[] expressions,
+                                 float matchCost) {
             super(DocIdSetIterator.all(reader.maxDoc()));
             this.condition = condition;
             this.expressions = expressions;
+            this.matchCost = matchCost;
         }
 
         @Override
@@ -161,8 +175,7 @@ class GenericFunctionQuery extends Query {
 
         @Override
         public float matchCost() {
-            // Arbitrary number, we don't have a way to get the cost of the condition
-            return 10;
+            return matchCost;
         }
     }
 }
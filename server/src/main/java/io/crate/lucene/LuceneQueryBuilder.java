@@ -79,10 +79,12 @@ import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.index.cache.IndexCache;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.ExistsQueryBuilder;
 import org.elasticsearch.index.query.QueryShardContext;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -162,6 +164,7 @@ public class LuceneQueryBuilder {
         final MapperService mapperService;
         final IndexCache indexCache;
         private final TransactionContext txnCtx;
+        private final NodeContext nodeCtx;
         final QueryShardContext queryShardContext;
 
         Context(TransactionContext txnCtx,
@@ -172,6 +175,7 @@ public class LuceneQueryBuilder {
                 String indexName,
                 List<Reference> partitionColumns) {
             this.txnCtx = txnCtx;
+            this.nodeCtx = nodeCtx;
             this.queryShardContext = queryShardContext;
             FieldTypeLookup typeLookup = mapperService::fullName;
             this.docInputFactory = new DocInputFactory(
@@ -451,10 +455,68 @@ public class LuceneQueryBuilder {
         }
     }
 
+    /**
+     * Operators which evaluate to null if any argument is null.
+     * A document can only match if all columns used as direct arguments have a value.
+     */
+    private static final Set<String> NULL_INTOLERANT_OPERATORS = Set.of(
+        EqOperator.NAME,
+        LtOperator.NAME,
+        LteOperator.NAME,
+        GtOperator.NAME,
+        GteOperator.NAME,
+        LikeOperators.OP_LIKE,
+        LikeOperators.OP_ILIKE,
+        RegexpMatchOperator.NAME,
+        RegexpMatchCaseInsensitiveOperator.NAME
+    );
+
     static Query genericFunctionFilter(Function function, Context context) {
         if (function.valueType() != DataTypes.BOOLEAN) {
             raiseUnsupported(function);
         }
+        List<String> requiredColumns = requiredColumns(function, context);
+        Query query = genericFunctionQuery(function, context);
+        if (requiredColumns.isEmpty()) {
+            return query;
+        }
+        // The exists queries use the index to skip documents without a value before the function is evaluated
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(query, BooleanClause.Occur.MUST);
+        for (String column : requiredColumns) {
+            builder.add(ExistsQueryBuilder.newFilter(context.queryShardContext, column), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the columns which must have a value for the function to match.
+     * Only mapped primitive columns are considered: empty arrays or objects have no indexed value but can still
+     * match, and children of ignored objects aren't indexed at all.
+     */
+    private static List<String> requiredColumns(Function function, Context context) {
+        if (!NULL_INTOLERANT_OPERATORS.contains(function.name())) {
+            return List.of();
+        }
+        List<String> columns = new ArrayList<>(function.arguments().size());
+        for (Symbol argument : function.arguments()) {
+            if (argument instanceof Reference) {
+                Reference ref = (Reference) argument;
+                if (ref.granularity() == RowGranularity.DOC
+                    && ref.isNullable()
+                    && !ref.column().isSystemColumn()
+                    && ref.columnPolicy() != ColumnPolicy.IGNORED
+                    && DataTypes.isPrimitive(ref.valueType())
+                    && context.getFieldTypeOrNull(ref.column().fqn()) != null
+                    && !columns.contains(ref.column().fqn())) {
+                    columns.add(ref.column().fqn());
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static Query genericFunctionQuery(Function function, Context context) {
         // rewrite references to source lookup instead of using the docValues column store if:
         // - no docValues are available for the related column, currently only on objects defined as `ignored`
         // - docValues value differs from source, currently happening on GeoPoint types as lucene's internal format
@@ -471,7 +533,8 @@ public class LuceneQueryBuilder {
         for (LuceneCollectorExpression<?> expression : expressions) {
             expression.startCollect(collectorContext);
         }
-        return new GenericFunctionQuery(function, expressions, condition);
+        float matchCost = EvaluationCost.of(function, context.nodeCtx, context.txnCtx);
+        return new GenericFunctionQuery(function, expressions, condition, matchCost);
     }
 
     private static void raiseUnsupported(Function function) {
@@ -25,6 +25,7 @@ package io.crate.memory;
 import io.crate.breaker.RamAccounting;
 import io.crate.settings.CrateSetting;
 import io.crate.types.DataTypes;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.settings.ClusterSettings;
@@ -82,6 +83,21 @@ public final class MemoryManagerFactory implements Function<RamAccounting, Memor
 
     private volatile MemoryType currentMemoryType = MemoryType.ON_HEAP;
 
+    /**
+     * Node wide pool for off-heap allocations.
+     * Memory is organized in size classed arenas; each thread has a cache of recently released buffers.
+     */
+    private final PooledByteBufAllocator offHeapAllocator = new PooledByteBufAllocator(
+        true,
+        0,
+        PooledByteBufAllocator.defaultNumDirectArena(),
+        PooledByteBufAllocator.defaultPageSize(),
+        PooledByteBufAllocator.defaultMaxOrder(),
+        PooledByteBufAllocator.defaultSmallCacheSize(),
+        PooledByteBufAllocator.defaultNormalCacheSize(),
+        true
+    );
+
     @Inject
     public MemoryManagerFactory(ClusterSettings clusterSettings) {
         clusterSettings.addSettingsUpdateConsumer(MEMORY_ALLOCATION_TYPE.setting(), newValue -> {
@@ -98,12 +114,20 @@ public final class MemoryManagerFactory implements Function<RamAccounting, Memor
             case ON_HEAP:
                 return new OnHeapMemoryManager(ramAccounting::addBytes);
             case OFF_HEAP:
-                return new OffHeapMemoryManager();
+                return new OffHeapMemoryManager(offHeapAllocator, ramAccounting::addBytes);
             default:
                 throw new AssertionError("MemoryType is supposed to have only 2 cases");
         }
     }
 
+    /**
+     * @return the number of bytes of direct memory currently reserved by the off-heap pool.
+     *         This includes buffers cached for re-use.
+     */
+    public long offHeapUsedBytes() {
+        return offHeapAllocator.metric().usedDirectMemory();
+    }
+
     @Override
     public MemoryManager apply(RamAccounting ramAccounting) {
         return getMemoryManager(ramAccounting);
@@ -23,20 +23,38 @@
 package io.crate.memory;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
 
 import java.util.ArrayList;
+import java.util.function.IntConsumer;
 
+/**
+ * A MemoryManager that allocates direct buffers using the given allocator.
+ * <p>
+ * Usually the allocator is the node wide pool of {@link MemoryManagerFactory}, so that buffers released on
+ * {@link #close()} are re-used by subsequent allocations instead of being returned to the operating system.
+ * The used memory is accounted via an injected `IntConsumer`, which is also responsible to de-account the
+ * used bytes eventually.
+ */
 public final class OffHeapMemoryManager implements MemoryManager {
 
     private final ArrayList<ByteBuf> allocatedBuffers = new ArrayList<>();
+    private final ByteBufAllocator allocator;
+    private final IntConsumer accountBytes;
 
-    public OffHeapMemoryManager() {
+    /**
+     * @param allocator The allocator used to create direct buffers.
+     * @param accountBytes A consumer that will be called on each ByteBuf allocation with the number of allocated bytes.
+     */
+    public OffHeapMemoryManager(ByteBufAllocator allocator, IntConsumer accountBytes) {
+        this.allocator = allocator;
+        this.accountBytes = accountBytes;
     }
 
     @Override
     public ByteBuf allocate(int capacity) {
-        ByteBuf byteBuf = Unpooled.directBuffer(capacity);
+        accountBytes.accept(capacity);
+        ByteBuf byteBuf = allocator.directBuffer(capacity);
         allocatedBuffers.add(byteBuf);
         return byteBuf;
     }
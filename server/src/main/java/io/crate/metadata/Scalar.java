@@ -85,6 +85,18 @@ public abstract class Scalar<ReturnType, InputType> implements FunctionImplement
         return this;
     }
 
+    /**
+     * Returns the estimated cost to evaluate the function once, excluding the cost to evaluate its arguments.
+     * The unit is the cost of a simple operation like comparing two numbers.
+     *
+     * Used to order the evaluation of filters which cannot use the index against other filters.
+     *
+     * @param arguments arguments in symbol form, like in {@link #compile(List)}.
+     */
+    public float evaluationCost(List<Symbol> arguments) {
+        return 1f;
+    }
+
     @Override
     public Symbol normalizeSymbol(Function symbol, TransactionContext txnCtx, NodeContext nodeCtx) {
         try {
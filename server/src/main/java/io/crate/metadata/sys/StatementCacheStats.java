@@ -0,0 +1,73 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of the usage statistics of one of the statement caches of a node. Exposed via `sys.statement_caches`.
+ */
+@Immutable
+public final class StatementCacheStats {
+
+    private final String name;
+    private final long entries;
+    private final CacheStats stats;
+
+    public static StatementCacheStats of(String name, @Nullable Cache<?, ?> cache) {
+        if (cache == null) {
+            return new StatementCacheStats(name, 0L, new CacheStats(0L, 0L, 0L, 0L, 0L, 0L));
+        }
+        return new StatementCacheStats(name, cache.size(), cache.stats());
+    }
+
+    private StatementCacheStats(String name, long entries, CacheStats stats) {
+        this.name = name;
+        this.entries = entries;
+        this.stats = stats;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long entries() {
+        return entries;
+    }
+
+    public long hits() {
+        return stats.hitCount();
+    }
+
+    public long misses() {
+        return stats.missCount();
+    }
+
+    public long evictions() {
+        return stats.evictionCount();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import io.crate.common.annotations.VisibleForTesting;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of the statements executed on this node, aggregated by the fingerprint of the statement.
+ * See {@link io.crate.sql.parser.StatementFingerprint}.
+ *
+ * <p>
+ * Each fingerprint has its own histogram and counters, guarded by its own lock,
+ * so that only executions of statements with the same fingerprint contend with each other.
+ * </p>
+ *
+ * <p>
+ * The number of fingerprints is bounded. Once the limit is reached, the fingerprint with the lowest count
+ * is evicted to make room for a new one, which inherits the count of the evicted fingerprint
+ * (the Space-Saving algorithm). This way new statements can replace statements which have been
+ * executed often in the past, but aren't executed anymore.
+ * </p>
+ *
+ * <p>
+ * The fingerprints are kept in a priority queue ordered by their count at the time they have been queued.
+ * Counts only grow, so on eviction a fingerprint whose count has changed since is queued again
+ * with its current count, which is amortized O(log n) per execution.
+ * </p>
+ */
+public class StatementStats implements Iterable<StatementStatsView> {
+
+    static final int MAX_FINGERPRINTS = 1_000;
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toMillis(10);
+    private static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 2;
+
+    private final ConcurrentHashMap<String, Stats> statsByFingerprint = new ConcurrentHashMap<>();
+    private final PriorityQueue<Stats> evictionQueue = new PriorityQueue<>(
+        Comparator.comparingLong(stats -> stats.queuedCount));
+    private final int maxFingerprints;
+
+    public StatementStats() {
+        this(MAX_FINGERPRINTS);
+    }
+
+    @VisibleForTesting
+    StatementStats(int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    private static class Stats {
+
+        private final String fingerprint;
+        private final long inheritedCount;
+        // auto-resizing, so that rarely executed or fast statements only use a small histogram
+        private final AbstractHistogram histogram = new IntCountsHistogram(NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
+        private long sumOfDurations = 0;
+        private long failedCount = 0;
+        private long sumOfRows = 0;
+        private long sumOfUsedBytes = 0;
+
+        // guarded by the evictionQueue
+        private long queuedCount;
+
+        Stats(String fingerprint, long inheritedCount) {
+            this.fingerprint = fingerprint;
+            this.inheritedCount = inheritedCount;
+            this.queuedCount = inheritedCount;
+        }
+
+        synchronized void record(long duration, boolean failed, long rows, long usedBytes) {
+            // durations are calculated from the start and end time, so they can be negative if the system time
+            // is adjusted; durations longer than the histogram can track are only recorded in the sum.
+            histogram.recordValue(Math.min(Math.max(0, duration), HIGHEST_TRACKABLE_VALUE));
+            sumOfDurations += Math.max(0, duration);
+            if (failed) {
+                failedCount++;
+            }
+            sumOfRows += rows;
+            sumOfUsedBytes += usedBytes;
+        }
+
+        /**
+         * The number of executions plus the count inherited from the evicted fingerprint
+         */
+        synchronized long count() {
+            return inheritedCount + histogram.getTotalCount();
+        }
+
+        synchronized StatementStatsView createView() {
+            return new StatementStatsView(
+                fingerprint,
+                histogram.copy(),
+                sumOfDurations,
+                failedCount,
+                sumOfRows,
+                sumOfUsedBytes
+            );
+        }
+    }
+
+    /**
+     * @param duration  the duration of the execution in milliseconds
+     * @param rows      the number of rows returned to the client
+     * @param usedBytes the memory used by the operations of the execution on this node
+     */
+    public void record(String fingerprint, long duration, boolean failed, long rows, long usedBytes) {
+        Stats stats = statsByFingerprint.get(fingerprint);
+        if (stats == null) {
+            synchronized (evictionQueue) {
+                stats = statsByFingerprint.get(fingerprint);
+                if (stats == null) {
+                    long inheritedCount = statsByFingerprint.size() >= maxFingerprints ? evictMinCount() : 0L;
+                    stats = new Stats(fingerprint, inheritedCount);
+                    evictionQueue.add(stats);
+                    statsByFingerprint.put(fingerprint, stats);
+                }
+            }
+        }
+        stats.record(duration, failed, rows, usedBytes);
+    }
+
+    /**
+     * Evicts the fingerprint with the lowest count
+     *
+     * @return the count of the evicted fingerprint
+     */
+    private long evictMinCount() {
+        assert Thread.holdsLock(evictionQueue) : "Must hold the lock of the evictionQueue";
+        while (true) {
+            Stats candidate = evictionQueue.poll();
+            assert candidate != null : "The evictionQueue must contain all fingerprints";
+            long count = candidate.count();
+            if (count > candidate.queuedCount) {
+                candidate.queuedCount = count;
+                evictionQueue.add(candidate);
+            } else {
+                statsByFingerprint.remove(candidate.fingerprint, candidate);
+                return count;
+            }
+        }
+    }
+
+    public void reset() {
+        synchronized (evictionQueue) {
+            statsByFingerprint.clear();
+            evictionQueue.clear();
+        }
+    }
+
+    @Override
+    public Iterator<StatementStatsView> iterator() {
+        return statsByFingerprint.values()
+            .stream()
+            .map(Stats::createView)
+            .iterator();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import org.HdrHistogram.AbstractHistogram;
+
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+public final class StatementStatsView {
+
+    private final String fingerprint;
+    private final AbstractHistogram histogram;
+    private final long sumOfDurations;
+    private final long failedCount;
+    private final long sumOfRows;
+    private final long sumOfUsedBytes;
+
+    /**
+     * Create a read-only view onto the statistics of a fingerprint.
+     *
+     * The given histogram must not be modified by whoever creates the StatementStatsView.
+     */
+    public StatementStatsView(String fingerprint,
+                              AbstractHistogram histogram,
+                              long sumOfDurations,
+                              long failedCount,
+                              long sumOfRows,
+                              long sumOfUsedBytes) {
+        this.fingerprint = fingerprint;
+        this.histogram = histogram;
+        this.sumOfDurations = sumOfDurations;
+        this.failedCount = failedCount;
+        this.sumOfRows = sumOfRows;
+        this.sumOfUsedBytes = sumOfUsedBytes;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public long totalCount() {
+        return histogram.getTotalCount();
+    }
+
+    public double mean() {
+        return histogram.getMean();
+    }
+
+    public double stdDeviation() {
+        return histogram.getStdDeviation();
+    }
+
+    public long maxValue() {
+        return histogram.getMaxValue();
+    }
+
+    public long minValue() {
+        long minValue = histogram.getMinValue();
+        return minValue == Long.MAX_VALUE ? 0L : minValue;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    public long sumOfDurations() {
+        return sumOfDurations;
+    }
+
+    public long failedCount() {
+        return failedCount;
+    }
+
+    public long sumOfRows() {
+        return sumOfRows;
+    }
+
+    public long sumOfUsedBytes() {
+        return sumOfUsedBytes;
+    }
+}
@@ -57,6 +57,7 @@ public class SysNodesTableInfo {
     private static final String SYS_COL_VERSION = "version";
     private static final String SYS_COL_THREAD_POOLS = "thread_pools";
     private static final String SYS_COL_NETWORK = "network";
+    private static final String SYS_COL_OFF_HEAP = "off_heap";
     private static final String SYS_COL_OS = "os";
     private static final String SYS_COL_OS_INFO = "os_info";
     private static final String SYS_COL_PROCESS = "process";
@@ -77,6 +78,8 @@ public class SysNodesTableInfo {
 
         public static final ColumnIdent HEAP = new ColumnIdent(SYS_COL_HEAP);
 
+        public static final ColumnIdent OFF_HEAP = new ColumnIdent(SYS_COL_OFF_HEAP);
+
         public static final ColumnIdent VERSION = new ColumnIdent(SYS_COL_VERSION);
 
         public static final ColumnIdent THREAD_POOLS = new ColumnIdent(SYS_COL_THREAD_POOLS);
@@ -128,6 +131,9 @@ public class SysNodesTableInfo {
                 .add("max", LONG, x -> x.jvmStats().getMem().getHeapMax().getBytes())
                 .add("probe_timestamp", TIMESTAMPZ, x -> x.jvmStats().getTimestamp())
             .endObject()
+            .startObject("off_heap")
+                .add("used", LONG, NodeStatsContext::offHeapUsed)
+            .endObject()
             .startObject("version")
                 .add("number", STRING, x -> x.version().externalNumber())
                 .add("build_hash", STRING, x -> x.build().hash())
@@ -172,6 +178,8 @@ public class SysNodesTableInfo {
                 .startObject("psql")
                     .add("open", LONG, x -> x.psqlStats().open())
                     .add("total", LONG, x -> x.psqlStats().total())
+                    .add("rows_sent", LONG, x -> x.psqlStats().rowsSent())
+                    .add("bytes_sent", LONG, x -> x.psqlStats().bytesSent())
                 .endObject()
                 .startObject("transport")
                     .add("open", LONG, NodeStatsContext::openTransportConnections)
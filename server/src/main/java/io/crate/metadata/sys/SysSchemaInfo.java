@@ -64,6 +64,9 @@ public class SysSchemaInfo implements SchemaInfo {
         tableInfos.put(SysHealth.IDENT.name(), SysHealth.create());
         tableInfos.put(SysMetricsTableInfo.NAME.name(), SysMetricsTableInfo.create(localNode));
         tableInfos.put(SysSegmentsTableInfo.IDENT.name(), SysSegmentsTableInfo.create(clusterService::localNode));
+        tableInfos.put(SysStatementCachesTableInfo.IDENT.name(), SysStatementCachesTableInfo.create(localNode));
+        tableInfos.put(SysStatementStatsTableInfo.IDENT.name(), SysStatementStatsTableInfo.create(localNode));
+        tableInfos.put(SysSessionsTableInfo.IDENT.name(), SysSessionsTableInfo.create(localNode));
     }
 
     @Override
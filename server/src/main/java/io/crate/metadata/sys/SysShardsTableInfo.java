@@ -94,6 +94,7 @@ public class SysShardsTableInfo {
         static final ColumnIdent SEQ_NO_STATS = new ColumnIdent("seq_no_stats");
         static final ColumnIdent TRANSLOG_STATS = new ColumnIdent("translog_stats");
         static final ColumnIdent RETENTION_LEASES = new ColumnIdent("retention_leases");
+        static final ColumnIdent RESULT_CACHE = new ColumnIdent("result_cache");
     }
 
     public static Map<ColumnIdent, RowCollectExpressionFactory<UnassignedShard>> unassignedShardsExpressions() {
@@ -116,7 +117,8 @@ public class SysShardsTableInfo {
             entry(Columns.NODE, NestedNullObjectExpression::new),
             entry(Columns.SEQ_NO_STATS, NestedNullObjectExpression::new),
             entry(Columns.TRANSLOG_STATS, NestedNullObjectExpression::new),
-            entry(Columns.RETENTION_LEASES, NestedNullObjectExpression::new)
+            entry(Columns.RETENTION_LEASES, NestedNullObjectExpression::new),
+            entry(Columns.RESULT_CACHE, NestedNullObjectExpression::new)
         );
     }
 
@@ -183,6 +185,12 @@ public class SysShardsTableInfo {
                     .add("source", STRING, RetentionLease::source)
                 .endObjectArray()
             .endObject()
+            .startObject(Columns.RESULT_CACHE.name())
+                .add("size", LONG, r -> r.resultCacheStats().sizeInBytes())
+                .add("hits", LONG, r -> r.resultCacheStats().hits())
+                .add("misses", LONG, r -> r.resultCacheStats().misses())
+                .add("evictions", LONG, r -> r.resultCacheStats().evictions())
+            .endObject()
             .setPrimaryKeys(
                 Columns.SCHEMA_NAME,
                 Columns.TABLE_NAME,
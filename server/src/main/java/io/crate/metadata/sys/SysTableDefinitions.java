@@ -22,6 +22,7 @@
 
 package io.crate.metadata.sys;
 
+import io.crate.action.sql.SQLOperations;
 import io.crate.analyze.user.Privilege;
 import io.crate.execution.engine.collect.files.SummitsIterable;
 import io.crate.execution.engine.collect.stats.JobsLogs;
@@ -34,10 +35,12 @@ import io.crate.expression.reference.sys.shard.SysAllocations;
 import io.crate.expression.reference.sys.snapshot.SysSnapshots;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.SystemTable;
+import io.crate.protocols.postgres.PostgresNetty;
 import org.elasticsearch.cluster.RestoreInProgress;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Provider;
 import org.elasticsearch.repositories.RepositoriesService;
 
 import java.util.Collections;
@@ -61,7 +64,9 @@ public class SysTableDefinitions {
                                RepositoriesService repositoriesService,
                                SysSnapshots sysSnapshots,
                                SysAllocations sysAllocations,
-                               ShardSegments shardSegmentInfos) {
+                               ShardSegments shardSegmentInfos,
+                               Provider<SQLOperations> sqlOperations,
+                               Provider<PostgresNetty> postgresNetty) {
         Supplier<DiscoveryNode> localNode = clusterService::localNode;
         var sysClusterTableInfo = (SystemTable<Void>) sysSchemaInfo.getTableInfo(SysClusterTableInfo.IDENT.name());
         assert sysClusterTableInfo != null : "sys.cluster table must exist in sys schema";
@@ -143,6 +148,20 @@ public class SysTableDefinitions {
             () -> completedFuture(shardSegmentInfos),
             SysSegmentsTableInfo.create(clusterService::localNode).expressions(),
             true));
+        tableDefinitions.put(SysStatementCachesTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(sqlOperations.get().statementCacheStats()),
+            SysStatementCachesTableInfo.create(localNode).expressions(),
+            false));
+        tableDefinitions.put(SysStatementStatsTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(jobsLogs.statementStats()),
+            SysStatementStatsTableInfo.create(localNode).expressions(),
+            (user, stats) -> user.isSuperUser(),
+            false));
+        tableDefinitions.put(SysSessionsTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(postgresNetty.get().sessionStats()),
+            SysSessionsTableInfo.create(localNode).expressions(),
+            (user, session) -> user.isSuperUser() || user.name().equals(session.username()),
+            false));
     }
 
     public StaticTableDefinition<?> get(RelationName relationName) {
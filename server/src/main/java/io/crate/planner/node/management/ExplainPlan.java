@@ -52,9 +52,11 @@ import io.crate.profile.Timer;
 import io.crate.types.DataTypes;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -207,6 +209,16 @@ public class ExplainPlan implements Plan {
         //      "nodeId1": {"QueryBreakDown": {...}}
         //      "nodeId2": {"QueryBreakDown": {...}}
         //  }
+        //
+        // If the nodes recorded statistics of the operators of a phase (e.g. projections), they are aggregated
+        // across the nodes and added to the phase under the "operators" key, in the order in which they are applied:
+        //
+        //         "1-mergeOnHandler": {
+        //              "nodes": {"nodeId1": 12},
+        //              "operators": [
+        //                  {"Name": "TOPN", "RowsIn": 20, "RowsOut": 10, ..., "Nodes": {"nodeId1": {...}}}
+        //              ]
+        //          }
 
         Map<String, Object> phasesTimings = extractPhasesTimingsFrom(timingsByNodeId, operationTree);
         Map<String, Map<String, Object>> resultNodeTimings = getNodeTimingsWithoutPhases(phasesTimings.keySet(), timingsByNodeId);
@@ -240,8 +252,61 @@ public class ExplainPlan implements Plan {
         Map<String, Object> phaseTimingsAcrossNodes = getPhaseTimingsAcrossNodes(phaseName, timingsByNodeId);
 
         if (!phaseTimingsAcrossNodes.isEmpty()) {
-            allPhases.put(phaseName, Map.of("nodes", phaseTimingsAcrossNodes));
+            List<Map<String, Object>> operators = getPhaseOperatorsAcrossNodes(phaseName, timingsByNodeId);
+            if (operators.isEmpty()) {
+                allPhases.put(phaseName, Map.of("nodes", phaseTimingsAcrossNodes));
+            } else {
+                allPhases.put(phaseName, Map.of("nodes", phaseTimingsAcrossNodes, "operators", operators));
+            }
+        }
+    }
+
+    /**
+     * Merges the operator statistics of a phase of all nodes. The numeric values of the n-th operator
+     * of each node are summed up, the values of the individual nodes are kept under the "Nodes" key.
+     */
+    @SuppressWarnings("unchecked")
+    @VisibleForTesting
+    static List<Map<String, Object>> getPhaseOperatorsAcrossNodes(String phaseName,
+                                                                  Map<String, Map<String, Object>> timingsByNodeId) {
+        List<Map<String, Object>> operators = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> nodeToTimingsEntry : timingsByNodeId.entrySet()) {
+            Map<String, Object> timingsForNode = nodeToTimingsEntry.getValue();
+            if (timingsForNode == null) {
+                continue;
+            }
+            var operatorsByPhase = (Map<String, Object>) timingsForNode.get(ProfilingContext.OPERATORS);
+            if (operatorsByPhase == null) {
+                continue;
+            }
+            var operatorsOfNode = (List<Map<String, Object>>) operatorsByPhase.get(phaseName);
+            if (operatorsOfNode == null) {
+                continue;
+            }
+            for (int i = 0; i < operatorsOfNode.size(); i++) {
+                Map<String, Object> nodeStats = new HashMap<>(operatorsOfNode.get(i));
+                Object name = nodeStats.remove("Name");
+                if (operators.size() <= i) {
+                    Map<String, Object> operator = new HashMap<>();
+                    operator.put("Name", name);
+                    operator.put("Nodes", new HashMap<String, Object>());
+                    operators.add(operator);
+                }
+                Map<String, Object> operator = operators.get(i);
+                for (Map.Entry<String, Object> stat : nodeStats.entrySet()) {
+                    operator.merge(stat.getKey(), stat.getValue(), ExplainPlan::sum);
+                }
+                ((Map<String, Object>) operator.get("Nodes")).put(nodeToTimingsEntry.getKey(), nodeStats);
+            }
+        }
+        return operators;
+    }
+
+    private static Object sum(Object a, Object b) {
+        if (a instanceof Long && b instanceof Long) {
+            return (Long) a + (Long) b;
         }
+        return ((Number) a).doubleValue() + ((Number) b).doubleValue();
     }
 
     private static Map<String, Object> getPhaseTimingsAcrossNodes(String phaseName,
@@ -272,6 +337,7 @@ public class ExplainPlan implements Plan {
             for (String phaseToRemove : phasesNames) {
                 timings.remove(phaseToRemove);
             }
+            timings.remove(ProfilingContext.OPERATORS);
         }
 
         return Collections.unmodifiableMap(nodeTimingsWithoutPhases);
@@ -67,7 +67,9 @@ import io.crate.statistics.TableStats;
 public class HashJoin implements LogicalPlan {
 
     private final Symbol joinCondition;
+    private final JoinType joinType;
     @VisibleForTesting
+    @Nullable
     final AnalyzedRelation concreteRelation;
     private final List<Symbol> outputs;
     final LogicalPlan rhs;
@@ -77,15 +79,32 @@ public class HashJoin implements LogicalPlan {
                     LogicalPlan rhs,
                     Symbol joinCondition,
                     AnalyzedRelation concreteRelation) {
-        this.outputs = Lists2.concat(lhs.outputs(), rhs.outputs());
+        this(lhs, rhs, JoinType.INNER, joinCondition, concreteRelation);
+    }
+
+    /**
+     * @param concreteRelation the relation of the right side. If null, the join condition symbols are assigned
+     *                         to the right side using the relation names of {@code rhs}.
+     */
+    public HashJoin(LogicalPlan lhs,
+                    LogicalPlan rhs,
+                    JoinType joinType,
+                    Symbol joinCondition,
+                    @Nullable AnalyzedRelation concreteRelation) {
+        if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
+            this.outputs = lhs.outputs();
+        } else {
+            this.outputs = Lists2.concat(lhs.outputs(), rhs.outputs());
+        }
         this.lhs = lhs;
         this.rhs = rhs;
+        this.joinType = joinType;
         this.concreteRelation = concreteRelation;
         this.joinCondition = joinCondition;
     }
 
     public JoinType joinType() {
-        return JoinType.INNER;
+        return joinType;
     }
 
     public Symbol joinCondition() {
@@ -128,10 +147,14 @@ public class HashJoin implements LogicalPlan {
         LogicalPlan rightLogicalPlan = rhs;
 
         boolean tablesSwitched = false;
-        // We move smaller table to the right side since benchmarking
-        // revealed that this improves performance in most cases.
-        if (lhs.numExpectedRows() < rhs.numExpectedRows()) {
+        JoinType joinType = this.joinType;
+        // The left side is used to build the hash table. We move the smaller table to the left side
+        // so that the hash table fits into fewer blocks and the right side has to be read fewer times.
+        long lhsRows = lhs.numExpectedRows();
+        long rhsRows = rhs.numExpectedRows();
+        if (joinType.supportsInversion() && rhsRows >= 0 && lhsRows > rhsRows) {
             tablesSwitched = true;
+            joinType = joinType.invert();
             leftLogicalPlan = rhs;
             rightLogicalPlan = lhs;
 
@@ -194,10 +217,12 @@ public class HashJoin implements LogicalPlan {
             leftOutputs.size(),
             rightOutputs.size(),
             joinExecutionNodes,
+            joinType,
             InputColumns.create(paramBinder.apply(joinCondition), joinOutputs),
             InputColumns.create(Lists2.map(hashSymbols.v1(), paramBinder), new InputColumns.SourceSymbols(leftOutputs)),
             InputColumns.create(Lists2.map(hashSymbols.v2(), paramBinder), new InputColumns.SourceSymbols(rightOutputs)),
             Symbols.typeView(leftOutputs),
+            Symbols.typeView(rightOutputs),
             leftLogicalPlan.estimatedRowSize(),
             leftLogicalPlan.numExpectedRows());
         return new Join(
@@ -232,6 +257,7 @@ public class HashJoin implements LogicalPlan {
         return new HashJoin(
             sources.get(0),
             sources.get(1),
+            joinType,
             joinCondition,
             concreteRelation
         );
@@ -255,6 +281,7 @@ public class HashJoin implements LogicalPlan {
         return new HashJoin(
             newLhs,
             newRhs,
+            joinType,
             joinCondition,
             concreteRelation
         );
@@ -286,6 +313,7 @@ public class HashJoin implements LogicalPlan {
             new HashJoin(
                 lhsFetchRewrite.newPlan(),
                 rhsFetchRewrite.newPlan(),
+                joinType,
                 joinCondition,
                 concreteRelation
             )
@@ -296,7 +324,18 @@ public class HashJoin implements LogicalPlan {
         Map<RelationName, List<Symbol>> hashJoinSymbols = HashJoinConditionSymbolsExtractor.extract(joinCondition);
 
         // First extract the symbols that belong to the concrete relation
-        List<Symbol> hashJoinSymbolsForConcreteRelation = hashJoinSymbols.remove(concreteRelation.relationName());
+        List<Symbol> hashJoinSymbolsForConcreteRelation;
+        if (concreteRelation == null) {
+            hashJoinSymbolsForConcreteRelation = new ArrayList<>();
+            for (RelationName relationName : rhs.getRelationNames()) {
+                List<Symbol> symbols = hashJoinSymbols.remove(relationName);
+                if (symbols != null) {
+                    hashJoinSymbolsForConcreteRelation.addAll(symbols);
+                }
+            }
+        } else {
+            hashJoinSymbolsForConcreteRelation = hashJoinSymbols.remove(concreteRelation.relationName());
+        }
 
         // All leftover extracted symbols belong to the other relation which might be a
         // "concrete" relation too but can already be a tree of relation.
@@ -311,12 +350,18 @@ public class HashJoin implements LogicalPlan {
 
     @Override
     public long numExpectedRows() {
+        if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
+            return lhs.numExpectedRows();
+        }
         // We don't have any cardinality estimates, so just take the bigger table
         return Math.max(lhs.numExpectedRows(), rhs.numExpectedRows());
     }
 
     @Override
     public long estimatedRowSize() {
+        if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
+            return lhs.estimatedRowSize();
+        }
         return lhs.estimatedRowSize() + rhs.estimatedRowSize();
     }
 
@@ -327,8 +372,13 @@ public class HashJoin implements LogicalPlan {
 
     @Override
     public void print(PrintContext printContext) {
+        printContext.text("HashJoin[");
+        if (joinType != JoinType.INNER) {
+            printContext
+                .text(joinType.toString())
+                .text(" | ");
+        }
         printContext
-            .text("HashJoin[")
             .text(joinCondition.toString())
             .text("]")
             .nest(
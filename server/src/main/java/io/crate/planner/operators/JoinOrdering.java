@@ -23,14 +23,17 @@
 package io.crate.planner.operators;
 
 import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.carrotsearch.hppc.ObjectLongMap;
 import io.crate.common.annotations.VisibleForTesting;
 import io.crate.metadata.RelationName;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -39,6 +42,13 @@ import java.util.Set;
  */
 final class JoinOrdering {
 
+    /**
+     * Up to this number of relations all left-deep join trees are enumerated using dynamic programming.
+     * For more relations the ordering is built greedily.
+     */
+    @VisibleForTesting
+    static final int DP_THRESHOLD = 10;
+
     private JoinOrdering() {
     }
 
@@ -131,4 +141,195 @@ final class JoinOrdering {
         // Add the rest of the relations to the end of the collection
         sets.forEach(bestOrder::addAll);
     }
+
+    /**
+     * Returns the relations ordered so that the sum of the estimated number of rows of all intermediate
+     * results of the left-deep join tree is minimal.
+     * <p>
+     * As long as possible each relation is joined with a relation it has a join condition with, to avoid
+     * cross joins.
+     *
+     * @param relations     all relations, e.g. [t1, t2, t3]
+     * @param numRows       the estimated number of rows of each relation after applying its own filters
+     * @param selectivities the estimated selectivity of the join conditions by the relations they refer to,
+     *                      e.g. {{t1, t2}: 0.01, {t2, t3}: 0.001}
+     */
+    static List<RelationName> orderByCost(List<RelationName> relations,
+                                          ObjectLongMap<RelationName> numRows,
+                                          Map<? extends Set<RelationName>, Double> selectivities) {
+        int numRelations = relations.size();
+        double[] rows = new double[numRelations];
+        for (int i = 0; i < numRelations; i++) {
+            rows[i] = Math.max(1.0, numRows.get(relations.get(i)));
+        }
+        ArrayList<JoinCondition> conditions = new ArrayList<>(selectivities.size());
+        for (var entry : selectivities.entrySet()) {
+            int mask = 0;
+            for (RelationName relationName : entry.getKey()) {
+                int idx = relations.indexOf(relationName);
+                if (idx >= 0) {
+                    mask |= 1 << idx;
+                }
+            }
+            conditions.add(new JoinCondition(mask, entry.getValue()));
+        }
+        int[] order = numRelations <= DP_THRESHOLD
+            ? orderByDynamicProgramming(rows, conditions)
+            : orderGreedy(rows, conditions);
+        ArrayList<RelationName> result = new ArrayList<>(numRelations);
+        for (int idx : order) {
+            result.add(relations.get(idx));
+        }
+        return result;
+    }
+
+    private static int[] orderByDynamicProgramming(double[] rows, List<JoinCondition> conditions) {
+        int numRelations = rows.length;
+        int numSets = 1 << numRelations;
+        double[] cost = new double[numSets];
+        double[] setRows = new double[numSets];
+        int[] lastRelation = new int[numSets];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < numRelations; i++) {
+            int set = 1 << i;
+            cost[set] = 0.0;
+            setRows[set] = rows[i];
+            lastRelation[set] = i;
+        }
+        // Subsets are always smaller than their supersets, so iterating in order visits
+        // each set after all the sets it can be built from.
+        for (int set = 1; set < numSets; set++) {
+            if (cost[set] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            boolean hasConnectedRelation = hasConnectedRelation(set, numRelations, conditions);
+            for (int i = 0; i < numRelations; i++) {
+                int relation = 1 << i;
+                if ((set & relation) != 0) {
+                    continue;
+                }
+                if (hasConnectedRelation && !isConnected(set, i, conditions)) {
+                    continue;
+                }
+                int newSet = set | relation;
+                double newRows = joinRows(set, setRows[set], i, rows[i], conditions);
+                double newCost = cost[set] + newRows;
+                if (newCost < cost[newSet]) {
+                    cost[newSet] = newCost;
+                    setRows[newSet] = newRows;
+                    lastRelation[newSet] = i;
+                }
+            }
+        }
+        int[] order = new int[numRelations];
+        int set = numSets - 1;
+        for (int pos = numRelations - 1; pos >= 0; pos--) {
+            int relation = lastRelation[set];
+            order[pos] = relation;
+            set &= ~(1 << relation);
+        }
+        return order;
+    }
+
+    private static int[] orderGreedy(double[] rows, List<JoinCondition> conditions) {
+        int numRelations = rows.length;
+        int[] order = new int[numRelations];
+
+        // Start with the pair of relations resulting in the smallest join
+        boolean hasConnectedPair = false;
+        for (int i = 0; i < numRelations && !hasConnectedPair; i++) {
+            hasConnectedPair = hasConnectedRelation(1 << i, numRelations, conditions);
+        }
+        double setRows = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < numRelations; i++) {
+            for (int j = i + 1; j < numRelations; j++) {
+                if (hasConnectedPair && !isConnected(1 << i, j, conditions)) {
+                    continue;
+                }
+                double pairRows = joinRows(1 << i, rows[i], j, rows[j], conditions);
+                if (pairRows < setRows) {
+                    setRows = pairRows;
+                    order[0] = i;
+                    order[1] = j;
+                }
+            }
+        }
+        int set = (1 << order[0]) | (1 << order[1]);
+
+        // Then add the relation resulting in the smallest join one at a time
+        for (int pos = 2; pos < numRelations; pos++) {
+            boolean hasConnectedRelation = hasConnectedRelation(set, numRelations, conditions);
+            int best = -1;
+            double bestRows = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < numRelations; i++) {
+                if ((set & (1 << i)) != 0 || (hasConnectedRelation && !isConnected(set, i, conditions))) {
+                    continue;
+                }
+                double newRows = joinRows(set, setRows, i, rows[i], conditions);
+                if (newRows < bestRows) {
+                    bestRows = newRows;
+                    best = i;
+                }
+            }
+            order[pos] = best;
+            set |= 1 << best;
+            setRows = bestRows;
+        }
+        return order;
+    }
+
+    /**
+     * Returns true if there is a relation outside of {@code set} which can be joined with it using a join condition.
+     */
+    private static boolean hasConnectedRelation(int set, int numRelations, List<JoinCondition> conditions) {
+        for (int i = 0; i < numRelations; i++) {
+            if ((set & (1 << i)) == 0 && isConnected(set, i, conditions)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConnected(int set, int relation, List<JoinCondition> conditions) {
+        int newSet = set | (1 << relation);
+        for (JoinCondition condition : conditions) {
+            if (condition.isAppliedBy(set, newSet)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the estimated number of rows of joining the relations in {@code set} with {@code relation}.
+     * All join conditions that can be evaluated once {@code relation} is added to the set are applied.
+     */
+    private static double joinRows(int set, double setRows, int relation, double relationRows, List<JoinCondition> conditions) {
+        int newSet = set | (1 << relation);
+        double newRows = setRows * relationRows;
+        for (JoinCondition condition : conditions) {
+            if (condition.isAppliedBy(set, newSet)) {
+                newRows *= condition.selectivity;
+            }
+        }
+        return Math.max(1.0, newRows);
+    }
+
+    private static final class JoinCondition {
+
+        private final int relations;
+        private final double selectivity;
+
+        JoinCondition(int relations, double selectivity) {
+            this.relations = relations;
+            this.selectivity = selectivity;
+        }
+
+        /**
+         * @return true if the condition can be evaluated on {@code newSet} but not on {@code set}
+         */
+        boolean isAppliedBy(int set, int newSet) {
+            return (relations & newSet) == relations && (relations & set) != relations;
+        }
+    }
 }
@@ -22,6 +22,9 @@
 
 package io.crate.planner.operators;
 
+import com.carrotsearch.hppc.ObjectLongHashMap;
+import com.carrotsearch.hppc.ObjectLongMap;
+import io.crate.analyze.relations.AbstractTableRelation;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.JoinPair;
 import io.crate.analyze.relations.QuerySplitter;
@@ -31,11 +34,15 @@ import io.crate.expression.operator.AndOperator;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.RelationName;
 import io.crate.planner.node.dql.join.JoinType;
+import io.crate.planner.selectivity.SelectivityFunctions;
+import io.crate.statistics.Stats;
+import io.crate.statistics.TableStats;
 import org.elasticsearch.common.util.set.Sets;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -62,21 +69,36 @@ public class JoinPlanBuilder {
     static LogicalPlan buildJoinTree(List<AnalyzedRelation> from,
                                      Symbol whereClause,
                                      List<JoinPair> joinPairs,
-                                     Function<AnalyzedRelation, LogicalPlan> plan,
-                                     boolean hashJoinEnabled) {
+                                     Function<AnalyzedRelation, LogicalPlan> planRelation,
+                                     boolean hashJoinEnabled,
+                                     TableStats tableStats) {
         if (from.size() == 1) {
-            return Filter.create(plan.apply(from.get(0)), whereClause);
+            return Filter.create(planRelation.apply(from.get(0)), whereClause);
         }
         Map<Set<RelationName>, Symbol> queryParts = QuerySplitter.split(whereClause);
         LinkedHashMap<Set<RelationName>, JoinPair> joinPairsByRelations =
             JoinOperations.buildRelationsToJoinPairsMap(
                 JoinOperations.convertImplicitJoinConditionsToJoinPairs(joinPairs, queryParts));
 
-        Collection<RelationName> orderedRelationNames = JoinOrdering.getOrderedRelationNames(
-            Lists2.map(from, AnalyzedRelation::relationName),
-            joinPairsByRelations.keySet(),
-            queryParts.keySet()
+        // The relations are planned upfront by the cost based ordering; make sure that happens only once
+        Map<RelationName, LogicalPlan> plans = new HashMap<>();
+        Function<AnalyzedRelation, LogicalPlan> plan =
+            rel -> plans.computeIfAbsent(rel.relationName(), name -> planRelation.apply(rel));
+
+        Collection<RelationName> orderedRelationNames = orderByCost(
+            from,
+            joinPairsByRelations,
+            queryParts,
+            plan,
+            tableStats
         );
+        if (orderedRelationNames == null) {
+            orderedRelationNames = JoinOrdering.getOrderedRelationNames(
+                Lists2.map(from, AnalyzedRelation::relationName),
+                joinPairsByRelations.keySet(),
+                queryParts.keySet()
+            );
+        }
 
         Iterator<RelationName> it = orderedRelationNames.iterator();
 
@@ -139,6 +161,62 @@ public class JoinPlanBuilder {
         return joinPlan;
     }
 
+    /**
+     * Orders the relations using the estimated number of rows of the relations and the estimated selectivity
+     * of their filters and join conditions, see {@link JoinOrdering#orderByCost(List, ObjectLongMap, Map)}.
+     *
+     * @return the ordered relation names or null if the ordering can't be based on costs because a relation
+     *         has no statistics or because outer joins are involved, which can't be re-ordered freely.
+     */
+    @Nullable
+    private static List<RelationName> orderByCost(List<AnalyzedRelation> from,
+                                                  Map<Set<RelationName>, JoinPair> joinPairs,
+                                                  Map<Set<RelationName>, Symbol> queryParts,
+                                                  Function<AnalyzedRelation, LogicalPlan> plan,
+                                                  TableStats tableStats) {
+        if (from.size() <= 2) {
+            return null;
+        }
+        for (JoinPair joinPair : joinPairs.values()) {
+            if (joinPair.joinType() != JoinType.INNER && joinPair.joinType() != JoinType.CROSS) {
+                return null;
+            }
+        }
+        ObjectLongHashMap<RelationName> numRows = new ObjectLongHashMap<>(from.size());
+        Map<RelationName, Stats> statsByRelation = new HashMap<>();
+        for (AnalyzedRelation relation : from) {
+            LogicalPlan relationPlan = plan.apply(relation);
+            long numExpectedRows = relationPlan.numExpectedRows();
+            if (numExpectedRows < 0) {
+                return null;
+            }
+            List<AbstractTableRelation<?>> baseTables = relationPlan.baseTables();
+            Stats stats = baseTables.size() == 1
+                ? tableStats.getStats(baseTables.get(0).relationName())
+                : Stats.EMPTY;
+            statsByRelation.put(relation.relationName(), stats);
+            Symbol filter = queryParts.get(Set.of(relation.relationName()));
+            if (filter != null) {
+                numExpectedRows = (long) (numExpectedRows * SelectivityFunctions.estimateSelectivity(stats, filter, null));
+            }
+            numRows.put(relation.relationName(), numExpectedRows);
+        }
+        Map<Set<RelationName>, Double> selectivities = new HashMap<>();
+        for (var entry : joinPairs.entrySet()) {
+            Symbol condition = entry.getValue().condition();
+            if (condition != null) {
+                selectivities.put(entry.getKey(), SelectivityFunctions.estimateJoinSelectivity(condition, statsByRelation));
+            }
+        }
+        for (var entry : queryParts.entrySet()) {
+            if (entry.getKey().size() > 1) {
+                double selectivity = SelectivityFunctions.estimateJoinSelectivity(entry.getValue(), statsByRelation);
+                selectivities.merge(entry.getKey(), selectivity, (a, b) -> a * b);
+            }
+        }
+        return JoinOrdering.orderByCost(Lists2.map(from, AnalyzedRelation::relationName), numRows, selectivities);
+    }
+
     private static LogicalPlan createJoinPlan(LogicalPlan lhsPlan,
                                               LogicalPlan rhsPlan,
                                               JoinType joinType,
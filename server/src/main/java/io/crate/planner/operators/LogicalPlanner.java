@@ -85,6 +85,7 @@ import io.crate.planner.optimizer.rule.RemoveRedundantFetchOrEval;
 import io.crate.planner.optimizer.rule.RewriteCollectToGet;
 import io.crate.planner.optimizer.rule.RewriteFilterOnOuterJoinToInnerJoin;
 import io.crate.planner.optimizer.rule.RewriteGroupByKeysLimitToTopNDistinct;
+import io.crate.planner.optimizer.rule.RewriteNestedLoopJoinToHashJoin;
 import io.crate.planner.optimizer.rule.RewriteToQueryThenFetch;
 import io.crate.statistics.TableStats;
 import io.crate.types.DataTypes;
@@ -137,6 +138,7 @@ public class LogicalPlanner {
                 new RewriteFilterOnOuterJoinToInnerJoin(),
                 new MoveOrderBeneathUnion(),
                 new MoveOrderBeneathNestedLoop(),
+                new RewriteNestedLoopJoinToHashJoin(),
                 new MoveOrderBeneathFetchOrEval(),
                 new MoveOrderBeneathRename(),
                 new DeduplicateOrder(),
@@ -371,7 +373,8 @@ public class LogicalPlanner {
                         return rel.accept(this, List.copyOf(toCollect));
                     }
                 },
-                txnCtx.sessionContext().isHashJoinEnabled()
+                txnCtx.sessionContext().isHashJoinEnabled(),
+                tableStats
             );
             return MultiPhase.createIfNeeded(
                 Eval.create(
@@ -51,7 +51,9 @@ import io.crate.expression.symbol.WindowFunction;
 import io.crate.planner.ExecutionPlan;
 import io.crate.planner.Merge;
 import io.crate.planner.PlannerContext;
+import io.crate.planner.PositionalOrderBy;
 import io.crate.planner.ResultDescription;
+import io.crate.planner.consumer.OrderByPositionVisitor;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.distribution.DistributionType;
 import io.crate.statistics.TableStats;
@@ -147,24 +149,31 @@ public class WindowAgg extends ForwardingLogicalPlan {
 
 
         List<WindowFunction> boundWindowFunctions = (List<WindowFunction>)(List) Lists2.map(windowFunctions, toInputCols);
-        List<Projection> projections = new ArrayList<>();
-        WindowAggProjection windowAggProjection = new WindowAggProjection(
-            windowDefinition.map(toInputCols),
-            boundWindowFunctions,
-            InputColumns.create(this.standalone, sourceSymbols)
-        );
-        projections.add(windowAggProjection);
+        // Let the source sort the rows if possible (e.g. using the Lucene sort of a Collect) so that the window
+        // functions can be computed one partition at a time instead of keeping all rows in memory
+        OrderBy sourceOrder = windowDefinition.partitions().isEmpty()
+            ? null
+            : createOrderByInclPartitionBy(windowDefinition);
         ExecutionPlan sourcePlan = source.build(
             plannerContext,
             projectionBuilder,
             TopN.NO_LIMIT,
             TopN.NO_OFFSET,
-            null,
+            sourceOrder,
             pageSizeHint,
             params,
             subQueryResults
         );
         ResultDescription resultDescription = sourcePlan.resultDescription();
+        boolean sourceSorted = isSortedBy(resultDescription.orderBy(), sourceOrder, source.outputs());
+        List<Projection> projections = new ArrayList<>();
+        WindowAggProjection windowAggProjection = new WindowAggProjection(
+            windowDefinition.map(toInputCols),
+            boundWindowFunctions,
+            InputColumns.create(this.standalone, sourceSymbols),
+            sourceSorted
+        );
+        projections.add(windowAggProjection);
         boolean executesOnHandler = executesOnHandler(plannerContext.handlerNode(), resultDescription.nodeIds());
         boolean nonDistExecution = windowDefinition.partitions().isEmpty()
                                    || resultDescription.hasRemainingLimitOrOffset()
@@ -189,7 +198,8 @@ public class WindowAgg extends ForwardingLogicalPlan {
                 resultDescription.streamOutputs(),
                 projections,
                 DistributionInfo.DEFAULT_BROADCAST,
-                null
+                // A sorted merge keeps the rows of each partition sorted
+                sourceSorted ? resultDescription.orderBy() : null
             );
             return new Merge(
                 sourcePlan,
@@ -204,6 +214,15 @@ public class WindowAgg extends ForwardingLogicalPlan {
         return sourcePlan;
     }
 
+    private static boolean isSortedBy(@Nullable PositionalOrderBy actual, @Nullable OrderBy expected, List<Symbol> outputs) {
+        if (actual == null || expected == null) {
+            return false;
+        }
+        int[] positions = OrderByPositionVisitor.orderByPositionsOrNull(expected.orderBySymbols(), outputs);
+        return positions != null
+               && actual.equals(new PositionalOrderBy(positions, expected.reverseFlags(), expected.nullsFirst()));
+    }
+
     @Nullable
     static OrderBy createOrderByInclPartitionBy(WindowDefinition windowDefinition) {
         var orderBy = windowDefinition.orderBy();
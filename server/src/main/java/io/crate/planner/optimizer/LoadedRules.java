@@ -56,6 +56,7 @@ import io.crate.planner.optimizer.rule.RemoveRedundantFetchOrEval;
 import io.crate.planner.optimizer.rule.RewriteCollectToGet;
 import io.crate.planner.optimizer.rule.RewriteFilterOnOuterJoinToInnerJoin;
 import io.crate.planner.optimizer.rule.RewriteGroupByKeysLimitToTopNDistinct;
+import io.crate.planner.optimizer.rule.RewriteNestedLoopJoinToHashJoin;
 import io.crate.planner.optimizer.rule.RewriteToQueryThenFetch;
 import io.crate.types.DataTypes;
 
@@ -82,6 +83,7 @@ public class LoadedRules implements SessionSettingProvider {
         RewriteFilterOnOuterJoinToInnerJoin.class,
         MoveOrderBeneathUnion.class,
         MoveOrderBeneathNestedLoop.class,
+        RewriteNestedLoopJoinToHashJoin.class,
         MoveOrderBeneathFetchOrEval.class,
         MoveOrderBeneathRename.class,
         DeduplicateOrder.class,
@@ -45,7 +45,13 @@ public final class MoveFilterBeneathHashJoin implements Rule<Filter> {
     public MoveFilterBeneathHashJoin() {
         this.joinCapture = new Capture<>();
         this.pattern = typeOf(Filter.class)
-            .with(source(), typeOf(HashJoin.class).capturedAs(joinCapture));
+            .with(source(),
+                  typeOf(HashJoin.class)
+                      .capturedAs(joinCapture)
+                      // Can't apply this on OUTER JOINs as outer join actively produce new null rows
+                      // We need to run the filter on top of these null rows to produce the correct results
+                      .with(join -> !join.joinType().isOuter())
+            );
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.optimizer.rule;
+
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.TransactionContext;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.planner.operators.EquiJoinDetector;
+import io.crate.planner.operators.HashJoin;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.planner.operators.NestedLoopJoin;
+import io.crate.planner.optimizer.Rule;
+import io.crate.planner.optimizer.matcher.Captures;
+import io.crate.planner.optimizer.matcher.Pattern;
+import io.crate.statistics.TableStats;
+import org.elasticsearch.Version;
+
+import static io.crate.planner.optimizer.matcher.Pattern.typeOf;
+
+/**
+ * Turns a {@link NestedLoopJoin} with an equi-join condition into a {@link HashJoin}.
+ *
+ * <p>
+ * Inner joins are planned as {@link HashJoin} right away. Outer, semi and anti joins are planned as
+ * {@link NestedLoopJoin} first so that {@link RewriteFilterOnOuterJoinToInnerJoin} can operate on them, and are
+ * rewritten by this rule once the filters above them have been processed.
+ * </p>
+ *
+ * <pre>
+ *     NestedLoop[LEFT | (t1.x = t2.x)]         HashJoin[LEFT | (t1.x = t2.x)]
+ *       /  \                          ->          /  \
+ *     t1    t2                                  t1    t2
+ * </pre>
+ *
+ * Joins with an order pushed down into their left side are not rewritten, as the hash join doesn't
+ * preserve the order of the left side.
+ */
+public final class RewriteNestedLoopJoinToHashJoin implements Rule<NestedLoopJoin> {
+
+    private final Pattern<NestedLoopJoin> pattern;
+
+    public RewriteNestedLoopJoinToHashJoin() {
+        this.pattern = typeOf(NestedLoopJoin.class)
+            .with(nl -> nl.joinType() != JoinType.CROSS
+                        && nl.joinCondition() != null
+                        && !nl.orderByWasPushedDown()
+                        && EquiJoinDetector.isEquiJoin(nl.joinCondition()));
+    }
+
+    @Override
+    public Pattern<NestedLoopJoin> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(NestedLoopJoin nl,
+                             Captures captures,
+                             TableStats tableStats,
+                             TransactionContext txnCtx,
+                             NodeContext nodeCtx) {
+        if (!txnCtx.sessionSettings().hashJoinsEnabled()) {
+            return null;
+        }
+        return new HashJoin(
+            nl.sources().get(0),
+            nl.sources().get(1),
+            nl.joinType(),
+            nl.joinCondition(),
+            null
+        );
+    }
+
+    @Override
+    public Version requiredVersion() {
+        return Version.V_4_4_0;
+    }
+}
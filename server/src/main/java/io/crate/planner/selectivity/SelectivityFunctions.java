@@ -25,7 +25,13 @@ package io.crate.planner.selectivity;
 import io.crate.data.Row;
 import io.crate.expression.operator.AndOperator;
 import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LikeOperators;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
 import io.crate.expression.operator.OrOperator;
+import io.crate.expression.operator.any.AnyOperators;
 import io.crate.expression.predicate.IsNullPredicate;
 import io.crate.expression.predicate.NotPredicate;
 import io.crate.expression.symbol.Function;
@@ -36,12 +42,18 @@ import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolVisitor;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.Reference;
+import io.crate.metadata.RelationName;
 import io.crate.statistics.ColumnStats;
+import io.crate.statistics.MostCommonValues;
 import io.crate.statistics.Stats;
+import io.crate.types.DataType;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Used to estimate the number of rows returned after applying a given query.
@@ -59,8 +71,26 @@ public class SelectivityFunctions {
     private static final double MAGIC_SEL = 0.333;
 
     public static long estimateNumRows(Stats stats, Symbol query, @Nullable Row params) {
-        var estimator = new SelectivityEstimator(stats, params);
-        return (long) (stats.numDocs() * query.accept(estimator, null));
+        return (long) (stats.numDocs() * estimateSelectivity(stats, query, params));
+    }
+
+    /**
+     * Returns the estimated fraction of rows of a relation with the given stats that match the query.
+     */
+    public static double estimateSelectivity(Stats stats, Symbol query, @Nullable Row params) {
+        return query.accept(new SelectivityEstimator(stats, params), null);
+    }
+
+    /**
+     * Returns the estimated fraction of the cartesian product of the joined relations that match the join condition.
+     *
+     * For an equi-join condition like `t1.x = t2.y` this is `1 / max(ndv(t1.x), ndv(t2.y))`.
+     * See `src/backend/utils/adt/selfuncs.c` `eqjoinsel` in PostgreSQL.
+     *
+     * @param statsByRelation the stats of the tables the join condition refers to.
+     */
+    public static double estimateJoinSelectivity(Symbol joinCondition, Map<RelationName, Stats> statsByRelation) {
+        return joinCondition.accept(new JoinSelectivityEstimator(statsByRelation), null);
     }
 
     static class SelectivityEstimator extends SymbolVisitor<Void, Double> {
@@ -96,11 +126,7 @@ public class SelectivityFunctions {
         public Double visitFunction(Function function, Void context) {
             switch (function.name()) {
                 case AndOperator.NAME: {
-                    double selectivity = 1.0;
-                    for (Symbol argument : function.arguments()) {
-                        selectivity *= argument.accept(this, context);
-                    }
-                    return selectivity;
+                    return andSelectivity(function.arguments(), context);
                 }
 
                 case OrOperator.NAME: {
@@ -126,11 +152,412 @@ public class SelectivityFunctions {
                     return isNullSelectivity(arguments.get(0), stats);
                 }
 
+                case LtOperator.NAME:
+                case LteOperator.NAME:
+                case GtOperator.NAME:
+                case GteOperator.NAME: {
+                    Range range = Range.of(function, stats, params);
+                    return range == null ? MAGIC_SEL : range.selectivity();
+                }
+
+                case LikeOperators.OP_LIKE: {
+                    List<Symbol> arguments = function.arguments();
+                    return likeSelectivity(arguments.get(0), arguments.get(1), stats, params);
+                }
+
+                default:
+                    if (function.name().equals(AnyOperators.Type.EQ.opName())) {
+                        List<Symbol> arguments = function.arguments();
+                        return anyEqSelectivity(arguments.get(0), arguments.get(1), stats, params);
+                    }
+                    return MAGIC_SEL;
+            }
+        }
+
+        private double andSelectivity(List<Symbol> arguments, Void context) {
+            // Range conditions on the same column like `x >= 10 AND x < 20` (which is also what `BETWEEN` is
+            // rewritten to) aren't independent of each other, so they're combined into a single range.
+            HashMap<ColumnIdent, Range> ranges = new HashMap<>();
+            double selectivity = 1.0;
+            for (Symbol argument : arguments) {
+                Range range = Range.of(argument, stats, params);
+                if (range == null) {
+                    selectivity *= argument.accept(this, context);
+                } else {
+                    ranges.merge(range.column, range, Range::intersect);
+                }
+            }
+            for (Range range : ranges.values()) {
+                selectivity *= range.selectivity();
+            }
+            return selectivity;
+        }
+    }
+
+    /**
+     * A range of values of a column, bounded by one or two comparisons against a value.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final class Range {
+
+        private final ColumnIdent column;
+        private final ColumnStats columnStats;
+        @Nullable
+        private final Object lower;
+        private final boolean lowerInclusive;
+        @Nullable
+        private final Object upper;
+        private final boolean upperInclusive;
+
+        private Range(ColumnIdent column,
+                      ColumnStats columnStats,
+                      @Nullable Object lower,
+                      boolean lowerInclusive,
+                      @Nullable Object upper,
+                      boolean upperInclusive) {
+            this.column = column;
+            this.columnStats = columnStats;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        /**
+         * @return the range if the symbol is a comparison of a column with stats against a value, otherwise null.
+         */
+        @Nullable
+        static Range of(Symbol symbol, Stats stats, @Nullable Row params) {
+            if (!(symbol instanceof Function)) {
+                return null;
+            }
+            Function function = (Function) symbol;
+            String name = function.name();
+            boolean isLowerBound = name.equals(GtOperator.NAME) || name.equals(GteOperator.NAME);
+            boolean isUpperBound = name.equals(LtOperator.NAME) || name.equals(LteOperator.NAME);
+            if (!isLowerBound && !isUpperBound) {
+                return null;
+            }
+            final boolean inclusive = name.equals(GteOperator.NAME) || name.equals(LteOperator.NAME);
+            Symbol columnArg = function.arguments().get(0);
+            Symbol valueArg = function.arguments().get(1);
+            ColumnIdent column = getColumn(columnArg);
+            if (column == null) {
+                // `10 < x` -> `x > 10`
+                column = getColumn(valueArg);
+                valueArg = columnArg;
+                isLowerBound = !isLowerBound;
+            }
+            if (column == null) {
+                return null;
+            }
+            ColumnStats columnStats = stats.statsByColumn().get(column);
+            if (columnStats == null) {
+                return null;
+            }
+            Object value = castValue(getValue(valueArg, params), columnStats);
+            if (value == null) {
+                return null;
+            }
+            return isLowerBound
+                ? new Range(column, columnStats, value, inclusive, null, false)
+                : new Range(column, columnStats, null, false, value, inclusive);
+        }
+
+        Range intersect(Range other) {
+            DataType type = columnStats.type();
+            Object newLower = lower;
+            boolean newLowerInclusive = lowerInclusive;
+            if (other.lower != null) {
+                int cmp = newLower == null ? -1 : type.compare(newLower, other.lower);
+                if (cmp < 0 || (cmp == 0 && !other.lowerInclusive)) {
+                    newLower = other.lower;
+                    newLowerInclusive = other.lowerInclusive;
+                }
+            }
+            Object newUpper = upper;
+            boolean newUpperInclusive = upperInclusive;
+            if (other.upper != null) {
+                int cmp = newUpper == null ? 1 : type.compare(newUpper, other.upper);
+                if (cmp > 0 || (cmp == 0 && !other.upperInclusive)) {
+                    newUpper = other.upper;
+                    newUpperInclusive = other.upperInclusive;
+                }
+            }
+            return new Range(column, columnStats, newLower, newLowerInclusive, newUpper, newUpperInclusive);
+        }
+
+        double selectivity() {
+            double belowUpper = upper == null
+                ? 1.0 - columnStats.nullFraction()
+                : fractionBelow(columnStats, upper, upperInclusive);
+            double belowLower = lower == null
+                ? 0.0
+                : fractionBelow(columnStats, lower, !lowerInclusive);
+            if (belowUpper < 0 || belowLower < 0) {
+                return MAGIC_SEL;
+            }
+            return Math.max(0.0, belowUpper - belowLower);
+        }
+    }
+
+    /**
+     * Returns the fraction of all rows with a value smaller than (or equal to, if inclusive) the given value,
+     * or -1 if there are neither most common values nor a histogram to base the estimation on.
+     *
+     * See `src/backend/utils/adt/selfuncs.c` `scalarineqsel` in PostgreSQL.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static double fractionBelow(ColumnStats columnStats, Object value, boolean inclusive) {
+        DataType type = columnStats.type();
+        MostCommonValues mcv = columnStats.mostCommonValues();
+        Object[] mcvValues = mcv.values();
+        double[] frequencies = mcv.frequencies();
+        double mcvSelectivity = 0.0;
+        double sumMcvFrequencies = 0.0;
+        for (int i = 0; i < mcvValues.length; i++) {
+            sumMcvFrequencies += frequencies[i];
+            int cmp = type.compare(mcvValues[i], value);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                mcvSelectivity += frequencies[i];
+            }
+        }
+        List histogram = columnStats.histogram();
+        double histogramFraction;
+        if (histogram.size() >= 2) {
+            histogramFraction = histogramFractionBelow(type, histogram, value, inclusive);
+        } else if (sumMcvFrequencies > 0.0) {
+            // No histogram; assume the other values are distributed like the most common values
+            histogramFraction = mcvSelectivity / sumMcvFrequencies;
+        } else {
+            return -1;
+        }
+        // The frequencies of the most common values are relative to the non-null values
+        double otherValuesFraction = Math.max(0.0, 1.0 - sumMcvFrequencies);
+        double selectivity = (mcvSelectivity + histogramFraction * otherValuesFraction) * (1.0 - columnStats.nullFraction());
+        return Math.min(Math.max(selectivity, 0.0), 1.0);
+    }
+
+    /**
+     * Returns the fraction of the histogram (equi-depth buckets between its bounds) below the value.
+     * Within a bucket the position is interpolated linearly for numeric values.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static double histogramFractionBelow(DataType type, List histogram, Object value, boolean inclusive) {
+        int last = histogram.size() - 1;
+        int cmpFirst = type.compare(value, histogram.get(0));
+        if (cmpFirst < 0 || (cmpFirst == 0 && !inclusive)) {
+            return 0.0;
+        }
+        int cmpLast = type.compare(value, histogram.get(last));
+        if (cmpLast > 0 || (cmpLast == 0 && inclusive)) {
+            return 1.0;
+        }
+        // Find the bucket: histogram[lo] <= value <= histogram[hi]
+        int lo = 0;
+        int hi = last;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (type.compare(histogram.get(mid), value) <= 0) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        Object lowerBound = histogram.get(lo);
+        Object upperBound = histogram.get(hi);
+        double bucketFraction = 0.5;
+        if (value instanceof Number && lowerBound instanceof Number && upperBound instanceof Number) {
+            double lowerVal = ((Number) lowerBound).doubleValue();
+            double upperVal = ((Number) upperBound).doubleValue();
+            if (upperVal > lowerVal) {
+                bucketFraction = (((Number) value).doubleValue() - lowerVal) / (upperVal - lowerVal);
+            }
+        }
+        return (lo + bucketFraction) / last;
+    }
+
+    /**
+     * Estimates `x LIKE 'prefix%'` as range `x >= 'prefix' AND x < 'prefiy'`.
+     *
+     * See `src/backend/utils/adt/like_support.c` `prefix_selectivity` in PostgreSQL.
+     */
+    private static double likeSelectivity(Symbol arg, Symbol patternArg, Stats stats, @Nullable Row params) {
+        ColumnIdent column = getColumn(arg);
+        if (column == null) {
+            return MAGIC_SEL;
+        }
+        var columnStats = stats.statsByColumn().get(column);
+        if (columnStats == null) {
+            return MAGIC_SEL;
+        }
+        Object pattern = getValue(patternArg, params);
+        if (!(pattern instanceof String)) {
+            return MAGIC_SEL;
+        }
+        String patternStr = (String) pattern;
+        int prefixLength = 0;
+        while (prefixLength < patternStr.length()) {
+            char c = patternStr.charAt(prefixLength);
+            if (c == '%' || c == '_' || c == '\\') {
+                break;
+            }
+            prefixLength++;
+        }
+        if (prefixLength == patternStr.length()) {
+            // No wildcards, same as equality
+            return eqSelectivityFromValueAndStats(patternStr, columnStats);
+        }
+        if (prefixLength == 0) {
+            return MAGIC_SEL;
+        }
+        String prefix = patternStr.substring(0, prefixLength);
+        String upper = prefix.substring(0, prefixLength - 1) + (char) (prefix.charAt(prefixLength - 1) + 1);
+        Object lowerValue = castValue(prefix, columnStats);
+        Object upperValue = castValue(upper, columnStats);
+        if (lowerValue == null || upperValue == null) {
+            return MAGIC_SEL;
+        }
+        double belowUpper = fractionBelow(columnStats, upperValue, false);
+        double belowLower = fractionBelow(columnStats, lowerValue, false);
+        if (belowUpper < 0 || belowLower < 0) {
+            return MAGIC_SEL;
+        }
+        double selectivity = Math.max(belowUpper - belowLower, 1.0 / columnStats.approxDistinct());
+        String rest = patternStr.substring(prefixLength);
+        if (!rest.equals("%")) {
+            // There are more conditions after the prefix
+            selectivity *= MAGIC_SEL;
+        }
+        return Math.min(selectivity, 1.0);
+    }
+
+    /**
+     * Estimates `x = ANY([v1, v2, ...])` as the sum of the selectivity of `x = v` for each value.
+     */
+    private static double anyEqSelectivity(Symbol arg, Symbol arrayArg, Stats stats, @Nullable Row params) {
+        Object array = getValue(arrayArg, params);
+        if (!(array instanceof List)) {
+            return MAGIC_SEL;
+        }
+        double selectivity = 0.0;
+        for (Object value : new HashSet<>((List<?>) array)) {
+            selectivity += eqSelectivity(arg, value, stats);
+        }
+        return Math.min(selectivity, 1.0);
+    }
+
+    private static double eqSelectivity(Symbol arg, Object value, Stats stats) {
+        ColumnIdent column = getColumn(arg);
+        if (column == null) {
+            return DEFAULT_EQ_SEL;
+        }
+        var columnStats = stats.statsByColumn().get(column);
+        if (columnStats == null) {
+            return DEFAULT_EQ_SEL;
+        }
+        return eqSelectivityFromValueAndStats(value, columnStats);
+    }
+
+    @Nullable
+    private static Object getValue(Symbol symbol, @Nullable Row params) {
+        if (symbol instanceof Literal) {
+            return ((Literal<?>) symbol).value();
+        }
+        if (symbol instanceof ParameterSymbol && params != null) {
+            return params.get(((ParameterSymbol) symbol).index());
+        }
+        return null;
+    }
+
+    /**
+     * Casts the value to the type of the column, so that it can be compared with the values in the stats.
+     * Returns null if the value is null or can't be cast.
+     */
+    @Nullable
+    private static Object castValue(@Nullable Object value, ColumnStats<?> columnStats) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return columnStats.type().implicitCast(value);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static class JoinSelectivityEstimator extends SymbolVisitor<Void, Double> {
+
+        private final Map<RelationName, Stats> statsByRelation;
+
+        JoinSelectivityEstimator(Map<RelationName, Stats> statsByRelation) {
+            this.statsByRelation = statsByRelation;
+        }
+
+        @Override
+        protected Double visitSymbol(Symbol symbol, Void context) {
+            return MAGIC_SEL;
+        }
+
+        @Override
+        public Double visitFunction(Function function, Void context) {
+            switch (function.name()) {
+                case AndOperator.NAME: {
+                    double selectivity = 1.0;
+                    for (Symbol argument : function.arguments()) {
+                        selectivity *= argument.accept(this, context);
+                    }
+                    return selectivity;
+                }
+
+                case OrOperator.NAME: {
+                    double sel1 = 1.0;
+                    for (Symbol argument : function.arguments()) {
+                        double sel2 = argument.accept(this, context);
+                        sel1 = sel1 + sel2 - sel1 * sel2;
+                    }
+                    return sel1;
+                }
+
+                case EqOperator.NAME: {
+                    List<Symbol> arguments = function.arguments();
+                    return eqJoinSelectivity(arguments.get(0), arguments.get(1), statsByRelation);
+                }
+
                 default:
                     return MAGIC_SEL;
             }
         }
+    }
 
+    private static double eqJoinSelectivity(Symbol leftArg, Symbol rightArg, Map<RelationName, Stats> statsByRelation) {
+        double leftDistinct = approxDistinct(leftArg, statsByRelation);
+        double rightDistinct = approxDistinct(rightArg, statsByRelation);
+        double maxDistinct = Math.max(leftDistinct, rightDistinct);
+        if (maxDistinct <= 0) {
+            return DEFAULT_EQ_SEL;
+        }
+        return 1.0 / maxDistinct;
+    }
+
+    /**
+     * Returns the approximate number of distinct values of the column or -1 if unknown.
+     */
+    private static double approxDistinct(Symbol symbol, Map<RelationName, Stats> statsByRelation) {
+        ColumnIdent column = getColumn(symbol);
+        RelationName relation = getRelation(symbol);
+        if (column == null || relation == null) {
+            return -1;
+        }
+        Stats stats = statsByRelation.get(relation);
+        if (stats == null) {
+            return -1;
+        }
+        ColumnStats columnStats = stats.statsByColumn().get(column);
+        if (columnStats == null) {
+            return -1;
+        }
+        return columnStats.approxDistinct();
     }
 
     private static double isNullSelectivity(Symbol arg, Stats stats) {
@@ -178,6 +605,17 @@ public class SelectivityFunctions {
         }
     }
 
+    @Nullable
+    private static RelationName getRelation(Symbol symbol) {
+        if (symbol instanceof Reference) {
+            return ((Reference) symbol).ident().tableIdent();
+        } else if (symbol instanceof ScopedSymbol) {
+            return ((ScopedSymbol) symbol).relation();
+        } else {
+            return null;
+        }
+    }
+
     @Nullable
     private static ColumnIdent getColumn(Symbol symbol) {
         if (symbol instanceof Reference) {
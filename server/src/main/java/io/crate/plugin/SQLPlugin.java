@@ -56,14 +56,18 @@ import org.elasticsearch.plugins.ClusterPlugin;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
 
+import io.crate.action.sql.ParseCache;
+import io.crate.action.sql.PlanCache;
 import io.crate.action.sql.SQLOperations;
 import io.crate.auth.AuthSettings;
 import io.crate.cluster.gracefulstop.DecommissionAllocationDecider;
 import io.crate.cluster.gracefulstop.DecommissioningService;
 import io.crate.execution.TransportExecutorModule;
 import io.crate.execution.engine.collect.CollectOperationModule;
+import io.crate.execution.engine.collect.ShardResultCache;
 import io.crate.execution.engine.collect.files.FileCollectModule;
 import io.crate.execution.engine.collect.stats.JobsLogService;
+import io.crate.execution.engine.spill.SpillSettings;
 import io.crate.execution.jobs.JobModule;
 import io.crate.execution.jobs.TasksService;
 import io.crate.execution.jobs.transport.NodeDisconnectJobMonitorService;
@@ -123,6 +127,10 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
         List<Setting<?>> settings = new ArrayList<>();
         settings.add(AnalyzerSettings.CUSTOM_ANALYSIS_SETTING_GROUP);
         settings.add(SQLOperations.NODE_READ_ONLY_SETTING);
+        settings.add(ParseCache.PARSE_CACHE_SIZE_SETTING);
+        settings.add(PlanCache.PLAN_CACHE_SIZE_SETTING);
+        settings.add(SpillSettings.SPILL_THRESHOLD);
+        settings.add(ShardResultCache.SHARD_RESULT_CACHE_SIZE_SETTING);
 
         // Postgres settings are node settings
         settings.add(PostgresNetty.PSQL_ENABLED_SETTING.setting());
@@ -0,0 +1,143 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime statistics of a single operator (e.g. a projector) of an execution phase, recorded by a
+ * {@link ProfilingBatchIterator} wrapping the output and optionally the input of the operator.
+ *
+ * <p>
+ * Times only include the work done synchronously within calls to the iterators; they are inclusive of the
+ * time spent in upstream operators. If the input is profiled as well, the self time is the total time
+ * minus the time spent in calls to the input.
+ * </p>
+ *
+ * <p>
+ * The iterators of an operator may run concurrently, e.g. the shard level projections of a collect phase,
+ * so the values are added in bulk with {@link #addOutput(long, long, long, long)} and
+ * {@link #addInput(long, long, long)}. They are read once the phase has finished.
+ * </p>
+ *
+ * <p>
+ * The peak memory is the sum of the peaks of the {@link ProfilingRamAccounting} instances of the operator,
+ * which are the ram accountings of the phase given to the operator. The bytes sent are the bytes of the
+ * rows which a phase sends to downstream nodes, they are only recorded for the output of a phase.
+ * </p>
+ */
+public final class OperatorStats {
+
+    private static final double NS_TO_MS_FACTOR = 1_000_000.0d;
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+    private final String name;
+    private boolean inputProfiled = false;
+
+    private long rowsIn;
+    private long rowsOut;
+    private long batches;
+    private long nanos;
+    private long cpuNanos;
+    private long inputNanos;
+    private long inputCpuNanos;
+
+    private final List<ProfilingRamAccounting> ramAccountings = new ArrayList<>();
+    private boolean bytesSentProfiled = false;
+    private long bytesSent;
+
+    public OperatorStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void inputProfiled() {
+        inputProfiled = true;
+    }
+
+    synchronized void addOutput(long rows, long batches, long nanos, long cpuNanos) {
+        this.rowsOut += rows;
+        this.batches += batches;
+        this.nanos += nanos;
+        this.cpuNanos += cpuNanos;
+    }
+
+    synchronized void addInput(long rows, long nanos, long cpuNanos) {
+        this.rowsIn += rows;
+        this.inputNanos += nanos;
+        this.inputCpuNanos += cpuNanos;
+    }
+
+    public synchronized void addRamAccounting(ProfilingRamAccounting ramAccounting) {
+        ramAccountings.add(ramAccounting);
+    }
+
+    public synchronized void bytesSentProfiled() {
+        bytesSentProfiled = true;
+    }
+
+    public synchronized void addBytesSent(long bytes) {
+        bytesSent += bytes;
+    }
+
+    static long currentThreadCpuTime() {
+        return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+    }
+
+    synchronized Map<String, Object> asMap() {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("Name", name);
+        map.put("RowsOut", rowsOut);
+        map.put("Batches", batches);
+        map.put("TotalTime", nanos / NS_TO_MS_FACTOR);
+        if (inputProfiled) {
+            map.put("RowsIn", rowsIn);
+            map.put("Time", Math.max(0L, nanos - inputNanos) / NS_TO_MS_FACTOR);
+            if (CPU_TIME_SUPPORTED) {
+                map.put("CpuTime", Math.max(0L, cpuNanos - inputCpuNanos) / NS_TO_MS_FACTOR);
+            }
+        } else if (CPU_TIME_SUPPORTED) {
+            map.put("CpuTime", cpuNanos / NS_TO_MS_FACTOR);
+        }
+        if (!ramAccountings.isEmpty()) {
+            long peakBytes = 0L;
+            for (ProfilingRamAccounting ramAccounting : ramAccountings) {
+                peakBytes += ramAccounting.peakBytes();
+            }
+            map.put("PeakUsedBytes", peakBytes);
+        }
+        if (bytesSentProfiled) {
+            map.put("BytesSent", bytesSent);
+        }
+        return map;
+    }
+}
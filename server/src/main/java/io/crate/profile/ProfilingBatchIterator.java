@@ -0,0 +1,156 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+package io.crate.profile;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * BatchIterator which records the rows, batches and the time spent in {@link #moveNext()} and
+ * {@link #loadNextBatch()} of the delegate into {@link OperatorStats}.
+ *
+ * Use {@link #output(BatchIterator, OperatorStats)} to profile the iterator an operator returns and
+ * {@link #input(BatchIterator, OperatorStats)} to profile the iterator it consumes.
+ *
+ * <p>
+ * Reading the clocks costs more than moving most iterators, so only every {@link #SAMPLE_INTERVAL}th call to
+ * {@link #moveNext()} is timed and the time of all calls is extrapolated from these samples.
+ * Calls to {@link #loadNextBatch()} are always timed.
+ * The values are added to the stats once the iterator is exhausted, loads the next batch or is closed.
+ * </p>
+ */
+public final class ProfilingBatchIterator<T> extends ForwardingBatchIterator<T> {
+
+    static final int SAMPLE_INTERVAL = 64;
+
+    private final BatchIterator<T> delegate;
+    private final OperatorStats stats;
+    private final boolean isInput;
+
+    private long rows;
+    private long batches;
+    private long moveNextCalls;
+    private long sampledCalls;
+    private long sampledNanos;
+    private long sampledCpuNanos;
+    private long batchNanos;
+    private long batchCpuNanos;
+    private long reportedNanos;
+    private long reportedCpuNanos;
+
+    public static <T> BatchIterator<T> output(BatchIterator<T> delegate, OperatorStats stats) {
+        return new ProfilingBatchIterator<>(delegate, stats, false);
+    }
+
+    public static <T> BatchIterator<T> input(BatchIterator<T> delegate, OperatorStats stats) {
+        stats.inputProfiled();
+        return new ProfilingBatchIterator<>(delegate, stats, true);
+    }
+
+    private ProfilingBatchIterator(BatchIterator<T> delegate, OperatorStats stats, boolean isInput) {
+        this.delegate = delegate;
+        this.stats = stats;
+        this.isInput = isInput;
+    }
+
+    @Override
+    protected BatchIterator<T> delegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean moveNext() {
+        if ((moveNextCalls++ % SAMPLE_INTERVAL) != 0) {
+            boolean moved = delegate.moveNext();
+            if (moved) {
+                rows++;
+            } else {
+                report();
+            }
+            return moved;
+        }
+        long startCpu = OperatorStats.currentThreadCpuTime();
+        long start = System.nanoTime();
+        boolean moved = false;
+        try {
+            moved = delegate.moveNext();
+            if (moved) {
+                rows++;
+            }
+            return moved;
+        } finally {
+            sampledNanos += System.nanoTime() - start;
+            sampledCpuNanos += OperatorStats.currentThreadCpuTime() - startCpu;
+            sampledCalls++;
+            if (!moved) {
+                report();
+            }
+        }
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() throws Exception {
+        long startCpu = OperatorStats.currentThreadCpuTime();
+        long start = System.nanoTime();
+        try {
+            batches++;
+            return delegate.loadNextBatch();
+        } finally {
+            batchNanos += System.nanoTime() - start;
+            batchCpuNanos += OperatorStats.currentThreadCpuTime() - startCpu;
+            report();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            delegate.close();
+        } finally {
+            report();
+        }
+    }
+
+    /**
+     * Adds the rows, batches and time recorded since the last report to the stats
+     */
+    private void report() {
+        long nanos = batchNanos;
+        long cpuNanos = batchCpuNanos;
+        if (sampledCalls > 0) {
+            double callsPerSample = (double) moveNextCalls / sampledCalls;
+            nanos += (long) (sampledNanos * callsPerSample);
+            cpuNanos += (long) (sampledCpuNanos * callsPerSample);
+        }
+        if (isInput) {
+            stats.addInput(rows, nanos - reportedNanos, cpuNanos - reportedCpuNanos);
+        } else {
+            stats.addOutput(rows, batches, nanos - reportedNanos, cpuNanos - reportedCpuNanos);
+        }
+        rows = 0;
+        batches = 0;
+        reportedNanos = nanos;
+        reportedCpuNanos = cpuNanos;
+    }
+}
@@ -28,22 +28,30 @@ import org.elasticsearch.search.profile.query.QueryProfiler;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Simple stop watch type class that can be used as a context across multiple layers (analyzer, planner, executor)
  * to accumulate timing results in a map.
  *
- * It is not meant to be thread-safe.
+ * It is not meant to be thread-safe, except for {@link #createOperatorStats(String, String)},
+ * {@link #addOperatorStats(String, OperatorStats)} and {@link #operatorStats(String, Object, String)}.
  *
  */
 public class ProfilingContext {
 
+    public static final String OPERATORS = "Operators";
+
     private static final double NS_TO_MS_FACTOR = 1_000_000.0d;
     private final HashMap<String, Double> durationInMSByTimer;
     private final List<QueryProfiler> profilers;
+    private final Map<String, List<OperatorStats>> operatorStatsByPhase = new ConcurrentHashMap<>();
+    private final Map<Object, OperatorStats> operatorStatsByOperator =
+        Collections.synchronizedMap(new IdentityHashMap<>());
 
     public ProfilingContext(List<QueryProfiler> profilers) {
         this.profilers = profilers;
@@ -61,6 +69,20 @@ public class ProfilingContext {
         if (!queryTimings.isEmpty()) {
             builder.put("QueryBreakdown", queryTimings);
         }
+        if (!operatorStatsByPhase.isEmpty()) {
+            HashMap<String, Object> operators = new HashMap<>();
+            for (var entry : operatorStatsByPhase.entrySet()) {
+                List<OperatorStats> stats = entry.getValue();
+                ArrayList<Map<String, Object>> statsMaps = new ArrayList<>(stats.size());
+                synchronized (stats) {
+                    for (OperatorStats operatorStats : stats) {
+                        statsMaps.add(operatorStats.asMap());
+                    }
+                }
+                operators.put(entry.getKey(), statsMaps);
+            }
+            builder.put(OPERATORS, operators);
+        }
         return Collections.unmodifiableMap(builder);
     }
 
@@ -83,6 +105,36 @@ public class ProfilingContext {
         return Collections.unmodifiableMap(queryTimingsBuilder);
     }
 
+    /**
+     * Creates the statistics of an operator of the phase identified by {@code phaseKey},
+     * see {@link #generateProfilingKey(int, String)}.
+     * Operators must be registered in the order in which they are applied.
+     */
+    public OperatorStats createOperatorStats(String phaseKey, String name) {
+        OperatorStats stats = new OperatorStats(name);
+        addOperatorStats(phaseKey, stats);
+        return stats;
+    }
+
+    /**
+     * Adds the statistics of an operator which have been created before the operator is applied,
+     * see {@link #createOperatorStats(String, String)}.
+     */
+    public void addOperatorStats(String phaseKey, OperatorStats stats) {
+        operatorStatsByPhase
+            .computeIfAbsent(phaseKey, k -> Collections.synchronizedList(new ArrayList<>()))
+            .add(stats);
+    }
+
+    /**
+     * Returns the statistics of {@code operator}, which are shared by all instances of the operator,
+     * e.g. the projectors created for each shard from the same projection.
+     * They are created on first access, see {@link #createOperatorStats(String, String)}.
+     */
+    public OperatorStats operatorStats(String phaseKey, Object operator, String name) {
+        return operatorStatsByOperator.computeIfAbsent(operator, k -> createOperatorStats(phaseKey, name));
+    }
+
     public Timer createAndStartTimer(String name) {
         Timer timer = createTimer(name);
         timer.start();
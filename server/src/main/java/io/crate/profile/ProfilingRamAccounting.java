@@ -0,0 +1,74 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.profile;
+
+import io.crate.breaker.RamAccounting;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RamAccounting which records the peak of the bytes accounted through it into {@link OperatorStats},
+ * see {@link OperatorStats#addRamAccounting(ProfilingRamAccounting)}.
+ * Only used if profiling is enabled.
+ */
+public final class ProfilingRamAccounting implements RamAccounting {
+
+    private final RamAccounting delegate;
+    private final AtomicLong usedBytes = new AtomicLong(0L);
+    private final AtomicLong peakBytes = new AtomicLong(0L);
+
+    public ProfilingRamAccounting(RamAccounting delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void addBytes(long bytes) {
+        delegate.addBytes(bytes);
+        long used = usedBytes.addAndGet(bytes);
+        peakBytes.accumulateAndGet(used, Math::max);
+    }
+
+    @Override
+    public long totalBytes() {
+        return delegate.totalBytes();
+    }
+
+    @Override
+    public void release() {
+        delegate.release();
+        usedBytes.set(0L);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+        usedBytes.set(0L);
+    }
+
+    /**
+     * The maximum of the bytes accounted through this instance at any time
+     */
+    public long peakBytes() {
+        return peakBytes.get();
+    }
+}
@@ -22,6 +22,7 @@
 
 package io.crate.protocols;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -32,21 +33,36 @@ public final class ConnectionStats implements Writeable {
 
     private final long open;
     private final long total;
+    private final long rowsSent;
+    private final long bytesSent;
 
-    public ConnectionStats(long open, long total) {
+    public ConnectionStats(long open, long total, long rowsSent, long bytesSent) {
         this.open = open;
         this.total = total;
+        this.rowsSent = rowsSent;
+        this.bytesSent = bytesSent;
     }
 
     public ConnectionStats(StreamInput in) throws IOException {
         this.open = in.readVLong();
         this.total = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_4_4_0)) {
+            this.rowsSent = in.readVLong();
+            this.bytesSent = in.readVLong();
+        } else {
+            this.rowsSent = 0L;
+            this.bytesSent = 0L;
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVLong(open);
         out.writeVLong(total);
+        if (out.getVersion().onOrAfter(Version.V_4_4_0)) {
+            out.writeVLong(rowsSent);
+            out.writeVLong(bytesSent);
+        }
     }
 
     public long open() {
@@ -56,4 +72,12 @@ public final class ConnectionStats implements Writeable {
     public long total() {
         return total;
     }
+
+    public long rowsSent() {
+        return rowsSent;
+    }
+
+    public long bytesSent() {
+        return bytesSent;
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.analyze.copy.NodeFilters;
+import io.crate.common.io.IOUtils;
+import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.ObjectLiteral;
+import io.crate.sql.tree.StringLiteral;
+import io.netty.buffer.ByteBuf;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * State of a {@code COPY ... FROM STDIN} statement while the client is sending the data.
+ *
+ * <p>
+ * The content of the CopyData messages is spooled into a temporary file on the node the client is connected to.
+ * Once the client sends CopyDone, the statement is rewritten to a regular {@code COPY FROM} of that file,
+ * restricted to the local node via {@code node_filters}, so that parsing and writing the rows is done by
+ * the existing {@code COPY FROM} implementation.
+ * </p>
+ */
+final class CopyIn implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(CopyIn.class);
+
+    private final CopyFrom<Expression> copyFrom;
+    private final String query;
+    private final Path file;
+    private final OutputStream out;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+    private CopyIn(CopyFrom<Expression> copyFrom, String query, Path file, OutputStream out) {
+        this.copyFrom = copyFrom;
+        this.query = query;
+        this.file = file;
+        this.out = out;
+    }
+
+    static CopyIn create(CopyFrom<Expression> copyFrom, String query) throws IOException {
+        Path file = Files.createTempFile("crate-copy-stdin-", null);
+        try {
+            return new CopyIn(copyFrom, query, file, new BufferedOutputStream(Files.newOutputStream(file)));
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    String query() {
+        return query;
+    }
+
+    /**
+     * Completes once the rows have been imported, or if the import failed.
+     */
+    CompletableFuture<Object> result() {
+        return result;
+    }
+
+    void write(ByteBuf data) throws IOException {
+        data.readBytes(out, data.readableBytes());
+    }
+
+    /**
+     * Flushes the received data and returns the statement to import it.
+     *
+     * @param localNodeId the id of the node which holds the temporary file
+     */
+    CopyFrom<Expression> finish(String localNodeId) throws IOException {
+        out.close();
+        Map<String, Expression> properties = new HashMap<>(copyFrom.properties().properties());
+        properties.put(NodeFilters.NAME, new ObjectLiteral(Map.of("id", new StringLiteral(localNodeId))));
+        return new CopyFrom<>(
+            copyFrom.table(),
+            new StringLiteral(file.toUri().toString()),
+            new GenericProperties<>(properties),
+            copyFrom.isReturnSummary()
+        );
+    }
+
+    /**
+     * Deletes the temporary file
+     */
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(out);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete temporary file of COPY FROM STDIN: " + file, e);
+        }
+    }
+}
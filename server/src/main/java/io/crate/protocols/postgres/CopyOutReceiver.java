@@ -0,0 +1,226 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.ResultReceiver;
+import io.crate.auth.user.AccessControl;
+import io.crate.data.Row;
+import io.crate.exceptions.UnsupportedFeatureException;
+import io.crate.execution.dsl.projection.WriterProjection;
+import io.crate.execution.engine.export.FileWriterCountCollector;
+import io.crate.sql.tree.AllColumns;
+import io.crate.sql.tree.Assignment;
+import io.crate.sql.tree.ComparisonExpression;
+import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.LogicalBinaryExpression;
+import io.crate.sql.tree.Query;
+import io.crate.sql.tree.QuerySpecification;
+import io.crate.sql.tree.Select;
+import io.crate.sql.tree.SelectItem;
+import io.crate.sql.tree.SingleColumn;
+import io.crate.sql.tree.StringLiteral;
+import io.crate.sql.tree.Table;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.settings.Settings;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static io.crate.analyze.CopyStatementSettings.OUTPUT_FORMAT_SETTING;
+import static io.crate.analyze.CopyStatementSettings.settingAsEnum;
+
+/**
+ * Receives the rows of a {@code COPY ... TO STDOUT} statement and sends each row as CopyData message.
+ *
+ * <p>
+ * The statement is executed as query, see {@link #toQuery(CopyTo)}.
+ * The rows are formatted with the same row writers which {@code COPY TO} uses to write files,
+ * so each CopyData message contains one JSON object or array followed by a newline.
+ * </p>
+ *
+ * <p>
+ * The receiver must be used with a {@code maxRows} of {@link #BATCH_SIZE}. After each batch the channel is
+ * flushed and the consumption of the next batch is triggered via {@code resume} once the channel is writable.
+ * </p>
+ */
+class CopyOutReceiver extends BaseResultReceiver {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final String query;
+    private final Channel channel;
+    private final AccessControl accessControl;
+    private final BytesStreamOutput out = new BytesStreamOutput();
+    private final FileWriterCountCollector.RowWriter rowWriter;
+    private final Consumer<ResultReceiver<?>> resume;
+
+    private ChannelFuture lastWrite;
+    private boolean paused = false;
+    private long rowCount = 0;
+
+    /**
+     * @param resume resumes the execution to receive the next batch
+     */
+    CopyOutReceiver(String query,
+                    Channel channel,
+                    AccessControl accessControl,
+                    List<String> outputNames,
+                    WriterProjection.OutputFormat outputFormat,
+                    Consumer<ResultReceiver<?>> resume) throws IOException {
+        this.query = query;
+        this.channel = channel;
+        this.accessControl = accessControl;
+        this.resume = resume;
+        this.rowWriter = FileWriterCountCollector.newColumnRowWriter(out, outputNames, outputFormat);
+    }
+
+    /**
+     * Rewrites a {@code COPY TO STDOUT} statement into a query selecting the rows to copy.
+     * Without column list all top level columns are selected, which includes the values of partition columns.
+     */
+    static Query toQuery(CopyTo<Expression> copyTo) {
+        List<SelectItem> selectItems = new ArrayList<>();
+        if (copyTo.columns().isEmpty()) {
+            selectItems.add(new AllColumns());
+        } else {
+            for (Expression column : copyTo.columns()) {
+                selectItems.add(new SingleColumn(column));
+            }
+        }
+        Table<Expression> table = copyTo.table();
+        Expression where = copyTo.whereClause().orElse(null);
+        for (Assignment<Expression> partitionProperty : table.partitionProperties()) {
+            Expression isPartitionValue = new ComparisonExpression(
+                ComparisonExpression.Type.EQUAL,
+                partitionProperty.columnName(),
+                partitionProperty.expression()
+            );
+            where = where == null
+                ? isPartitionValue
+                : new LogicalBinaryExpression(LogicalBinaryExpression.Type.AND, where, isPartitionValue);
+        }
+        QuerySpecification querySpecification = new QuerySpecification(
+            new Select(false, selectItems),
+            List.of(new Table<>(table.getName(), table.excludePartitions())),
+            Optional.ofNullable(where),
+            List.of(),
+            Optional.empty(),
+            Map.of(),
+            List.of(),
+            Optional.empty(),
+            Optional.empty()
+        );
+        return new Query(querySpecification, List.of(), Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Resolves the output format from the {@code format} property. Other properties of {@code COPY TO}
+     * apply to the written files and are rejected.
+     */
+    static WriterProjection.OutputFormat outputFormat(CopyTo<Expression> copyTo) {
+        boolean columnsDefined = !copyTo.columns().isEmpty();
+        WriterProjection.OutputFormat outputFormat = columnsDefined
+            ? WriterProjection.OutputFormat.JSON_ARRAY
+            : WriterProjection.OutputFormat.JSON_OBJECT;
+        for (Map.Entry<String, Expression> property : copyTo.properties().properties().entrySet()) {
+            String key = property.getKey();
+            if (!key.equals(OUTPUT_FORMAT_SETTING.getKey())) {
+                throw new IllegalArgumentException("Setting '" + key + "' is not supported for COPY TO STDOUT");
+            }
+            if (!(property.getValue() instanceof StringLiteral)) {
+                throw new IllegalArgumentException("Setting '" + key + "' must be a string literal");
+            }
+            String format = OUTPUT_FORMAT_SETTING.get(
+                Settings.builder().put(key, ((StringLiteral) property.getValue()).getValue()).build());
+            outputFormat = settingAsEnum(WriterProjection.OutputFormat.class, format);
+        }
+        if (!columnsDefined && outputFormat == WriterProjection.OutputFormat.JSON_ARRAY) {
+            throw new UnsupportedFeatureException("Output format not supported without specifying columns.");
+        }
+        return outputFormat;
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        rowWriter.write(row);
+        rowCount++;
+        lastWrite = Messages.sendCopyData(channel, Unpooled.wrappedBuffer(BytesReference.toBytes(out.bytes())));
+        out.reset();
+    }
+
+    @Override
+    public void batchFinished() {
+        channel.flush();
+        lastWrite.addListener(future -> {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+            } else if (channel.isWritable()) {
+                resume.accept(this);
+            } else {
+                paused = true;
+            }
+        });
+    }
+
+    /**
+     * Resumes the execution if it has been paused because the channel wasn't writable.
+     * Must be called from the event loop of the channel.
+     */
+    void resumeIfPaused() {
+        if (paused && channel.isWritable()) {
+            paused = false;
+            resume.accept(this);
+        }
+    }
+
+    @Override
+    public void allFinished(boolean interrupted) {
+        try {
+            rowWriter.close();
+        } catch (IOException ignored) {
+            // the rows are already sent; the writer only holds the in-memory buffer
+        }
+        if (interrupted) {
+            super.allFinished(true);
+        } else {
+            Messages.sendCopyDone(channel);
+            Messages.sendCommandComplete(channel, query, rowCount).addListener(f -> super.allFinished(false));
+        }
+    }
+
+    @Override
+    public void fail(@Nonnull Throwable throwable) {
+        Messages.sendErrorResponse(channel, accessControl, throwable).addListener(f -> super.fail(throwable));
+    }
+}
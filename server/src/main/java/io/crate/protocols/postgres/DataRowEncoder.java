@@ -0,0 +1,127 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.data.Row;
+import io.crate.protocols.postgres.types.PGType;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Encodes result rows as DataRow messages.
+ *
+ * <p>
+ * Instead of allocating and writing one buffer per row, many DataRow messages are appended to a single pooled buffer.
+ * The buffer is written once it holds {@link #WRITE_THRESHOLD} bytes. Its initial capacity is derived from the size
+ * of the previously written buffer, so that small results don't allocate large buffers and large results don't need
+ * to grow the buffer repeatedly.
+ * </p>
+ *
+ * <p>
+ * The channel is flushed once {@link #FLUSH_THRESHOLD} bytes have been written since the last flush, or if it isn't
+ * writable anymore, so that the outbound buffer of the channel doesn't keep growing.
+ * {@link #flush()} must be called before any other message is sent to the client.
+ * </p>
+ */
+final class DataRowEncoder {
+
+    static final int MIN_BUFFER_CAPACITY = 512;
+    static final int MAX_BUFFER_CAPACITY = 32 * 1024;
+    static final int WRITE_THRESHOLD = 16 * 1024;
+
+    /**
+     * Same as the default high water mark of a channel
+     */
+    static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final Channel channel;
+    private final List<PGType<?>> columnTypes;
+    private final DataRowStats stats;
+
+    @Nullable
+    private final FormatCodes.FormatCode[] formatCodes;
+
+    @Nullable
+    private ByteBuf buffer;
+    private int bufferCapacity = MIN_BUFFER_CAPACITY;
+    private int bufferedRows = 0;
+    private long unflushedBytes = 0;
+
+    DataRowEncoder(Channel channel,
+                   List<PGType<?>> columnTypes,
+                   @Nullable FormatCodes.FormatCode[] formatCodes,
+                   DataRowStats stats) {
+        this.channel = channel;
+        this.columnTypes = columnTypes;
+        this.formatCodes = formatCodes;
+        this.stats = stats;
+    }
+
+    void write(Row row) {
+        if (buffer == null) {
+            buffer = channel.alloc().buffer(bufferCapacity);
+        }
+        Messages.writeDataRow(buffer, row, columnTypes, formatCodes);
+        bufferedRows++;
+        if (buffer.readableBytes() >= WRITE_THRESHOLD) {
+            writeBuffer();
+            if (unflushedBytes >= FLUSH_THRESHOLD || !channel.isWritable()) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered rows and flushes the channel.
+     */
+    void flush() {
+        writeBuffer();
+        if (unflushedBytes > 0) {
+            unflushedBytes = 0;
+            channel.flush();
+        }
+    }
+
+    private void writeBuffer() {
+        if (buffer == null) {
+            return;
+        }
+        int bytes = buffer.readableBytes();
+        if (bytes == 0) {
+            buffer.release();
+        } else {
+            stats.add(bufferedRows, bytes);
+            unflushedBytes += bytes;
+            channel.write(buffer);
+            bufferCapacity = Math.max(
+                MIN_BUFFER_CAPACITY,
+                Math.min(MAX_BUFFER_CAPACITY, Integer.highestOneBit(bytes - 1) << 1)
+            );
+        }
+        buffer = null;
+        bufferedRows = 0;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the result rows sent to clients as DataRow messages and the bytes of these messages.
+ *
+ * <p>
+ * Each connection has its own instance which also adds to the instance of its node,
+ * so the node totals include connections which have already been closed.
+ * </p>
+ */
+public final class DataRowStats {
+
+    @Nullable
+    private final DataRowStats parent;
+    private final LongAdder rowsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    public DataRowStats() {
+        this(null);
+    }
+
+    private DataRowStats(@Nullable DataRowStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Creates the stats of a single connection which also count towards this instance.
+     */
+    DataRowStats newConnectionStats() {
+        return new DataRowStats(this);
+    }
+
+    void add(long rows, long bytes) {
+        rowsSent.add(rows);
+        bytesSent.add(bytes);
+        if (parent != null) {
+            parent.add(rows, bytes);
+        }
+    }
+
+    public long rowsSent() {
+        return rowsSent.sum();
+    }
+
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+}
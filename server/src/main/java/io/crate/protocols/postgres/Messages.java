@@ -278,49 +278,49 @@ public class Messages {
      * <p>
      * ByteN
      * The value of the column, in the format indicated by the associated format code. n is the above length.
+     * <p>
+     * The message is appended to the buffer.
+     * If the row cannot be encoded the writerIndex of the buffer is reset, so that the buffer only contains complete messages.
      */
     @SuppressWarnings({"unchecked","rawtypes"})
-    static void sendDataRow(Channel channel, Row row, List<PGType<?>> columnTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
+    static void writeDataRow(ByteBuf buffer, Row row, List<PGType<?>> columnTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
         int length = 4 + 2;
         assert columnTypes.size() == row.numColumns()
             : "Number of columns in the row must match number of columnTypes. Row: " + row + " types: " + columnTypes;
 
-        ByteBuf buffer = channel.alloc().buffer();
+        int startIdx = buffer.writerIndex();
         buffer.writeByte('D');
         buffer.writeInt(0); // will be set at the end
         buffer.writeShort(row.numColumns());
 
-        for (int i = 0; i < row.numColumns(); i++) {
-            PGType pgType = columnTypes.get(i);
-            Object value;
-            try {
-                value = row.get(i);
-            } catch (Exception e) {
-                buffer.release();
-                throw e;
-            }
-            if (value == null) {
-                buffer.writeInt(-1);
-                length += 4;
-            } else {
-                FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
-                switch (formatCode) {
-                    case TEXT:
-                        length += pgType.writeAsText(buffer, value);
-                        break;
-                    case BINARY:
-                        length += pgType.writeAsBinary(buffer, value);
-                        break;
-
-                    default:
-                        buffer.release();
-                        throw new AssertionError("Unrecognized formatCode: " + formatCode);
+        try {
+            for (int i = 0; i < row.numColumns(); i++) {
+                PGType pgType = columnTypes.get(i);
+                Object value = row.get(i);
+                if (value == null) {
+                    buffer.writeInt(-1);
+                    length += 4;
+                } else {
+                    FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
+                    switch (formatCode) {
+                        case TEXT:
+                            length += pgType.writeAsText(buffer, value);
+                            break;
+                        case BINARY:
+                            length += pgType.writeAsBinary(buffer, value);
+                            break;
+
+                        default:
+                            throw new AssertionError("Unrecognized formatCode: " + formatCode);
+                    }
                 }
             }
+        } catch (Throwable t) {
+            buffer.writerIndex(startIdx);
+            throw t;
         }
 
-        buffer.setInt(1, length);
-        channel.write(buffer);
+        buffer.setInt(startIdx + 1, length);
     }
 
     static void writeCString(ByteBuf buffer, byte[] valBytes) {
@@ -482,6 +482,60 @@ public class Messages {
         sendShortMsg(channel, '3', "sentCloseComplete");
     }
 
+    /**
+     * CopyInResponse (B)
+     * | 'G' | int32 len | int8 format | int16 numColumns | int16 format, ... |
+     *
+     * The data is always sent in text format. It isn't split into columns, each line is a JSON object
+     * or a CSV record, so the column count is 0.
+     */
+    static void sendCopyInResponse(Channel channel) {
+        sendCopyResponse(channel, 'G', "sentCopyInResponse");
+    }
+
+    /**
+     * CopyOutResponse (B)
+     * | 'H' | int32 len | int8 format | int16 numColumns | int16 format, ... |
+     *
+     * See {@link #sendCopyInResponse(Channel)}
+     */
+    static void sendCopyOutResponse(Channel channel) {
+        sendCopyResponse(channel, 'H', "sentCopyOutResponse");
+    }
+
+    private static void sendCopyResponse(Channel channel, char msgType, String traceLogMsg) {
+        ByteBuf buffer = channel.alloc().buffer(8);
+        buffer.writeByte(msgType);
+        buffer.writeInt(7);
+        buffer.writeByte(0); // text
+        buffer.writeShort(0);
+        ChannelFuture channelFuture = channel.writeAndFlush(buffer);
+        if (LOGGER.isTraceEnabled()) {
+            channelFuture.addListener((ChannelFutureListener) future -> LOGGER.trace(traceLogMsg));
+        }
+    }
+
+    /**
+     * CopyData (F/B)
+     * | 'd' | int32 len | byte[n] data |
+     *
+     * @param data the data to send. Ownership is transferred to the channel.
+     */
+    static ChannelFuture sendCopyData(Channel channel, ByteBuf data) {
+        ByteBuf header = channel.alloc().buffer(5);
+        header.writeByte('d');
+        header.writeInt(4 + data.readableBytes());
+        return channel.write(channel.alloc().compositeBuffer(2).addComponents(true, header, data));
+    }
+
+    /**
+     * CopyDone (F/B)
+     * | 'c' | int32 len |
+     */
+    static void sendCopyDone(Channel channel) {
+        sendShortMsg(channel, 'c', "sentCopyDone");
+    }
+
     /**
      * AuthenticationCleartextPassword (B)
      *
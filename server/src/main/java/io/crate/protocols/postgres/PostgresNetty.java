@@ -27,8 +27,11 @@ import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -97,6 +100,8 @@ public class PostgresNetty extends AbstractLifecycleComponent {
     private final UserManager userManager;
     @Nullable
     private final SslContextProvider sslContextProvider;
+    private final DataRowStats dataRowStats = new DataRowStats();
+    private final Map<Channel, PostgresWireProtocol> connections = new ConcurrentHashMap<>();
 
     private ServerBootstrap bootstrap;
 
@@ -163,7 +168,10 @@ public class PostgresNetty extends AbstractLifecycleComponent {
                     sqlOperations,
                     userManager::getAccessControl,
                     authentication,
-                    sslContextProvider);
+                    sslContextProvider,
+                    dataRowStats);
+                connections.put(ch, postgresWireProtocol);
+                ch.closeFuture().addListener(f -> connections.remove(ch));
                 pipeline.addLast("frame-decoder", postgresWireProtocol.decoder);
                 pipeline.addLast("handler", postgresWireProtocol.handler);
             }
@@ -282,4 +290,32 @@ public class PostgresNetty extends AbstractLifecycleComponent {
     public long totalConnections() {
         return openChannels == null ? 0L : openChannels.totalChannels();
     }
+
+    /**
+     * The number of result rows and bytes sent to clients over all connections
+     */
+    public DataRowStats dataRowStats() {
+        return dataRowStats;
+    }
+
+    /**
+     * The result rows and bytes sent to the client of each open connection
+     */
+    public List<SessionStats> sessionStats() {
+        ArrayList<SessionStats> sessionStats = new ArrayList<>(connections.size());
+        for (Map.Entry<Channel, PostgresWireProtocol> connection : connections.entrySet()) {
+            Channel channel = connection.getKey();
+            PostgresWireProtocol postgresWireProtocol = connection.getValue();
+            SocketAddress remoteAddress = channel.remoteAddress();
+            DataRowStats connectionDataRowStats = postgresWireProtocol.dataRowStats();
+            sessionStats.add(new SessionStats(
+                channel.id().asShortText(),
+                remoteAddress instanceof InetSocketAddress ? NetworkAddress.format((InetSocketAddress) remoteAddress) : null,
+                postgresWireProtocol.userName(),
+                connectionDataRowStats.rowsSent(),
+                connectionDataRowStats.bytesSent()
+            ));
+        }
+        return sessionStats;
+    }
 }
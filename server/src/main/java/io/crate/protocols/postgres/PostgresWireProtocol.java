@@ -34,10 +34,17 @@ import io.crate.auth.user.AccessControl;
 import io.crate.auth.user.User;
 import io.crate.common.annotations.VisibleForTesting;
 import io.crate.common.collections.Lists2;
+import io.crate.execution.dsl.projection.WriterProjection;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
 import io.crate.protocols.postgres.types.PGType;
 import io.crate.protocols.postgres.types.PGTypes;
 import io.crate.protocols.ssl.SslContextProvider;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
@@ -65,6 +72,7 @@ import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static io.crate.protocols.SSL.getSession;
 import static io.crate.protocols.postgres.FormatCodes.getFormatCode;
@@ -129,6 +137,45 @@ import static io.crate.protocols.postgres.PostgresWireProtocol.State.STARTUP_HEA
  *          |     ReadyForQuery                |
  *          |<---------------------------------|
  *
+ * COPY FROM STDIN (Simple Query only)
+ *
+ *          +                                  +
+ *          |   Q (COPY .. FROM STDIN)         |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyInResponse               |
+ *          |<---------------------------------|
+ *          |                                  |
+ *          |     CopyData                     |
+ *          |--------------------------------->|
+ *          |     CopyData                     |
+ *          |--------------------------------->|
+ *          |     CopyDone or CopyFail         |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CommandComplete or           |
+ *          |     ErrorResponse                |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
+ *
+ * COPY TO STDOUT (Simple Query only)
+ *
+ *          +                                  +
+ *          |   Q (COPY .. TO STDOUT)          |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyOutResponse              |
+ *          |<---------------------------------|
+ *          |     CopyData                     |
+ *          |<---------------------------------|
+ *          |     CopyDone                     |
+ *          |<---------------------------------|
+ *          |     CommandComplete              |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
+ *
  * Extended Query
  *
  *          +                                  +
@@ -184,6 +231,8 @@ public class PostgresWireProtocol {
 
     private static final Logger LOGGER = LogManager.getLogger(PostgresWireProtocol.class);
     private static final String PASSWORD_AUTH_NAME = "password";
+    private static final Pattern COPY_WITH_STDIO = Pattern.compile(
+        "^\\s*COPY\\s.*\\bSTD(IN|OUT)\\b", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
 
     public static int SERVER_VERSION_NUM = 100500;
     public static String PG_SERVER_VERSION = "10.5";
@@ -194,6 +243,7 @@ public class PostgresWireProtocol {
     private final Function<SessionContext, AccessControl> getAccessControl;
     private final Authentication authService;
     private final SslReqHandler sslReqHandler;
+    private final DataRowStats dataRowStats;
 
     private DelayableWriteChannel channel;
     private int msgLength;
@@ -203,6 +253,15 @@ public class PostgresWireProtocol {
     private AuthenticationContext authContext;
     private Properties properties;
 
+    @Nullable
+    private volatile String userName;
+
+    @Nullable
+    private CopyIn copyIn;
+
+    @Nullable
+    private volatile CopyOutReceiver activeCopyOut;
+
     enum State {
         PRE_STARTUP,
         STARTUP_HEADER,
@@ -216,15 +275,32 @@ public class PostgresWireProtocol {
     PostgresWireProtocol(SQLOperations sqlOperations,
                          Function<SessionContext, AccessControl> getAcessControl,
                          Authentication authService,
-                         @Nullable SslContextProvider sslContextProvider) {
+                         @Nullable SslContextProvider sslContextProvider,
+                         DataRowStats nodeDataRowStats) {
         this.sqlOperations = sqlOperations;
         this.getAccessControl = getAcessControl;
         this.authService = authService;
         this.sslReqHandler = new SslReqHandler(sslContextProvider);
+        this.dataRowStats = nodeDataRowStats.newConnectionStats();
         this.decoder = new MessageDecoder();
         this.handler = new MessageHandler();
     }
 
+    /**
+     * The number of result rows and bytes sent to the client of this connection
+     */
+    DataRowStats dataRowStats() {
+        return dataRowStats;
+    }
+
+    /**
+     * The name of the authenticated user; null until the client is authenticated
+     */
+    @Nullable
+    String userName() {
+        return userName;
+    }
+
     private static void traceLogProtocol(int protocol) {
         if (LOGGER.isTraceEnabled()) {
             int major = protocol >> 16;
@@ -340,6 +416,10 @@ public class PostgresWireProtocol {
         }
 
         private void dispatchMessage(ByteBuf buffer, DelayableWriteChannel channel) {
+            if (copyIn != null) {
+                dispatchCopyInMessage(buffer, channel);
+                return;
+            }
             switch (msgType) {
                 case 'Q': // Query (simple)
                     handleSimpleQuery(buffer, channel);
@@ -372,6 +452,11 @@ public class PostgresWireProtocol {
                     closeSession();
                     channel.close();
                     return;
+                case 'd':
+                case 'c':
+                case 'f':
+                    // CopyData, CopyDone or CopyFail sent after the COPY FROM STDIN has already been aborted
+                    return;
                 default:
                     Messages.sendErrorResponse(
                         channel,
@@ -382,6 +467,35 @@ public class PostgresWireProtocol {
             }
         }
 
+        /**
+         * During COPY FROM STDIN the client sends CopyData messages, followed by either CopyDone or CopyFail.
+         * Flush and Sync are ignored, any other message aborts the copy.
+         */
+        private void dispatchCopyInMessage(ByteBuf buffer, DelayableWriteChannel channel) {
+            switch (msgType) {
+                case 'd':
+                    handleCopyData(buffer);
+                    return;
+                case 'c':
+                    handleCopyDone(channel);
+                    return;
+                case 'f':
+                    handleCopyFail(buffer);
+                    return;
+                case 'H':
+                case 'S':
+                    return;
+                case 'X':
+                    abortCopyIn();
+                    closeSession();
+                    channel.close();
+                    return;
+                default:
+                    failCopyIn(new IllegalStateException(
+                        "Unexpected message type during COPY FROM STDIN: " + (char) msgType));
+            }
+        }
+
         private void closeSession() {
             if (session != null) {
                 session.close();
@@ -399,10 +513,20 @@ public class PostgresWireProtocol {
             }
         }
 
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            CopyOutReceiver copyOut = activeCopyOut;
+            if (copyOut != null) {
+                copyOut.resumeIfPaused();
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
         @Override
         public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
             LOGGER.trace("channelDisconnected");
             channel = null;
+            abortCopyIn();
             closeSession();
             super.channelUnregistered(ctx);
         }
@@ -444,6 +568,7 @@ public class PostgresWireProtocol {
             User authenticatedUser = authContext.authenticate();
             String database = properties.getProperty("database");
             session = sqlOperations.createSession(database, authenticatedUser);
+            userName = authenticatedUser.name();
             Messages.sendAuthenticationOK(channel)
                 .addListener(f -> sendParamsAndRdyForQuery(channel));
         } catch (Exception e) {
@@ -655,7 +780,8 @@ public class PostgresWireProtocol {
                 session.transactionState(),
                 getAccessControl.apply(session.sessionContext()),
                 Lists2.map(outputTypes, PGTypes::get),
-                session.getResultFormatCodes(portalName)
+                session.getResultFormatCodes(portalName),
+                dataRowStats
             );
         }
         // .execute is going async and may execute the query in another thread-pool.
@@ -729,6 +855,7 @@ public class PostgresWireProtocol {
         composedFuture.whenComplete(new ReadyForQueryCallback(channel, TransactionState.IDLE));
     }
 
+    @SuppressWarnings("unchecked")
     private CompletableFuture<?> handleSingleQuery(String query, DelayableWriteChannel channel) {
 
         CompletableFuture<?> result = new CompletableFuture<>();
@@ -739,9 +866,29 @@ public class PostgresWireProtocol {
             return result;
         }
 
+        Statement copyWithStdio = parseCopyWithStdio(query);
+        if (copyWithStdio instanceof CopyFrom) {
+            return handleCopyIn((CopyFrom<Expression>) copyWithStdio, query, channel);
+        } else if (copyWithStdio instanceof CopyTo) {
+            return handleCopyOut((CopyTo<Expression>) copyWithStdio, query, channel);
+        }
+        return executeSingleQuery(query, null, channel);
+    }
+
+    /**
+     * @param statement the parsed query; if null the query is parsed by the session
+     */
+    private CompletableFuture<?> executeSingleQuery(String query,
+                                                    @Nullable Statement statement,
+                                                    DelayableWriteChannel channel) {
+        CompletableFuture<?> result = new CompletableFuture<>();
         AccessControl accessControl = getAccessControl.apply(session.sessionContext());
         try {
-            session.parse("", query, Collections.emptyList());
+            if (statement == null) {
+                session.parse("", query, Collections.emptyList());
+            } else {
+                session.parse("", statement, query, Collections.emptyList());
+            }
             session.bind("", "", Collections.emptyList(), null);
             DescribeResult describeResult = session.describe('P', "");
             List<Symbol> fields = describeResult.getFields();
@@ -758,7 +905,8 @@ public class PostgresWireProtocol {
                     TransactionState.IDLE,
                     accessControl,
                     Lists2.map(fields, x -> PGTypes.get(x.valueType())),
-                    null
+                    null,
+                    dataRowStats
                 );
                 execute = session.execute("", 0, resultSetReceiver);
             }
@@ -773,6 +921,142 @@ public class PostgresWireProtocol {
         }
     }
 
+    /**
+     * @return the parsed statement if the query is a {@code COPY ... FROM STDIN} or {@code COPY ... TO STDOUT}
+     *         statement, otherwise null. Other statements, including those with syntax errors, are parsed
+     *         by the session as usual.
+     */
+    @Nullable
+    private static Statement parseCopyWithStdio(String query) {
+        if (!COPY_WITH_STDIO.matcher(query).find()) {
+            return null;
+        }
+        Statement statement;
+        try {
+            statement = SqlParser.createStatement(query);
+        } catch (Exception e) {
+            return null;
+        }
+        if ((statement instanceof CopyFrom && ((CopyFrom<?>) statement).isFromStdin())
+            || (statement instanceof CopyTo && ((CopyTo<?>) statement).isToStdout())) {
+            return statement;
+        }
+        return null;
+    }
+
+    /**
+     * Starts the copy-in mode. The returned future completes once the client finished sending the data
+     * and the data has been imported.
+     */
+    private CompletableFuture<?> handleCopyIn(CopyFrom<Expression> copyFrom,
+                                              String query,
+                                              DelayableWriteChannel channel) {
+        try {
+            if (!sqlOperations.localNode().isDataNode()) {
+                throw new UnsupportedOperationException(
+                    "COPY FROM STDIN is only supported if the client is connected to a data node");
+            }
+            copyIn = CopyIn.create(copyFrom, query);
+        } catch (Throwable t) {
+            Messages.sendErrorResponse(channel, getAccessControl.apply(session.sessionContext()), t);
+            return CompletableFuture.failedFuture(t);
+        }
+        Messages.sendCopyInResponse(channel);
+        return copyIn.result();
+    }
+
+    private void handleCopyData(ByteBuf buffer) {
+        try {
+            copyIn.write(buffer);
+        } catch (Throwable t) {
+            failCopyIn(t);
+        }
+    }
+
+    private void handleCopyDone(DelayableWriteChannel channel) {
+        CopyFrom<Expression> copyFromFile;
+        try {
+            copyFromFile = copyIn.finish(sqlOperations.localNode().getId());
+        } catch (Throwable t) {
+            failCopyIn(t);
+            return;
+        }
+        CopyIn finishedCopyIn = copyIn;
+        copyIn = null;
+        executeSingleQuery(finishedCopyIn.query(), copyFromFile, channel).whenComplete((result, t) -> {
+            finishedCopyIn.close();
+            if (t == null) {
+                finishedCopyIn.result().complete(result);
+            } else {
+                finishedCopyIn.result().completeExceptionally(t);
+            }
+        });
+    }
+
+    private void handleCopyFail(ByteBuf buffer) {
+        String message = readCString(buffer);
+        failCopyIn(new IllegalStateException("COPY FROM STDIN failed: " + message));
+    }
+
+    private void failCopyIn(Throwable t) {
+        CopyIn failedCopyIn = copyIn;
+        copyIn = null;
+        failedCopyIn.close();
+        Messages.sendErrorResponse(channel, getAccessControl.apply(session.sessionContext()), t);
+        failedCopyIn.result().completeExceptionally(t);
+    }
+
+    private void abortCopyIn() {
+        if (copyIn != null) {
+            CopyIn abortedCopyIn = copyIn;
+            copyIn = null;
+            abortedCopyIn.close();
+            abortedCopyIn.result().completeExceptionally(new ClientInterrupted());
+        }
+    }
+
+    private CompletableFuture<?> handleCopyOut(CopyTo<Expression> copyTo,
+                                               String query,
+                                               DelayableWriteChannel channel) {
+        CompletableFuture<?> result = new CompletableFuture<>();
+        AccessControl accessControl = getAccessControl.apply(session.sessionContext());
+        try {
+            WriterProjection.OutputFormat outputFormat = CopyOutReceiver.outputFormat(copyTo);
+            session.parse("", CopyOutReceiver.toQuery(copyTo), query, Collections.emptyList());
+            session.bind("", "", Collections.emptyList(), null);
+            List<Symbol> fields = session.describe('P', "").getFields();
+            assert fields != null : "The query of COPY TO STDOUT must have outputs";
+            CopyOutReceiver copyOutReceiver = new CopyOutReceiver(
+                query,
+                channel.bypassDelay(),
+                accessControl,
+                Lists2.map(fields, x -> Symbols.pathFromSymbol(x).sqlFqn()),
+                outputFormat,
+                receiver -> {
+                    // Resumes the suspended portal
+                    try {
+                        session.execute("", CopyOutReceiver.BATCH_SIZE, receiver);
+                        session.sync();
+                    } catch (Throwable t) {
+                        receiver.fail(t);
+                    }
+                }
+            );
+            activeCopyOut = copyOutReceiver;
+            copyOutReceiver.completionFuture().whenComplete((r, f) -> activeCopyOut = null);
+            Messages.sendCopyOutResponse(channel);
+            CompletableFuture<?> execute = session.execute("", CopyOutReceiver.BATCH_SIZE, copyOutReceiver);
+            if (execute != null) {
+                channel.delayWritesUntil(execute);
+            }
+            return session.sync();
+        } catch (Throwable t) {
+            Messages.sendErrorResponse(channel, accessControl, t);
+            result.completeExceptionally(t);
+            return result;
+        }
+    }
+
 
     /**
      * FrameDecoder that makes sure that a full message is in the buffer before delegating work to the MessageHandler
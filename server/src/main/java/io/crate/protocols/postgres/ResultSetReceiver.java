@@ -37,12 +37,9 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     private final String query;
     private final Channel channel;
-    private final List<PGType<?>> columnTypes;
     private final TransactionState transactionState;
     private final AccessControl accessControl;
-
-    @Nullable
-    private final FormatCodes.FormatCode[] formatCodes;
+    private final DataRowEncoder encoder;
 
     private long rowCount = 0;
 
@@ -51,32 +48,31 @@ class ResultSetReceiver extends BaseResultReceiver {
                       TransactionState transactionState,
                       AccessControl accessControl,
                       List<PGType<?>> columnTypes,
-                      @Nullable FormatCodes.FormatCode[] formatCodes) {
+                      @Nullable FormatCodes.FormatCode[] formatCodes,
+                      DataRowStats dataRowStats) {
         this.query = query;
         this.channel = channel;
         this.transactionState = transactionState;
         this.accessControl = accessControl;
-        this.columnTypes = columnTypes;
-        this.formatCodes = formatCodes;
+        this.encoder = new DataRowEncoder(channel, columnTypes, formatCodes, dataRowStats);
     }
 
     @Override
     public void setNextRow(Row row) {
+        encoder.write(row);
         rowCount++;
-        Messages.sendDataRow(channel, row, columnTypes, formatCodes);
-        if (rowCount % 1000 == 0) {
-            channel.flush();
-        }
     }
 
     @Override
     public void batchFinished() {
+        encoder.flush();
         Messages.sendPortalSuspended(channel);
         Messages.sendReadyForQuery(channel, transactionState);
     }
 
     @Override
     public void allFinished(boolean interrupted) {
+        encoder.flush();
         if (interrupted) {
             super.allFinished(true);
         } else {
@@ -86,6 +82,7 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     @Override
     public void fail(@Nonnull Throwable throwable) {
+        encoder.flush();
         Messages.sendErrorResponse(channel, accessControl, throwable).addListener(f -> super.fail(throwable));
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Snapshot of a PostgreSQL wire protocol connection and the result rows and bytes sent to its client.
+ * Exposed via `sys.sessions`.
+ */
+@Immutable
+public final class SessionStats {
+
+    private final String id;
+    @Nullable
+    private final String clientAddress;
+    @Nullable
+    private final String username;
+    private final long rowsSent;
+    private final long bytesSent;
+
+    SessionStats(String id,
+                 @Nullable String clientAddress,
+                 @Nullable String username,
+                 long rowsSent,
+                 long bytesSent) {
+        this.id = id;
+        this.clientAddress = clientAddress;
+        this.username = username;
+        this.rowsSent = rowsSent;
+        this.bytesSent = bytesSent;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    @Nullable
+    public String clientAddress() {
+        return clientAddress;
+    }
+
+    /**
+     * The name of the authenticated user; null if the client isn't authenticated yet
+     */
+    @Nullable
+    public String username() {
+        return username;
+    }
+
+    public long rowsSent() {
+        return rowsSent;
+    }
+
+    public long bytesSent() {
+        return bytesSent;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.rest.action;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.Row;
+import io.crate.expression.symbol.Symbol;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * ResultReceiver which writes the result set as chunked HTTP response.
+ *
+ * <p>
+ * The response has the same format as the one created by {@link RestResultSetReceiver}, but rows are
+ * written to the channel after each batch instead of building the whole response in memory.
+ * The receiver must be used with a {@code maxRows} of {@link #BATCH_SIZE}. After a batch is written, the
+ * consumption of the next batch is triggered via {@code resume} once the channel is writable again.
+ * </p>
+ *
+ * <p>
+ * The completion future completes with {@code null} once the response is written.
+ * It only completes exceptionally if the execution failed before any part of the response was written;
+ * a failure afterwards closes the connection, leaving the client with an incomplete response.
+ * </p>
+ */
+class RestStreamingResultSetReceiver implements ResultReceiver<XContentBuilder> {
+
+    private static final Logger LOGGER = LogManager.getLogger(RestStreamingResultSetReceiver.class);
+
+    static final int BATCH_SIZE = 1000;
+
+    private final Channel channel;
+    private final HttpResponse response;
+    private final boolean closeConnection;
+    private final List<Symbol> outputFields;
+    private final long startTimeNs;
+    private final RowAccounting<Row> rowAccounting;
+    private final Consumer<ResultReceiver<?>> resume;
+    private final BytesStreamOutput out = new BytesStreamOutput();
+    private final XContentBuilder xContentBuilder;
+    private final ResultToXContentBuilder builder;
+    private final CompletableFuture<XContentBuilder> result = new CompletableFuture<>();
+
+    private boolean responseStarted = false;
+    private boolean paused = false;
+    private long rowCount;
+
+    /**
+     * @param response the response header. Must use chunked transfer encoding.
+     * @param resume   resumes the execution to receive the next batch
+     */
+    RestStreamingResultSetReceiver(Channel channel,
+                                   HttpResponse response,
+                                   boolean closeConnection,
+                                   List<Symbol> outputFields,
+                                   long startTimeNs,
+                                   RowAccounting<Row> rowAccounting,
+                                   boolean includeTypesOnResponse,
+                                   Consumer<ResultReceiver<?>> resume) throws IOException {
+        this.channel = channel;
+        this.response = response;
+        this.closeConnection = closeConnection;
+        this.outputFields = outputFields;
+        this.startTimeNs = startTimeNs;
+        this.rowAccounting = rowAccounting;
+        this.resume = resume;
+        this.xContentBuilder = new XContentBuilder(JsonXContent.jsonXContent, out);
+        this.builder = ResultToXContentBuilder.builder(xContentBuilder);
+        this.builder.cols(outputFields);
+        if (includeTypesOnResponse) {
+            this.builder.colTypes(outputFields);
+        }
+        this.builder.startRows();
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        try {
+            rowAccounting.accountForAndMaybeBreak(row);
+            builder.addRow(row, outputFields.size());
+            rowCount++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void batchFinished() {
+        ByteBuf content;
+        try {
+            content = takeContent();
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        ChannelFuture writeFuture = write(new DefaultHttpContent(content));
+        // The rows are only referenced by the written content from now on
+        rowAccounting.release();
+        writeFuture.addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+            } else if (channel.isWritable()) {
+                resume.accept(this);
+            } else {
+                paused = true;
+            }
+        });
+    }
+
+    /**
+     * Resumes the execution if it has been paused because the channel wasn't writable.
+     * Must be called from the event loop of the channel.
+     */
+    void resumeIfPaused() {
+        if (paused && channel.isWritable()) {
+            paused = false;
+            resume.accept(this);
+        }
+    }
+
+    @Override
+    public void allFinished(boolean interrupted) {
+        ByteBuf content;
+        try {
+            builder
+                .finishRows()
+                .rowCount(rowCount)
+                .duration(startTimeNs)
+                .build();
+            content = takeContent();
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        ChannelFuture writeFuture = write(new DefaultLastHttpContent(content));
+        rowAccounting.release();
+        if (closeConnection) {
+            writeFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+        result.complete(null);
+    }
+
+    @Override
+    public void fail(@Nonnull Throwable t) {
+        rowAccounting.release();
+        if (responseStarted) {
+            LOGGER.warn("Failed to stream result, closing connection", t);
+            channel.close();
+            result.complete(null);
+        } else {
+            result.completeExceptionally(t);
+        }
+    }
+
+    private ByteBuf takeContent() throws IOException {
+        xContentBuilder.flush();
+        ByteBuf content = Unpooled.wrappedBuffer(BytesReference.toBytes(out.bytes()));
+        out.reset();
+        return content;
+    }
+
+    private ChannelFuture write(Object msg) {
+        if (!responseStarted) {
+            responseStarted = true;
+            channel.write(response);
+        }
+        return channel.writeAndFlush(msg);
+    }
+
+    @Override
+    public CompletableFuture<XContentBuilder> completionFuture() {
+        return result;
+    }
+}
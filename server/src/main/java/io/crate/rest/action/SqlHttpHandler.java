@@ -46,9 +46,12 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import org.apache.logging.log4j.LogManager;
@@ -57,6 +60,7 @@ import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.http.netty4.cors.Netty4CorsConfig;
 import org.elasticsearch.http.netty4.cors.Netty4CorsHandler;
@@ -91,6 +95,9 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
 
     private Session session;
 
+    @Nullable
+    private volatile RestStreamingResultSetReceiver activeStream;
+
     SqlHttpHandler(Settings settings,
                    SQLOperations sqlOperations,
                    Function<String, CircuitBreaker> circuitBreakerProvider,
@@ -112,9 +119,17 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             Session session = ensureSession(request);
             Map<String, List<String>> parameters = new QueryStringDecoder(request.uri()).parameters();
             ByteBuf content = request.content();
-            handleSQLRequest(session, content, paramContainFlag(parameters, "types"))
+            // Chunked transfer encoding requires HTTP/1.1
+            boolean stream = paramContainFlag(parameters, "stream")
+                             && request.protocolVersion().equals(HttpVersion.HTTP_1_1);
+            handleSQLRequest(session, content, paramContainFlag(parameters, "types"), stream ? ctx : null, request)
                 .whenComplete((result, t) -> {
+                    activeStream = null;
                     try {
+                        if (t == null && result == null) {
+                            // The response has been streamed
+                            return;
+                        }
                         sendResponse(session, ctx, request, parameters, result, t);
                     } catch (Throwable ex) {
                         LOGGER.error("Error sending response", ex);
@@ -136,6 +151,15 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         return values != null && (values.equals(singletonList("")) || values.equals(singletonList("true")));
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        RestStreamingResultSetReceiver stream = activeStream;
+        if (stream != null) {
+            stream.resumeIfPaused();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         if (session != null) {
@@ -188,7 +212,15 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         ctx.writeAndFlush(resp, promise);
     }
 
-    private CompletableFuture<XContentBuilder> handleSQLRequest(Session session, ByteBuf content, boolean includeTypes) {
+    /**
+     * @param streamCtx if not null, result sets are streamed as chunked response to the channel of the context
+     *                  and the returned future completes with null.
+     */
+    private CompletableFuture<XContentBuilder> handleSQLRequest(Session session,
+                                                                ByteBuf content,
+                                                                boolean includeTypes,
+                                                                @Nullable ChannelHandlerContext streamCtx,
+                                                                FullHttpRequest request) {
         SQLRequestParseContext parseContext;
         try {
             parseContext = SQLRequestParser.parseSource(Netty4Utils.toBytesReference(content));
@@ -203,7 +235,7 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
         }
         try {
             if (args != null || bulkArgs == null) {
-                return executeSimpleRequest(session, parseContext.stmt(), args, includeTypes);
+                return executeSimpleRequest(session, parseContext.stmt(), args, includeTypes, streamCtx, request);
             } else {
                 return executeBulkRequest(session, parseContext.stmt(), bulkArgs);
             }
@@ -237,7 +269,9 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
     private CompletableFuture<XContentBuilder> executeSimpleRequest(Session session,
                                                                     String stmt,
                                                                     List<Object> args,
-                                                                    boolean includeTypes) throws IOException {
+                                                                    boolean includeTypes,
+                                                                    @Nullable ChannelHandlerContext streamCtx,
+                                                                    FullHttpRequest request) throws IOException {
         long startTimeInNs = System.nanoTime();
         session.parse(UNNAMED, stmt, emptyList());
         session.bind(UNNAMED, UNNAMED, args == null ? emptyList() : args, null);
@@ -251,16 +285,27 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             RamAccounting ramAccounting = new BlockBasedRamAccounting(
                 b -> breaker.addEstimateBytesAndMaybeBreak(b, "http-result"),
                 MAX_BLOCK_SIZE_IN_BYTES);
-            resultReceiver = new RestResultSetReceiver(
-                JsonXContent.contentBuilder(),
-                resultFields,
-                startTimeInNs,
-                new RowAccountingWithEstimators(
-                    Symbols.typeView(resultFields),
-                    ramAccounting
-                ),
-                includeTypes
-            );
+            var rowAccounting = new RowAccountingWithEstimators(Symbols.typeView(resultFields), ramAccounting);
+            if (streamCtx == null) {
+                resultReceiver = new RestResultSetReceiver(
+                    JsonXContent.contentBuilder(),
+                    resultFields,
+                    startTimeInNs,
+                    rowAccounting,
+                    includeTypes
+                );
+            } else {
+                return executeStreaming(
+                    session,
+                    streamCtx,
+                    request,
+                    resultFields,
+                    startTimeInNs,
+                    rowAccounting,
+                    ramAccounting,
+                    includeTypes
+                );
+            }
             resultReceiver.completionFuture().whenComplete((result, error) -> ramAccounting.close());
         }
         session.execute(UNNAMED, 0, resultReceiver);
@@ -268,6 +313,43 @@ public class SqlHttpHandler extends SimpleChannelInboundHandler<FullHttpRequest>
             .thenCompose(ignored -> resultReceiver.completionFuture());
     }
 
+    private CompletableFuture<XContentBuilder> executeStreaming(Session session,
+                                                                ChannelHandlerContext ctx,
+                                                                FullHttpRequest request,
+                                                                List<Symbol> resultFields,
+                                                                long startTimeInNs,
+                                                                RowAccountingWithEstimators rowAccounting,
+                                                                RamAccounting ramAccounting,
+                                                                boolean includeTypes) throws IOException {
+        HttpResponse response = new DefaultHttpResponse(request.protocolVersion(), HttpResponseStatus.OK);
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, XContentType.JSON.mediaType());
+        HttpUtil.setTransferEncodingChunked(response, true);
+        Netty4CorsHandler.setCorsResponseHeaders(request, response, corsConfig);
+        var resultReceiver = new RestStreamingResultSetReceiver(
+            ctx.channel(),
+            response,
+            isCloseConnection(request),
+            resultFields,
+            startTimeInNs,
+            rowAccounting,
+            includeTypes,
+            receiver -> {
+                // Resumes the suspended portal
+                try {
+                    session.execute(UNNAMED, RestStreamingResultSetReceiver.BATCH_SIZE, receiver);
+                    session.sync();
+                } catch (Throwable t) {
+                    receiver.fail(t);
+                }
+            }
+        );
+        resultReceiver.completionFuture().whenComplete((result, error) -> ramAccounting.close());
+        activeStream = resultReceiver;
+        session.execute(UNNAMED, RestStreamingResultSetReceiver.BATCH_SIZE, resultReceiver);
+        return session.sync()
+            .thenCompose(ignored -> resultReceiver.completionFuture());
+    }
+
     private CompletableFuture<XContentBuilder> executeBulkRequest(Session session,
                                                                   String stmt,
                                                                   List<List<Object>> bulkArgs) {
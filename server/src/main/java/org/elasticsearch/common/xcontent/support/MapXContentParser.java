@@ -0,0 +1,422 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package org.elasticsearch.common.xcontent.support;
+
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentLocation;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.locationtech.spatial4j.shape.Point;
+
+import javax.annotation.Nullable;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser which emits the tokens of a map, as if the map had been serialized to JSON and parsed again.
+ *
+ * <p>
+ * This allows to parse a document which is already available as map without the JSON round-trip.
+ * Only maps containing the value types listed in {@link #supports(Object)} can be parsed.
+ * Numbers and their text representation follow the JSON serialization: floating point values are
+ * reported as {@link NumberType#DOUBLE} and non-finite ones as strings.
+ * </p>
+ */
+public final class MapXContentParser extends AbstractXContentParser {
+
+    private static final XContentLocation UNKNOWN_LOCATION = new XContentLocation(0, 0);
+
+    private final Map<String, Object> map;
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+    private boolean started = false;
+    private boolean closed = false;
+    private Token currentToken;
+    private Object currentValue;
+
+    public MapXContentParser(NamedXContentRegistry xContentRegistry,
+                             DeprecationHandler deprecationHandler,
+                             Map<String, Object> map) {
+        super(xContentRegistry, deprecationHandler);
+        this.map = map;
+    }
+
+    /**
+     * @return true if the value only consists of maps, collections, arrays, strings, numbers, booleans,
+     *         geo points and nulls and can therefore be parsed by this parser.
+     */
+    public static boolean supports(@Nullable Object value) {
+        if (value == null
+            || value instanceof String
+            || value instanceof Boolean
+            || value instanceof Integer
+            || value instanceof Long
+            || value instanceof Short
+            || value instanceof Byte
+            || value instanceof Double
+            || value instanceof Float
+            || value instanceof Point
+            || value instanceof double[]
+            || value instanceof float[]
+            || value instanceof int[]
+            || value instanceof long[]
+            || value instanceof short[]) {
+            return true;
+        }
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !supports(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (!supports(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                if (!supports(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public XContentType contentType() {
+        return XContentType.JSON;
+    }
+
+    @Override
+    public Token nextToken() {
+        currentValue = null;
+        if (!started) {
+            started = true;
+            frames.push(Frame.forObject(map));
+            currentToken = Token.START_OBJECT;
+            return currentToken;
+        }
+        Frame frame = frames.peek();
+        if (frame == null) {
+            currentToken = null;
+            return null;
+        }
+        if (frame.entries != null) {
+            if (currentToken == Token.FIELD_NAME) {
+                Object value = frame.fieldValue;
+                frame.fieldValue = null;
+                return startValue(value);
+            }
+            if (frame.entries.hasNext()) {
+                Map.Entry<String, Object> entry = frame.entries.next();
+                frame.fieldName = entry.getKey();
+                frame.fieldValue = entry.getValue();
+                currentToken = Token.FIELD_NAME;
+                return currentToken;
+            }
+            frames.pop();
+            currentToken = Token.END_OBJECT;
+            return currentToken;
+        }
+        if (frame.elements.hasNext()) {
+            return startValue(frame.elements.next());
+        }
+        frames.pop();
+        currentToken = Token.END_ARRAY;
+        return currentToken;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Token startValue(@Nullable Object value) {
+        if (value instanceof Map) {
+            frames.push(Frame.forObject((Map<String, Object>) value));
+            currentToken = Token.START_OBJECT;
+        } else if (value instanceof Collection) {
+            frames.push(Frame.forArray(((Collection<?>) value).iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof Object[]) {
+            frames.push(Frame.forArray(Arrays.asList((Object[]) value).iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof Point) {
+            Point point = (Point) value;
+            frames.push(Frame.forArray(List.<Object>of(point.getX(), point.getY()).iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof double[]) {
+            frames.push(Frame.forArray(Arrays.stream((double[]) value).boxed().iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof int[]) {
+            frames.push(Frame.forArray(Arrays.stream((int[]) value).boxed().iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof long[]) {
+            frames.push(Frame.forArray(Arrays.stream((long[]) value).boxed().iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof float[]) {
+            float[] floats = (float[]) value;
+            Object[] boxed = new Object[floats.length];
+            for (int i = 0; i < floats.length; i++) {
+                boxed[i] = floats[i];
+            }
+            frames.push(Frame.forArray(Arrays.asList(boxed).iterator()));
+            currentToken = Token.START_ARRAY;
+        } else if (value instanceof short[]) {
+            short[] shorts = (short[]) value;
+            Object[] boxed = new Object[shorts.length];
+            for (int i = 0; i < shorts.length; i++) {
+                boxed[i] = shorts[i];
+            }
+            frames.push(Frame.forArray(Arrays.asList(boxed).iterator()));
+            currentToken = Token.START_ARRAY;
+        } else {
+            currentValue = value;
+            currentToken = valueToken(value);
+        }
+        return currentToken;
+    }
+
+    private static Token valueToken(@Nullable Object value) {
+        if (value == null) {
+            return Token.VALUE_NULL;
+        }
+        if (value instanceof String) {
+            return Token.VALUE_STRING;
+        }
+        if (value instanceof Boolean) {
+            return Token.VALUE_BOOLEAN;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            // JSON has no representation for NaN and Infinity, they're written as strings
+            return Double.isFinite(((Number) value).doubleValue()) ? Token.VALUE_NUMBER : Token.VALUE_STRING;
+        }
+        if (value instanceof Number) {
+            return Token.VALUE_NUMBER;
+        }
+        throw new IllegalArgumentException("Cannot parse value of type " + value.getClass().getName());
+    }
+
+    @Override
+    public void skipChildren() {
+        if (currentToken != Token.START_OBJECT && currentToken != Token.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            Token token = nextToken();
+            if (token == Token.START_OBJECT || token == Token.START_ARRAY) {
+                depth++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                depth--;
+            }
+        }
+    }
+
+    @Override
+    public Token currentToken() {
+        return currentToken;
+    }
+
+    /**
+     * Like the JSON parser, the name of a start token is the field name of the object or array
+     */
+    @Override
+    public String currentName() {
+        if (currentToken == Token.START_OBJECT || currentToken == Token.START_ARRAY) {
+            Iterator<Frame> it = frames.iterator();
+            it.next();
+            return it.hasNext() ? it.next().fieldName : null;
+        }
+        Frame frame = frames.peek();
+        return frame == null ? null : frame.fieldName;
+    }
+
+    @Override
+    public String text() {
+        if (currentToken == null || !currentToken.isValue()) {
+            throw new IllegalStateException("Can't get text on a " + currentToken);
+        }
+        return String.valueOf(currentValue);
+    }
+
+    @Override
+    public CharBuffer charBuffer() {
+        return CharBuffer.wrap(text());
+    }
+
+    @Override
+    public Object objectText() {
+        if (currentToken == Token.VALUE_NUMBER) {
+            return numberValue();
+        }
+        if (currentToken == Token.VALUE_BOOLEAN || currentToken == Token.VALUE_NULL) {
+            return currentValue;
+        }
+        return text();
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return false;
+    }
+
+    @Override
+    public char[] textCharacters() {
+        return text().toCharArray();
+    }
+
+    @Override
+    public int textLength() {
+        return text().length();
+    }
+
+    @Override
+    public int textOffset() {
+        return 0;
+    }
+
+    @Override
+    public Number numberValue() {
+        Number number = number();
+        if (number instanceof Float) {
+            // same value as parsing the JSON text of the float
+            return Double.parseDouble(number.toString());
+        }
+        if (number instanceof Long && number.longValue() == number.intValue()) {
+            return number.intValue();
+        }
+        if (number instanceof Short || number instanceof Byte) {
+            return number.intValue();
+        }
+        return number;
+    }
+
+    @Override
+    public NumberType numberType() {
+        Number number = numberValue();
+        if (number instanceof Integer) {
+            return NumberType.INT;
+        }
+        if (number instanceof Long) {
+            return NumberType.LONG;
+        }
+        return NumberType.DOUBLE;
+    }
+
+    private Number number() {
+        if (currentToken != Token.VALUE_NUMBER) {
+            throw new IllegalStateException("Current token is not a number: " + currentToken);
+        }
+        return (Number) currentValue;
+    }
+
+    @Override
+    protected boolean doBooleanValue() {
+        if (currentToken != Token.VALUE_BOOLEAN) {
+            throw new IllegalStateException("Current token is not a boolean: " + currentToken);
+        }
+        return (Boolean) currentValue;
+    }
+
+    @Override
+    protected short doShortValue() {
+        return numberValue().shortValue();
+    }
+
+    @Override
+    protected int doIntValue() {
+        return numberValue().intValue();
+    }
+
+    @Override
+    protected long doLongValue() {
+        return numberValue().longValue();
+    }
+
+    @Override
+    protected float doFloatValue() {
+        return number().floatValue();
+    }
+
+    @Override
+    protected double doDoubleValue() {
+        return numberValue().doubleValue();
+    }
+
+    @Override
+    public byte[] binaryValue() {
+        throw new UnsupportedOperationException("MapXContentParser doesn't support binary values");
+    }
+
+    @Override
+    public XContentLocation getTokenLocation() {
+        return UNKNOWN_LOCATION;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        frames.clear();
+    }
+
+    private static final class Frame {
+
+        @Nullable
+        private final Iterator<Map.Entry<String, Object>> entries;
+        @Nullable
+        private final Iterator<?> elements;
+
+        @Nullable
+        private String fieldName;
+        @Nullable
+        private Object fieldValue;
+
+        private Frame(@Nullable Iterator<Map.Entry<String, Object>> entries, @Nullable Iterator<?> elements) {
+            this.entries = entries;
+            this.elements = elements;
+        }
+
+        static Frame forObject(Map<String, Object> map) {
+            return new Frame(map.entrySet().iterator(), null);
+        }
+
+        static Frame forArray(Iterator<?> elements) {
+            return new Frame(null, elements);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.MapXContentParser;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.DynamicTemplate.XContentFieldType;
 import org.elasticsearch.index.mapper.KeywordFieldMapper.KeywordFieldType;
@@ -40,6 +41,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.StreamSupport;
 
 /** A parser for documents, given mappings from a DocumentMapper */
@@ -62,8 +64,7 @@ final class DocumentParser {
         final ParseContext.InternalParseContext context;
         final XContentType xContentType = source.getXContentType();
 
-        try (XContentParser parser = XContentHelper.createParser(docMapperParser.getXContentRegistry(),
-            LoggingDeprecationHandler.INSTANCE, source.source(), xContentType)) {
+        try (XContentParser parser = createParser(source, xContentType)) {
             context = new ParseContext.InternalParseContext(indexSettings, docMapperParser, docMapper, source, parser);
             validateStart(parser);
             internalParseDocument(mapping, metadataFieldsMappers, context, parser);
@@ -101,6 +102,23 @@ final class DocumentParser {
         return false;
     }
 
+    private XContentParser createParser(SourceToParse source, XContentType xContentType) throws IOException {
+        Map<String, Object> sourceAsMap = source.sourceAsMap();
+        if (sourceAsMap == null) {
+            return XContentHelper.createParser(
+                docMapperParser.getXContentRegistry(),
+                LoggingDeprecationHandler.INSTANCE,
+                source.source(),
+                xContentType
+            );
+        }
+        return new MapXContentParser(
+            docMapperParser.getXContentRegistry(),
+            LoggingDeprecationHandler.INSTANCE,
+            sourceAsMap
+        );
+    }
+
     private static void internalParseDocument(Mapping mapping, MetadataFieldMapper[] metadataFieldsMappers,
                                               ParseContext.InternalParseContext context, XContentParser parser) throws IOException {
         final boolean emptyDoc = isEmptyDoc(mapping, parser);
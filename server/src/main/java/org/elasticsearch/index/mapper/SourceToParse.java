@@ -24,6 +24,7 @@ import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.XContentType;
 
+import java.util.Map;
 import java.util.Objects;
 
 public class SourceToParse {
@@ -38,12 +39,30 @@ public class SourceToParse {
 
     private final XContentType xContentType;
 
+    @Nullable
+    private final Map<String, Object> sourceAsMap;
+
     public SourceToParse(String index, String id, BytesReference source, XContentType xContentType, @Nullable String routing) {
+        this(index, id, source, null, xContentType, routing);
+    }
+
+    /**
+     * @param sourceAsMap the already generated values of the {@code source}. If provided, the document is parsed
+     *                    from the map instead of the bytes. Must only contain values supported by
+     *                    {@link org.elasticsearch.common.xcontent.support.MapXContentParser}.
+     */
+    public SourceToParse(String index,
+                         String id,
+                         BytesReference source,
+                         @Nullable Map<String, Object> sourceAsMap,
+                         XContentType xContentType,
+                         @Nullable String routing) {
         this.index = Objects.requireNonNull(index);
         this.id = Objects.requireNonNull(id);
         // we always convert back to byte array, since we store it and Field only supports bytes..
         // so, we might as well do it here, and improve the performance of working with direct byte arrays
         this.source = new BytesArray(Objects.requireNonNull(source).toBytesRef());
+        this.sourceAsMap = sourceAsMap;
         this.xContentType = Objects.requireNonNull(xContentType);
         this.routing = routing;
     }
@@ -56,6 +75,11 @@ public class SourceToParse {
         return this.source;
     }
 
+    @Nullable
+    public Map<String, Object> sourceAsMap() {
+        return this.sourceAsMap;
+    }
+
     public String index() {
         return this.index;
     }
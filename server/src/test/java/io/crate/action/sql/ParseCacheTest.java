@@ -0,0 +1,84 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.metadata.sys.StatementCacheStats;
+import io.crate.sql.parser.ParsingException;
+import io.crate.sql.tree.Statement;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParseCacheTest {
+
+    @Test
+    public void test_parse_returns_cached_statement_and_records_hits_and_misses() {
+        ParseCache parseCache = new ParseCache(1024);
+        Statement first = parseCache.parse("select 1");
+        Statement second = parseCache.parse("select 1");
+        assertThat(second, sameInstance(first));
+
+        StatementCacheStats stats = parseCache.stats();
+        assertThat(stats.name(), is("parse"));
+        assertThat(stats.entries(), is(1L));
+        assertThat(stats.hits(), is(1L));
+        assertThat(stats.misses(), is(1L));
+    }
+
+    @Test
+    public void test_statements_larger_than_a_tenth_of_the_cache_size_are_not_cached() {
+        ParseCache parseCache = new ParseCache(100);
+        String statement = "select name from users";
+        assertThat(parseCache.parse(statement), not(sameInstance(parseCache.parse(statement))));
+        assertThat(parseCache.stats().entries(), is(0L));
+    }
+
+    @Test
+    public void test_least_recently_used_statements_are_evicted() {
+        ParseCache parseCache = new ParseCache(200);
+        for (int i = 0; i < 20; i++) {
+            parseCache.parse("select " + i);
+        }
+        StatementCacheStats stats = parseCache.stats();
+        assertThat(stats.evictions() > 0, is(true));
+        assertThat(stats.entries() * "select 10".length() * Character.BYTES <= 200, is(true));
+    }
+
+    @Test
+    public void test_disabled_cache_parses_every_time() {
+        Statement first = ParseCache.DISABLED.parse("select 1");
+        assertThat(ParseCache.DISABLED.parse("select 1"), not(sameInstance(first)));
+        assertThat(ParseCache.DISABLED.stats().hits(), is(0L));
+    }
+
+    @Test
+    public void test_parse_errors_are_not_cached() {
+        ParseCache parseCache = new ParseCache(1024);
+        assertThrows(ParsingException.class, () -> parseCache.parse("selec 1"));
+        assertThat(parseCache.stats().entries(), is(0L));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.metadata.RelationName;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.parser.StatementFingerprint;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.crate.analyze.TableDefinitions.USER_TABLE_DEFINITION;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PlanCacheTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void prepare() throws IOException {
+        e = SQLExecutor.builder(clusterService)
+            .addTable(USER_TABLE_DEFINITION)
+            .addView(new RelationName("doc", "v1"), "select name from users")
+            .build();
+    }
+
+    private boolean isCacheable(String statement) {
+        AnalyzedStatement analyzedStatement = e.analyze(statement);
+        return PlanCache.isCacheable(analyzedStatement);
+    }
+
+    private PlanCache.Entry entry(String statement) {
+        return new PlanCache.Entry(
+            SqlParser.createStatement(statement),
+            e.analyze(statement),
+            new DataType[0],
+            StatementFingerprint.of(statement),
+            null);
+    }
+
+    @Test
+    public void test_select_statements_are_cacheable() {
+        assertThat(isCacheable("select name from users where id = 1"), is(true));
+        assertThat(isCacheable("select name from users where id in (select id from users)"), is(true));
+        assertThat(isCacheable("select name from users union all select name from users"), is(true));
+    }
+
+    @Test
+    public void test_write_statements_are_not_cacheable() {
+        assertThat(isCacheable("insert into users (id, name) values (1, 'Arthur')"), is(false));
+        assertThat(isCacheable("delete from users"), is(false));
+    }
+
+    @Test
+    public void test_statements_using_time_or_non_deterministic_functions_are_not_cacheable() {
+        assertThat(isCacheable("select now() from users"), is(false));
+        assertThat(isCacheable("select name, CURRENT_TIMESTAMP from users"), is(false));
+        assertThat(isCacheable("select random() from users"), is(false));
+        assertThat(isCacheable("select name from users where id in (select random() from users)"), is(false));
+    }
+
+    @Test
+    public void test_statements_mentioning_time_functions_only_in_literals_or_aliases_are_cacheable() {
+        assertThat(isCacheable("select name from users where name = 'now'"), is(true));
+        assertThat(isCacheable("select name as current_timestamp_name from users"), is(true));
+        assertThat(isCacheable("select name as \"now\" from users"), is(true));
+    }
+
+    @Test
+    public void test_statements_on_views_are_not_cacheable() {
+        assertThat(isCacheable("select name from v1"), is(false));
+        assertThat(isCacheable("select * from (select name from v1) t"), is(false));
+    }
+
+    @Test
+    public void test_cache_is_invalidated_if_metadata_changes() {
+        PlanCache planCache = new PlanCache(10);
+        String statement = "select name from users";
+        PlanCache.Key key = new PlanCache.Key(statement, List.of(), e.getSessionContext());
+        ClusterState state = clusterService.state();
+        planCache.put(key, state, entry(statement));
+        assertThat(planCache.get(key, state), notNullValue());
+
+        ClusterState newState = ClusterState.builder(state)
+            .metadata(Metadata.builder(state.metadata()).version(state.metadata().version() + 1))
+            .build();
+        assertThat(planCache.get(key, newState), nullValue());
+        assertThat(planCache.size(), is(0L));
+    }
+
+    @Test
+    public void test_entries_are_not_shared_between_different_parameter_types() {
+        PlanCache planCache = new PlanCache(10);
+        String statement = "select name from users";
+        ClusterState state = clusterService.state();
+        planCache.put(new PlanCache.Key(statement, List.of(), e.getSessionContext()), state, entry(statement));
+
+        PlanCache.Key keyWithParamTypes = new PlanCache.Key(statement, List.of(DataTypes.STRING), e.getSessionContext());
+        assertThat(planCache.get(keyWithParamTypes, state), nullValue());
+    }
+
+    @Test
+    public void test_disabled_cache_does_not_store_entries() {
+        String statement = "select name from users";
+        PlanCache.Key key = new PlanCache.Key(statement, List.of(), e.getSessionContext());
+        PlanCache.DISABLED.put(key, clusterService.state(), entry(statement));
+        assertThat(PlanCache.DISABLED.isEnabled(), is(false));
+        assertThat(PlanCache.DISABLED.get(key, clusterService.state()), nullValue());
+    }
+}
@@ -27,12 +27,15 @@ import io.crate.analyze.ParamTypeHints;
 import io.crate.analyze.Relations;
 import io.crate.analyze.TableDefinitions;
 import io.crate.auth.user.AccessControl;
+import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
+import io.crate.data.Row1;
 import io.crate.data.RowConsumer;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.ParameterSymbol;
 import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.sys.StatementCacheStats;
 import io.crate.planner.DependencyCarrier;
 import io.crate.planner.Plan;
 import io.crate.planner.Planner;
@@ -57,12 +60,14 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import static io.crate.data.SentinelRow.SENTINEL;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -134,7 +139,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             mock(DependencyCarrier.class),
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "Select 1 + ? + ?;", Collections.emptyList());
         assertThrows(
@@ -156,7 +163,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "Select 1 + ? + ?;", Collections.emptyList());
         assertThat(session.getParamType("S_1", 0), is(DataTypes.INTEGER));
@@ -169,6 +178,105 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         assertThat(session.getParamType("S_1", 1), is(DataTypes.INTEGER));
     }
 
+    @Test
+    public void test_parse_reuses_cached_analyzed_statement() {
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
+        PlanCache planCache = new PlanCache(10);
+        Session session = new Session(
+            sqlExecutor.nodeCtx,
+            sqlExecutor.analyzer,
+            sqlExecutor.planner,
+            new JobsLogs(() -> false),
+            false,
+            mock(DependencyCarrier.class),
+            AccessControl.DISABLED,
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            planCache);
+
+        session.parse("S_1", "select name from sys.cluster where name = ?", Collections.emptyList());
+        session.parse("S_2", "select name from sys.cluster where name = ?", Collections.emptyList());
+
+        assertThat(planCache.size(), is(1L));
+        assertThat(
+            session.preparedStatements.get("S_2").analyzedStatement(),
+            sameInstance(session.preparedStatements.get("S_1").analyzedStatement()));
+        assertThat(session.getParamType("S_2", 0), is(DataTypes.STRING));
+    }
+
+    @Test
+    public void test_quick_exec_keeps_parameter_types_of_cached_statement() {
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
+        PlanCache planCache = new PlanCache(10);
+        Session session = new Session(
+            sqlExecutor.nodeCtx,
+            sqlExecutor.analyzer,
+            sqlExecutor.planner,
+            new JobsLogs(() -> false),
+            false,
+            mock(DependencyCarrier.class),
+            AccessControl.DISABLED,
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            planCache);
+
+        String stmt = "select name from sys.cluster where name = ?";
+        session.parse("S_1", stmt, Collections.emptyList());
+        session.quickExec(stmt, new BaseResultReceiver(), new Row1("crate"));
+        session.parse("S_2", stmt, Collections.emptyList());
+
+        assertThat(planCache.size(), is(1L));
+        assertThat(session.getParamType("S_2", 0), is(DataTypes.STRING));
+        DescribeResult describe = session.describe('S', "S_2");
+        assertThat(describe.getParameters(), equalTo(new DataType[] { DataTypes.STRING }));
+    }
+
+    @Test
+    public void test_executing_a_prepared_statement_looks_up_the_plan_cache_once() throws Exception {
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
+        DependencyCarrier executor = mock(DependencyCarrier.class, Answers.RETURNS_MOCKS);
+        when(executor.clusterService()).thenReturn(clusterService);
+        Planner planner = mock(Planner.class);
+        when(planner.currentClusterState()).thenReturn(clusterService.state());
+        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class)))
+            .thenReturn(new Plan() {
+                            @Override
+                            public StatementType type() {
+                                return StatementType.SELECT;
+                            }
+
+                            @Override
+                            public void executeOrFail(DependencyCarrier dependencies, PlannerContext plannerContext, RowConsumer consumer, Row params, SubQueryResults subQueryResults) {
+                                consumer.accept(InMemoryBatchIterator.empty(SENTINEL), null);
+                            }
+                        }
+            );
+        PlanCache planCache = new PlanCache(10);
+        Session session = new Session(
+            sqlExecutor.nodeCtx,
+            sqlExecutor.analyzer,
+            planner,
+            new JobsLogs(() -> false),
+            false,
+            executor,
+            AccessControl.DISABLED,
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            planCache);
+
+        String stmt = "select name from sys.cluster";
+        for (int i = 1; i <= 2; i++) {
+            session.parse("S_1", stmt, List.of());
+            session.bind("P_1", "S_1", List.of(), null);
+            session.execute("P_1", 0, new BaseResultReceiver()).get(5, TimeUnit.SECONDS);
+            session.sync().get(5, TimeUnit.SECONDS);
+
+            StatementCacheStats stats = planCache.stats();
+            assertThat(stats.hits() + stats.misses(), is((long) i));
+        }
+        assertThat(planCache.stats().hits(), is(1L));
+    }
+
     @Test
     public void test_select_query_executed_on_session_execute_method() {
         SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
@@ -180,7 +288,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             mock(DependencyCarrier.class),
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext())
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED)
         );
 
         var activeExecutionFuture = CompletableFuture.completedFuture(null);
@@ -352,7 +462,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "select name from sys.cluster;", Collections.emptyList());
         session.bind("Portal", "S_1", Collections.emptyList(), null);
@@ -388,7 +500,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "select * from sys.cluster;", Collections.emptyList());
         session.bind("Portal", "S_1", Collections.emptyList(), null);
@@ -416,7 +530,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("test_prep_stmt", "select * from sys.cluster;", Collections.emptyList());
         session.bind("Portal", "test_prep_stmt", Collections.emptyList(), null);
@@ -443,7 +559,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "SELECT 1", List.of());
         session.bind("P_1", "S_1", List.of(), null);
@@ -468,7 +586,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "SELECT 1", List.of());
         session.bind("P_1", "S_1", List.of(), null);
@@ -518,7 +638,9 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "INSERT INTO t1 (x) VALUES (1)", List.of());
         session.bind("P_1", "S_1", List.of(), null);
@@ -164,6 +164,13 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(analysis.inputFormat(), is(FileUriCollectPhase.InputFormat.CSV));
     }
 
+    @Test
+    public void test_copy_from_with_columnar_format_sets_input_format_to_columnar() {
+        BoundCopyFrom analysis = analyze(
+            "COPY users FROM '/some/distant/file.ext' WITH (format='columnar')");
+        assertThat(analysis.inputFormat(), is(FileUriCollectPhase.InputFormat.COLUMNAR));
+    }
+
     @Test
     public void test_copy_from_supports_empty_string_as_null_setting_option() {
         BoundCopyFrom analysis = analyze(
@@ -191,6 +198,22 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         analyze("COPY users TO '/blah.txt'");
     }
 
+    @Test
+    public void test_copy_to_stdout_is_only_supported_by_postgres_wire_protocol() throws Exception {
+        expectedException.expect(UnsupportedOperationException.class);
+        expectedException.expectMessage(
+            "COPY TO STDOUT is only supported with the simple query protocol of the PostgreSQL wire protocol");
+        analyze("COPY users TO STDOUT");
+    }
+
+    @Test
+    public void test_copy_from_stdin_is_only_supported_by_postgres_wire_protocol() throws Exception {
+        expectedException.expect(UnsupportedOperationException.class);
+        expectedException.expectMessage(
+            "COPY FROM STDIN is only supported with the simple query protocol of the PostgreSQL wire protocol");
+        analyze("COPY users FROM STDIN");
+    }
+
     @Test
     public void testCopyToDirectory() throws Exception {
         BoundCopyTo analysis = analyze("COPY users TO DIRECTORY '/foo'");
@@ -134,6 +134,41 @@ public class WindowAggProjectionSerialisationTest {
         );
     }
 
+    @Test
+    public void test_window_agg_projection_serialization_of_source_sorted_from_4_4_0() throws IOException {
+        FunctionImplementation sumFunctionImpl = getSumFunction();
+        WindowDefinition windowDefinition = new WindowDefinition(singletonList(Literal.of(1L)), null, null);
+        WindowFunction windowFunction = new WindowFunction(
+            sumFunctionImpl.signature(),
+            singletonList(Literal.of(2L)),
+            sumFunctionImpl.boundSignature().getReturnType().createType(),
+            null,
+            windowDefinition);
+        var windowAggProjection = new WindowAggProjection(
+            windowDefinition,
+            List.of(windowFunction),
+            List.of(Literal.of(42L)),
+            true);
+
+        var output = new BytesStreamOutput();
+        output.setVersion(Version.V_4_4_0);
+        windowAggProjection.writeTo(output);
+        var input = output.bytes().streamInput();
+        input.setVersion(Version.V_4_4_0);
+        var actual = new WindowAggProjection(input);
+        assertThat(actual.sourceSorted(), is(true));
+        assertThat(actual, is(windowAggProjection));
+
+        output = new BytesStreamOutput();
+        output.setVersion(Version.V_4_3_0);
+        windowAggProjection.writeTo(output);
+        input = output.bytes().streamInput();
+        input.setVersion(Version.V_4_3_0);
+        actual = new WindowAggProjection(input);
+        assertThat(actual.sourceSorted(), is(false));
+        assertThat(actual.windowFunctions(), contains(windowFunction));
+    }
+
     private FunctionImplementation getSumFunction() {
         return functions.getQualified(
             Signature.aggregate(
@@ -0,0 +1,220 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import io.crate.breaker.RamAccounting;
+import io.crate.data.BatchIterators;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.aggregation.impl.SumAggregation;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.InputCollectExpression;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Literal;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.metadata.functions.Signature;
+import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class GroupingCollectorTest extends ESTestCase {
+
+    private final AggregationFunction<?, ?> sum = (AggregationFunction<?, ?>) createNodeContext().functions().getQualified(
+        Signature.aggregate(
+            SumAggregation.NAME,
+            DataTypes.LONG.getTypeSignature(),
+            DataTypes.LONG.getTypeSignature()
+        ),
+        List.of(DataTypes.LONG),
+        DataTypes.LONG
+    );
+
+    private static List<Row> rows(int numKeys, int numRowsPerKey) {
+        List<Row> rows = new ArrayList<>(numKeys * numRowsPerKey);
+        for (int i = 0; i < numRowsPerKey; i++) {
+            for (long key = 0; key < numKeys; key++) {
+                rows.add(new RowN(key, key * 2, (long) i));
+            }
+        }
+        return rows;
+    }
+
+    private static Map<List<Object>, Object> collect(GroupingCollector<?> collector,
+                                                     List<Row> rows,
+                                                     int numKeys) throws Exception {
+        Map<List<Object>, Object> result = new HashMap<>();
+        try {
+            Iterable<Row> groups = BatchIterators.collect(InMemoryBatchIterator.of(rows, SENTINEL, true), collector).get();
+            for (Row row : groups) {
+                List<Object> key = new ArrayList<>(numKeys);
+                for (int i = 0; i < numKeys; i++) {
+                    key.add(row.get(i));
+                }
+                assertThat("every group must be emitted exactly once", result.put(key, row.get(numKeys)), is((Object) null));
+            }
+        } finally {
+            collector.close();
+        }
+        return result;
+    }
+
+    private GroupingCollector<Object> singleKeySum(RamAccounting ramAccounting, long spillThreshold) {
+        InputCollectExpression key = new InputCollectExpression(0);
+        InputCollectExpression value = new InputCollectExpression(2);
+        return GroupingCollector.singleKey(
+            new CollectExpression[] { key, value },
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { sum },
+            new Input[][] { new Input[] { value } },
+            new Input[] { Literal.BOOLEAN_TRUE },
+            ramAccounting,
+            new OnHeapMemoryManager(ramAccounting::addBytes),
+            Version.CURRENT,
+            key,
+            DataTypes.LONG,
+            Version.CURRENT,
+            spillThreshold
+        );
+    }
+
+    private GroupingCollector<List<Object>> manyKeysSum(RamAccounting ramAccounting, long spillThreshold) {
+        InputCollectExpression key1 = new InputCollectExpression(0);
+        InputCollectExpression key2 = new InputCollectExpression(1);
+        InputCollectExpression value = new InputCollectExpression(2);
+        return GroupingCollector.manyKeys(
+            new CollectExpression[] { key1, key2, value },
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { sum },
+            new Input[][] { new Input[] { value } },
+            new Input[] { Literal.BOOLEAN_TRUE },
+            ramAccounting,
+            new OnHeapMemoryManager(ramAccounting::addBytes),
+            Version.CURRENT,
+            List.of(key1, key2),
+            List.of(DataTypes.LONG, DataTypes.LONG),
+            Version.CURRENT,
+            spillThreshold
+        );
+    }
+
+    /**
+     * Tracks the currently accounted bytes and their peak
+     */
+    private static class CountingRamAccounting implements RamAccounting {
+
+        private long usedBytes = 0;
+        private long peakBytes = 0;
+
+        @Override
+        public void addBytes(long bytes) {
+            usedBytes += bytes;
+            peakBytes = Math.max(peakBytes, usedBytes);
+        }
+
+        @Override
+        public long totalBytes() {
+            return usedBytes;
+        }
+
+        @Override
+        public void release() {
+            usedBytes = 0;
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    @Test
+    public void test_single_key_group_by_with_spilling_returns_same_result_as_in_memory() throws Exception {
+        List<Row> rows = rows(500, 4);
+        var expected = collect(singleKeySum(new CountingRamAccounting(), GroupingCollector.NO_SPILL), rows, 1);
+        var spilled = collect(singleKeySum(new CountingRamAccounting(), 1024), rows, 1);
+
+        assertThat(expected.size(), is(500));
+        assertThat(expected.get(List.of(42L)), is(6L));
+        assertThat(spilled, is(expected));
+    }
+
+    @Test
+    public void test_many_keys_group_by_with_spilling_returns_same_result_as_in_memory() throws Exception {
+        List<Row> rows = rows(500, 4);
+        var expected = collect(manyKeysSum(new CountingRamAccounting(), GroupingCollector.NO_SPILL), rows, 2);
+        var spilled = collect(manyKeysSum(new CountingRamAccounting(), 1024), rows, 2);
+
+        assertThat(expected.size(), is(500));
+        assertThat(spilled, is(expected));
+    }
+
+    @Test
+    public void test_spilled_result_can_be_iterated_more_than_once() throws Exception {
+        GroupingCollector<Object> collector = singleKeySum(new CountingRamAccounting(), 256);
+        try {
+            Iterable<Row> groups = BatchIterators.collect(
+                InMemoryBatchIterator.of(rows(100, 2), SENTINEL, true), collector).get();
+            int first = 0;
+            for (Row ignored : groups) {
+                first++;
+            }
+            int second = 0;
+            for (Row ignored : groups) {
+                second++;
+            }
+            assertThat(first, is(100));
+            assertThat(second, is(100));
+        } finally {
+            collector.close();
+        }
+    }
+
+    @Test
+    public void test_spilling_keeps_the_accounted_memory_below_the_memory_of_all_groups() throws Exception {
+        List<Row> rows = rows(500, 4);
+        CountingRamAccounting inMemoryAccounting = new CountingRamAccounting();
+        collect(singleKeySum(inMemoryAccounting, GroupingCollector.NO_SPILL), rows, 1);
+        CountingRamAccounting spillAccounting = new CountingRamAccounting();
+        collect(singleKeySum(spillAccounting, 1024), rows, 1);
+
+        assertThat(inMemoryAccounting.totalBytes(), is(inMemoryAccounting.peakBytes));
+        assertThat(inMemoryAccounting.peakBytes, greaterThan(1024L));
+        assertThat(spillAccounting.peakBytes, greaterThanOrEqualTo(1024L));
+        assertThat(spillAccounting.peakBytes, lessThan(inMemoryAccounting.peakBytes));
+    }
+}
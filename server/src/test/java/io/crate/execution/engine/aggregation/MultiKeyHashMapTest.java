@@ -0,0 +1,128 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MultiKeyHashMapTest extends ESTestCase {
+
+    private static final List<DataType<?>> TYPES = List.of(
+        DataTypes.INTEGER,
+        DataTypes.STRING,
+        DataTypes.DOUBLE,
+        DataTypes.BOOLEAN,
+        DataTypes.SHORT
+    );
+
+    @Test
+    public void test_put_and_get_keys_with_fixed_width_and_variable_width_columns() {
+        var map = new MultiKeyHashMap(TYPES);
+        Object[] states = new Object[] { 10L };
+        assertThat(map.put(Arrays.asList(1, "foo", 1.5, true, (short) 2), states), nullValue());
+
+        assertThat(map.get(Arrays.asList(1, "foo", 1.5, true, (short) 2)), is(states));
+        assertThat(map.get(Arrays.asList(1, "foo", 1.5, false, (short) 2)), nullValue());
+        assertThat(map.get(Arrays.asList(1, "bar", 1.5, true, (short) 2)), nullValue());
+        assertThat(map.size(), is(1));
+    }
+
+    @Test
+    public void test_null_values_are_distinct_from_zero_values() {
+        var map = new MultiKeyHashMap(List.of(DataTypes.LONG, DataTypes.STRING));
+        Object[] nullStates = new Object[] { 1L };
+        Object[] zeroStates = new Object[] { 2L };
+        map.put(Arrays.asList(null, null), nullStates);
+        map.put(Arrays.asList(0L, null), zeroStates);
+
+        assertThat(map.size(), is(2));
+        assertThat(map.get(Arrays.asList(null, null)), is(nullStates));
+        assertThat(map.get(Arrays.asList(0L, null)), is(zeroStates));
+    }
+
+    @Test
+    public void test_put_replaces_value_of_existing_key() {
+        var map = new MultiKeyHashMap(List.of(DataTypes.INTEGER, DataTypes.INTEGER));
+        Object[] first = new Object[] { 1L };
+        Object[] second = new Object[] { 2L };
+        map.put(List.of(1, 2), first);
+        assertThat(map.put(List.of(1, 2), second), is(first));
+        assertThat(map.size(), is(1));
+        assertThat(map.get(List.of(1, 2)), is(second));
+    }
+
+    @Test
+    public void test_entry_keys_are_decoded_to_the_values_of_the_key_types() {
+        var map = new MultiKeyHashMap(TYPES);
+        map.put(Arrays.asList(1, "foo", 1.5, true, (short) 2), new Object[0]);
+
+        List<Object> key = map.entrySet().iterator().next().getKey();
+        assertThat(key, contains(1, "foo", 1.5, true, (short) 2));
+        assertThat(key.get(4), instanceOf(Short.class));
+    }
+
+    @Test
+    public void test_keys_are_not_retained() {
+        var map = new MultiKeyHashMap(List.of(DataTypes.LONG, DataTypes.LONG));
+        List<Object> key = new ArrayList<>(List.of(1L, 2L));
+        map.put(key, new Object[0]);
+        key.set(0, 3L);
+
+        assertThat(map.get(List.of(1L, 2L)), is(new Object[0]));
+        assertThat(map.get(key), nullValue());
+    }
+
+    @Test
+    public void test_map_behaves_like_hash_map_with_many_keys() {
+        var map = new MultiKeyHashMap(List.of(DataTypes.LONG, DataTypes.STRING, DataTypes.FLOAT));
+        Map<List<Object>, Object[]> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            List<Object> key = Arrays.asList(
+                randomBoolean() ? null : (long) randomIntBetween(0, 50),
+                randomBoolean() ? null : randomFrom("a", "b", "c"),
+                randomBoolean() ? null : (float) randomIntBetween(0, 10)
+            );
+            Object[] value = new Object[] { i };
+            assertThat(map.put(key, value), is(expected.put(key, value)));
+        }
+        assertThat(map.size(), is(expected.size()));
+        assertThat(new HashMap<>(map), is(expected));
+
+        map.clear();
+        assertThat(map.size(), is(0));
+        assertThat(map.entrySet().iterator().hasNext(), is(false));
+    }
+}
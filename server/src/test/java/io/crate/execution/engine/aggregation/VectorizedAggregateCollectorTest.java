@@ -0,0 +1,245 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import io.crate.breaker.RamAccounting;
+import io.crate.common.MutableLong;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.aggregation.impl.AverageAggregation;
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.aggregation.impl.MaximumAggregation;
+import io.crate.execution.engine.aggregation.impl.MinimumAggregation;
+import io.crate.execution.engine.aggregation.impl.SumAggregation;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.OrOperator;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Functions;
+import io.crate.metadata.functions.Signature;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VectorizedAggregateCollectorTest extends ESTestCase {
+
+    private final Functions functions = createNodeContext().functions();
+    private final InputColumn longColumn = new InputColumn(0, DataTypes.LONG);
+    private final InputColumn doubleColumn = new InputColumn(1, DataTypes.DOUBLE);
+    private final InputColumn intColumn = new InputColumn(2, DataTypes.INTEGER);
+
+    private final List<Row> rows = List.of(
+        new RowN(1L, 1.5, 10),
+        new RowN(2L, null, 20),
+        new RowN(null, 3.5, null),
+        new RowN(4L, -2.0, 5),
+        new RowN(5L, 0.5, 30),
+        new RowN(null, null, null),
+        new RowN(7L, 2.0, 1)
+    );
+
+    private Aggregation aggregation(String name, DataType<?> returnType, List<Symbol> inputs, Symbol filter) {
+        Signature signature;
+        if (name.equals(CountAggregation.NAME)) {
+            signature = inputs.isEmpty() ? CountAggregation.COUNT_STAR_SIGNATURE : CountAggregation.SIGNATURE;
+        } else {
+            signature = Signature.aggregate(
+                name,
+                inputs.get(0).valueType().getTypeSignature(),
+                returnType.getTypeSignature()
+            );
+        }
+        List<DataType<?>> argTypes = new ArrayList<>();
+        for (Symbol input : inputs) {
+            argTypes.add(input.valueType());
+        }
+        return new Aggregation(
+            signature,
+            FunctionInfo.of(signature, argTypes, returnType),
+            returnType,
+            returnType,
+            inputs,
+            filter
+        );
+    }
+
+    private Aggregation aggregation(String name, DataType<?> returnType, List<Symbol> inputs) {
+        return aggregation(name, returnType, inputs, Literal.BOOLEAN_TRUE);
+    }
+
+    private VectorizedAggregateCollector collector(AggregateMode mode, Aggregation... aggregations) {
+        AggregationFunction[] impls = new AggregationFunction[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            Aggregation aggregation = aggregations[i];
+            List<DataType<?>> argTypes = new ArrayList<>();
+            for (Symbol input : aggregation.inputs()) {
+                argTypes.add(input.valueType());
+            }
+            impls[i] = (AggregationFunction) functions.getQualified(
+                aggregation.signature(),
+                argTypes,
+                aggregation.boundSignatureReturnType()
+            );
+        }
+        // small batches to exercise aggregating multiple batches
+        return VectorizedAggregateCollector.tryCreate(mode, List.of(aggregations), impls, RamAccounting.NO_ACCOUNTING, 3);
+    }
+
+    private static Object[] collect(VectorizedAggregateCollector collector, List<Row> rows) {
+        VectorizedAggregateCollector.State state = collector.supplier().get();
+        BiConsumer<VectorizedAggregateCollector.State, Row> accumulator = collector.accumulator();
+        for (Row row : rows) {
+            accumulator.accept(state, row);
+        }
+        return collector.finisher().apply(state).iterator().next().materialize();
+    }
+
+    private static Function gt(Symbol column, Object value) {
+        Signature signature = Signature.scalar(
+            GtOperator.NAME,
+            column.valueType().getTypeSignature(),
+            column.valueType().getTypeSignature(),
+            DataTypes.BOOLEAN.getTypeSignature()
+        );
+        return new Function(signature, List.of(column, Literal.ofUnchecked(column.valueType(), value)), DataTypes.BOOLEAN);
+    }
+
+    @Test
+    public void test_aggregations_on_long_and_double_columns_with_nulls() {
+        var collector = collector(
+            AggregateMode.ITER_FINAL,
+            aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn)),
+            aggregation(SumAggregation.NAME, DataTypes.DOUBLE, List.of(doubleColumn)),
+            aggregation(CountAggregation.NAME, DataTypes.LONG, List.of()),
+            aggregation(CountAggregation.NAME, DataTypes.LONG, List.of(doubleColumn)),
+            aggregation(MinimumAggregation.NAME, DataTypes.INTEGER, List.of(intColumn)),
+            aggregation(MaximumAggregation.NAME, DataTypes.DOUBLE, List.of(doubleColumn)),
+            aggregation(AverageAggregation.NAME, DataTypes.DOUBLE, List.of(longColumn))
+        );
+        assertThat(collector, instanceOf(VectorizedAggregateCollector.class));
+
+        Object[] result = collect(collector, rows);
+        assertThat(result[0], is(19L));
+        assertThat(result[1], is(5.5));
+        assertThat(result[2], is(7L));
+        assertThat(result[3], is(5L));
+        assertThat(result[4], is(1));
+        assertThat(result[5], is(3.5));
+        assertThat(result[6], is(3.8));
+    }
+
+    @Test
+    public void test_filters_are_applied_per_aggregation() {
+        var collector = collector(
+            AggregateMode.ITER_FINAL,
+            aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn), gt(longColumn, 2L)),
+            aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn)),
+            aggregation(CountAggregation.NAME, DataTypes.LONG, List.of(), gt(doubleColumn, 1.0))
+        );
+        Object[] result = collect(collector, rows);
+        assertThat(result[0], is(16L));
+        assertThat(result[1], is(19L));
+        assertThat(result[2], is(3L));
+    }
+
+    @Test
+    public void test_aggregations_without_rows_return_initial_values() {
+        var collector = collector(
+            AggregateMode.ITER_FINAL,
+            aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn)),
+            aggregation(CountAggregation.NAME, DataTypes.LONG, List.of()),
+            aggregation(MinimumAggregation.NAME, DataTypes.DOUBLE, List.of(doubleColumn))
+        );
+        Object[] result = collect(collector, List.of());
+        assertThat(result[0], nullValue());
+        assertThat(result[1], is(0L));
+        assertThat(result[2], nullValue());
+    }
+
+    @Test
+    public void test_iter_partial_returns_partial_states() {
+        var collector = collector(
+            AggregateMode.ITER_PARTIAL,
+            aggregation(CountAggregation.NAME, DataTypes.LONG, List.of(longColumn)),
+            aggregation(AverageAggregation.NAME, DataTypes.DOUBLE, List.of(intColumn))
+        );
+        Object[] result = collect(collector, rows);
+        assertThat(result[0], instanceOf(MutableLong.class));
+        assertThat(((MutableLong) result[0]).value(), is(5L));
+        assertThat(result[1], instanceOf(AverageAggregation.AverageState.class));
+        assertThat(((AverageAggregation.AverageState) result[1]).count, is(5L));
+    }
+
+    @Test
+    public void test_sum_of_long_column_fails_on_overflow() {
+        var collector = collector(
+            AggregateMode.ITER_FINAL,
+            aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn))
+        );
+        expectThrows(
+            ArithmeticException.class,
+            () -> collect(collector, List.of(new RowN(Long.MAX_VALUE, null, null), new RowN(1L, null, null)))
+        );
+    }
+
+    @Test
+    public void test_cannot_vectorize_unsupported_inputs_filters_or_modes() {
+        InputColumn stringColumn = new InputColumn(3, DataTypes.STRING);
+        assertThat(
+            collector(AggregateMode.ITER_FINAL, aggregation(CountAggregation.NAME, DataTypes.LONG, List.of(stringColumn))),
+            nullValue()
+        );
+
+        Signature orSignature = Signature.scalar(
+            OrOperator.NAME,
+            DataTypes.BOOLEAN.getTypeSignature(),
+            DataTypes.BOOLEAN.getTypeSignature(),
+            DataTypes.BOOLEAN.getTypeSignature()
+        );
+        Function or = new Function(orSignature, List.of(gt(longColumn, 1L), gt(longColumn, 3L)), DataTypes.BOOLEAN);
+        assertThat(
+            collector(AggregateMode.ITER_FINAL, aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn), or)),
+            nullValue()
+        );
+
+        assertThat(
+            collector(AggregateMode.PARTIAL_FINAL, aggregation(SumAggregation.NAME, DataTypes.LONG, List.of(longColumn))),
+            nullValue()
+        );
+    }
+}
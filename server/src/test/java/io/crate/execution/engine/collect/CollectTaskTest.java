@@ -98,7 +98,8 @@ public class CollectTaskTest extends ESTestCase {
             consumer,
             mock(SharedShardContexts.class),
             Version.CURRENT,
-            4096
+            4096,
+            null
         );
     }
 
@@ -46,6 +46,7 @@ import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
@@ -55,8 +56,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -64,6 +69,7 @@ import java.util.function.Consumer;
 import static io.crate.testing.TestingHelpers.createNodeContext;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 
 public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServiceUnitTest {
 
@@ -115,7 +121,7 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
 
         var keyExpressions = List.of(new LongColumnReference("y"));
         var it = DocValuesGroupByOptimizedIterator.GroupByIterator.forSingleKey(
-            List.of(sumDocValuesAggregator),
+            () -> List.of(sumDocValuesAggregator),
             indexSearcher,
             new Reference(
                 new ReferenceIdent(RelationName.fromIndexName("test"), "y"),
@@ -124,10 +130,12 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
                 null,
                 null
             ),
-            keyExpressions,
-            RamAccounting.NO_ACCOUNTING,
+            () -> keyExpressions,
+            () -> RamAccounting.NO_ACCOUNTING,
             new MatchAllDocsQuery(),
-            new CollectorContext()
+            new CollectorContext(),
+            Runnable::run,
+            () -> 1
         );
 
         var rowConsumer = new TestingRowConsumer();
@@ -174,13 +182,15 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
         );
 
         var it = DocValuesGroupByOptimizedIterator.GroupByIterator.forManyKeys(
-            List.of(sumDocValuesAggregator),
+            () -> List.of(sumDocValuesAggregator),
             indexSearcher,
             keyRefs,
-            keyExpressions,
-            RamAccounting.NO_ACCOUNTING,
+            () -> keyExpressions,
+            () -> RamAccounting.NO_ACCOUNTING,
             new MatchAllDocsQuery(),
-            new CollectorContext()
+            new CollectorContext(),
+            Runnable::run,
+            () -> 1
         );
 
         var rowConsumer = new TestingRowConsumer();
@@ -192,6 +202,65 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
         );
     }
 
+    @Test
+    public void test_group_by_collects_slices_of_the_segments_concurrently() throws Exception {
+        var indexWriter = new IndexWriter(
+            new ByteBuffersDirectory(),
+            new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE)
+        );
+        for (var row : rows) {
+            Document doc = new Document();
+            doc.add(new NumericDocValuesField("y", (Long) row[1]));
+            doc.add(new NumericDocValuesField("z", (Long) row[2]));
+            indexWriter.addDocument(doc);
+            indexWriter.commit();
+        }
+        var searcher = new IndexSearcher(DirectoryReader.open(indexWriter));
+        assertThat(searcher.getIndexReader().leaves().size(), is(4));
+
+        SumAggregation<?> sumAggregation = (SumAggregation<?>) functions.getQualified(
+            Signature.aggregate(
+                SumAggregation.NAME,
+                DataTypes.LONG.getTypeSignature(),
+                DataTypes.LONG.getTypeSignature()
+            ),
+            List.of(DataTypes.LONG),
+            DataTypes.LONG
+        );
+        var aggregationField = new NumberFieldMapper.NumberFieldType(NumberFieldMapper.NumberType.LONG);
+        aggregationField.setName("z");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BatchIterator<Row> it = DocValuesGroupByOptimizedIterator.GroupByIterator.<Long>getIterator(
+                () -> List.of(sumAggregation.getDocValueAggregator(List.of(DataTypes.LONG), List.of(aggregationField))),
+                searcher,
+                () -> List.of(new LongColumnReference("y")),
+                () -> RamAccounting.NO_ACCOUNTING,
+                ramAccounting -> (states, key) -> {
+                },
+                (expressions) -> (Long) expressions.get(0).value(),
+                (key, cells) -> cells[0] = key,
+                new MatchAllDocsQuery(),
+                new CollectorContext(),
+                executor,
+                () -> 2,
+                1
+            );
+            var rowConsumer = new TestingRowConsumer();
+            rowConsumer.accept(it, null);
+
+            // Every slice emits its own partial results, they're merged in the reduce step
+            Map<Object, Long> sumByKey = new HashMap<>();
+            for (Object[] row : rowConsumer.getResult()) {
+                sumByKey.merge(row[0], (Long) row[1], Long::sum);
+            }
+            assertThat(sumByKey, is(Map.of(0L, 6L, 1L, 4L)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void test_optimized_iterator_stop_processing_on_kill() throws Exception {
         Throwable expectedException = stopOnInterrupting(it -> it.kill(new InterruptedException("killed")));
@@ -240,9 +309,9 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
 
     private BatchIterator<Row> createBatchIterator(Runnable onNextReader) {
         return DocValuesGroupByOptimizedIterator.GroupByIterator.getIterator(
-            List.of(),
+            List::of,
             indexSearcher,
-            List.of(new LuceneCollectorExpression<>() {
+            () -> List.of(new LuceneCollectorExpression<>() {
 
                 @Override
                 public void setNextReader(ReaderContext context) throws IOException {
@@ -254,13 +323,16 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
                     return null;
                 }
             }),
-            RamAccounting.NO_ACCOUNTING,
-            (states, key) -> {
+            () -> RamAccounting.NO_ACCOUNTING,
+            ramAccounting -> (states, key) -> {
             },
             (expressions) -> expressions.get(0).value(),
             (key, cells) -> cells[0] = key,
             new MatchAllDocsQuery(),
-            new CollectorContext()
+            new CollectorContext(),
+            Runnable::run,
+            () -> 1,
+            LeafSlices.MIN_DOCS_PER_SLICE
         );
     }
 }
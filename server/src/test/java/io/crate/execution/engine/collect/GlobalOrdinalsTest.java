@@ -0,0 +1,66 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+public class GlobalOrdinalsTest extends ESTestCase {
+
+    @Test
+    public void test_ordinal_map_is_cached_until_the_reader_is_closed() throws Exception {
+        try (var writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (String value : new String[] {"b", "a", "b", "c"}) {
+                Document doc = new Document();
+                doc.add(new SortedSetDocValuesField("x", new BytesRef(value)));
+                writer.addDocument(doc);
+                writer.commit();
+            }
+            DirectoryReader reader = DirectoryReader.open(writer);
+            OrdinalMap ordinalMap = GlobalOrdinals.get(reader, "x");
+            assertThat(ordinalMap.getValueCount(), is(3L));
+            assertThat(GlobalOrdinals.get(reader, "x"), sameInstance(ordinalMap));
+            assertThat(GlobalOrdinals.ORDINAL_MAPS.containsKey(reader.getReaderCacheHelper().getKey()), is(true));
+
+            // "b" is in the first and third segment
+            assertThat(ordinalMap.getGlobalOrds(0).get(0), is(1L));
+            assertThat(ordinalMap.getGlobalOrds(2).get(0), is(1L));
+
+            var cacheKey = reader.getReaderCacheHelper().getKey();
+            reader.close();
+            assertThat(GlobalOrdinals.ORDINAL_MAPS.containsKey(cacheKey), is(false));
+        }
+    }
+}
@@ -36,6 +36,7 @@ import io.crate.memory.OnHeapMemoryManager;
 import io.crate.metadata.NodeContext;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.TestingRowConsumer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -43,6 +44,7 @@ import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
@@ -64,6 +66,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 
@@ -193,6 +196,38 @@ public class GroupByOptimizedIteratorTest extends CrateDummyClusterServiceUnitTe
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
 
+    @Test
+    public void test_optimized_iterator_merges_keys_of_all_segments_using_global_ordinals() throws Exception {
+        IndexWriter iw = new IndexWriter(
+            new ByteBuffersDirectory(),
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE)
+        );
+        for (String[] segment : new String[][] {{"b", "a"}, {"c", null}, {"a", "c", "b"}, {null}}) {
+            for (String value : segment) {
+                Document doc = new Document();
+                if (value != null) {
+                    doc.add(new SortedSetDocValuesField(columnName, new BytesRef(value)));
+                }
+                iw.addDocument(doc);
+            }
+            iw.commit();
+        }
+        indexSearcher = new IndexSearcher(DirectoryReader.open(iw));
+        assertThat(indexSearcher.getIndexReader().leaves().size(), is(4));
+
+        var rowConsumer = new TestingRowConsumer();
+        rowConsumer.accept(createBatchIterator(() -> {}), null);
+        assertThat(
+            rowConsumer.getResult(),
+            contains(
+                new Object[] {"a", 2L},
+                new Object[] {"b", 2L},
+                new Object[] {"c", 2L},
+                new Object[] {null, 2L}
+            )
+        );
+    }
+
     @Test
     public void test_optimized_iterator_stop_processing_on_kill() throws Exception {
         Throwable expectedException = stopOnInterrupting(it -> it.kill(new InterruptedException("killed")));
@@ -0,0 +1,157 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class LeafSlicesTest extends ESTestCase {
+
+    private DirectoryReader reader;
+
+    @Before
+    public void createSegments() throws IOException {
+        var indexWriter = new IndexWriter(
+            new ByteBuffersDirectory(),
+            new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE)
+        );
+        // segments with 4, 3, 2 and 1 documents
+        for (int numDocs = 4; numDocs > 0; numDocs--) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                doc.add(new NumericDocValuesField("x", numDocs));
+                indexWriter.addDocument(doc);
+            }
+            indexWriter.commit();
+        }
+        reader = DirectoryReader.open(indexWriter);
+        indexWriter.close();
+    }
+
+    @After
+    public void closeReader() throws IOException {
+        reader.close();
+    }
+
+    private static List<Integer> docsPerSlice(List<List<LeafReaderContext>> slices) {
+        ArrayList<Integer> docsPerSlice = new ArrayList<>();
+        for (List<LeafReaderContext> slice : slices) {
+            int docs = 0;
+            for (LeafReaderContext leaf : slice) {
+                docs += leaf.reader().maxDoc();
+            }
+            docsPerSlice.add(docs);
+        }
+        return docsPerSlice;
+    }
+
+    @Test
+    public void test_leaves_are_distributed_evenly_over_the_slices() {
+        List<LeafReaderContext> leaves = reader.leaves();
+        assertThat(leaves.size(), is(4));
+
+        assertThat(docsPerSlice(LeafSlices.slice(leaves, 2, 1)), containsInAnyOrder(5, 5));
+        assertThat(docsPerSlice(LeafSlices.slice(leaves, 3, 1)), containsInAnyOrder(4, 3, 3));
+        assertThat(docsPerSlice(LeafSlices.slice(leaves, 8, 1)), containsInAnyOrder(4, 3, 2, 1));
+    }
+
+    @Test
+    public void test_single_slice_if_one_thread_is_available_or_there_are_too_few_documents() {
+        List<LeafReaderContext> leaves = reader.leaves();
+        assertThat(LeafSlices.slice(leaves, 1, 1).size(), is(1));
+        assertThat(LeafSlices.slice(leaves, 4, 5).size(), is(2));
+        assertThat(LeafSlices.slice(leaves, 4, LeafSlices.MIN_DOCS_PER_SLICE).size(), is(1));
+    }
+
+    @Test
+    public void test_collect_returns_the_results_of_all_slices() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Integer> docsPerSlice = LeafSlices.collect(
+                reader.leaves(),
+                executor,
+                () -> 2,
+                1,
+                slice -> {
+                    int docs = 0;
+                    for (LeafReaderContext leaf : slice) {
+                        docs += leaf.reader().maxDoc();
+                    }
+                    return docs;
+                }
+            ).get();
+            assertThat(docsPerSlice, containsInAnyOrder(5, 5));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_collect_fails_if_a_slice_fails() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var result = LeafSlices.collect(
+                reader.leaves(),
+                executor,
+                () -> 2,
+                1,
+                slice -> {
+                    throw new IOException("failed to read segment");
+                }
+            );
+            Exception e = expectThrows(Exception.class, result::get);
+            assertThat(e.getCause().getMessage(), is("failed to read segment"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_reuse_first_hands_out_the_first_instance_only_once() {
+        Object first = new Object();
+        var instances = LeafSlices.reuseFirst(first, Object::new);
+        assertThat(instances.get(), sameInstance(first));
+        assertThat(instances.get(), not(sameInstance(first)));
+    }
+}
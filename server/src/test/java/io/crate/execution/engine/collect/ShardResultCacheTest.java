@@ -0,0 +1,187 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.collect;
+
+import io.crate.Streamer;
+import io.crate.analyze.WhereClause;
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.SentinelRow;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.FilterProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.execution.engine.distribution.StreamBucket;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.Scalar;
+import io.crate.metadata.functions.Signature;
+import io.crate.planner.distribution.DistributionInfo;
+import io.crate.testing.TestingRowConsumer;
+import io.crate.types.DataTypes;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ShardResultCacheTest extends ESTestCase {
+
+    private static final List<Projection> GROUP_BY_KEY = List.of(new GroupProjection(
+        List.of(new InputColumn(0, DataTypes.STRING)),
+        List.of(),
+        AggregateMode.ITER_FINAL,
+        RowGranularity.SHARD
+    ));
+
+    private final ShardResultCache.Stats stats = new ShardResultCache.Stats();
+    private ShardResultCache cache;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+
+    @Before
+    public void setupCacheAndReader() throws Exception {
+        cache = ShardResultCache.create(1024 * 1024, new NoopCircuitBreaker("dummy"));
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig());
+        writer.addDocument(new Document());
+        writer.commit();
+        reader = DirectoryReader.open(writer);
+    }
+
+    @After
+    public void closeReader() throws Exception {
+        reader.close();
+        writer.close();
+    }
+
+    private static RoutedCollectPhase collectPhase(List<Symbol> toCollect) {
+        return new RoutedCollectPhase(
+            UUID.randomUUID(),
+            1,
+            "collect",
+            new Routing(Map.of()),
+            RowGranularity.DOC,
+            toCollect,
+            GROUP_BY_KEY,
+            WhereClause.MATCH_ALL.queryOrFallback(),
+            DistributionInfo.DEFAULT_BROADCAST
+        );
+    }
+
+    private ShardResultCache.Key key(DirectoryReader reader) throws Exception {
+        return cache.key(
+            stats,
+            reader,
+            collectPhase(List.of(Literal.of("x"))),
+            GROUP_BY_KEY,
+            CoordinatorTxnCtx.systemTransactionContext().sessionSettings()
+        );
+    }
+
+    private void consume(ShardResultCache.Key key, List<Row> rows) throws Exception {
+        BatchIterator<Row> it = cache.cacheResult(
+            key,
+            InMemoryBatchIterator.of(rows, SentinelRow.SENTINEL, false),
+            new Streamer[] { DataTypes.STRING.streamer() }
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(it, null);
+        consumer.getResult();
+    }
+
+    @Test
+    public void test_only_deterministic_aggregating_phases_are_cacheable() {
+        assertThat(ShardResultCache.isCacheable(collectPhase(List.of(Literal.of("x"))), GROUP_BY_KEY), is(true));
+        assertThat(ShardResultCache.isCacheable(collectPhase(List.of(Literal.of("x"))), List.of()), is(false));
+        List<Projection> filter = List.of(
+            new FilterProjection(Literal.BOOLEAN_TRUE, List.of(new InputColumn(0, DataTypes.STRING))));
+        assertThat(ShardResultCache.isCacheable(collectPhase(List.of(Literal.of("x"))), filter), is(false));
+
+        Function random = new Function(
+            Signature.scalar("random", DataTypes.DOUBLE.getTypeSignature()).withFeatures(Scalar.NO_FEATURES),
+            List.of(),
+            DataTypes.DOUBLE
+        );
+        assertThat(ShardResultCache.isCacheable(collectPhase(List.of(random)), GROUP_BY_KEY), is(false));
+    }
+
+    @Test
+    public void test_result_is_cached_once_all_rows_are_consumed() throws Exception {
+        ShardResultCache.Key key = key(reader);
+        assertThat(cache.get(key), nullValue());
+
+        consume(key, List.of(new Row1("a"), new Row1("b")));
+
+        StreamBucket cachedResult = cache.get(key(reader));
+        assertThat(printedTable(cachedResult), is("a\nb\n"));
+        assertThat(stats.hits(), is(1L));
+        assertThat(stats.misses(), is(1L));
+        assertThat(stats.sizeInBytes() > 0, is(true));
+    }
+
+    @Test
+    public void test_result_of_changed_reader_is_not_returned() throws Exception {
+        consume(key(reader), List.of(new Row1("a")));
+
+        writer.addDocument(new Document());
+        DirectoryReader newReader = DirectoryReader.openIfChanged(reader, writer);
+        try {
+            assertThat(cache.get(key(newReader)), nullValue());
+        } finally {
+            newReader.close();
+        }
+    }
+
+    @Test
+    public void test_entries_are_removed_once_the_reader_is_closed() throws Exception {
+        ShardResultCache.Key key = key(reader);
+        consume(key, List.of(new Row1("a")));
+        assertThat(stats.sizeInBytes() > 0, is(true));
+
+        reader.close();
+
+        assertThat(cache.get(key), nullValue());
+        assertThat(stats.sizeInBytes(), is(0L));
+    }
+}
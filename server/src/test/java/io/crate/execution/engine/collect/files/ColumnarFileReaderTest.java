@@ -0,0 +1,109 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.types.DataTypes;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class ColumnarFileReaderTest extends ESTestCase {
+
+    private static byte[] writeRows(int numRows, int rowGroupSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(
+                out,
+                List.of("id", "name", "tags"),
+                List.of(DataTypes.INTEGER, DataTypes.STRING, DataTypes.STRING_ARRAY),
+                rowGroupSize)) {
+            for (int i = 0; i < numRows; i++) {
+                writer.write(new Object[]{i, "name-" + i, List.of("a", "b")});
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Map<String, Object>> readRows(byte[] file, Set<String> requiredColumns) throws IOException {
+        ArrayList<Map<String, Object>> rows = new ArrayList<>();
+        try (ColumnarFileReader reader = ColumnarFileReader.open(new ByteArrayInputStream(file), requiredColumns)) {
+            Map<String, Object> row;
+            while ((row = reader.nextRow()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void test_reads_all_columns_of_all_row_groups_in_order() throws Exception {
+        byte[] file = writeRows(5, 2);
+
+        try (ColumnarFileReader reader = ColumnarFileReader.open(new ByteArrayInputStream(file), null)) {
+            assertThat(reader.readsAllColumns(), is(true));
+        }
+        List<Map<String, Object>> rows = readRows(file, null);
+        assertThat(rows.size(), is(5));
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(rows.get(i), is(Map.of("id", i, "name", "name-" + i, "tags", List.of("a", "b"))));
+        }
+    }
+
+    @Test
+    public void test_only_decodes_the_required_columns() throws Exception {
+        byte[] file = writeRows(3, 2);
+
+        try (ColumnarFileReader reader = ColumnarFileReader.open(new ByteArrayInputStream(file), Set.of("name"))) {
+            assertThat(reader.readsAllColumns(), is(false));
+        }
+        List<Map<String, Object>> rows = readRows(file, Set.of("name"));
+        assertThat(rows, contains(Map.of("name", "name-0"), Map.of("name", "name-1"), Map.of("name", "name-2")));
+    }
+
+    @Test
+    public void test_file_without_rows_has_no_rows() throws Exception {
+        byte[] file = writeRows(0, 10);
+
+        assertThat(readRows(file, null).size(), is(0));
+    }
+
+    @Test
+    public void test_reading_a_file_of_another_format_fails() throws Exception {
+        byte[] file = "{\"id\": 1}\n".getBytes(StandardCharsets.UTF_8);
+
+        IOException e = expectThrows(
+            IOException.class,
+            () -> ColumnarFileReader.open(new ByteArrayInputStream(file), null));
+        assertThat(e.getMessage(), containsString("Invalid columnar file"));
+    }
+}
@@ -44,6 +44,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
@@ -52,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
+import static io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat.COLUMNAR;
 import static io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat.CSV;
 import static io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat.JSON;
 import static io.crate.testing.TestingHelpers.createReference;
@@ -160,13 +162,67 @@ public class FileReadingIteratorTest extends ESTestCase {
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
 
+    @Test
+    public void test_columnar_input_format_serializes_decoded_rows_as_raw_source() throws Exception {
+        fileUri = writeColumnarFile();
+
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> createBatchIterator(
+            Collections.singletonList(fileUri), COLUMNAR
+        );
+
+        List<Object[]> expectedResult = Arrays.asList(
+            new Object[]{"{\"name\":\"Arthur\",\"id\":4}"},
+            new Object[]{"{\"name\":\"Trillian\",\"id\":5}"},
+            new Object[]{"{\"name\":\"Marvin\",\"id\":null}"});
+        BatchIteratorTester tester = new BatchIteratorTester(batchIteratorSupplier);
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_columnar_input_format_extracts_typed_column_values() throws Exception {
+        fileUri = writeColumnarFile();
+
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> createBatchIterator(
+            Collections.singletonList(fileUri),
+            COLUMNAR,
+            List.of(createReference("id", DataTypes.LONG))
+        );
+
+        List<Object[]> expectedResult = Arrays.asList(
+            new Object[]{4L},
+            new Object[]{5L},
+            new Object[]{null});
+        BatchIteratorTester tester = new BatchIteratorTester(batchIteratorSupplier);
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    private String writeColumnarFile() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".any-suffix");
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(
+                Files.newOutputStream(tempFilePath),
+                List.of("name", "id"),
+                List.of(DataTypes.STRING, DataTypes.LONG),
+                2)) {
+            writer.write(new Object[]{"Arthur", 4L});
+            writer.write(new Object[]{"Trillian", 5L});
+            writer.write(new Object[]{"Marvin", null});
+        }
+        return tempFilePath.toUri().toString();
+    }
+
     private BatchIterator<Row> createBatchIterator(Collection<String> fileUris,
                                                    FileUriCollectPhase.InputFormat format) {
-        Reference raw = createReference("_raw", DataTypes.STRING);
+        return createBatchIterator(fileUris, format, List.of(createReference("_raw", DataTypes.STRING)));
+    }
+
+    private BatchIterator<Row> createBatchIterator(Collection<String> fileUris,
+                                                   FileUriCollectPhase.InputFormat format,
+                                                   List<Reference> toCollect) {
         InputFactory.Context<LineCollectorExpression<?>> ctx =
             inputFactory.ctxForRefs(txnCtx, FileLineReferenceResolver::getImplementation);
 
-        List<Input<?>> inputs = Collections.singletonList(ctx.add(raw));
+        ctx.add(toCollect);
+        List<Input<?>> inputs = ctx.topLevelInputs();
         return FileReadingIterator.newInstance(
             fileUris,
             inputs,
@@ -30,6 +30,8 @@ import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
 import io.crate.execution.jobs.CumulativePageBucketReceiver;
 import io.crate.execution.jobs.DistResultRXTask;
 import io.crate.execution.jobs.PageBucketReceiver;
+import io.crate.profile.OperatorStats;
+import io.crate.profile.ProfilingContext;
 import org.elasticsearch.test.ESTestCase;
 import io.crate.testing.BatchSimulatingIterator;
 import io.crate.testing.FailingBatchIterator;
@@ -45,8 +47,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
@@ -109,6 +113,28 @@ public class DistributingConsumerTest extends ESTestCase {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_bytes_of_the_sent_buckets_are_recorded_if_profiled() throws Exception {
+        Streamer<?>[] streamers = {DataTypes.INTEGER.streamer()};
+        TestingRowConsumer collectingConsumer = new TestingRowConsumer();
+        DistResultRXTask distResultRXTask = createPageDownstreamContext(streamers, collectingConsumer);
+        TransportDistributedResultAction distributedResultAction = createFakeTransport(streamers, distResultRXTask);
+        OperatorStats stats = new OperatorStats("OUTPUT");
+        DistributingConsumer distributingConsumer =
+            createDistributingConsumer(streamers, distributedResultAction, stats);
+
+        distributingConsumer.accept(TestingBatchIterators.range(0, 5), null);
+        assertThat(collectingConsumer.getResult().size(), is(5));
+
+        ProfilingContext profilingContext = new ProfilingContext(List.of());
+        profilingContext.addOperatorStats("1-collect", stats);
+        var operatorsByPhase = (Map<String, Object>) profilingContext.getDurationInMSByTimer().get(ProfilingContext.OPERATORS);
+        var operator = ((List<Map<String, Object>>) operatorsByPhase.get("1-collect")).get(0);
+        // each integer is streamed as a boolean null marker followed by the int
+        assertThat(operator.get("BytesSent"), is(5L * (1 + 4)));
+    }
+
     @Test
     public void testDistributingConsumerForwardsFailure() throws Exception {
         Streamer<?>[] streamers = { DataTypes.INTEGER.streamer() };
@@ -164,6 +190,12 @@ public class DistributingConsumerTest extends ESTestCase {
     }
 
     private DistributingConsumer createDistributingConsumer(Streamer<?>[] streamers, TransportDistributedResultAction distributedResultAction) {
+        return createDistributingConsumer(streamers, distributedResultAction, null);
+    }
+
+    private DistributingConsumer createDistributingConsumer(Streamer<?>[] streamers,
+                                                            TransportDistributedResultAction distributedResultAction,
+                                                            @Nullable OperatorStats stats) {
         return new DistributingConsumer(
             executorService,
             UUID.randomUUID(),
@@ -173,7 +205,8 @@ public class DistributingConsumerTest extends ESTestCase {
             0,
             Collections.singletonList("n1"),
             distributedResultAction,
-            2 // pageSize
+            2, // pageSize
+            stats
         );
     }
 
@@ -24,12 +24,36 @@ package io.crate.execution.engine.fetch;
 
 import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.randomizedtesting.RandomizedRunner;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccounting;
+import io.crate.common.collections.BorrowedItem;
+import io.crate.data.Row;
+import io.crate.expression.reference.doc.lucene.LongColumnReference;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.index.shard.ShardId;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.elasticsearch.test.ESTestCase.randomIntBetween;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(RandomizedRunner.class)
 public class FetchCollectorTest {
@@ -37,16 +61,73 @@ public class FetchCollectorTest {
     @Test
     public void test_sequential_docs_ids() {
         int start = randomIntBetween(0, Short.MAX_VALUE);
-        IntArrayList sequential = new IntArrayList(10);
-        for (int i = start; i < start + 10; i++) {
-            sequential.add(i);
+        int[] sequential = new int[10];
+        for (int i = 0; i < sequential.length; i++) {
+            sequential[i] = start + i;
         }
-        assertThat(FetchCollector.isSequential(sequential), is(true));
+        assertThat(FetchCollector.isSequential(sequential, 0, sequential.length), is(true));
+
+        int[] nonSequential = new int[] {10, 2, 48};
+        assertThat(FetchCollector.isSequential(nonSequential, 0, nonSequential.length), is(false));
+    }
+
+    @Test
+    public void test_sequential_doc_ids_of_range() {
+        int[] docIds = new int[] {1, 5, 6, 7, 8, 20};
+        assertThat(FetchCollector.isSequential(docIds, 1, 5), is(true));
+        assertThat(FetchCollector.isSequential(docIds, 0, 5), is(false));
+        assertThat(FetchCollector.isSequential(docIds, 5, 6), is(false));
+    }
 
-        IntArrayList nonSequential = new IntArrayList();
-        nonSequential.add(10);
-        nonSequential.add(2);
-        nonSequential.add(48);
-        assertThat(FetchCollector.isSequential(nonSequential), is(false));
+    @Test
+    public void test_sort_positions_by_doc_id() {
+        int[] docIds = new int[] {42, 3, 17, 0, 5};
+        int[] positions = FetchCollector.sortPositionsByDocId(docIds);
+        assertThat(docIds, is(new int[] {0, 3, 5, 17, 42}));
+        assertThat(positions, is(new int[] {3, 1, 4, 2, 0}));
+    }
+
+    @Test
+    public void test_collect_returns_rows_in_requested_order_across_segments() throws Exception {
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE);
+        try (IndexWriter writer = new IndexWriter(new ByteBuffersDirectory(), config)) {
+            // 3 segments with 5 documents each; x is the doc id across all segments
+            for (int segment = 0; segment < 3; segment++) {
+                for (int i = 0; i < 5; i++) {
+                    Document doc = new Document();
+                    doc.add(new SortedNumericDocValuesField("x", segment * 5 + i));
+                    writer.addDocument(doc);
+                }
+                writer.commit();
+            }
+            try (DirectoryReader reader = ElasticsearchDirectoryReader.wrap(
+                    DirectoryReader.open(writer), new ShardId("dummy", UUIDs.randomBase64UUID(), 0))) {
+                assertThat(reader.leaves().size(), is(3));
+                IndexSearcher searcher = new IndexSearcher(reader);
+                FetchTask fetchTask = mock(FetchTask.class);
+                when(fetchTask.searcher(0)).thenAnswer(invocation -> new BorrowedItem<>(searcher, () -> { }));
+                FetchCollector collector = new FetchCollector(
+                    List.of(new LongColumnReference("x")),
+                    new Streamer[] { DataTypes.LONG.streamer() },
+                    fetchTask,
+                    RamAccounting.NO_ACCOUNTING,
+                    0
+                );
+
+                assertThat(
+                    collectX(collector, 12, 3, 7, 3, 0, 14, 7, 1, 2),
+                    contains(12L, 3L, 7L, 3L, 0L, 14L, 7L, 1L, 2L));
+                // sorted and sequential within a segment
+                assertThat(collectX(collector, 5, 6, 7, 8, 11), contains(5L, 6L, 7L, 8L, 11L));
+            }
+        }
+    }
+
+    private static List<Object> collectX(FetchCollector collector, int... docIds) {
+        List<Object> values = new ArrayList<>();
+        for (Row row : collector.collect(IntArrayList.from(docIds))) {
+            values.add(row.get(0));
+        }
+        return values;
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.randomizedtesting.RandomizedRunner;
+import com.carrotsearch.randomizedtesting.annotations.Name;
+import com.carrotsearch.randomizedtesting.annotations.ParametersFactory;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakScope;
+import io.crate.breaker.BlockBasedRamAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.join.CombinedRow;
+import io.crate.testing.BatchIteratorTester;
+import io.crate.types.DataTypes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+@RunWith(RandomizedRunner.class)
+@ThreadLeakScope(ThreadLeakScope.Scope.NONE)
+public class GraceHashJoinBatchIteratorTest {
+
+    private final List<Object[]> expectedResult;
+    private final Supplier<BatchIterator<Row>> leftIterator;
+    private final Supplier<BatchIterator<Row>> rightIterator;
+
+    public GraceHashJoinBatchIteratorTest(@SuppressWarnings("unused") @Name("dataSetName") String testName,
+                                         @Name("dataForLeft") Supplier<BatchIterator<Row>> leftIterator,
+                                         @Name("dataForRight") Supplier<BatchIterator<Row>> rightIterator,
+                                         @Name("expectedResult") List<Object[]> expectedResult) {
+        this.leftIterator = leftIterator;
+        this.rightIterator = rightIterator;
+        this.expectedResult = expectedResult;
+    }
+
+    @ParametersFactory
+    public static Iterable<Object[]> testParameters() {
+        return HashInnerJoinBatchIteratorTest.testParameters();
+    }
+
+    private Supplier<BatchIterator<Row>> joinIterator(ToIntFunction<Row> hashBuilder, long spillThreshold) {
+        return () -> new GraceHashJoinBatchIterator(
+            leftIterator.get(),
+            rightIterator.get(),
+            List.of(DataTypes.INTEGER),
+            List.of(DataTypes.INTEGER),
+            new BlockBasedRamAccounting(bytes -> { }, 1024),
+            new CombinedRow(1, 1),
+            row -> Objects.equals(row.get(0), row.get(1)),
+            hashBuilder,
+            hashBuilder,
+            spillThreshold
+        );
+    }
+
+    @Test
+    public void test_grace_hash_join_without_spilling() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            joinIterator(row -> Objects.hash(row.get(0)), Long.MAX_VALUE));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_grace_hash_join_spills_after_first_row() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            joinIterator(row -> Objects.hash(row.get(0)), 1));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_grace_hash_join_spills_with_hash_collisions() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            joinIterator(row -> (Integer) row.get(0) % 3, 1));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_grace_hash_join_spills_once_buffer_exceeds_threshold() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            joinIterator(row -> Objects.hash(row.get(0)), 300));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+}
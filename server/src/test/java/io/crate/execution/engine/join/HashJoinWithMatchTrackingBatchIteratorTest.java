@@ -0,0 +1,154 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.randomizedtesting.RandomizedRunner;
+import com.carrotsearch.randomizedtesting.annotations.Name;
+import com.carrotsearch.randomizedtesting.annotations.ParametersFactory;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakScope;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.join.CombinedRow;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.BatchSimulatingIterator;
+import io.crate.testing.TestingBatchIterators;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RandomizedRunner.class)
+@ThreadLeakScope(ThreadLeakScope.Scope.NONE)
+public class HashJoinWithMatchTrackingBatchIteratorTest {
+
+    private static final List<Integer> LEFT = Arrays.asList(0, 1, 1, 2, 5);
+    private static final List<Integer> RIGHT = Arrays.asList(1, 2, 2, 3, 4);
+
+    private final Supplier<BatchIterator<Row>> leftIterator;
+    private final Supplier<BatchIterator<Row>> rightIterator;
+
+    public HashJoinWithMatchTrackingBatchIteratorTest(@SuppressWarnings("unused") @Name("dataSetName") String testName,
+                                                      @Name("dataForLeft") Supplier<BatchIterator<Row>> leftIterator,
+                                                      @Name("dataForRight") Supplier<BatchIterator<Row>> rightIterator) {
+        this.leftIterator = leftIterator;
+        this.rightIterator = rightIterator;
+    }
+
+    @ParametersFactory
+    public static Iterable<Object[]> testParameters() {
+        return Arrays.asList(
+            $("plain",
+              (Supplier<BatchIterator<Row>>) () -> TestingBatchIterators.ofValues(LEFT),
+              (Supplier<BatchIterator<Row>>) () -> TestingBatchIterators.ofValues(RIGHT)),
+            $("batchedSource",
+              (Supplier<BatchIterator<Row>>) () ->
+                  new BatchSimulatingIterator<>(TestingBatchIterators.ofValues(LEFT), 2, 3, null),
+              (Supplier<BatchIterator<Row>>) () ->
+                  new BatchSimulatingIterator<>(TestingBatchIterators.ofValues(RIGHT), 2, 3, null)),
+            $("leftLoadedRightBatched",
+              (Supplier<BatchIterator<Row>>) () -> TestingBatchIterators.ofValues(LEFT),
+              (Supplier<BatchIterator<Row>>) () ->
+                  new BatchSimulatingIterator<>(TestingBatchIterators.ofValues(RIGHT), 2, 3, null))
+        );
+    }
+
+    private void assertJoinResult(JoinType joinType, List<Object[]> expectedResult) throws Exception {
+        for (int blockSize : new int[] { 1, 2, 10 }) {
+            BatchIteratorTester tester = new BatchIteratorTester(() -> new HashJoinWithMatchTrackingBatchIterator(
+                leftIterator.get(),
+                rightIterator.get(),
+                joinType,
+                mock(RowAccounting.class),
+                new CombinedRow(1, 1),
+                row -> Objects.equals(row.get(0), row.get(1)),
+                row -> Objects.hash(row.get(0)),
+                row -> Objects.hash(row.get(0)),
+                () -> blockSize
+            ));
+            tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+        }
+    }
+
+    @Test
+    public void test_left_join() throws Exception {
+        assertJoinResult(JoinType.LEFT, Arrays.asList(
+            new Object[] { 0, null },
+            new Object[] { 1, 1 },
+            new Object[] { 1, 1 },
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { 5, null }
+        ));
+    }
+
+    @Test
+    public void test_right_join() throws Exception {
+        assertJoinResult(JoinType.RIGHT, Arrays.asList(
+            new Object[] { 1, 1 },
+            new Object[] { 1, 1 },
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { null, 3 },
+            new Object[] { null, 4 }
+        ));
+    }
+
+    @Test
+    public void test_full_join() throws Exception {
+        assertJoinResult(JoinType.FULL, Arrays.asList(
+            new Object[] { 0, null },
+            new Object[] { 1, 1 },
+            new Object[] { 1, 1 },
+            new Object[] { 2, 2 },
+            new Object[] { 2, 2 },
+            new Object[] { 5, null },
+            new Object[] { null, 3 },
+            new Object[] { null, 4 }
+        ));
+    }
+
+    @Test
+    public void test_semi_join() throws Exception {
+        assertJoinResult(JoinType.SEMI, Arrays.asList(
+            new Object[] { 1 },
+            new Object[] { 1 },
+            new Object[] { 2 }
+        ));
+    }
+
+    @Test
+    public void test_anti_join() throws Exception {
+        assertJoinResult(JoinType.ANTI, Arrays.asList(
+            new Object[] { 0 },
+            new Object[] { 5 }
+        ));
+    }
+}
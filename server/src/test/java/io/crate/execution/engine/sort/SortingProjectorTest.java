@@ -22,7 +22,9 @@
 
 package io.crate.execution.engine.sort;
 
+import io.crate.Streamer;
 import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccounting;
 import io.crate.breaker.RowCellsAccountingWithEstimators;
 import io.crate.data.BatchIterator;
@@ -39,6 +41,7 @@ import io.crate.types.DataTypes;
 import org.apache.logging.log4j.LogManager;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.junit.Test;
@@ -97,6 +100,35 @@ public class SortingProjectorTest extends ESTestCase {
         }
     }
 
+    @Test
+    public void test_order_by_with_offset_merges_runs_spilled_to_disk() throws Exception {
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker(
+            "testContext", new NoopCircuitBreaker("dummy"));
+        InputCollectExpression input = new InputCollectExpression(0);
+        SortingProjector projector = new SortingProjector(
+            new RowCellsAccountingWithEstimators(List.of(DataTypes.INTEGER, DataTypes.BOOLEAN), ramAccounting, 0),
+            List.of(input, Literal.of(true)),
+            List.<CollectExpression<Row, ?>>of(input),
+            2,
+            OrderingByPosition.arrayOrdering(0, false, false),
+            3,
+            ramAccounting,
+            // every row exceeds the threshold and is spilled as a run of its own
+            1,
+            new Streamer[]{DataTypes.INTEGER.streamer(), DataTypes.BOOLEAN.streamer()}
+        );
+
+        consumer.accept(projector.apply(TestingBatchIterators.ofValues(List.of(5, 2, 9, 1, 7, 3, 10, 4, 8, 6))), null);
+        List<Object[]> rows = consumer.getResult();
+
+        assertThat(rows.size(), is(7));
+        int expected = 4;
+        for (Object[] row : rows) {
+            assertThat(row, is(new Object[]{expected++, true}));
+        }
+        assertThat(ramAccounting.totalBytes(), is(0L));
+    }
+
     @Test
     public void testInvalidOffset() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -0,0 +1,87 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.types.DataTypes;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class SpillFileTest extends ESTestCase {
+
+    private static final Streamer<?>[] STREAMERS = new Streamer[] {
+        DataTypes.INTEGER.streamer(),
+        DataTypes.STRING.streamer()
+    };
+
+    private static List<Object[]> readAll(SpillFile file) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Row row : file) {
+            rows.add(row.materialize());
+        }
+        return rows;
+    }
+
+    @Test
+    public void test_rows_written_to_spill_file_can_be_read_back_repeatedly() throws Exception {
+        try (SpillFile file = SpillFile.create(STREAMERS)) {
+            file.add(new Object[] { 1, "foo" });
+            file.add(new Object[] { null, "bar" });
+            file.add(new Object[] { 3, null });
+            file.finish();
+
+            assertThat(file.numRows(), is(3));
+            assertThat(file.sizeInBytes(), greaterThan(0L));
+            assertThat(readAll(file), contains(
+                new Object[] { 1, "foo" },
+                new Object[] { null, "bar" },
+                new Object[] { 3, null }
+            ));
+            assertThat(readAll(file).size(), is(3));
+        }
+    }
+
+    @Test
+    public void test_empty_spill_file_has_no_rows() throws Exception {
+        try (SpillFile file = SpillFile.create(STREAMERS)) {
+            file.finish();
+            assertThat(file.iterator().hasNext(), is(false));
+        }
+    }
+
+    @Test
+    public void test_reading_before_finish_is_not_allowed() throws Exception {
+        try (SpillFile file = SpillFile.create(STREAMERS)) {
+            file.add(new Object[] { 1, "foo" });
+            expectThrows(IllegalStateException.class, file::iterator);
+        }
+    }
+}
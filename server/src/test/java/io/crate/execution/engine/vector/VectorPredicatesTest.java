@@ -0,0 +1,130 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.vector;
+
+import io.crate.data.RowN;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.functions.Signature;
+import io.crate.types.DataTypes;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VectorPredicatesTest extends ESTestCase {
+
+    private final InputColumn intColumn = new InputColumn(0, DataTypes.INTEGER);
+    private final InputColumn doubleColumn = new InputColumn(1, DataTypes.DOUBLE);
+
+    private static Function function(String name, Symbol... args) {
+        Signature signature = Signature.scalar(
+            name,
+            args[0].valueType().getTypeSignature(),
+            args[args.length - 1].valueType().getTypeSignature(),
+            DataTypes.BOOLEAN.getTypeSignature()
+        );
+        return new Function(signature, List.of(args), DataTypes.BOOLEAN);
+    }
+
+    private static List<Integer> matchingRows(Symbol filter, Object[]... rows) {
+        ArrayList<InputColumn> columns = new ArrayList<>();
+        VectorPredicate predicate = VectorPredicates.compile(filter, columns);
+        ColumnBatch batch = new ColumnBatch(columns, rows.length);
+        for (Object[] row : rows) {
+            batch.add(new RowN(row));
+        }
+        int[] selection = new int[batch.size()];
+        int numSelected = predicate.apply(batch, selection, batch.selectAll(selection));
+        ArrayList<Integer> result = new ArrayList<>(numSelected);
+        for (int i = 0; i < numSelected; i++) {
+            result.add(selection[i]);
+        }
+        return result;
+    }
+
+    @Test
+    public void test_comparison_with_literal_on_either_side() {
+        Object[][] rows = new Object[][] {
+            new Object[] { 1, 1.0 },
+            new Object[] { 5, 2.0 },
+            new Object[] { null, 3.0 },
+            new Object[] { 2, null }
+        };
+        assertThat(matchingRows(function(LtOperator.NAME, intColumn, Literal.of(3)), rows), contains(0, 3));
+        assertThat(matchingRows(function(LtOperator.NAME, Literal.of(3), intColumn), rows), contains(1));
+        assertThat(matchingRows(function(EqOperator.NAME, doubleColumn, Literal.of(2.0)), rows), contains(1));
+    }
+
+    @Test
+    public void test_is_null_and_is_not_null() {
+        Object[][] rows = new Object[][] {
+            new Object[] { 1, null },
+            new Object[] { null, 2.0 },
+            new Object[] { null, null }
+        };
+        Function isNull = function(IsNullPredicate.NAME, intColumn);
+        assertThat(matchingRows(isNull, rows), contains(1, 2));
+        assertThat(matchingRows(function(NotPredicate.NAME, isNull), rows), contains(0));
+    }
+
+    @Test
+    public void test_conjunction_narrows_selection() {
+        Function filter = function(
+            AndOperator.NAME,
+            function(LtOperator.NAME, intColumn, Literal.of(10)),
+            function(LtOperator.NAME, Literal.of(1.0), doubleColumn)
+        );
+        assertThat(
+            matchingRows(
+                filter,
+                new Object[] { 1, 0.5 },
+                new Object[] { 2, 1.5 },
+                new Object[] { 20, 1.5 },
+                new Object[] { 3, 3.0 }),
+            contains(1, 3)
+        );
+    }
+
+    @Test
+    public void test_unsupported_filters_are_not_compiled() {
+        InputColumn stringColumn = new InputColumn(2, DataTypes.STRING);
+        ArrayList<InputColumn> columns = new ArrayList<>();
+        assertThat(VectorPredicates.compile(function(EqOperator.NAME, stringColumn, Literal.of("foo")), columns), nullValue());
+        assertThat(VectorPredicates.compile(function(EqOperator.NAME, intColumn, intColumn), columns), nullValue());
+        assertThat(VectorPredicates.compile(Literal.BOOLEAN_TRUE, columns), nullValue());
+        assertThat(columns.isEmpty(), is(true));
+    }
+}
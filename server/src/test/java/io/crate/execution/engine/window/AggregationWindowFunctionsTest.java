@@ -333,4 +333,50 @@ public class AggregationWindowFunctionsTest extends AbstractWindowFunctionTest {
             rows
         );
     }
+
+    @Test
+    public void test_max_over_moving_rows_offset_preceding_frame() throws Throwable {
+        assertEvaluate(
+            "max(d) over (order by x rows between 2 preceding and current row)",
+            contains(new Object[] {3.0, 3.0, 4.0, 4.0, 5.0, 5.0, 5.0}),
+            List.of(new ColumnIdent("x"), new ColumnIdent("d")),
+            $(1, 3.0),
+            $(2, 1.0),
+            $(3, 4.0),
+            $(4, 1.0),
+            $(5, 5.0),
+            $(6, null),
+            $(7, 2.0)
+        );
+    }
+
+    @Test
+    public void test_min_over_moving_rows_offset_following_frame() throws Throwable {
+        assertEvaluate(
+            "min(d) over (order by x rows between current row and 1 following)",
+            contains(new Object[] {1.0, 1.0, 1.0, 1.0, 5.0, 2.0, 2.0}),
+            List.of(new ColumnIdent("x"), new ColumnIdent("d")),
+            $(1, 3.0),
+            $(2, 1.0),
+            $(3, 4.0),
+            $(4, 1.0),
+            $(5, 5.0),
+            $(6, null),
+            $(7, 2.0)
+        );
+    }
+
+    @Test
+    public void test_max_over_moving_frame_is_reset_on_each_partition() throws Throwable {
+        assertEvaluate(
+            "max(d) over (partition by z order by x rows between 1 preceding and current row)",
+            contains(new Object[] {3.0, 6.0, 6.0, 4.0, 4.0}),
+            List.of(new ColumnIdent("x"), new ColumnIdent("z"), new ColumnIdent("d")),
+            $(1, "a", 3.0),
+            $(2, "a", 6.0),
+            $(3, "a", 1.0),
+            $(4, "b", 4.0),
+            $(5, "b", 2.0)
+        );
+    }
 }
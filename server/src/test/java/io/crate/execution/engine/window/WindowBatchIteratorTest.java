@@ -22,6 +22,7 @@
 
 package io.crate.execution.engine.window;
 
+import io.crate.Streamer;
 import io.crate.breaker.ConcurrentRamAccounting;
 import io.crate.breaker.RamAccounting;
 import io.crate.breaker.RowAccountingWithEstimators;
@@ -112,6 +113,50 @@ public class WindowBatchIteratorTest {
         tester.verifyResultAndEdgeCaseBehaviour(expectedRowNumberResult);
     }
 
+    @Test
+    public void test_sorted_source_is_computed_one_partition_at_a_time() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> sortedSourceRowNumberIterator(
+                new BatchSimulatingIterator<>(TestingBatchIterators.range(0, 10), 3, 4, null),
+                -1
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(expectedRowNumberPerPartitionResult());
+    }
+
+    @Test
+    public void test_sorted_source_spills_partitions_exceeding_the_spill_threshold() throws Exception {
+        // 48 bytes per row, so the partitions spill after their second row
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> sortedSourceRowNumberIterator(TestingBatchIterators.range(0, 10), 96)
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(expectedRowNumberPerPartitionResult());
+    }
+
+    private static List<Object[]> expectedRowNumberPerPartitionResult() {
+        return IntStream.range(0, 10).mapToObj(l -> new Object[]{l, l % 4 + 1}).collect(toList());
+    }
+
+    private BatchIterator<Row> sortedSourceRowNumberIterator(BatchIterator<Row> source, long spillThreshold) {
+        // window: partition by IC0 / 4
+        Comparator<Object[]> cmpPartitionBy = Comparator.comparingInt(cells -> (Integer) cells[0] / 4);
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"));
+        return WindowFunctionBatchIterator.ofSortedSource(
+            source,
+            new RowAccountingWithEstimators(List.of(DataTypes.INTEGER), ramAccounting, 32),
+            ramAccounting,
+            spillThreshold,
+            new Streamer[]{DataTypes.INTEGER.streamer()},
+            getComputeFrameStart(null, FrameBound.Type.UNBOUNDED_PRECEDING),
+            getComputeFrameEnd(null, FrameBound.Type.CURRENT_ROW),
+            cmpPartitionBy,
+            1,
+            List.of(rowNumberWindowFunction()),
+            List.of(),
+            args
+        );
+    }
+
     @Test
     public void testFrameBoundsEmptyWindow() throws Exception {
         var rows = IntStream.range(0, 10).mapToObj(i -> new Object[]{i, null}).collect(toList());
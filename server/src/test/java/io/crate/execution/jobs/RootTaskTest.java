@@ -133,7 +133,8 @@ public class RootTaskTest extends ESTestCase {
             new TestingRowConsumer(),
             mock(SharedShardContexts.class),
             Version.CURRENT,
-            4096
+            4096,
+            null
         );
         TestingRowConsumer batchConsumer = new TestingRowConsumer();
 
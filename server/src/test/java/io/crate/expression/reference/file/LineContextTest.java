@@ -25,6 +25,11 @@ import io.crate.metadata.ColumnIdent;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Test;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class LineContextTest extends ESTestCase {
     @Test
@@ -38,4 +43,106 @@ public class LineContextTest extends ESTestCase {
         assertNull(context.get(new ColumnIdent("details", "invalid")));
         assertEquals(43, context.get(new ColumnIdent("details", "age")));
     }
+
+    @Test
+    public void testGetOnlyParsesRequiredColumns() {
+        LineContext context = new LineContext();
+        context.addRequiredColumn(new ColumnIdent("name"));
+        context.addRequiredColumn(new ColumnIdent("details", "age"));
+        context.addRequiredColumn(new ColumnIdent("tags"));
+
+        String source = "{\"skipped\": {\"a\": [1, {\"b\": 2}]}, \"name\": \"foo\", " +
+                        "\"details\": {\"age\": 43}, \"tags\": [\"x\", null], \"other\": 1.5}";
+        context.rawSource(source.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("foo", context.get(new ColumnIdent("name")));
+        assertEquals(43, context.get(new ColumnIdent("details", "age")));
+        assertEquals(Arrays.asList("x", null), context.get(new ColumnIdent("tags")));
+    }
+
+    @Test
+    public void testGetWithRequiredColumnsReadsValuesOfNextLine() {
+        LineContext context = new LineContext();
+        context.addRequiredColumn(new ColumnIdent("id"));
+
+        context.rawSource("{\"id\": 1}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, context.get(new ColumnIdent("id")));
+        context.rawSource("{\"name\": \"foo\"}".getBytes(StandardCharsets.UTF_8));
+        assertNull(context.get(new ColumnIdent("id")));
+    }
+
+    @Test
+    public void testGetWithRequiredSourceAsMapUsesParsedSource() {
+        LineContext context = new LineContext();
+        context.addRequiredColumn(new ColumnIdent("id"));
+        context.requireSourceAsMap();
+
+        context.rawSource("{\"id\": 1, \"o\": {\"x\": true}}".getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> sourceAsMap = context.sourceAsMap();
+        assertEquals(Map.of("id", 1, "o", Map.of("x", true)), sourceAsMap);
+        assertEquals(1, context.get(new ColumnIdent("id")));
+        assertSame(sourceAsMap, context.sourceAsMap());
+    }
+
+    @Test
+    public void testColumnAndSourceAsMapExpressionsShareParsedSource() {
+        LineContext context = new LineContext();
+        ColumnExtractingLineExpression objectColumn = new ColumnExtractingLineExpression(new ColumnIdent("o"));
+        ColumnExtractingLineExpression nestedColumn = new ColumnExtractingLineExpression(new ColumnIdent("o", "x"));
+        SourceAsMapLineExpression sourceAsMap = new SourceAsMapLineExpression();
+        objectColumn.startCollect(context);
+        nestedColumn.startCollect(context);
+        sourceAsMap.startCollect(context);
+
+        context.rawSource("{\"id\": 1, \"o\": {\"x\": [1, 2]}}".getBytes(StandardCharsets.UTF_8));
+        Object object = objectColumn.value();
+        Object nested = nestedColumn.value();
+        Map<String, Object> source = sourceAsMap.value();
+
+        assertEquals(Map.of("x", List.of(1, 2)), object);
+        assertEquals(List.of(1, 2), nested);
+        // all values are taken from the single parsed map of the line
+        assertSame(source.get("o"), object);
+        assertSame(((Map<?, ?>) source.get("o")).get("x"), nested);
+        assertSame(source, sourceAsMap.value());
+        assertSame(object, objectColumn.value());
+    }
+
+    @Test
+    public void testRawSourceRequiresAllColumns() {
+        LineContext context = new LineContext();
+        new ColumnExtractingLineExpression(new ColumnIdent("id")).startCollect(context);
+        assertEquals(Set.of("id"), context.requiredRootColumns());
+
+        new SourceLineExpression().startCollect(context);
+        assertNull(context.requiredRootColumns());
+    }
+
+    @Test
+    public void testColumnValuesAreUsedWithoutRawSource() {
+        LineContext context = new LineContext();
+        context.addRequiredColumn(new ColumnIdent("o", "x"));
+
+        LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+        values.put("id", 1L);
+        values.put("o", Map.of("x", "foo"));
+        context.columnValues(values, true);
+        assertEquals("foo", context.get(new ColumnIdent("o", "x")));
+        assertSame(values, context.sourceAsMap());
+        assertEquals("{\"id\":1,\"o\":{\"x\":\"foo\"}}", context.sourceAsString());
+
+        context.columnValues(Map.of("o", Map.of("x", "bar")), false);
+        assertEquals("bar", context.get(new ColumnIdent("o", "x")));
+        assertNull(context.sourceAsMap());
+    }
+
+    @Test
+    public void testGetWithRequiredColumnsFailsOnInvalidSource() {
+        LineContext context = new LineContext();
+        context.addRequiredColumn(new ColumnIdent("id"));
+
+        context.rawSource("[1, 2]".getBytes(StandardCharsets.UTF_8));
+        RuntimeException e = expectThrows(RuntimeException.class, () -> context.get(new ColumnIdent("id")));
+        assertTrue(e.getMessage().startsWith("JSON parser error: "));
+    }
 }
@@ -42,6 +42,7 @@ import java.io.IOException;
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static io.crate.testing.DiscoveryNodes.newNode;
@@ -78,10 +79,11 @@ public class NodeStatsContextFieldResolverTest {
             () -> new HttpStats(20L, 30L),
             mock(ThreadPool.class),
             new ExtendedNodeInfo(),
-            () -> new ConnectionStats(2L, 4L),
+            () -> new ConnectionStats(2L, 4L, 10L, 120L),
             () -> postgresAddress,
             () -> 12L,
-            () -> 1L
+            () -> 1L,
+            () -> 2048L
         );
     }
 
@@ -109,6 +111,18 @@ public class NodeStatsContextFieldResolverTest {
         assertThat(total.value(), is(30L));
     }
 
+    @Test
+    public void test_off_heap_used_bytes_can_be_retrieved() {
+        NodeStatsContext statsContext = resolver.forTopColumnIdents(List.of(SysNodesTableInfo.Columns.OFF_HEAP));
+        RowCollectExpressionFactory<NodeStatsContext> expressionFactory =
+            SysNodesTableInfo.create().expressions().get(SysNodesTableInfo.Columns.OFF_HEAP);
+        NestableCollectExpression<NodeStatsContext, ?> expression = expressionFactory.create();
+
+        NestableCollectExpression used = (NestableCollectExpression) expression.getChild("used");
+        used.setNextRow(statsContext);
+        assertThat(used.value(), is(2048L));
+    }
+
     @Test
     public void testNumberOfPSqlConnectionsCanBeRetrieved() {
         // tests the resolver and the expression
@@ -126,6 +140,14 @@ public class NodeStatsContextFieldResolverTest {
         NestableCollectExpression total = (NestableCollectExpression) psql.getChild("total");
         total.setNextRow(statsContext);
         assertThat(total.value(), is(4L));
+
+        NestableCollectExpression rowsSent = (NestableCollectExpression) psql.getChild("rows_sent");
+        rowsSent.setNextRow(statsContext);
+        assertThat(rowsSent.value(), is(10L));
+
+        NestableCollectExpression bytesSent = (NestableCollectExpression) psql.getChild("bytes_sent");
+        bytesSent.setNextRow(statsContext);
+        assertThat(bytesSent.value(), is(120L));
     }
 
     @Test
@@ -22,8 +22,10 @@
 package io.crate.integrationtests;
 
 import com.carrotsearch.randomizedtesting.LifecycleScope;
+import io.crate.execution.engine.collect.files.ColumnarFileWriter;
 import io.crate.testing.SQLResponse;
 import io.crate.testing.UseJdbc;
+import io.crate.types.DataTypes;
 import org.elasticsearch.test.ESIntegTestCase;
 import org.junit.Rule;
 import org.junit.Test;
@@ -118,6 +120,32 @@ public class CopyIntegrationTest extends SQLHttpIntegrationTest {
         assertThat(response.rows()[0][0], is("Don't pa\u00f1ic."));
     }
 
+    @Test
+    public void test_copy_from_columnar_file_into_partitioned_table() throws Exception {
+        execute("create table t (id int primary key, name string, p int primary key) " +
+                "partitioned by (p) with (number_of_replicas = 0)");
+        File file = folder.newFile("data.columnar");
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(
+                new FileOutputStream(file),
+                List.of("id", "name", "p"),
+                List.of(DataTypes.INTEGER, DataTypes.STRING, DataTypes.INTEGER),
+                2)) {
+            writer.write(new Object[]{1, "Arthur", 1});
+            writer.write(new Object[]{2, "Trillian", 2});
+            writer.write(new Object[]{3, null, 1});
+        }
+
+        execute("copy t from ? with (format = 'columnar')", new Object[]{Paths.get(file.toURI()).toUri().toString()});
+        assertThat(response.rowCount(), is(3L));
+        refresh();
+
+        execute("select id, name, p from t order by id");
+        assertThat(printedTable(response.rows()), is(
+            "1| Arthur| 1\n" +
+            "2| Trillian| 2\n" +
+            "3| NULL| 1\n"));
+    }
+
     @Test
     public void testCopyFromFileWithUmlautsWhitespacesAndGlobs() throws Exception {
         execute("create table t (id int primary key, name string) clustered into 1 shards with (number_of_replicas = 0)");
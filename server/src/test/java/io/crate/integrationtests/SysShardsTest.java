@@ -169,7 +169,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
     public void testSelectStarAllTables() throws Exception {
         SQLResponse response = execute("select * from sys.shards");
         assertEquals(26L, response.rowCount());
-        assertEquals(19, response.cols().length);
+        assertEquals(20, response.cols().length);
         assertThat(response.cols(), arrayContaining(
             "blob_path",
             "id",
@@ -182,6 +182,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
             "primary",
             "recovery",
             "relocating_node",
+            "result_cache",
             "retention_leases",
             "routing_state",
             "schema_name",
@@ -0,0 +1,47 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.integrationtests;
+
+import org.junit.Test;
+
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+
+public class SysStatementCachesITest extends SQLTransportIntegrationTest {
+
+    @Test
+    public void test_statement_caches_expose_hits_and_misses_per_node() {
+        for (int i = 0; i < 5; i++) {
+            execute("select name from sys.cluster");
+        }
+        execute("select name, count(*) from sys.statement_caches group by name order by name");
+        assertThat(printedTable(response.rows()), is(
+            "parse| " + internalCluster().size() + "\n" +
+            "plan| " + internalCluster().size() + "\n"));
+
+        execute("select sum(hits + misses), sum(entries) from sys.statement_caches where name = 'parse'");
+        assertThat((Long) response.rows()[0][0], greaterThan(4L));
+        assertThat((Long) response.rows()[0][1], greaterThan(0L));
+    }
+}
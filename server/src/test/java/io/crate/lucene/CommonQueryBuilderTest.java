@@ -95,6 +95,16 @@ public class CommonQueryBuilderTest extends LuceneQueryBuilderTest {
     @Test
     public void testWhereRefEqRef() throws Exception {
         Query query = convert("name = name");
+        assertThat(query, instanceOf(BooleanQuery.class));
+        BooleanQuery booleanQuery = (BooleanQuery) query;
+        assertThat(booleanQuery.clauses().size(), is(2));
+        assertThat(booleanQuery.clauses().get(0).getQuery(), instanceOf(GenericFunctionQuery.class));
+        assertThat(booleanQuery.clauses().get(1).getOccur(), is(BooleanClause.Occur.FILTER));
+    }
+
+    @Test
+    public void test_generic_function_on_not_nullable_column_has_no_exists_filter() throws Exception {
+        Query query = convert("x = x");
         assertThat(query, instanceOf(GenericFunctionQuery.class));
     }
 
@@ -24,11 +24,14 @@ package io.crate.lucene;
 
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.QueryTester;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.ScoreMode;
 import org.elasticsearch.Version;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 
 
@@ -70,4 +73,42 @@ public class GenericFunctionQueryTest extends CrateDummyClusterServiceUnitTest {
             assertThat(tester.runQuery("x", "abs(x) = 1"), contains(1));
         }
     }
+
+    @Test
+    public void test_match_cost_is_estimated_from_functions_and_columns() throws Exception {
+        QueryTester.Builder builder = new QueryTester.Builder(
+            createTempDir(),
+            THREAD_POOL,
+            clusterService,
+            Version.CURRENT,
+            "create table t (x int, name text)"
+        );
+        try (QueryTester tester = builder.build()) {
+            var query = (GenericFunctionQuery) tester.toQuery("abs(x) = 1");
+            // eq + abs + reading x
+            assertThat(query.matchCost(), is(3f));
+
+            var regexpQuery = (BooleanQuery) tester.toQuery("name ~ name");
+            var genericQuery = (GenericFunctionQuery) regexpQuery.clauses().get(0).getQuery();
+            assertThat(genericQuery.matchCost(), is(22f));
+        }
+    }
+
+    @Test
+    public void test_generic_function_query_on_nullable_columns_skips_documents_without_value() throws Exception {
+        QueryTester.Builder builder = new QueryTester.Builder(
+            createTempDir(),
+            THREAD_POOL,
+            clusterService,
+            Version.CURRENT,
+            "create table t (x int)"
+        );
+        builder.indexValues("x", 1, null, 3);
+        try (QueryTester tester = builder.build()) {
+            var query = tester.toQuery("x = x");
+            assertThat(query, instanceOf(BooleanQuery.class));
+            assertThat(((BooleanQuery) query).clauses().get(1).getOccur(), is(BooleanClause.Occur.FILTER));
+            assertThat(tester.runQuery("x", "x = x"), contains(1, 3));
+        }
+    }
 }
@@ -94,7 +94,8 @@ public class LikeQueryBuilderTest extends LuceneQueryBuilderTest {
     @Test
     public void testLikeWithBothSidesReferences() throws Exception {
         Query query = convert("name ilike name");
-        assertThat(query, instanceOf(GenericFunctionQuery.class));
+        assertThat(query, instanceOf(BooleanQuery.class));
+        assertThat(((BooleanQuery) query).clauses().get(0).getQuery(), instanceOf(GenericFunctionQuery.class));
     }
 
 
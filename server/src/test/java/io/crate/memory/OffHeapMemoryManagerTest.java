@@ -23,8 +23,13 @@
 package io.crate.memory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -32,10 +37,36 @@ public class OffHeapMemoryManagerTest {
 
     @Test
     public void test_allocated_buffers_are_released_on_close() {
-        var memoryManager = new OffHeapMemoryManager();
+        var memoryManager = new OffHeapMemoryManager(UnpooledByteBufAllocator.DEFAULT, bytes -> {});
         ByteBuf buf1 = memoryManager.allocate(20);
         buf1.retain();
         memoryManager.close();
         assertThat("ref count must reach 0 now", buf1.release(), is(true));
     }
+
+    @Test
+    public void test_allocated_bytes_are_accounted() {
+        AtomicLong accountedBytes = new AtomicLong();
+        var memoryManager = new OffHeapMemoryManager(UnpooledByteBufAllocator.DEFAULT, accountedBytes::addAndGet);
+        memoryManager.allocate(20);
+        memoryManager.allocate(40);
+        memoryManager.close();
+        assertThat(accountedBytes.get(), is(60L));
+    }
+
+    @Test
+    public void test_buffers_released_on_close_are_returned_to_the_pool() {
+        var allocator = new PooledByteBufAllocator(true);
+        var memoryManager = new OffHeapMemoryManager(allocator, bytes -> {});
+        ByteBuf buf = memoryManager.allocate(1024);
+        assertThat(buf.isDirect(), is(true));
+        long usedDirectMemory = allocator.metric().usedDirectMemory();
+        assertThat(usedDirectMemory, greaterThan(0L));
+        memoryManager.close();
+
+        var otherMemoryManager = new OffHeapMemoryManager(allocator, bytes -> {});
+        otherMemoryManager.allocate(1024);
+        assertThat("pool must not grow for re-used memory", allocator.metric().usedDirectMemory(), is(usedDirectMemory));
+        otherMemoryManager.close();
+    }
 }
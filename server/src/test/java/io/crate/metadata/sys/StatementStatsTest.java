@@ -0,0 +1,114 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.core.Is.is;
+
+public class StatementStatsTest {
+
+    private static List<StatementStatsView> views(StatementStats stats) {
+        List<StatementStatsView> views = new ArrayList<>();
+        stats.forEach(views::add);
+        return views;
+    }
+
+    @Test
+    public void test_executions_are_aggregated_by_fingerprint() {
+        StatementStats stats = new StatementStats();
+        stats.record("SELECT * FROM t WHERE id = ?", 10, false, 1, 100);
+        stats.record("SELECT * FROM t WHERE id = ?", 30, true, 0, 200);
+        stats.record("SELECT count(*) FROM t", 5, false, 1, 50);
+
+        List<StatementStatsView> views = views(stats);
+        assertThat(views.size(), is(2));
+        StatementStatsView view = views.stream()
+            .filter(v -> v.fingerprint().equals("SELECT * FROM t WHERE id = ?"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(view.totalCount(), is(2L));
+        assertThat(view.failedCount(), is(1L));
+        assertThat(view.sumOfDurations(), is(40L));
+        assertThat(view.sumOfRows(), is(1L));
+        assertThat(view.sumOfUsedBytes(), is(300L));
+        assertThat(view.minValue(), is(10L));
+    }
+
+    @Test
+    public void test_high_and_negative_durations_are_capped_in_histogram() {
+        StatementStats stats = new StatementStats();
+        stats.record("SELECT ?", TimeUnit.MINUTES.toMillis(30), false, 1, 0);
+        stats.record("SELECT ?", -2, false, 1, 0);
+
+        StatementStatsView view = views(stats).get(0);
+        assertThat(view.totalCount(), is(2L));
+        assertThat(view.minValue(), is(0L));
+        assertThat(view.sumOfDurations(), is(TimeUnit.MINUTES.toMillis(30)));
+    }
+
+    @Test
+    public void test_least_executed_fingerprint_is_evicted_once_limit_is_reached() {
+        StatementStats stats = new StatementStats(2);
+        stats.record("SELECT ?", 1, false, 1, 0);
+        stats.record("SELECT ?", 1, false, 1, 0);
+        stats.record("SELECT a FROM t", 1, false, 1, 0);
+        stats.record("SELECT b FROM t", 1, false, 1, 0);
+
+        List<String> fingerprints = new ArrayList<>();
+        stats.forEach(view -> fingerprints.add(view.fingerprint()));
+        assertThat(fingerprints, containsInAnyOrder("SELECT ?", "SELECT b FROM t"));
+    }
+
+    @Test
+    public void test_new_fingerprint_inherits_count_of_evicted_fingerprint() {
+        StatementStats stats = new StatementStats(2);
+        for (int i = 0; i < 4; i++) {
+            stats.record("SELECT ?", 1, false, 1, 0);
+        }
+        stats.record("SELECT a FROM t", 1, false, 1, 0);
+        stats.record("SELECT a FROM t", 1, false, 1, 0);
+
+        // evicts "SELECT a FROM t" and continues counting from 2
+        for (int i = 0; i < 3; i++) {
+            stats.record("SELECT b FROM t", 1, false, 1, 0);
+        }
+        // "SELECT b FROM t" now has a count of 5, so "SELECT ?" is evicted
+        stats.record("SELECT c FROM t", 1, false, 1, 0);
+
+        List<String> fingerprints = new ArrayList<>();
+        stats.forEach(view -> fingerprints.add(view.fingerprint()));
+        assertThat(fingerprints, containsInAnyOrder("SELECT b FROM t", "SELECT c FROM t"));
+        StatementStatsView view = views(stats).stream()
+            .filter(v -> v.fingerprint().equals("SELECT b FROM t"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(view.totalCount(), is(3L));
+    }
+}
@@ -314,7 +314,8 @@ public abstract class AggregationTest extends ESTestCase {
             new TestingRowConsumer(),
             new SharedShardContexts(indexServices, UnaryOperator.identity()),
             Version.CURRENT,
-            4096);
+            4096,
+            null);
 
         var batchIterator = DocValuesAggregates.tryOptimize(
             nodeCtx.functions(),
@@ -323,7 +324,9 @@ public abstract class AggregationTest extends ESTestCase {
             new LuceneQueryBuilder(nodeCtx),
             shard.mapperService()::fullName,
             collectPhase,
-            collectTask
+            collectTask,
+            Runnable::run,
+            () -> 1
         );
         List<Row> result;
         if (batchIterator != null) {
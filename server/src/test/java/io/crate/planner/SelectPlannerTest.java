@@ -549,7 +549,7 @@ public class SelectPlannerTest extends CrateDummyClusterServiceUnitTest {
                                     "  and u2.name = u1.name");
         Join innerNl = (Join) outerNl.left();
 
-        assertThat(innerNl.joinPhase().joinCondition(), isSQL("((INPUT(0) = INPUT(2)) AND (INPUT(1) = INPUT(3)))"));
+        assertThat(innerNl.joinPhase().joinCondition(), isSQL("((INPUT(2) = INPUT(0)) AND (INPUT(3) = INPUT(1)))"));
         assertThat(innerNl.joinPhase().projections().size(), is(1));
         assertThat(innerNl.joinPhase().projections().get(0), instanceOf(EvalProjection.class));
 
@@ -790,6 +790,17 @@ public class SelectPlannerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(collect.nodeIds().size(), is(2));
     }
 
+    @Test
+    public void test_window_functions_with_partition_by_use_sorted_source_if_collect_can_sort() {
+        Merge localMerge = e.plan("select sum(ints) OVER (partition by awesome order by name) from users");
+        Merge distMerge = (Merge) localMerge.subPlan();
+        WindowAggProjection windowAgg = (WindowAggProjection) distMerge.mergePhase().projections().get(0);
+        assertThat(windowAgg.sourceSorted(), is(true));
+        assertThat(distMerge.mergePhase().orderByPositions(), notNullValue());
+        Collect collect = (Collect) distMerge.subPlan();
+        assertThat(((RoutedCollectPhase) collect.collectPhase()).orderBy(), notNullValue());
+    }
+
     @Test
     public void testSeqNoAndPrimaryTermFilteringRequirePrimaryKey() {
         expectedException.expect(VersioninigValidationException.class);
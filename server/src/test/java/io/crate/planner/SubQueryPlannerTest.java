@@ -132,7 +132,8 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(join.joinPhase().projections().size(), is(1));
         assertThat(join.joinPhase().projections().get(0), instanceOf(EvalProjection.class));
 
-        QueryThenFetch leftQtf = (QueryThenFetch) join.left();
+        // t2 is expected to return fewer rows and becomes the left (build) side of the hash join
+        QueryThenFetch leftQtf = (QueryThenFetch) join.right();
         Collect left = (Collect) leftQtf.subPlan();
         assertThat("1 node, otherwise mergePhases would be required", left.nodeIds().size(), is(1));
         assertThat(left.orderBy(), isSQL("OrderByPositions{indices=[1], reverseFlags=[false], nullsFirst=[false]}"));
@@ -140,7 +141,7 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
             isTopN(10, 2),
             instanceOf(FetchProjection.class)
         ));
-        QueryThenFetch rightQtf = (QueryThenFetch) join.right();
+        QueryThenFetch rightQtf = (QueryThenFetch) join.left();
         Collect right = (Collect) rightQtf.subPlan();
         assertThat("1 node, otherwise mergePhases would be required", right.nodeIds().size(), is(1));
         assertThat(((RoutedCollectPhase) right.collectPhase()).orderBy(), isSQL("doc.t2.b"));
@@ -160,7 +161,8 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
                          "on t1.i = t2.i " +
                          "group by t1.a");
 
-        QueryThenFetch qtf = (QueryThenFetch) join.left();
+        // t2 is expected to return fewer rows and becomes the left (build) side of the hash join
+        QueryThenFetch qtf = (QueryThenFetch) join.right();
         Collect left = (Collect) qtf.subPlan();
         assertThat("1 node, otherwise mergePhases would be required", left.nodeIds().size(), is(1));
         assertThat(((RoutedCollectPhase) left.collectPhase()).orderBy(), isSQL("doc.t1.a"));
@@ -171,7 +173,7 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(left.collectPhase().toCollect(), isSQL("doc.t1._fetchid, doc.t1.a"));
 
 
-        Collect right = (Collect) join.right();
+        Collect right = (Collect) join.left();
         assertThat("1 node, otherwise mergePhases would be required", right.nodeIds().size(), is(1));
         assertThat(((RoutedCollectPhase) right.collectPhase()).orderBy(), isSQL("doc.t2.i DESC"));
         assertThat(right.collectPhase().projections(), contains(
@@ -194,7 +196,8 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
                          " (select i from t2 order by i desc limit 5 offset 5) t2 " +
                          "on t1.i = t2.i");
 
-        QueryThenFetch leftQtf = (QueryThenFetch) join.left();
+        // t2 is expected to return fewer rows and becomes the left (build) side of the hash join
+        QueryThenFetch leftQtf = (QueryThenFetch) join.right();
         Collect left = (Collect) leftQtf.subPlan();
         assertThat("1 node, otherwise mergePhases would be required", left.nodeIds().size(), is(1));
         assertThat(left.collectPhase().toCollect(), isSQL("doc.t1._fetchid, doc.t1.a"));
@@ -204,7 +207,7 @@ public class SubQueryPlannerTest extends CrateDummyClusterServiceUnitTest {
             instanceOf(FetchProjection.class)
         ));
 
-        Collect right = (Collect) join.right();
+        Collect right = (Collect) join.left();
         assertThat("1 node, otherwise mergePhases would be required", right.nodeIds().size(), is(1));
         assertThat(((RoutedCollectPhase) right.collectPhase()).orderBy(), isSQL("doc.t2.i DESC"));
         assertThat(right.collectPhase().projections(), contains(
@@ -48,7 +48,7 @@ public class ViewPlannerTest extends CrateDummyClusterServiceUnitTest {
             "Eval[id]\n" +
             "  └ Rename[id, o['i']] AS doc.v1\n" +
             "    └ Eval[id, o['i']]\n" +
-            "      └ NestedLoopJoin[LEFT | (o['i'] = o['i'])]\n" +
+            "      └ HashJoin[LEFT | (o['i'] = o['i'])]\n" +
             "        ├ Rename[o['i']] AS g1\n" +
             "        │  └ Collect[doc.t1 | [o['i']] | true]\n" +
             "        └ Rename[id, o['i']] AS b\n" +
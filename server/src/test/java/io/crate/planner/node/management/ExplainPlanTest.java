@@ -0,0 +1,71 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.node.management;
+
+import io.crate.profile.ProfilingContext;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class ExplainPlanTest extends ESTestCase {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_operator_stats_of_phase_are_summed_up_across_nodes() {
+        Map<String, Map<String, Object>> timingsByNodeId = Map.of(
+            "n1", Map.of(
+                "0-collect", 1.0d,
+                ProfilingContext.OPERATORS, Map.of(
+                    "0-collect", List.of(Map.of("Name", "FILTER", "RowsIn", 10L, "RowsOut", 4L, "Time", 1.5d))
+                )
+            ),
+            "n2", Map.of(
+                "0-collect", 2.0d,
+                ProfilingContext.OPERATORS, Map.of(
+                    "0-collect", List.of(Map.of("Name", "FILTER", "RowsIn", 20L, "RowsOut", 6L, "Time", 0.5d))
+                )
+            )
+        );
+        List<Map<String, Object>> operators = ExplainPlan.getPhaseOperatorsAcrossNodes("0-collect", timingsByNodeId);
+
+        assertThat(operators.size(), is(1));
+        Map<String, Object> operator = operators.get(0);
+        assertThat(operator.get("Name"), is("FILTER"));
+        assertThat(operator.get("RowsIn"), is(30L));
+        assertThat(operator.get("RowsOut"), is(10L));
+        assertThat(operator.get("Time"), is(2.0d));
+        var nodes = (Map<String, Object>) operator.get("Nodes");
+        assertThat(nodes.get("n1"), is(Map.of("RowsIn", 10L, "RowsOut", 4L, "Time", 1.5d)));
+        assertThat(nodes.get("n2"), is(Map.of("RowsIn", 20L, "RowsOut", 6L, "Time", 0.5d)));
+    }
+
+    @Test
+    public void test_no_operators_if_nodes_did_not_record_any() {
+        Map<String, Map<String, Object>> timingsByNodeId = Map.of("n1", Map.of("0-collect", 1.0d));
+        assertThat(ExplainPlan.getPhaseOperatorsAcrossNodes("0-collect", timingsByNodeId).isEmpty(), is(true));
+    }
+}
@@ -23,6 +23,7 @@
 package io.crate.planner.operators;
 
 import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.carrotsearch.hppc.ObjectLongHashMap;
 import io.crate.metadata.RelationName;
 import io.crate.testing.T3;
 import org.junit.Test;
@@ -30,8 +31,10 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.contains;
@@ -79,4 +82,61 @@ public class JoinOrderingTest {
         );
         assertThat(qualifiedNames, contains(T3.T1, T3.T2, T3.T3));
     }
+
+    @Test
+    public void test_order_by_cost_starts_with_the_join_resulting_in_the_fewest_rows() {
+        ObjectLongHashMap<RelationName> numRows = new ObjectLongHashMap<>();
+        numRows.put(T3.T1, 1000);
+        numRows.put(T3.T2, 1000);
+        numRows.put(T3.T3, 10);
+        Map<Set<RelationName>, Double> selectivities = Map.of(
+            Set.of(T3.T1, T3.T2), 0.1,
+            Set.of(T3.T2, T3.T3), 0.01
+        );
+        List<RelationName> ordered = JoinOrdering.orderByCost(List.of(T3.T1, T3.T2, T3.T3), numRows, selectivities);
+        assertThat(ordered, contains(T3.T2, T3.T3, T3.T1));
+    }
+
+    @Test
+    public void test_order_by_cost_avoids_cross_joins() {
+        ObjectLongHashMap<RelationName> numRows = new ObjectLongHashMap<>();
+        numRows.put(T3.T1, 10);
+        numRows.put(T3.T2, 10);
+        numRows.put(T3.T3, 1000);
+        Map<Set<RelationName>, Double> selectivities = Map.of(
+            Set.of(T3.T1, T3.T3), 0.001,
+            Set.of(T3.T2, T3.T3), 0.001
+        );
+        List<RelationName> ordered = JoinOrdering.orderByCost(List.of(T3.T1, T3.T2, T3.T3), numRows, selectivities);
+        assertThat(ordered, contains(T3.T1, T3.T3, T3.T2));
+    }
+
+    @Test
+    public void test_order_by_cost_with_more_relations_than_dp_threshold_builds_order_greedily() {
+        // chain: r0 - r1 - r2 - ... - rN, where the last relations are the smallest
+        int numRelations = JoinOrdering.DP_THRESHOLD + 2;
+        List<RelationName> relations = new ArrayList<>();
+        ObjectLongHashMap<RelationName> numRows = new ObjectLongHashMap<>();
+        Map<Set<RelationName>, Double> selectivities = new HashMap<>();
+        for (int i = 0; i < numRelations; i++) {
+            RelationName relation = new RelationName("doc", "r" + i);
+            relations.add(relation);
+            numRows.put(relation, 1000L * (numRelations - i));
+            if (i > 0) {
+                selectivities.put(Set.of(relations.get(i - 1), relation), 0.001);
+            }
+        }
+        List<RelationName> ordered = JoinOrdering.orderByCost(relations, numRows, selectivities);
+        assertThat(Set.copyOf(ordered), is(Set.copyOf(relations)));
+        assertThat(ordered.get(0), is(relations.get(numRelations - 2)));
+        assertThat(ordered.get(1), is(relations.get(numRelations - 1)));
+        // each relation is joined with a relation it has a join condition with
+        for (int i = 1; i < ordered.size(); i++) {
+            int idx = relations.indexOf(ordered.get(i));
+            List<RelationName> joined = ordered.subList(0, i);
+            boolean connected = (idx > 0 && joined.contains(relations.get(idx - 1)))
+                                || (idx < numRelations - 1 && joined.contains(relations.get(idx + 1)));
+            assertThat(connected, is(true));
+        }
+    }
 }
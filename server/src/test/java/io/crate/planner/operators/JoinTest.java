@@ -107,7 +107,8 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
             mss.where(),
             mss.joinPairs(),
             rel -> logicalPlanner.plan(rel, plannerCtx, subqueryPlanner, Set.of()),
-            txnCtx.sessionContext().isHashJoinEnabled()
+            txnCtx.sessionContext().isHashJoinEnabled(),
+            tableStats
         );
     }
 
@@ -197,7 +198,8 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
             mss.where(),
             mss.joinPairs(),
             rel -> logicalPlanner.plan(rel, plannerCtx, subqueryPlanner, Set.of()),
-            false
+            false,
+            tableStats
         );
         Join nl = (Join) operator.build(
             context, projectionBuilder, -1, 0, null, null, Row.EMPTY, SubQueryResults.EMPTY);
@@ -238,8 +240,8 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
 
         TableStats tableStats = new TableStats();
         Map<RelationName, Stats> rowCountByTable = new HashMap<>();
-        rowCountByTable.put(USER_TABLE_IDENT, new Stats(100, 0, Map.of()));
-        rowCountByTable.put(TEST_DOC_LOCATIONS_TABLE_IDENT, new Stats(10, 0, Map.of()));
+        rowCountByTable.put(USER_TABLE_IDENT, new Stats(10, 0, Map.of()));
+        rowCountByTable.put(TEST_DOC_LOCATIONS_TABLE_IDENT, new Stats(100, 0, Map.of()));
         tableStats.updateTableStats(rowCountByTable);
 
         LogicalPlan operator = createLogicalPlan(mss, tableStats);
@@ -251,15 +253,15 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
     }
 
     @Test
-    public void testHashJoin_TablesSwitchWhenRightBiggerThanLeft() {
+    public void testHashJoin_TablesSwitchWhenLeftBiggerThanRight() {
         QueriedSelectRelation mss = e.analyze("select users.name, locations.id " +
                                               "from users " +
                                               "join locations on users.id = locations.id");
 
         TableStats tableStats = new TableStats();
         Map<RelationName, Stats> rowCountByTable = new HashMap<>();
-        rowCountByTable.put(USER_TABLE_IDENT, new Stats(10, 0, Map.of()));
-        rowCountByTable.put(TEST_DOC_LOCATIONS_TABLE_IDENT, new Stats(100, 0, Map.of()));
+        rowCountByTable.put(USER_TABLE_IDENT, new Stats(100, 0, Map.of()));
+        rowCountByTable.put(TEST_DOC_LOCATIONS_TABLE_IDENT, new Stats(10, 0, Map.of()));
         tableStats.updateTableStats(rowCountByTable);
 
         LogicalPlan operator = createLogicalPlan(mss, tableStats);
@@ -270,6 +272,39 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(((Collect) join.left()).collectPhase().toCollect().get(1), isReference("loc"));
     }
 
+    @Test
+    public void test_joins_are_ordered_by_estimated_number_of_rows_if_stats_are_available() {
+        QueriedSelectRelation mss = e.analyze("select * " +
+                                              "from t1 inner join t2 on t1.a = t2.b " +
+                                              "inner join t3 on t3.c = t2.b");
+
+        TableStats tableStats = new TableStats();
+        tableStats.updateTableStats(Map.of(
+            T3.T1, new Stats(1_000_000, 0, Map.of()),
+            T3.T2, new Stats(1_000_000, 0, Map.of()),
+            T3.T3, new Stats(10, 0, Map.of())
+        ));
+
+        // t1 ⋈ t2 would result in far more rows than t2 ⋈ t3, so t1 is joined last
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator, instanceOf(HashJoin.class));
+        HashJoin hashJoin = (HashJoin) operator;
+        assertThat(hashJoin.lhs.getRelationNames(), is(Set.of(T3.T2, T3.T3)));
+        assertThat(hashJoin.rhs.getRelationNames(), is(Set.of(T3.T1)));
+    }
+
+    @Test
+    public void test_joins_are_ordered_by_join_conditions_without_stats() {
+        QueriedSelectRelation mss = e.analyze("select * " +
+                                              "from t1 inner join t2 on t1.a = t2.b " +
+                                              "inner join t3 on t3.c = t2.b");
+
+        LogicalPlan operator = createLogicalPlan(mss, new TableStats());
+        HashJoin hashJoin = (HashJoin) operator;
+        assertThat(hashJoin.lhs.getRelationNames(), is(Set.of(T3.T1, T3.T2)));
+        assertThat(hashJoin.rhs.getRelationNames(), is(Set.of(T3.T3)));
+    }
+
     @Test
     public void testMultipleHashJoins() {
         QueriedSelectRelation mss = e.analyze("select * " +
@@ -501,4 +536,25 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
             "    └ Collect[doc.t1 | [a] | true]";
         assertThat(logicalPlan, is(isPlan(expectedPlan)));
     }
+
+    @Test
+    public void test_outer_equi_join_is_planned_as_hash_join() {
+        LogicalPlan logicalPlan = e.logicalPlan("select t1.a, t2.b from t1 left join t2 on t1.a = t2.b");
+        String expectedPlan =
+            "HashJoin[LEFT | (a = b)]\n" +
+            "  ├ Collect[doc.t1 | [a] | true]\n" +
+            "  └ Collect[doc.t2 | [b] | true]";
+        assertThat(logicalPlan, is(isPlan(expectedPlan)));
+    }
+
+    @Test
+    public void test_outer_equi_join_is_planned_as_nested_loop_if_hash_join_is_disabled() {
+        e.getSessionContext().setHashJoinEnabled(false);
+        LogicalPlan logicalPlan = e.logicalPlan("select t1.a, t2.b from t1 left join t2 on t1.a = t2.b");
+        String expectedPlan =
+            "NestedLoopJoin[LEFT | (a = b)]\n" +
+            "  ├ Collect[doc.t1 | [a] | true]\n" +
+            "  └ Collect[doc.t2 | [b] | true]";
+        assertThat(logicalPlan, is(isPlan(expectedPlan)));
+    }
 }
@@ -35,8 +35,10 @@ import io.crate.types.DataTypes;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -123,4 +125,91 @@ public class SelectivityFunctionsTest extends CrateDummyClusterServiceUnitTest {
         Stats stats = new Stats(100, 16, Map.of(new ColumnIdent("x"), columnStats));
         assertThat(SelectivityFunctions.estimateNumRows(stats, query, null), Matchers.is(50L));
     }
+
+    @Test
+    public void test_equi_join_selectivity_is_based_on_the_larger_approx_distinct() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Symbol joinCondition = expressions.asSymbol("t1.x = t2.y");
+        var t1Values = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        var t2Values = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        Stats t1Stats = new Stats(100, 16, Map.of(
+            new ColumnIdent("x"), ColumnStats.fromSortedValues(t1Values, DataTypes.INTEGER, 0, 100)));
+        Stats t2Stats = new Stats(10, 16, Map.of(
+            new ColumnIdent("y"), ColumnStats.fromSortedValues(t2Values, DataTypes.INTEGER, 0, 10)));
+        double selectivity = SelectivityFunctions.estimateJoinSelectivity(
+            joinCondition,
+            Map.of(T3.T1, t1Stats, T3.T2, t2Stats)
+        );
+        assertThat(selectivity, Matchers.closeTo(0.01, 0.001));
+    }
+
+    @Test
+    public void test_equi_join_selectivity_without_column_stats_uses_default() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Symbol joinCondition = expressions.asSymbol("t1.x = t2.y");
+        double selectivity = SelectivityFunctions.estimateJoinSelectivity(joinCondition, Map.of());
+        assertThat(selectivity, Matchers.is(0.005));
+    }
+
+    private static Stats uniformIntStats(String column, int numRows) {
+        var numbers = IntStream.range(0, numRows).boxed().collect(Collectors.toList());
+        var columnStats = ColumnStats.fromSortedValues(numbers, DataTypes.INTEGER, 0, numRows);
+        return new Stats(numRows, 16, Map.of(new ColumnIdent(column), columnStats));
+    }
+
+    @Test
+    public void test_range_selectivity_is_based_on_histogram() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Stats stats = uniformIntStats("x", 20_000);
+        assertThat(SelectivityFunctions.estimateNumRows(stats, expressions.asSymbol("x < 5000"), null),
+                   Matchers.allOf(Matchers.greaterThan(4800L), Matchers.lessThan(5200L)));
+        assertThat(SelectivityFunctions.estimateNumRows(stats, expressions.asSymbol("x >= 15000"), null),
+                   Matchers.allOf(Matchers.greaterThan(4800L), Matchers.lessThan(5200L)));
+        assertThat(SelectivityFunctions.estimateNumRows(stats, expressions.asSymbol("10000 > x"), null),
+                   Matchers.allOf(Matchers.greaterThan(9800L), Matchers.lessThan(10200L)));
+        assertThat(SelectivityFunctions.estimateNumRows(stats, expressions.asSymbol("x > 30000"), null),
+                   Matchers.is(0L));
+    }
+
+    @Test
+    public void test_between_is_estimated_as_single_range() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Stats stats = uniformIntStats("x", 20_000);
+        Symbol query = expressions.asSymbol("x between 1000 and 2000");
+        assertThat(SelectivityFunctions.estimateNumRows(stats, query, null),
+                   Matchers.allOf(Matchers.greaterThan(900L), Matchers.lessThan(1100L)));
+    }
+
+    @Test
+    public void test_range_selectivity_with_parameter() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Stats stats = uniformIntStats("x", 20_000);
+        Symbol query = expressions.asSymbol("x <= ?");
+        assertThat(SelectivityFunctions.estimateNumRows(stats, query, new Row1(2000)),
+                   Matchers.allOf(Matchers.greaterThan(1800L), Matchers.lessThan(2200L)));
+    }
+
+    @Test
+    public void test_any_eq_selectivity_is_sum_of_eq_selectivities() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        Stats stats = uniformIntStats("x", 20_000);
+        Symbol query = expressions.asSymbol("x = any([1, 2, 3])");
+        assertThat(SelectivityFunctions.estimateNumRows(stats, query, null), Matchers.is(3L));
+    }
+
+    @Test
+    public void test_like_prefix_selectivity_is_based_on_histogram() {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        List<String> values = new ArrayList<>();
+        for (char c = 'a'; c < 'k'; c++) {
+            for (int i = 0; i < 1000; i++) {
+                values.add(c + String.format(Locale.ENGLISH, "%04d", i));
+            }
+        }
+        var columnStats = ColumnStats.fromSortedValues(values, DataTypes.STRING, 0, values.size());
+        Stats stats = new Stats(values.size(), 16, Map.of(new ColumnIdent("a"), columnStats));
+        Symbol query = expressions.asSymbol("a like 'b%'");
+        assertThat(SelectivityFunctions.estimateNumRows(stats, query, null),
+                   Matchers.allOf(Matchers.greaterThan(900L), Matchers.lessThan(1100L)));
+    }
 }
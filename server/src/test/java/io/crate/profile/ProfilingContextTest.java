@@ -22,9 +22,19 @@
 
 package io.crate.profile;
 
+import io.crate.breaker.RamAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.FilteringBatchIterator;
+import io.crate.data.InMemoryBatchIterator;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class ProfilingContextTest {
@@ -40,4 +50,98 @@ public class ProfilingContextTest {
         String key = ProfilingContext.generateProfilingKey(1, null);
         assertThat(key, is("1-null"));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_operator_stats_contain_rows_in_and_out_of_operator() {
+        ProfilingContext context = new ProfilingContext(List.of());
+        OperatorStats stats = context.createOperatorStats("1-mergeOnHandler", "FILTER");
+        BatchIterator<Integer> source = InMemoryBatchIterator.of(List.of(1, 2, 3, 4), null, false);
+        BatchIterator<Integer> filtered = ProfilingBatchIterator.output(
+            new FilteringBatchIterator<>(ProfilingBatchIterator.input(source, stats), x -> x % 2 == 0),
+            stats
+        );
+        int numRows = 0;
+        while (filtered.moveNext()) {
+            numRows++;
+        }
+        assertThat(numRows, is(2));
+
+        var operatorsByPhase = (Map<String, Object>) context.getDurationInMSByTimer().get(ProfilingContext.OPERATORS);
+        var operators = (List<Map<String, Object>>) operatorsByPhase.get("1-mergeOnHandler");
+        assertThat(operators.size(), is(1));
+        Map<String, Object> operator = operators.get(0);
+        assertThat(operator.get("Name"), is("FILTER"));
+        assertThat(operator.get("RowsIn"), is(4L));
+        assertThat(operator.get("RowsOut"), is(2L));
+        assertThat(operator.get("Batches"), is(0L));
+        assertThat(operator.containsKey("Time"), is(true));
+        assertThat(operator.containsKey("TotalTime"), is(true));
+    }
+
+    @Test
+    public void test_operators_are_not_included_if_none_are_profiled() {
+        ProfilingContext context = new ProfilingContext(List.of());
+        assertThat(context.getDurationInMSByTimer().containsKey(ProfilingContext.OPERATORS), is(false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_instances_of_the_same_operator_share_their_stats() {
+        ProfilingContext context = new ProfilingContext(List.of());
+        Object projection = new Object();
+        OperatorStats stats = context.operatorStats("1-collect", projection, "FILTER");
+        assertThat(context.operatorStats("1-collect", projection, "FILTER"), sameInstance(stats));
+
+        int numRows = 3 * ProfilingBatchIterator.SAMPLE_INTERVAL + 1;
+        List<Integer> rows = IntStream.range(0, numRows).boxed().collect(Collectors.toList());
+        for (int i = 0; i < 2; i++) {
+            BatchIterator<Integer> it = ProfilingBatchIterator.output(InMemoryBatchIterator.of(rows, null, false), stats);
+            int numRowsOut = 0;
+            while (it.moveNext()) {
+                numRowsOut++;
+            }
+            it.close();
+            assertThat(numRowsOut, is(numRows));
+        }
+
+        var operatorsByPhase = (Map<String, Object>) context.getDurationInMSByTimer().get(ProfilingContext.OPERATORS);
+        var operators = (List<Map<String, Object>>) operatorsByPhase.get("1-collect");
+        assertThat(operators.size(), is(1));
+        assertThat(operators.get(0).get("RowsOut"), is(2L * numRows));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_operator_stats_contain_peak_of_ram_accounting_and_bytes_sent() {
+        ProfilingContext context = new ProfilingContext(List.of());
+        OperatorStats stats = new OperatorStats("OUTPUT");
+        ProfilingRamAccounting ramAccounting = new ProfilingRamAccounting(RamAccounting.NO_ACCOUNTING);
+        stats.addRamAccounting(ramAccounting);
+        stats.bytesSentProfiled();
+
+        ramAccounting.addBytes(100);
+        ramAccounting.addBytes(50);
+        ramAccounting.release();
+        ramAccounting.addBytes(120);
+        stats.addBytesSent(30);
+        stats.addBytesSent(12);
+        assertThat(ramAccounting.peakBytes(), is(150L));
+
+        // only added once the operator is applied
+        assertThat(context.getDurationInMSByTimer().containsKey(ProfilingContext.OPERATORS), is(false));
+        context.addOperatorStats("1-collect", stats);
+
+        var operatorsByPhase = (Map<String, Object>) context.getDurationInMSByTimer().get(ProfilingContext.OPERATORS);
+        var operator = ((List<Map<String, Object>>) operatorsByPhase.get("1-collect")).get(0);
+        assertThat(operator.get("PeakUsedBytes"), is(150L));
+        assertThat(operator.get("BytesSent"), is(42L));
+    }
+
+    @Test
+    public void test_memory_and_bytes_sent_are_not_included_if_not_profiled() {
+        Map<String, Object> operator = new OperatorStats("FILTER").asMap();
+        assertThat(operator.containsKey("PeakUsedBytes"), is(false));
+        assertThat(operator.containsKey("BytesSent"), is(false));
+    }
 }
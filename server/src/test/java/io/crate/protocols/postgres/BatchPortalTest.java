@@ -23,6 +23,8 @@
 package io.crate.protocols.postgres;
 
 import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.ParseCache;
+import io.crate.action.sql.PlanCache;
 import io.crate.action.sql.Session;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.AnalyzedStatement;
@@ -107,7 +109,9 @@ public class BatchPortalTest extends CrateDummyClusterServiceUnitTest {
             false,
             executor,
             AccessControl.DISABLED,
-            SessionContext.systemSessionContext());
+            SessionContext.systemSessionContext(),
+            ParseCache.DISABLED,
+            PlanCache.DISABLED);
 
         session.parse("S_1", "insert into t1(x) values(1)", Collections.emptyList());
         session.bind("Portal", "S_1", Collections.emptyList(), null);
@@ -0,0 +1,89 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.auth.user.AccessControl;
+import io.crate.data.Row1;
+import io.crate.execution.dsl.projection.WriterProjection;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CopyOutReceiverTest {
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+    private final AtomicInteger numResumes = new AtomicInteger();
+
+    @After
+    public void releaseMessages() {
+        channel.finishAndReleaseAll();
+    }
+
+    private CopyOutReceiver newReceiver() throws Exception {
+        return new CopyOutReceiver(
+            "copy t to stdout",
+            channel,
+            AccessControl.DISABLED,
+            List.of("x"),
+            WriterProjection.OutputFormat.JSON_OBJECT,
+            r -> numResumes.incrementAndGet()
+        );
+    }
+
+    @Test
+    public void test_batch_is_flushed_and_execution_resumed_if_channel_is_writable() throws Exception {
+        CopyOutReceiver receiver = newReceiver();
+        receiver.setNextRow(new Row1(1));
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        receiver.batchFinished();
+        assertThat(channel.outboundMessages().size(), is(1));
+        assertThat(numResumes.get(), is(1));
+    }
+
+    @Test
+    public void test_execution_is_paused_until_channel_is_writable_again() throws Exception {
+        CopyOutReceiver receiver = newReceiver();
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        receiver.setNextRow(new Row1(1));
+        receiver.batchFinished();
+        assertThat(numResumes.get(), is(0));
+
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(0));
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(1));
+
+        // Only a paused receiver is resumed
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(1));
+    }
+}
@@ -40,21 +40,54 @@ import java.util.Collections;
 
 import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class MessagesTest extends ESTestCase {
 
     @Test
-    public void testBufferInSendDataRowIsReleasedIfGetValueFromRowFails() {
+    public void testBufferInDataRowEncoderIsReleasedIfGetValueFromRowFails() {
         Channel channel = mock(Channel.class);
         ByteBufAllocator byteBufAllocator = mock(ByteBufAllocator.class);
         ByteBuf buf = Unpooled.buffer();
-        when(byteBufAllocator.buffer()).thenReturn(buf);
+        when(byteBufAllocator.buffer(anyInt())).thenReturn(buf);
         when(channel.alloc()).thenReturn(byteBufAllocator);
+        DataRowEncoder encoder = new DataRowEncoder(
+            channel,
+            Collections.singletonList(PGTypes.get(DataTypes.INTEGER)),
+            null,
+            new DataRowStats()
+        );
+        try {
+            encoder.write(
+                new Row() {
+                    @Override
+                    public int numColumns() {
+                        return 1;
+                    }
+
+                    @Override
+                    public Object get(int index) {
+                        throw new IllegalArgumentException("Dummy");
+                    }
+                }
+            );
+            fail("write should raise an exception");
+        } catch (Exception ignored) {
+        }
+        encoder.flush();
+        assertThat(buf.refCnt(), is(0));
+    }
+
+    @Test
+    public void test_write_data_row_resets_writer_index_if_get_value_from_row_fails() {
+        ByteBuf buf = Unpooled.buffer();
+        Messages.writeDataRow(buf, new RowN($(10)), Collections.singletonList(PGTypes.get(DataTypes.INTEGER)), null);
+        int writerIndex = buf.writerIndex();
         try {
-            Messages.sendDataRow(
-                channel,
+            Messages.writeDataRow(
+                buf,
                 new Row() {
                     @Override
                     public int numColumns() {
@@ -69,21 +102,24 @@ public class MessagesTest extends ESTestCase {
                 Collections.singletonList(PGTypes.get(DataTypes.INTEGER)),
                 null
             );
-            fail("sendDataRow should raise an exception");
+            fail("writeDataRow should raise an exception");
         } catch (Exception ignored) {
         }
-        assertThat(buf.refCnt(), is(0));
+        assertThat(buf.writerIndex(), is(writerIndex));
+        buf.release();
     }
 
     @Test
     public void testNullValuesAddToLength() throws Exception {
         EmbeddedChannel channel = new EmbeddedChannel();
-        Messages.sendDataRow(
+        DataRowEncoder encoder = new DataRowEncoder(
             channel,
-            new RowN($(10, null)),
-            Arrays.asList(PGTypes.get(DataTypes.INTEGER), PGTypes.get(DataTypes.STRING)), null
+            Arrays.asList(PGTypes.get(DataTypes.INTEGER), PGTypes.get(DataTypes.STRING)),
+            null,
+            new DataRowStats()
         );
-        channel.flush();
+        encoder.write(new RowN($(10, null)));
+        encoder.flush();
         ByteBuf buffer = channel.readOutbound();
 
         try {
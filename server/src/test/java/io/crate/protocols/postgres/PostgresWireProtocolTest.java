@@ -23,6 +23,7 @@
 package io.crate.protocols.postgres;
 
 import io.crate.action.sql.DescribeResult;
+import io.crate.action.sql.ResultReceiver;
 import io.crate.action.sql.SQLOperations;
 import io.crate.action.sql.Session;
 import io.crate.action.sql.SessionContext;
@@ -32,10 +33,16 @@ import io.crate.auth.AuthenticationMethod;
 import io.crate.auth.user.AccessControl;
 import io.crate.auth.user.User;
 import io.crate.auth.user.UserManager;
+import io.crate.data.Row1;
 import io.crate.exceptions.JobKilledException;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.planner.DependencyCarrier;
 import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.ObjectLiteral;
+import io.crate.sql.tree.Statement;
+import io.crate.sql.tree.StringLiteral;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 import io.crate.types.DataTypes;
@@ -46,6 +53,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.elasticsearch.Version;
+import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.inject.Provider;
 import org.elasticsearch.common.settings.SecureString;
 import org.elasticsearch.common.settings.Settings;
@@ -55,7 +63,11 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.annotation.Nullable;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -65,12 +77,18 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static io.crate.testing.TestingHelpers.createReference;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isOneOf;
 import static org.mockito.ArgumentMatchers.anyChar;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -123,7 +141,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 mock(SQLOperations.class),
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         ByteBuf buffer = Unpooled.buffer();
@@ -165,7 +184,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
         AtomicBoolean flushed = new AtomicBoolean(false);
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler) {
             @Override
@@ -193,7 +213,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         ByteBuf buffer = Unpooled.buffer();
@@ -218,7 +239,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
 
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
         {
@@ -276,7 +298,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
 
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
         {
@@ -338,7 +361,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
 
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
         {
@@ -394,7 +418,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 mock(SQLOperations.class),
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
 
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
@@ -420,7 +445,11 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
     @Test
     public void testCrateServerVersionIsReceivedOnStartup() throws Exception {
         PostgresWireProtocol ctx = new PostgresWireProtocol(
-            sqlOperations, sessionContext -> AccessControl.DISABLED, new AlwaysOKNullAuthentication(), null);
+            sqlOperations,
+            sessionContext -> AccessControl.DISABLED,
+            new AlwaysOKNullAuthentication(),
+            null,
+            new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         ByteBuf buf = Unpooled.buffer();
@@ -474,7 +503,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                         };
                     }
                 },
-                null);
+                null,
+                new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         ByteBuf respBuf;
@@ -511,7 +541,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionContext -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         ByteBuf buffer = Unpooled.buffer();
@@ -545,6 +576,210 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
         readReadyForQueryMessage(channel);
     }
 
+    @Test
+    public void test_copy_from_stdin_imports_received_data_with_copy_from_local_file() throws Exception {
+        Session session = startSessionWithMockedExecution();
+        List<CopyFrom<Expression>> statements = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        List<String> spooledData = new ArrayList<>();
+        doAnswer(invocation -> {
+            CopyFrom<Expression> copyFrom = invocation.getArgument(1);
+            statements.add(copyFrom);
+            Path file = Paths.get(URI.create(((StringLiteral) copyFrom.path()).getValue()));
+            files.add(file);
+            spooledData.add(Files.readString(file));
+            return null;
+        }).when(session).parse(anyString(), any(Statement.class), anyString(), anyList());
+
+        ByteBuf buffer = Unpooled.buffer();
+        ClientMessages.sendQuery(buffer, "COPY users FROM STDIN");
+        channel.writeInbound(buffer);
+        channel.releaseInbound();
+        readCopyResponse(channel, 'G');
+
+        buffer = Unpooled.buffer();
+        ClientMessages.sendCopyData(buffer, "{\"name\": \"Arthur\"}\n");
+        ClientMessages.sendCopyData(buffer, "{\"name\": \"Trillian\"}\n");
+        ClientMessages.sendCopyDone(buffer);
+        channel.writeInbound(buffer);
+        channel.releaseInbound();
+        readReadyForQueryMessage(channel);
+
+        assertThat(spooledData, contains("{\"name\": \"Arthur\"}\n{\"name\": \"Trillian\"}\n"));
+        assertThat(
+            statements.get(0).properties().get("node_filters"),
+            is(new ObjectLiteral(Map.of("id", new StringLiteral("n1")))));
+        assertThat("temporary file must be deleted", Files.exists(files.get(0)), is(false));
+    }
+
+    @Test
+    public void test_copy_fail_aborts_copy_from_stdin() throws Exception {
+        Session session = startSessionWithMockedExecution();
+
+        ByteBuf buffer = Unpooled.buffer();
+        ClientMessages.sendQuery(buffer, "COPY users FROM STDIN");
+        channel.writeInbound(buffer);
+        channel.releaseInbound();
+        readCopyResponse(channel, 'G');
+
+        buffer = Unpooled.buffer();
+        ClientMessages.sendCopyData(buffer, "{\"name\": \"Arthur\"}\n");
+        ClientMessages.sendCopyFail(buffer, "canceled by user");
+        // data in flight after the failure is ignored
+        ClientMessages.sendCopyData(buffer, "{\"name\": \"Trillian\"}\n");
+        ClientMessages.sendCopyDone(buffer);
+        channel.writeInbound(buffer);
+        channel.releaseInbound();
+
+        ByteBuf response = channel.readOutbound();
+        assertThat(response.readByte(), is((byte) 'E'));
+        response.release();
+        readReadyForQueryMessage(channel);
+        assertThat(channel.outboundMessages().size(), is(0));
+        verify(session, never()).parse(anyString(), any(Statement.class), anyString(), anyList());
+    }
+
+    @Test
+    public void test_copy_to_stdout_sends_rows_as_copy_data() throws Exception {
+        Session session = startSessionWithMockedExecution();
+        DescribeResult describeResult = mock(DescribeResult.class);
+        when(describeResult.getFields()).thenReturn(List.of(createReference("name", DataTypes.STRING)));
+        when(session.describe(anyChar(), anyString())).thenReturn(describeResult);
+        when(session.execute(anyString(), anyInt(), any(ResultReceiver.class))).thenAnswer(invocation -> {
+            ResultReceiver<?> receiver = invocation.getArgument(2);
+            receiver.setNextRow(new Row1("Arthur"));
+            receiver.setNextRow(new Row1("Trillian"));
+            receiver.allFinished(false);
+            return null;
+        });
+
+        ByteBuf buffer = Unpooled.buffer();
+        ClientMessages.sendQuery(buffer, "COPY users (name) TO STDOUT");
+        channel.writeInbound(buffer);
+        channel.releaseInbound();
+
+        readCopyResponse(channel, 'H');
+        assertThat(readCopyData(channel).trim(), is("[\"Arthur\"]"));
+        assertThat(readCopyData(channel).trim(), is("[\"Trillian\"]"));
+
+        ByteBuf response = channel.readOutbound();
+        assertThat(response.readByte(), is((byte) 'c'));
+        response.release();
+        response = channel.readOutbound();
+        assertThat(response.readByte(), is((byte) 'C'));
+        response.skipBytes(4);
+        assertThat(PostgresWireProtocol.readCString(response), is("COPY 2"));
+        response.release();
+        readReadyForQueryMessage(channel);
+    }
+
+    @Test
+    public void test_rows_and_bytes_sent_are_counted_per_connection_and_added_to_the_node() throws Exception {
+        DataRowStats nodeStats = new DataRowStats();
+        PostgresWireProtocol first = newConnectionSendingRows(nodeStats, 2);
+        PostgresWireProtocol second = newConnectionSendingRows(nodeStats, 3);
+        EmbeddedChannel firstChannel = new EmbeddedChannel(first.decoder, first.handler);
+        EmbeddedChannel secondChannel = new EmbeddedChannel(second.decoder, second.handler);
+        try {
+            for (EmbeddedChannel ch : List.of(firstChannel, secondChannel)) {
+                sendStartupMessage(ch);
+                ByteBuf buffer = Unpooled.buffer();
+                ClientMessages.sendQuery(buffer, "select name from users");
+                ch.writeInbound(buffer);
+                ch.releaseInbound();
+            }
+
+            // DataRow: 'D' | int32 len | int16 numColumns | int32 valueLen | "Arthur"
+            int rowBytes = 1 + 4 + 2 + 4 + 6;
+            assertThat(first.dataRowStats().rowsSent(), is(2L));
+            assertThat(first.dataRowStats().bytesSent(), is(2L * rowBytes));
+            assertThat(second.dataRowStats().rowsSent(), is(3L));
+            assertThat(second.dataRowStats().bytesSent(), is(3L * rowBytes));
+            assertThat(nodeStats.rowsSent(), is(5L));
+            assertThat(nodeStats.bytesSent(), is(5L * rowBytes));
+        } finally {
+            firstChannel.finishAndReleaseAll();
+            secondChannel.finishAndReleaseAll();
+        }
+    }
+
+    private static PostgresWireProtocol newConnectionSendingRows(DataRowStats nodeStats, int numRows) {
+        SQLOperations sqlOperations = mock(SQLOperations.class);
+        Session session = mock(Session.class);
+        when(session.sessionContext()).thenReturn(new SessionContext(User.CRATE_USER));
+        when(sqlOperations.createSession(any(String.class), any(User.class))).thenReturn(session);
+        when(sqlOperations.localNode()).thenReturn(
+            new DiscoveryNode("n1", buildNewFakeTransportAddress(), Version.CURRENT));
+        DescribeResult describeResult = mock(DescribeResult.class);
+        when(describeResult.getFields()).thenReturn(List.of(createReference("name", DataTypes.STRING)));
+        when(session.describe(anyChar(), anyString())).thenReturn(describeResult);
+        when(session.transactionState()).thenReturn(TransactionState.IDLE);
+        when(session.sync()).thenReturn(CompletableFuture.completedFuture(null));
+        when(session.execute(anyString(), anyInt(), any(ResultReceiver.class))).thenAnswer(invocation -> {
+            ResultReceiver<?> receiver = invocation.getArgument(2);
+            for (int i = 0; i < numRows; i++) {
+                receiver.setNextRow(new Row1("Arthur"));
+            }
+            receiver.allFinished(false);
+            return null;
+        });
+        return new PostgresWireProtocol(
+            sqlOperations,
+            sessionCtx -> AccessControl.DISABLED,
+            new AlwaysOKNullAuthentication(),
+            null,
+            nodeStats);
+    }
+
+    private Session startSessionWithMockedExecution() {
+        SQLOperations sqlOperations = mock(SQLOperations.class);
+        Session session = mock(Session.class);
+        when(session.sessionContext()).thenReturn(new SessionContext(User.CRATE_USER));
+        when(sqlOperations.createSession(any(String.class), any(User.class))).thenReturn(session);
+        when(sqlOperations.localNode()).thenReturn(
+            new DiscoveryNode("n1", buildNewFakeTransportAddress(), Version.CURRENT));
+        DescribeResult describeResult = mock(DescribeResult.class);
+        when(describeResult.getFields()).thenReturn(null);
+        when(session.describe(anyChar(), anyString())).thenReturn(describeResult);
+        when(session.transactionState()).thenReturn(TransactionState.IDLE);
+        when(session.sync()).thenReturn(CompletableFuture.completedFuture(null));
+
+        PostgresWireProtocol ctx =
+            new PostgresWireProtocol(
+                sqlOperations,
+                sessionCtx -> AccessControl.DISABLED,
+                new AlwaysOKNullAuthentication(),
+                null,
+                new DataRowStats());
+        channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
+
+        sendStartupMessage(channel);
+        readAuthenticationOK(channel);
+        skipParameterMessages(channel);
+        readReadyForQueryMessage(channel);
+        return session;
+    }
+
+    private static void readCopyResponse(EmbeddedChannel channel, char msgType) {
+        ByteBuf response = channel.readOutbound();
+        byte[] responseBytes = new byte[8];
+        response.readBytes(responseBytes);
+        response.release();
+        // CopyInResponse/CopyOutResponse: 'G' or 'H' | int32 len | int8 format | int16 numColumns
+        assertThat(responseBytes, is(new byte[]{(byte) msgType, 0, 0, 0, 7, 0, 0, 0}));
+    }
+
+    private static String readCopyData(EmbeddedChannel channel) {
+        ByteBuf response = channel.readOutbound();
+        try {
+            assertThat(response.readByte(), is((byte) 'd'));
+            int length = response.readInt() - 4;
+            return response.readCharSequence(length, StandardCharsets.UTF_8).toString();
+        } finally {
+            response.release();
+        }
+    }
+
     private void submitQueriesThroughSimpleQueryMode(String statements, @Nullable Throwable failure) {
         SQLOperations sqlOperations = Mockito.mock(SQLOperations.class);
         Session session = mock(Session.class);
@@ -561,7 +796,8 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
                 sqlOperations,
                 sessionCtx -> AccessControl.DISABLED,
                 new AlwaysOKNullAuthentication(),
-                null);
+                null,
+                new DataRowStats());
         channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
 
         if (failure != null) {
@@ -26,33 +26,90 @@ import io.crate.auth.user.AccessControl;
 import io.crate.data.Row1;
 import io.crate.protocols.postgres.types.PGTypes;
 import io.crate.types.DataTypes;
-import io.netty.channel.Channel;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
 import org.junit.Test;
-import org.mockito.Answers;
 
 import java.util.Collections;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 
 public class ResultSetReceiverTest {
 
-    @Test
-    public void testChannelIsPeriodicallyFlushedToAvoidConsumingTooMuchMemory() {
-        Channel channel = mock(Channel.class, Answers.RETURNS_DEEP_STUBS);
-        ResultSetReceiver resultSetReceiver = new ResultSetReceiver(
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+    private final DataRowStats stats = new DataRowStats();
+
+    @After
+    public void releaseMessages() {
+        channel.finishAndReleaseAll();
+    }
+
+    private ResultSetReceiver newReceiver(DataRowStats stats) {
+        return new ResultSetReceiver(
             "select * from t",
             channel,
             TransactionState.IDLE,
             AccessControl.DISABLED,
-            Collections.singletonList(PGTypes.get(DataTypes.INTEGER)),
-            null
+            Collections.singletonList(PGTypes.get(DataTypes.STRING)),
+            null,
+            stats
         );
-        Row1 row1 = new Row1(1);
-        for (int i = 0; i < 1500; i++) {
-            resultSetReceiver.setNextRow(row1);
+    }
+
+    @Test
+    public void test_rows_are_encoded_into_a_single_buffer_and_flushed_once_finished() {
+        ResultSetReceiver resultSetReceiver = newReceiver(stats);
+        Row1 row = new Row1("1");
+        for (int i = 0; i < 1000; i++) {
+            resultSetReceiver.setNextRow(row);
+        }
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        resultSetReceiver.allFinished(false);
+
+        // 'D' + length + number of columns + length of the value + value
+        int dataRowLength = 1 + 4 + 2 + 4 + 1;
+        ByteBuf dataRows = channel.readOutbound();
+        try {
+            assertThat(dataRows.readableBytes(), is(1000 * dataRowLength));
+        } finally {
+            dataRows.release();
+        }
+        ByteBuf commandComplete = channel.readOutbound();
+        try {
+            assertThat((char) commandComplete.readByte(), is('C'));
+        } finally {
+            commandComplete.release();
+        }
+        assertThat(stats.rowsSent(), is(1000L));
+        assertThat(stats.bytesSent(), is(1000L * dataRowLength));
+    }
+
+    @Test
+    public void test_channel_is_flushed_by_byte_volume_to_avoid_consuming_too_much_memory() {
+        // Keep the channel writable, so that only the written bytes trigger the flush
+        channel.config().setWriteBufferWaterMark(
+            new WriteBufferWaterMark(4 * DataRowEncoder.FLUSH_THRESHOLD, 8 * DataRowEncoder.FLUSH_THRESHOLD));
+        ResultSetReceiver resultSetReceiver = newReceiver(stats);
+        Row1 row = new Row1("x".repeat(1000));
+        int maxRows = 2 * DataRowEncoder.FLUSH_THRESHOLD / 1000;
+        for (int i = 0; i < maxRows && channel.outboundMessages().isEmpty(); i++) {
+            resultSetReceiver.setNextRow(row);
+        }
+        long flushedBytes = 0;
+        long lastWrittenBytes = 0;
+        for (Object msg : channel.outboundMessages()) {
+            lastWrittenBytes = ((ByteBuf) msg).readableBytes();
+            flushedBytes += lastWrittenBytes;
         }
-        verify(channel, times(1)).flush();
+        assertThat(flushedBytes, greaterThanOrEqualTo((long) DataRowEncoder.FLUSH_THRESHOLD));
+        // Nothing was flushed while the written bytes were below the threshold
+        assertThat(flushedBytes - lastWrittenBytes, lessThan((long) DataRowEncoder.FLUSH_THRESHOLD));
+        assertThat(stats.bytesSent(), is(flushedBytes));
     }
 }
@@ -34,14 +34,26 @@ import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.RelationName;
 import org.elasticsearch.test.ESTestCase;
 import io.crate.types.DataTypes;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 
 public class RestActionReceiversTest extends ESTestCase {
 
@@ -124,4 +136,87 @@ public class RestActionReceiversTest extends ESTestCase {
         String s = Strings.toString(builder.build());
         assertEquals(s, "{\"results\":[{\"rowcount\":1},{\"rowcount\":2},{\"rowcount\":3}]}");
     }
+
+    @Test
+    public void test_rest_streaming_result_set_receiver_writes_rows_as_chunks() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        AtomicInteger numResumes = new AtomicInteger();
+        RestStreamingResultSetReceiver receiver = new RestStreamingResultSetReceiver(
+            channel,
+            new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK),
+            false,
+            fields,
+            0L,
+            new RowAccountingWithEstimators(Symbols.typeView(fields), RamAccounting.NO_ACCOUNTING),
+            true,
+            r -> numResumes.incrementAndGet()
+        );
+        receiver.setNextRow(rows.get(0));
+        receiver.setNextRow(rows.get(1));
+        receiver.batchFinished();
+        assertThat(numResumes.get(), is(1));
+        receiver.setNextRow(rows.get(2));
+        receiver.allFinished(false);
+        assertThat(receiver.completionFuture().isDone(), is(true));
+
+        assertThat(channel.readOutbound(), instanceOf(HttpResponse.class));
+        StringBuilder content = new StringBuilder();
+        HttpContent chunk;
+        while ((chunk = channel.readOutbound()) != null) {
+            content.append(chunk.content().toString(StandardCharsets.UTF_8));
+            chunk.release();
+            if (chunk instanceof LastHttpContent) {
+                break;
+            }
+        }
+
+        ResultToXContentBuilder builder = ResultToXContentBuilder.builder(JsonXContent.contentBuilder());
+        builder.cols(fields);
+        builder.colTypes(fields);
+        builder.startRows();
+        for (Row row : rows) {
+            builder.addRow(row, 3);
+        }
+        builder.finishRows();
+        builder.rowCount(rows.size());
+        assertEquals(
+            stripDuration(Strings.toString(builder.build())),
+            stripDuration(content.toString())
+        );
+    }
+
+    @Test
+    public void test_rest_streaming_result_set_receiver_resumes_once_channel_is_writable_again() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        AtomicInteger numResumes = new AtomicInteger();
+        RestStreamingResultSetReceiver receiver = new RestStreamingResultSetReceiver(
+            channel,
+            new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK),
+            false,
+            fields,
+            0L,
+            new RowAccountingWithEstimators(Symbols.typeView(fields), RamAccounting.NO_ACCOUNTING),
+            true,
+            r -> numResumes.incrementAndGet()
+        );
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        receiver.setNextRow(rows.get(0));
+        receiver.batchFinished();
+        assertThat(numResumes.get(), is(0));
+
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(0));
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(1));
+
+        // Only a paused receiver is resumed
+        receiver.resumeIfPaused();
+        assertThat(numResumes.get(), is(1));
+
+        receiver.allFinished(false);
+        assertThat(receiver.completionFuture().isDone(), is(true));
+        channel.finishAndReleaseAll();
+    }
 }
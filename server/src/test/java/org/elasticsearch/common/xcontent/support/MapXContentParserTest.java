@@ -0,0 +1,138 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package org.elasticsearch.common.xcontent.support;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.test.ESTestCase;
+import org.joda.time.Period;
+import org.junit.Test;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.impl.PointImpl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class MapXContentParserTest extends ESTestCase {
+
+    private static void assertSameTokensAsJson(Map<String, Object> map) throws IOException {
+        BytesReference json = BytesReference.bytes(XContentFactory.jsonBuilder().map(map));
+        try (XContentParser expected = XContentHelper.createParser(
+                NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, json, XContentType.JSON);
+             XContentParser actual = new MapXContentParser(
+                 NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, map)) {
+            XContentParser.Token token;
+            do {
+                token = expected.nextToken();
+                assertThat(actual.nextToken(), is(token));
+                if (token == null) {
+                    break;
+                }
+                assertThat(actual.currentName(), is(expected.currentName()));
+                if (token.isValue()) {
+                    assertThat(actual.text(), is(expected.text()));
+                    assertThat(actual.objectText(), is(expected.objectText()));
+                }
+                if (token == XContentParser.Token.VALUE_NUMBER) {
+                    assertThat(actual.numberType(), is(expected.numberType()));
+                    assertThat(actual.numberValue(), is(expected.numberValue()));
+                    assertThat(actual.longValue(), is(expected.longValue()));
+                    assertThat(actual.floatValue(), is(expected.floatValue()));
+                    assertThat(actual.doubleValue(), is(expected.doubleValue()));
+                }
+            } while (true);
+        }
+    }
+
+    @Test
+    public void test_scalar_values_produce_same_tokens_as_json() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("s", "foo");
+        map.put("b", true);
+        map.put("i", 10);
+        map.put("l", 10L);
+        map.put("big_l", Long.MAX_VALUE);
+        map.put("short", (short) 3);
+        map.put("byte", (byte) 1);
+        map.put("f", 1.1f);
+        map.put("d", 1.1d);
+        map.put("big_d", 1.0E20d);
+        map.put("nan", Double.NaN);
+        map.put("inf", Float.NEGATIVE_INFINITY);
+        map.put("n", null);
+        assertSameTokensAsJson(map);
+    }
+
+    @Test
+    public void test_nested_objects_and_arrays_produce_same_tokens_as_json() throws Exception {
+        Map<String, Object> inner = new LinkedHashMap<>();
+        inner.put("x", List.of(1, 2, 3));
+        inner.put("empty", Map.of());
+        inner.put("point", new PointImpl(1.5, 2.5, JtsSpatialContext.GEO));
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("o", inner);
+        map.put("arr", Arrays.asList(Map.of("a", 1), null, List.of()));
+        map.put("objects", new Object[] { "a", 1 });
+        map.put("doubles", new double[] { 1.0, 2.0 });
+        map.put("floats", new float[] { 1.1f });
+        map.put("after", "value");
+        assertSameTokensAsJson(map);
+    }
+
+    @Test
+    public void test_skip_children_skips_nested_values() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("o", Map.of("a", List.of(Map.of("b", 1))));
+        map.put("after", 1);
+        XContentParser parser = new MapXContentParser(
+            NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, map);
+        assertThat(parser.nextToken(), is(XContentParser.Token.START_OBJECT));
+        assertThat(parser.nextToken(), is(XContentParser.Token.FIELD_NAME));
+        assertThat(parser.nextToken(), is(XContentParser.Token.START_OBJECT));
+        parser.skipChildren();
+        assertThat(parser.currentToken(), is(XContentParser.Token.END_OBJECT));
+        assertThat(parser.nextToken(), is(XContentParser.Token.FIELD_NAME));
+        assertThat(parser.currentName(), is("after"));
+    }
+
+    @Test
+    public void test_supports_only_values_with_known_json_representation() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", List.of(1, "b", Map.of("c", 1.0)));
+        assertThat(MapXContentParser.supports(map), is(true));
+
+        map.put("p", Period.days(1));
+        assertThat(MapXContentParser.supports(map), is(false));
+    }
+}